@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.filters.core.tests.perf;
+
+import static org.junit.Assert.assertNotNull;
+
+import java.io.IOException;
+import java.util.Objects;
+
+import org.eclipse.test.performance.Dimension;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+import org.eclipse.tracecompass.incubator.filters.core.tests.environment.TestEnvironment;
+import org.junit.Test;
+
+/**
+ * Measures the latency of the filter language server for long filter
+ * expressions, with the real client and server connected in-process. The
+ * latency goes from the change of the filter string to the reception of the
+ * diagnostics, completions and colors by the client.
+ */
+public class FilterServerLatencyBenchmark {
+
+    /**
+     * Test test ID for the filter server benchmarks
+     */
+    public static final String TEST_ID = "org.eclipse.tracecompass.incubator#Filter server#";
+
+    private static final String URI = "Benchmark";
+    private static final int LOOP_COUNT = 20;
+    private static final int NB_CLAUSES = 200;
+    private static final int NB_EDITS = 50;
+
+    private static String createFilter(int nbClauses) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < nbClauses; i++) {
+            if (i > 0) {
+                builder.append((i % 2 == 0) ? " && " : " || ");
+            }
+            builder.append("(Field").append(i).append(" == ").append(i).append(" || Name").append(i).append(" matches Value").append(i).append(')');
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Measure the latency of a single change of a long filter
+     *
+     * @throws IOException
+     *             If the environment cannot be created
+     * @throws InterruptedException
+     *             If the wait is interrupted
+     */
+    @Test
+    public void singleChange() throws IOException, InterruptedException {
+        Performance perf = Performance.getDefault();
+        PerformanceMeter pm = Objects.requireNonNull(perf.createPerformanceMeter(TEST_ID + "Single change"));
+        perf.tagAsSummary(pm, "Filter server: change of a " + NB_CLAUSES + " clauses filter", Dimension.ELAPSED_PROCESS);
+
+        String filter = createFilter(NB_CLAUSES);
+        for (int i = 0; i < LOOP_COUNT; i++) {
+            // didOpen, didChange, publishDiagnostics, completion, documentColor
+            TestEnvironment environment = new TestEnvironment(5);
+            environment.getClient().getLanguageClient().tellDidOpen(URI);
+            pm.start();
+            environment.getClient().getLanguageClient().tellDidChange(URI, filter, filter.length());
+            environment.waitForTransactionToTerminate();
+            pm.stop();
+            assertNotNull(environment.getTestConnector().getClientStub().fMockup.fDiagnosticsReceived);
+        }
+        pm.commit();
+    }
+
+    /**
+     * Measure the latency of a burst of changes, as when typing the end of a
+     * long filter. Only the last version should be validated.
+     *
+     * @throws IOException
+     *             If the environment cannot be created
+     * @throws InterruptedException
+     *             If the wait is interrupted
+     */
+    @Test
+    public void burstOfChanges() throws IOException, InterruptedException {
+        Performance perf = Performance.getDefault();
+        PerformanceMeter pm = Objects.requireNonNull(perf.createPerformanceMeter(TEST_ID + "Burst of changes"));
+        perf.tagAsSummary(pm, "Filter server: " + NB_EDITS + " changes of a " + NB_CLAUSES + " clauses filter", Dimension.ELAPSED_PROCESS);
+
+        String filter = createFilter(NB_CLAUSES);
+        for (int i = 0; i < LOOP_COUNT; i++) {
+            // didOpen, the didChanges, then one publishDiagnostics, completion and documentColor
+            TestEnvironment environment = new TestEnvironment(1 + NB_EDITS + 3);
+            environment.getClient().getLanguageClient().tellDidOpen(URI);
+            pm.start();
+            for (int edit = NB_EDITS - 1; edit >= 0; edit--) {
+                String input = filter.substring(0, filter.length() - edit);
+                environment.getClient().getLanguageClient().tellDidChange(URI, input, input.length());
+            }
+            environment.waitForTransactionToTerminate();
+            pm.stop();
+            assertNotNull(environment.getTestConnector().getClientStub().fMockup.fDiagnosticsReceived);
+        }
+        pm.commit();
+    }
+}
@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.filters.core.tests.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.antlr.runtime.CommonToken;
+import org.antlr.runtime.RecognitionException;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.tracecompass.incubator.internal.filters.core.server.AutoCompletion;
+import org.eclipse.tracecompass.incubator.internal.filters.core.server.FilterValidation;
+import org.eclipse.tracecompass.incubator.internal.filters.core.server.ParsedFilter;
+import org.eclipse.tracecompass.incubator.internal.filters.core.server.SyntaxHighlighting;
+import org.junit.Test;
+
+/**
+ * Tests the parsed filter shared by the validation, the syntax highlighting and
+ * the auto-completion
+ */
+public class ParsedFilterTest {
+
+    private static List<String> getTexts(List<CommonToken> tokens) {
+        List<String> texts = new ArrayList<>();
+        for (CommonToken token : tokens) {
+            texts.add(token.getText());
+        }
+        return texts;
+    }
+
+    /**
+     * Test the tokens of a valid filter
+     */
+    @Test
+    public void testTokens() {
+        ParsedFilter parsedFilter = new ParsedFilter("TID == 42 || Poly matches Ericsson");
+        assertNull(parsedFilter.getParseError());
+        assertNotNull(parsedFilter.getTree());
+        assertEquals(List.of("TID", "==", "42", "||", "Poly", "matches", "Ericsson"), getTexts(parsedFilter.getTokens()));
+    }
+
+    /**
+     * Test the tokens around an offset between two tokens
+     */
+    @Test
+    public void testTokensAroundSpace() {
+        ParsedFilter parsedFilter = new ParsedFilter("TID == 42 || Poly");
+        assertEquals(List.of("TID", "=="), getTexts(parsedFilter.getTokensBefore(6)));
+        assertEquals(List.of("42", "||", "Poly"), getTexts(parsedFilter.getTokensAfter(6)));
+    }
+
+    /**
+     * Test the tokens around an offset in the middle of a token, the token is
+     * split as if the strings before and after the offset were lexed
+     */
+    @Test
+    public void testTokensInsideToken() {
+        ParsedFilter parsedFilter = new ParsedFilter("TID == 42 || Poly");
+        assertEquals(List.of("TID", "==", "42", "||", "Po"), getTexts(parsedFilter.getTokensBefore(15)));
+        assertEquals(List.of("ly"), getTexts(parsedFilter.getTokensAfter(15)));
+        assertEquals(List.of("TID", "==", "42", "||", "Poly"), getTexts(parsedFilter.getTokensBefore(17)));
+        assertEquals(List.of(), getTexts(parsedFilter.getTokensAfter(17)));
+    }
+
+    /**
+     * Test that the completion of a parsed filter formats the suggestions with
+     * one space between each token
+     */
+    @Test
+    public void testCompletion() {
+        ParsedFilter parsedFilter = new ParsedFilter("TID==42");
+        List<String> suggestions = AutoCompletion.autoCompletion(parsedFilter, new Position(0, 7));
+        assertEquals(List.of("TID == 42 && ", "TID == 42 || "), suggestions);
+
+        parsedFilter = new ParsedFilter("Poly");
+        suggestions = AutoCompletion.autoCompletion(parsedFilter, new Position(0, 2));
+        assertEquals(9, suggestions.size());
+        assertEquals("Po && ly ", suggestions.get(0));
+        assertEquals("Po present ly ", suggestions.get(8));
+    }
+
+    /**
+     * Test that the validation and the highlighting of a same parsed filter
+     * give the same results as with the string
+     *
+     * @throws RecognitionException
+     *             If the string cannot be parsed
+     */
+    @Test
+    public void testSharedParse() throws RecognitionException {
+        String str = "TID == 42 && PID";
+        ParsedFilter parsedFilter = new ParsedFilter(str);
+        assertEquals(FilterValidation.validate(str).size(), FilterValidation.validate(parsedFilter).size());
+        assertEquals(SyntaxHighlighting.getColorInformationList(str), SyntaxHighlighting.getColorInformationList(parsedFilter));
+    }
+}
@@ -12,15 +12,10 @@
 package org.eclipse.tracecompass.incubator.internal.filters.core.server;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
-
-import org.antlr.runtime.ANTLRInputStream;
 import org.antlr.runtime.CommonToken;
-import org.antlr.runtime.CommonTokenStream;
-import org.antlr.runtime.RecognitionException;
 import org.eclipse.lsp4j.Position;
 import org.eclipse.tracecompass.tmf.filter.parser.FilterParserLexer;
 
@@ -46,38 +41,37 @@ public class AutoCompletion {
      * @param cursor
      *            is the current position in the string
      * @return List of suggestions as string
-     * @throws IOException
-     *             can be thrown by ByteArrayInputStream
+     */
+    static public List<String> autoCompletion(String str, Position cursor) {
+        return autoCompletion(new ParsedFilter(str), cursor);
+    }
+
+    /**
+     * Proposes suggestions for an already parsed string based on the cursor
+     * position
+     *
+     * @param parsedFilter
+     *            is the parsed content of the filter box
+     * @param cursor
+     *            is the current position in the string
+     * @return List of suggestions as string
      */
     @SuppressWarnings("restriction") // Suppress restriction on ANTLR
                                      // FilterParser*
-    static public List<String> autoCompletion(String str, Position cursor) throws IOException {
+    static public List<String> autoCompletion(ParsedFilter parsedFilter, Position cursor) {
 
-        String subString = str.substring(0, cursor.getCharacter());
-        String endString = str.substring(cursor.getCharacter(), str.length());
+        String str = parsedFilter.getText();
+        int offset = Math.min(Math.max(cursor.getCharacter(), 0), str.length());
         List<String> suggestions = new ArrayList<>();
 
-        // Initialize the lexerParser, parse str and return list of CommonToken
-        ByteArrayInputStream input = new ByteArrayInputStream(subString.getBytes());
-        ANTLRInputStream antlrStream = new ANTLRInputStream(input);
-        FilterParserLexer lexer = new FilterParserLexer(antlrStream);
-        ArrayList<RecognitionException> lexerExceptions = new ArrayList<>();
-        lexer.setErrorListener(e -> {
-            lexerExceptions.add((RecognitionException) e);
-        });
-        CommonTokenStream tokenStream = new CommonTokenStream(lexer);
-
-        List<CommonToken> commonTokens = tokenStream.getTokens();
+        // Tokens of the string before the cursor
+        List<CommonToken> commonTokens = parsedFilter.getTokensBefore(offset);
         if (commonTokens.isEmpty()) {
             return suggestions;
         }
 
-        CommonToken lastToken = null;
-        int lastType = -1;
-        if (!commonTokens.isEmpty()) {
-            lastToken = commonTokens.get(commonTokens.size() - 1);
-            lastType = lastToken.getType();
-        }
+        CommonToken lastToken = commonTokens.get(commonTokens.size() - 1);
+        int lastType = lastToken.getType();
 
         CommonToken beforeLastToken = null;
         int beforeLastType = -1;
@@ -86,46 +80,42 @@ public class AutoCompletion {
             beforeLastType = beforeLastToken.getType();
         }
 
-        if (lastToken != null && lastType == FilterParserLexer.TEXT) {
+        List<String> inserted = new ArrayList<>();
+        if (lastType == FilterParserLexer.TEXT) {
             // separator
-            for (int i = 0; i < SEPARATORS.length; i++) {
-                suggestions.add(new String(subString + " " + SEPARATORS[i] + " " + endString)); //$NON-NLS-1$ //$NON-NLS-2$
-            }
+            inserted.addAll(Arrays.asList(SEPARATORS));
             if (beforeLastToken == null || beforeLastType != FilterParserLexer.OP) {
                 // operators
-                for (int i = 0; i < OPERATORS.length; i++) {
-                    suggestions.add(new String(subString + " " + OPERATORS[i] + " " + endString)); //$NON-NLS-1$ //$NON-NLS-2$
-                }
+                inserted.addAll(Arrays.asList(OPERATORS));
             }
         }
-        if (lastToken != null && lastType == FilterParserLexer.T__23) {
+        if (lastType == FilterParserLexer.T__23) {
             // separators
-            for (int i = 0; i < SEPARATORS.length; i++) {
-                suggestions.add(new String(subString + " " + SEPARATORS[i] + " " + endString)); //$NON-NLS-1$//$NON-NLS-2$
-            }
+            inserted.addAll(Arrays.asList(SEPARATORS));
         }
-
-        // format output so there is one space between each token
-        for (int i = 0; i < suggestions.size(); i++) {
-            input = new ByteArrayInputStream(suggestions.get(i).getBytes());
-            antlrStream = new ANTLRInputStream(input);
-            lexer = new FilterParserLexer(antlrStream);
-            tokenStream = new CommonTokenStream(lexer);
-            lexer.setErrorListener(e -> {
-                lexerExceptions.add((RecognitionException) e);
-            });
-
-            commonTokens = tokenStream.getTokens();
-
-            StringBuilder suggestion = new StringBuilder();
-
-            for (int j = 0; j < commonTokens.size(); j++) {
-                suggestion.append(commonTokens.get(j).getText() + " "); //$NON-NLS-1$
-            }
-            suggestions.set(i, suggestion.toString());
+        if (inserted.isEmpty()) {
+            return suggestions;
         }
 
+        /*
+         * Format the output so there is one space between each token. The
+         * tokens around the cursor are already known, so the suggestions do not
+         * need to be lexed again.
+         */
+        String before = join(commonTokens);
+        String after = join(parsedFilter.getTokensAfter(offset));
+        for (String token : inserted) {
+            suggestions.add(before + token + " " + after); //$NON-NLS-1$
+        }
         return suggestions;
     }
 
+    private static String join(List<CommonToken> tokens) {
+        StringBuilder builder = new StringBuilder();
+        for (CommonToken token : tokens) {
+            builder.append(token.getText()).append(' ');
+        }
+        return builder.toString();
+    }
+
 }
@@ -11,14 +11,17 @@
 
 package org.eclipse.tracecompass.incubator.internal.filters.core.server;
 
-import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.antlr.runtime.RecognitionException;
+import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.lsp4j.CodeAction;
 import org.eclipse.lsp4j.CodeActionParams;
 import org.eclipse.lsp4j.CodeLens;
@@ -73,9 +76,46 @@ import org.eclipse.tracecompass.incubator.internal.filters.core.Activator;
  */
 public class FilterBoxService implements TextDocumentService {
 
-    private Map<String, String> fFiltersInputs;
+    /**
+     * Delay in milliseconds before validating a changed input, so that rapid
+     * edits are coalesced and only the latest version is validated
+     */
+    public static final long VALIDATION_DELAY = 50;
+
+    // Validations of all the services, they are short so a few threads suffice
+    private static final ScheduledExecutorService VALIDATION_EXECUTOR = Executors.newScheduledThreadPool(
+            Math.max(1, Runtime.getRuntime().availableProcessors() / 2),
+            runnable -> {
+                Thread thread = new Thread(runnable, "Filter validation"); //$NON-NLS-1$
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private final Map<String, FilterInput> fFiltersInputs;
     private final LanguageFilterServer fLSPServer;
 
+    /**
+     * One version of the input of a filter box, parsed the first time it is
+     * needed by the validation, the highlighting or the completion
+     */
+    private static class FilterInput {
+        private final String fText;
+        private @Nullable ParsedFilter fParsedFilter = null;
+
+        public FilterInput(String text) {
+            fText = text;
+        }
+
+        public synchronized ParsedFilter getParsedFilter() {
+            ParsedFilter parsedFilter = fParsedFilter;
+            if (parsedFilter == null) {
+                parsedFilter = new ParsedFilter(fText);
+                fParsedFilter = parsedFilter;
+            }
+            return parsedFilter;
+        }
+    }
+
     /**
      * Constructor for the filterBoxService
      *
@@ -83,7 +123,7 @@ public class FilterBoxService implements TextDocumentService {
      *            is a language filter server
      */
     protected FilterBoxService(LanguageFilterServer server) {
-        fFiltersInputs = new HashMap<>();
+        fFiltersInputs = new ConcurrentHashMap<>();
         fLSPServer = server;
     }
 
@@ -97,24 +137,20 @@ public class FilterBoxService implements TextDocumentService {
     public CompletableFuture<Either<List<CompletionItem>, CompletionList>> completion(CompletionParams completionParams) {
 
         List<CompletionItem> completions = new ArrayList<>();
-        try {
-            String uri = completionParams.getTextDocument().getUri();
-            String input = fFiltersInputs.get(uri);
-            if (input == null) {
-                return CompletableFuture.completedFuture(Either.forLeft(completions));
-            }
-            Position cursor = completionParams.getPosition();
-            List<String> suggestions = AutoCompletion.autoCompletion(input, cursor);
-            for (int i = 0; i < suggestions.size(); i++) {
-                Position start = new Position(0, 0);
-                Position end = new Position(0, input.length());
-                CompletionItem item = new CompletionItem();
-                TextEdit textEdit = new TextEdit(new Range(start, end), suggestions.get(i));
-                item.setTextEdit(Either.forLeft(textEdit));
-                completions.add(item);
-            }
-        } catch (IOException error) {
-            Activator.getInstance().logError(error.getMessage());
+        String uri = completionParams.getTextDocument().getUri();
+        FilterInput input = fFiltersInputs.get(uri);
+        if (input == null) {
+            return CompletableFuture.completedFuture(Either.forLeft(completions));
+        }
+        Position cursor = completionParams.getPosition();
+        List<String> suggestions = AutoCompletion.autoCompletion(input.getParsedFilter(), cursor);
+        for (int i = 0; i < suggestions.size(); i++) {
+            Position start = new Position(0, 0);
+            Position end = new Position(0, input.fText.length());
+            CompletionItem item = new CompletionItem();
+            TextEdit textEdit = new TextEdit(new Range(start, end), suggestions.get(i));
+            item.setTextEdit(Either.forLeft(textEdit));
+            completions.add(item);
         }
         return CompletableFuture.completedFuture(Either.forLeft(completions));
     }
@@ -160,15 +196,13 @@ public class FilterBoxService implements TextDocumentService {
      */
     @Override
     public CompletableFuture<List<ColorInformation>> documentColor(DocumentColorParams params) {
-        try {
-            String uri = params.getTextDocument().getUri();
-            String input = fFiltersInputs.get(uri);
-            List<ColorInformation> colorInformation = SyntaxHighlighting.getColorInformationList(input);
-            return CompletableFuture.completedFuture(colorInformation);
-        } catch (IOException error) {
-            Activator.getInstance().logError(error.getMessage());
+        String uri = params.getTextDocument().getUri();
+        FilterInput input = fFiltersInputs.get(uri);
+        if (input == null) {
             return CompletableFuture.completedFuture(null);
         }
+        List<ColorInformation> colorInformation = SyntaxHighlighting.getColorInformationList(input.getParsedFilter());
+        return CompletableFuture.completedFuture(colorInformation);
     }
 
     @Override
@@ -221,11 +255,13 @@ public class FilterBoxService implements TextDocumentService {
 
     @Override
     public void didOpen(DidOpenTextDocumentParams params) {
-        fFiltersInputs.put(params.getTextDocument().getUri(), ""); //$NON-NLS-1$
+        fFiltersInputs.put(params.getTextDocument().getUri(), new FilterInput("")); //$NON-NLS-1$
     }
 
     /**
-     * Check the string validity and sends a diagnostic to the client
+     * Check the string validity and sends a diagnostic to the client. The
+     * validation is delayed by {@link #VALIDATION_DELAY}, and skipped if the
+     * input changed again in the meantime.
      *
      * @param params
      *            contains the changes to the string input
@@ -237,17 +273,25 @@ public class FilterBoxService implements TextDocumentService {
         if (contentChange == null) {
             throw new NullPointerException("Event change param cannot be null"); //$NON-NLS-1$
         }
-        String input = params.getContentChanges().get(0).getText();
+        FilterInput input = new FilterInput(params.getContentChanges().get(0).getText());
         fFiltersInputs.put(uri, input);
+        VALIDATION_EXECUTOR.schedule(() -> validate(uri, input), VALIDATION_DELAY, TimeUnit.MILLISECONDS);
+    }
+
+    private void validate(String uri, FilterInput input) {
+        if (fFiltersInputs.get(uri) != input) {
+            // A more recent version will be validated
+            return;
+        }
         try {
-            List<Diagnostic> diagnostics = FilterValidation.validate(input);
+            List<Diagnostic> diagnostics = FilterValidation.validate(input.getParsedFilter());
             PublishDiagnosticsParams pd = new PublishDiagnosticsParams(uri, diagnostics);
             pd.setDiagnostics(diagnostics);
             LanguageClient client = fLSPServer.getClient();
             if (client != null) {
                 client.publishDiagnostics(pd);
             }
-        } catch (RecognitionException | IOException error) {
+        } catch (RecognitionException error) {
             Activator.getInstance().logError(error.getMessage());
         }
     }
@@ -11,16 +11,12 @@
 
 package org.eclipse.tracecompass.incubator.internal.filters.core.server;
 
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.Stack;
 
-import org.antlr.runtime.ANTLRInputStream;
-import org.antlr.runtime.CommonTokenStream;
 import org.antlr.runtime.EarlyExitException;
 import org.antlr.runtime.MismatchedNotSetException;
 import org.antlr.runtime.MismatchedRangeException;
@@ -35,7 +31,6 @@ import org.eclipse.lsp4j.Position;
 import org.eclipse.lsp4j.Range;
 import org.eclipse.tracecompass.tmf.filter.parser.FilterParserLexer;
 import org.eclipse.tracecompass.tmf.filter.parser.FilterParserParser;
-import org.eclipse.tracecompass.tmf.filter.parser.FilterParserParser.parse_return;
 
 /**
  * Validates the user input with antlr and detects where the errors are in the
@@ -92,43 +87,45 @@ public class FilterValidation {
      *            is the content of the filter box
      * @return diagnostics is a list containing all the errors found by the
      *         parser and lexer
-     * @throws IOException
-     *             from the InputStream
      * @throws RecognitionException
      *             from the ANTLR parser or lexer
      */
-    @SuppressWarnings("restriction")
-    public static List<Diagnostic> validate(String str) throws IOException, RecognitionException {
-        // Initialize the lexerParser, parse str and return list of CommonToken
-        ByteArrayInputStream input = new ByteArrayInputStream(str.getBytes());
-        ANTLRInputStream antlrStream = new ANTLRInputStream(input);
-
-        FilterParserLexer lexer = new FilterParserLexer(antlrStream);
-        ArrayList<RecognitionException> lexerExceptions = new ArrayList<>();
-        lexer.setErrorListener(e -> {
-            lexerExceptions.add((RecognitionException) e);
-        });
-        CommonTokenStream tokenStream = new CommonTokenStream(lexer);
-
-        FilterParserParser parser = new FilterParserParser(tokenStream);
-        ArrayList<RecognitionException> parserExceptions = new ArrayList<>();
-        parser.setErrorListener(e -> {
-            parserExceptions.add((RecognitionException) e);
-        });
+    public static List<Diagnostic> validate(String str) throws RecognitionException {
+        return validate(new ParsedFilter(str));
+    }
 
-        parse_return parse = parser.parse();
-        CommonTree tree = parse.getTree();
+    /**
+     * Detects all the errors in an already parsed filter string (if any) and
+     * return those as diagnostics
+     *
+     * @param parsedFilter
+     *            is the parsed content of the filter box
+     * @return diagnostics is a list containing all the errors found by the
+     *         parser and lexer
+     * @throws RecognitionException
+     *             from the ANTLR parser, if it could not parse the string
+     */
+    @SuppressWarnings("restriction")
+    public static List<Diagnostic> validate(ParsedFilter parsedFilter) throws RecognitionException {
+        RecognitionException parseError = parsedFilter.getParseError();
+        if (parseError != null) {
+            throw parseError;
+        }
+        String str = parsedFilter.getText();
+        CommonTree tree = parsedFilter.getTree();
+        FilterParserLexer lexer = parsedFilter.getLexer();
+        FilterParserParser parser = parsedFilter.getParser();
 
         List<Diagnostic> diagnostics = new ArrayList<>();
 
-        lexerExceptions.forEach(e -> {
+        parsedFilter.getLexerExceptions().forEach(e -> {
             String message = lexer.getErrorMessage(e, lexer.getTokenNames());
             Range range = getRangeFromException(e, str, tree);
             Diagnostic diagnostic = new Diagnostic(range, message);
             diagnostics.add(diagnostic);
         });
 
-        parserExceptions.forEach(e -> {
+        parsedFilter.getParserExceptions().forEach(e -> {
             String message = parser.getErrorMessage(e, parser.getTokenNames());
             Range range = getRangeFromException(e, str, tree);
             Diagnostic diagnostic = new Diagnostic(range, message);
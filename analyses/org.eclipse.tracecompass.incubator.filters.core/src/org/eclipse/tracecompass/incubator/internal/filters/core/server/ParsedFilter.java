@@ -0,0 +1,199 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.filters.core.server;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.antlr.runtime.ANTLRStringStream;
+import org.antlr.runtime.CommonToken;
+import org.antlr.runtime.CommonTokenStream;
+import org.antlr.runtime.RecognitionException;
+import org.antlr.runtime.tree.CommonTree;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.tmf.filter.parser.FilterParserLexer;
+import org.eclipse.tracecompass.tmf.filter.parser.FilterParserParser;
+
+/**
+ * The result of lexing and parsing one version of a filter string. The string
+ * is lexed and parsed once, and the tokens and tree are shared by the
+ * validation, the syntax highlighting and the auto-completion.
+ */
+@SuppressWarnings("restriction")
+public class ParsedFilter {
+
+    private final String fText;
+    private final FilterParserLexer fLexer;
+    private final FilterParserParser fParser;
+    private final List<RecognitionException> fLexerExceptions = new ArrayList<>();
+    private final List<RecognitionException> fParserExceptions = new ArrayList<>();
+    private final List<CommonToken> fTokens;
+    private @Nullable CommonTree fTree = null;
+    private @Nullable RecognitionException fParseError = null;
+
+    /**
+     * Constructor, lexes and parses the filter string
+     *
+     * @param text
+     *            the filter string
+     */
+    public ParsedFilter(String text) {
+        fText = text;
+        fLexer = new FilterParserLexer(new ANTLRStringStream(text));
+        fLexer.setErrorListener(e -> {
+            fLexerExceptions.add((RecognitionException) e);
+        });
+        CommonTokenStream tokenStream = new CommonTokenStream(fLexer);
+        fParser = new FilterParserParser(tokenStream);
+        fParser.setErrorListener(e -> {
+            fParserExceptions.add((RecognitionException) e);
+        });
+        try {
+            fTree = fParser.parse().getTree();
+        } catch (RecognitionException e) {
+            fParseError = e;
+        }
+        fTokens = getTokens(tokenStream);
+    }
+
+    /**
+     * Get the filter string
+     *
+     * @return the filter string
+     */
+    public String getText() {
+        return fText;
+    }
+
+    /**
+     * Get the tokens of the filter string
+     *
+     * @return the tokens
+     */
+    public List<CommonToken> getTokens() {
+        return Collections.unmodifiableList(fTokens);
+    }
+
+    /**
+     * Get the tokens of the filter string before an offset, as if only the
+     * string before this offset was lexed
+     *
+     * @param offset
+     *            the offset in the filter string
+     * @return the tokens before the offset
+     */
+    public List<CommonToken> getTokensBefore(int offset) {
+        List<CommonToken> tokens = new ArrayList<>();
+        for (CommonToken token : fTokens) {
+            if (token.getStopIndex() < offset) {
+                tokens.add(token);
+            } else {
+                if (token.getStartIndex() < offset) {
+                    // The token is cut by the offset, only lex the part before
+                    tokens.addAll(lex(fText.substring(token.getStartIndex(), offset)));
+                }
+                break;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Get the tokens of the filter string after an offset, as if only the
+     * string after this offset was lexed
+     *
+     * @param offset
+     *            the offset in the filter string
+     * @return the tokens after the offset
+     */
+    public List<CommonToken> getTokensAfter(int offset) {
+        List<CommonToken> tokens = new ArrayList<>();
+        for (CommonToken token : fTokens) {
+            if (token.getStartIndex() >= offset) {
+                tokens.add(token);
+            } else if (token.getStopIndex() >= offset) {
+                // The token is cut by the offset, only lex the part after
+                tokens.addAll(lex(fText.substring(offset, token.getStopIndex() + 1)));
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Get the tree of the filter expression
+     *
+     * @return the tree, or null if the parser failed
+     */
+    public @Nullable CommonTree getTree() {
+        return fTree;
+    }
+
+    /**
+     * Get the error that stopped the parser, if any
+     *
+     * @return the error, or null if the parser completed
+     */
+    public @Nullable RecognitionException getParseError() {
+        return fParseError;
+    }
+
+    /**
+     * Get the lexer that read the filter string, to format its errors
+     *
+     * @return the lexer
+     */
+    public FilterParserLexer getLexer() {
+        return fLexer;
+    }
+
+    /**
+     * Get the parser that read the filter string, to format its errors
+     *
+     * @return the parser
+     */
+    public FilterParserParser getParser() {
+        return fParser;
+    }
+
+    /**
+     * Get the errors reported by the lexer
+     *
+     * @return the lexer errors
+     */
+    public List<RecognitionException> getLexerExceptions() {
+        return Collections.unmodifiableList(fLexerExceptions);
+    }
+
+    /**
+     * Get the errors reported by the parser
+     *
+     * @return the parser errors
+     */
+    public List<RecognitionException> getParserExceptions() {
+        return Collections.unmodifiableList(fParserExceptions);
+    }
+
+    private static List<CommonToken> lex(String text) {
+        FilterParserLexer lexer = new FilterParserLexer(new ANTLRStringStream(text));
+        lexer.setErrorListener(e -> {
+            // do nothing
+        });
+        return getTokens(new CommonTokenStream(lexer));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<CommonToken> getTokens(CommonTokenStream tokenStream) {
+        List<CommonToken> tokens = tokenStream.getTokens();
+        return new ArrayList<>(tokens);
+    }
+}
@@ -11,14 +11,9 @@
 
 package org.eclipse.tracecompass.incubator.internal.filters.core.server;
 
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
-import org.antlr.runtime.ANTLRInputStream;
-import org.antlr.runtime.CommonToken;
-import org.antlr.runtime.CommonTokenStream;
 import org.eclipse.lsp4j.Color;
 import org.eclipse.lsp4j.ColorInformation;
 import org.eclipse.lsp4j.Position;
@@ -54,25 +49,23 @@ public class SyntaxHighlighting {
      *            input of the filter box
      *
      * @return colorInformation
-     * @throws IOException
-     *             from antlr
      */
-    @SuppressWarnings("restriction")
-    static public List<ColorInformation> getColorInformationList(String str) throws IOException {
-
-        // Initialise the lexerParser, parse str and return list of CommonToken
-        ByteArrayInputStream input = new ByteArrayInputStream(str.getBytes());
-        ANTLRInputStream antlrStream = new ANTLRInputStream(input);
-        FilterParserLexer lexer = new FilterParserLexer(antlrStream);
-        lexer.setErrorListener(e -> {
-            // do nothing
-        });
-        CommonTokenStream tokenStream = new CommonTokenStream(lexer);
-        List<CommonToken> commonTokenList = tokenStream.getTokens();
+    static public List<ColorInformation> getColorInformationList(String str) {
+        return getColorInformationList(new ParsedFilter(str));
+    }
 
-        // From commonTokens
-        List<ColorInformation> colorInformations = new LinkedList<>();
-        commonTokenList.forEach(commonToken -> {
+    /**
+     * Assigns a color information for all tokens of an already parsed string
+     * based on their type
+     *
+     * @param parsedFilter
+     *            parsed input of the filter box
+     *
+     * @return colorInformation
+     */
+    static public List<ColorInformation> getColorInformationList(ParsedFilter parsedFilter) {
+        List<ColorInformation> colorInformations = new ArrayList<>();
+        parsedFilter.getTokens().forEach(commonToken -> {
             Position start = new Position(commonToken.getLine(), commonToken.getStartIndex());
             Position end = new Position(commonToken.getLine(), commonToken.getStopIndex());
             Range range = new Range(start, end);
@@ -89,6 +82,7 @@ public class SyntaxHighlighting {
      * @param index
      * @return Color
      */
+    @SuppressWarnings("restriction")
     private static Color getColor(int type) {
         switch (type) {
         case FilterParserLexer.OP:
@@ -11,12 +11,15 @@
 
 package org.eclipse.tracecompass.incubator.internal.lttng2.ust.extras.core.pthread;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.regex.Pattern;
 
 import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.analysis.graph.core.building.AbstractTraceEventHandler;
 import org.eclipse.tracecompass.analysis.graph.core.building.ITraceEventHandler;
 import org.eclipse.tracecompass.analysis.graph.core.graph.ITmfGraph;
@@ -30,11 +33,9 @@ import org.eclipse.tracecompass.analysis.os.linux.core.model.ProcessStatus;
 import org.eclipse.tracecompass.internal.analysis.graph.core.graph.legacy.OSEdgeContextState;
 import org.eclipse.tracecompass.internal.analysis.graph.core.graph.legacy.OSEdgeContextState.OSEdgeContextEnum;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
 import org.eclipse.tracecompass.tmf.core.trace.TmfTraceUtils;
 
-import com.google.common.collect.HashBasedTable;
-import com.google.common.collect.Table;
-
 /**
  * An execution graph handler handling the userspace pthread spin lock events
  * and adding the proper links in the graph.
@@ -48,6 +49,13 @@ public class PThreadLockGraphHandler extends AbstractTraceEventHandler {
     private static final Pattern REQUEST_LOCK_EVENT = Pattern.compile("lttng_ust_pthread:pthread_.*_lock_req"); //$NON-NLS-1$
     private static final String MUTEX_FIELD = "mutex"; //$NON-NLS-1$
 
+    private enum LockEventType {
+        UNLOCK,
+        REQUEST_LOCK,
+        ACQUIRE_LOCK,
+        OTHER
+    }
+
     private static class LastLockOwner {
         public final Integer fTid;
         public final ITmfVertex fVertex;
@@ -65,10 +73,20 @@ public class PThreadLockGraphHandler extends AbstractTraceEventHandler {
     }
 
     private final OsExecutionGraphProvider fProvider;
-    /** tid, mutex ID, vertex of the last lock request */
-    private final Table<Integer, Long, ITmfVertex> fLastRequest;
-    /** mutex ID, last lock owner */
+    /**
+     * mutex ID, tid, vertex of the pending lock requests. A request is removed
+     * when the lock is acquired, and a mutex when it has no pending request.
+     */
+    private final Map<Long, Map<Integer, ITmfVertex>> fLastRequest = new HashMap<>();
+    /**
+     * mutex ID, last lock owner. The owner is only kept while other threads
+     * wait for the lock, as it can only block the pending requests.
+     */
     private final Map<Long, LastLockOwner> fLastLockOwner = new HashMap<>();
+    /** The type of each event name, so the patterns are matched once per name */
+    private final Map<String, LockEventType> fEventTypes = new HashMap<>();
+    /** The TID aspects of each trace */
+    private final Map<ITmfTrace, List<LinuxTidAspect>> fTidAspects = new HashMap<>();
 
     /**
      * Constructor
@@ -81,7 +99,6 @@ public class PThreadLockGraphHandler extends AbstractTraceEventHandler {
     public PThreadLockGraphHandler(OsExecutionGraphProvider provider, int priority) {
         super(priority);
         fProvider = provider;
-        fLastRequest = HashBasedTable.create();
     }
 
     /**
@@ -110,18 +127,50 @@ public class PThreadLockGraphHandler extends AbstractTraceEventHandler {
 
     @Override
     public void handleEvent(ITmfEvent event) {
-        String name = event.getName();
-        if (UNLOCK_EVENT.matcher(name).matches()) {
+        switch (fEventTypes.computeIfAbsent(event.getName(), PThreadLockGraphHandler::getEventType)) {
+        case UNLOCK:
             handleUnlockEvent(event);
-        } else if (REQUEST_LOCK_EVENT.matcher(name).matches()) {
+            break;
+        case REQUEST_LOCK:
             handleRequestLockEvent(event);
-        } else if (ACQUIRE_LOCK_EVENT.matcher(name).matches()) {
+            break;
+        case ACQUIRE_LOCK:
             handleAcquireLockEvent(event);
+            break;
+        case OTHER:
+        default:
+            break;
         }
     }
 
+    private static LockEventType getEventType(String name) {
+        if (UNLOCK_EVENT.matcher(name).matches()) {
+            return LockEventType.UNLOCK;
+        } else if (REQUEST_LOCK_EVENT.matcher(name).matches()) {
+            return LockEventType.REQUEST_LOCK;
+        } else if (ACQUIRE_LOCK_EVENT.matcher(name).matches()) {
+            return LockEventType.ACQUIRE_LOCK;
+        }
+        return LockEventType.OTHER;
+    }
+
+    private @Nullable Integer getTid(ITmfEvent event) {
+        List<LinuxTidAspect> aspects = fTidAspects.computeIfAbsent(event.getTrace(), trace -> {
+            List<LinuxTidAspect> list = new ArrayList<>();
+            TmfTraceUtils.getEventAspects(trace, LinuxTidAspect.class).forEach(list::add);
+            return list;
+        });
+        for (LinuxTidAspect aspect : aspects) {
+            Integer tid = aspect.resolve(event);
+            if (tid != null) {
+                return tid;
+            }
+        }
+        return null;
+    }
+
     private void handleAcquireLockEvent(ITmfEvent event) {
-        Integer tid = TmfTraceUtils.resolveIntEventAspectOfClassForEvent(event.getTrace(), LinuxTidAspect.class, event);
+        Integer tid = getTid(event);
         if (tid == null) {
             return;
         }
@@ -131,15 +180,20 @@ public class PThreadLockGraphHandler extends AbstractTraceEventHandler {
         }
         OsWorker worker = getOrCreateKernelWorker(event, tid);
 
-        // Get the vertex for the last request
-        ITmfVertex lastReqVertex = fLastRequest.get(tid, fieldValue);
-        if (lastReqVertex == null) {
+        // Get and release the vertex for the last request
+        Map<Integer, ITmfVertex> requests = fLastRequest.get(fieldValue);
+        ITmfVertex lastReqVertex = (requests == null) ? null : requests.remove(tid);
+        if (requests == null || lastReqVertex == null) {
             return;
         }
 
-        // Get the last lock owner
+        // Get the last lock owner, it is not needed anymore if no other thread waits for the lock
         LastLockOwner lastOwner = fLastLockOwner.get(fieldValue);
-        if (lastOwner != null && lastOwner.fTid != tid && lastOwner.fVertex.getTimestamp() > lastReqVertex.getTimestamp()) {
+        if (requests.isEmpty()) {
+            fLastRequest.remove(fieldValue);
+            fLastLockOwner.remove(fieldValue);
+        }
+        if (lastOwner != null && !lastOwner.fTid.equals(tid) && lastOwner.fVertex.getTimestamp() > lastReqVertex.getTimestamp()) {
             // This thread has been blocked, add the proper vertices and links
             ITmfGraph graph = Objects.requireNonNull(fProvider.getGraph());
 
@@ -156,7 +210,7 @@ public class PThreadLockGraphHandler extends AbstractTraceEventHandler {
     }
 
     private void handleRequestLockEvent(ITmfEvent event) {
-        Integer tid = TmfTraceUtils.resolveIntEventAspectOfClassForEvent(event.getTrace(), LinuxTidAspect.class, event);
+        Integer tid = getTid(event);
         if (tid == null) {
             return;
         }
@@ -171,11 +225,11 @@ public class PThreadLockGraphHandler extends AbstractTraceEventHandler {
         // Don't add a state change to the worker just yet, let's keep the previous state until we know it's being blocked
         ITmfVertex vertex = graph.createVertex(worker, event.getTimestamp().toNanos());
         //TmfVertex stateChange = stateChange(worker, event.getTimestamp().toNanos(), EdgeType.RUNNING);
-        fLastRequest.put(tid, fieldValue, vertex);
+        fLastRequest.computeIfAbsent(fieldValue, m -> new HashMap<>()).put(tid, vertex);
     }
 
     private void handleUnlockEvent(ITmfEvent event) {
-        Integer tid = TmfTraceUtils.resolveIntEventAspectOfClassForEvent(event.getTrace(), LinuxTidAspect.class, event);
+        Integer tid = getTid(event);
         if (tid == null) {
             return;
         }
@@ -189,7 +243,12 @@ public class PThreadLockGraphHandler extends AbstractTraceEventHandler {
         ITmfGraph graph = Objects.requireNonNull(fProvider.getGraph());
         ITmfVertex vertex = graph.createVertex(worker, event.getTimestamp().toNanos());
         graph.append(vertex, new OSEdgeContextState(OSEdgeContextEnum.RUNNING));
-        fLastLockOwner.put(fieldValue, new LastLockOwner(tid, vertex));
+        // Only the threads already waiting for the lock can be unblocked by this owner
+        if (fLastRequest.containsKey(fieldValue)) {
+            fLastLockOwner.put(fieldValue, new LastLockOwner(tid, vertex));
+        } else {
+            fLastLockOwner.remove(fieldValue);
+        }
     }
 
 }
@@ -0,0 +1,184 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.overhead.core.tests.perf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Objects;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.test.performance.Dimension;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+import org.eclipse.tracecompass.incubator.internal.overhead.core.analysis.KvmExitAnalysisModule;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
+import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
+import org.eclipse.tracecompass.tmf.core.event.TmfEvent;
+import org.eclipse.tracecompass.tmf.core.exceptions.TmfAnalysisException;
+import org.eclipse.tracecompass.tmf.core.exceptions.TmfTraceException;
+import org.eclipse.tracecompass.tmf.core.signal.TmfTraceOpenedSignal;
+import org.eclipse.tracecompass.tmf.core.tests.shared.TmfTestHelper;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTraceManager;
+import org.eclipse.tracecompass.tmf.tests.stubs.trace.xml.TmfXmlTraceStub;
+import org.eclipse.tracecompass.tmf.tests.stubs.trace.xml.TmfXmlTraceStubNs;
+import org.junit.Test;
+
+/**
+ * Compares the build time and the size of the history of the KVM exit
+ * analysis, with the exit counters written on every exit and accumulated in
+ * time buckets, on a synthetic trace with a high exit rate
+ */
+public class KvmExitEncodingBenchmark {
+
+    /**
+     * Test test ID for the KVM exit benchmarks
+     */
+    public static final String TEST_ID = "org.eclipse.tracecompass.incubator#KVM exit counters#";
+
+    private static final int LOOP_COUNT = 5;
+    private static final int NB_EXITS = 200_000;
+    private static final int NB_VCPUS = 8;
+    private static final int NB_REASONS = 16;
+    /** 2 million exits per second */
+    private static final long EXIT_PERIOD = 500;
+    private static final long EXIT_DURATION = 200;
+
+    private static File createTrace() throws IOException {
+        File file = File.createTempFile("kvmExits", ".xml");
+        try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            writer.write("<trace>\n");
+            for (int i = 0; i < NB_EXITS; i++) {
+                long timestamp = i * EXIT_PERIOD;
+                int vcpu = i % NB_VCPUS;
+                writer.write("<event timestamp=\"" + timestamp + "\" name=\"kvm_x86_exit\">\n");
+                writer.write("<field name=\"context.cpu_id\" type=\"int\" value=\"" + vcpu + "\" />\n");
+                writer.write("<field name=\"vcpu_id\" type=\"int\" value=\"" + vcpu + "\" />\n");
+                writer.write("<field name=\"exit_reason\" type=\"int\" value=\"" + (i * 7) % NB_REASONS + "\" />\n");
+                writer.write("</event>\n");
+                writer.write("<event timestamp=\"" + (timestamp + EXIT_DURATION) + "\" name=\"kvm_x86_entry\">\n");
+                writer.write("<field name=\"context.cpu_id\" type=\"int\" value=\"" + vcpu + "\" />\n");
+                writer.write("</event>\n");
+            }
+            writer.write("</trace>\n");
+        }
+        return file;
+    }
+
+    /**
+     * Benchmark the analysis with the exit counters written on every exit
+     *
+     * @throws IOException
+     *             If the trace cannot be created
+     */
+    @Test
+    public void perExitCounters() throws IOException {
+        runBenchmark("Per exit", 0);
+    }
+
+    /**
+     * Benchmark the analysis with the exit counts accumulated in buckets of
+     * the default width
+     *
+     * @throws IOException
+     *             If the trace cannot be created
+     */
+    @Test
+    public void bucketedCounters() throws IOException {
+        runBenchmark("Bucketed", KvmExitAnalysisModule.DEFAULT_BUCKET_WIDTH);
+    }
+
+    private void runBenchmark(String name, long bucketWidth) throws IOException {
+        Performance perf = Performance.getDefault();
+        PerformanceMeter pm = Objects.requireNonNull(perf.createPerformanceMeter(TEST_ID + name));
+        perf.tagAsSummary(pm, "KVM exit counters: " + name + " build", Dimension.CPU_TIME);
+
+        File file = createTrace();
+        TmfXmlTraceStub trace = new TmfXmlTraceStubNs();
+        try {
+            IStatus status = trace.validate(null, file.getAbsolutePath());
+            if (!status.isOK()) {
+                fail(status.getException().getMessage());
+            }
+            trace.initTrace(null, file.getAbsolutePath(), TmfEvent.class);
+            trace.traceOpened(new TmfTraceOpenedSignal(this, trace, null));
+
+            long historySize = 0;
+            for (int i = 0; i < LOOP_COUNT; i++) {
+                historySize = buildHistory(trace, bucketWidth, pm);
+            }
+            pm.commit();
+            if (bucketWidth > 0) {
+                // The buckets must make the history smaller than writing the counters on every exit
+                long perExitSize = buildHistory(trace, 0, null);
+                assertTrue(name + ": " + historySize + " bytes of history, " + perExitSize + " bytes when written on every exit", historySize < perExitSize);
+            }
+        } catch (TmfTraceException | TmfAnalysisException | StateSystemDisposedException e) {
+            fail(e.getMessage());
+        } finally {
+            trace.dispose();
+            file.delete();
+            pm.dispose();
+        }
+    }
+
+    /**
+     * Build the analysis and get the size of its history file
+     */
+    private static long buildHistory(ITmfTrace trace, long bucketWidth, @Nullable PerformanceMeter pm) throws TmfAnalysisException, StateSystemDisposedException {
+        KvmExitAnalysisModule module = new KvmExitAnalysisModule();
+        try {
+            module.setId(KvmExitAnalysisModule.ID);
+            module.setBucketWidth(bucketWidth);
+            assertTrue(module.setTrace(trace));
+            if (pm != null) {
+                pm.start();
+            }
+            assertTrue(TmfTestHelper.executeAnalysis(module));
+            if (pm != null) {
+                pm.stop();
+            }
+
+            ITmfStateSystem ss = module.getStateSystem();
+            assertNotNull(ss);
+            assertEquals(NB_EXITS, getTotalExits(ss));
+            return getHistoryFile(trace).length();
+        } finally {
+            module.dispose();
+            getHistoryFile(trace).delete();
+        }
+    }
+
+    private static long getTotalExits(ITmfStateSystem ss) throws StateSystemDisposedException {
+        long total = 0;
+        for (int quark : ss.getQuarks("VCPUs", "*", "kvm_exits")) {
+            Object value = ss.querySingleState(ss.getCurrentEndTime(), quark).getValue();
+            if (value instanceof Number) {
+                total += ((Number) value).longValue();
+            }
+        }
+        return total;
+    }
+
+    private static File getHistoryFile(ITmfTrace trace) {
+        return new File(TmfTraceManager.getSupplementaryFileDir(trace) + KvmExitAnalysisModule.ID + ".ht");
+    }
+}
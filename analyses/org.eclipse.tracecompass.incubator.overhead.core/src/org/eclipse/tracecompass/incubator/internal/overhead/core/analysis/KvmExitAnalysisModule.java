@@ -24,9 +24,42 @@ public class KvmExitAnalysisModule extends TmfStateSystemAnalysisModule {
      */
     public static final @NonNull String ID = "org.eclipse.tracecompass.incubator.overhead.state.system.module"; //$NON-NLS-1$
 
+    /**
+     * The default width in nanoseconds of the buckets in which the exit
+     * counts are accumulated
+     */
+    public static final long DEFAULT_BUCKET_WIDTH = 100000L;
+
+    private long fBucketWidth = DEFAULT_BUCKET_WIDTH;
+
+    /**
+     * Set the width of the buckets in which the exit counts are accumulated
+     * before being written to the state system. It must be set before the
+     * analysis is scheduled. A width of 0 writes the counters on every exit,
+     * which gives exact rates at any resolution but adds several intervals
+     * to the history per exit.
+     *
+     * @param bucketWidth
+     *            The bucket width in nanoseconds, or 0 for no buckets
+     */
+    public void setBucketWidth(long bucketWidth) {
+        fBucketWidth = Math.max(0, bucketWidth);
+    }
+
+    /**
+     * Get the width of the buckets in which the exit counts are accumulated.
+     * The exit rates are not accurate for time ranges smaller than this width.
+     *
+     * @return The bucket width in nanoseconds, or 0 if the counters are
+     *         written on every exit
+     */
+    public long getBucketWidth() {
+        return fBucketWidth;
+    }
+
     @Override
     protected @NonNull ITmfStateProvider createStateProvider() {
-        return new KvmExitStateProvider(Objects.requireNonNull(getTrace()));
+        return new KvmExitStateProvider(Objects.requireNonNull(getTrace()), fBucketWidth);
     }
 
 
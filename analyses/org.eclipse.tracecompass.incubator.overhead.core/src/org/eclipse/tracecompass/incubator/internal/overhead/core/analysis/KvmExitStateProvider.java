@@ -8,6 +8,7 @@
 
 package org.eclipse.tracecompass.incubator.internal.overhead.core.analysis;
 
+import java.util.Arrays;
 
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
@@ -22,10 +23,17 @@ import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
  * State provider for the KVM exit analysis module.
  * This provider processes KVM exit events from a trace and updates the state system
  * with information about KVM exits per CPU.
+ *
+ * The exit counters can either be updated on every exit, or accumulated in time
+ * buckets of a fixed width. With buckets, the counts are kept in primitive arrays
+ * and each counter attribute gets at most one new interval per bucket, with the
+ * cumulative count at the start of the next bucket, instead of one interval per
+ * exit.
  */
 public class KvmExitStateProvider extends AbstractTmfStateProvider {
 
     private static final int VERSION = 1;
+    private static final int BUCKETED_VERSION = 2;
     private static final String ID = "org.eclipse.tracecompass.incubator.internal.overhead.core.analysis"; //$NON-NLS-1$
 
     // Event names that we're interested in
@@ -38,24 +46,49 @@ public class KvmExitStateProvider extends AbstractTmfStateProvider {
     private static final String VCPU_ID = "vcpu_id"; //$NON-NLS-1$
     private static final String CPU_ID = "context.cpu_id"; //$NON-NLS-1$
 
+    private final long fBucketWidth;
+
+    // Cumulative exit counts by counter quark, and the counters updated in the current bucket
+    private int[] fCounts = new int[0];
+    private boolean[] fIsPending = new boolean[0];
+    private int[] fPending = new int[16];
+    private int fNbPending = 0;
+    private long fBucketStart = 0;
+    private long fLastTimestamp = 0;
+
     /**
-     * Constructor
+     * Constructor, the exit counters are updated on every exit
      *
      * @param trace
      *            The trace to analyze
      */
     public KvmExitStateProvider(@NonNull ITmfTrace trace) {
+        this(trace, 0);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param trace
+     *            The trace to analyze
+     * @param bucketWidth
+     *            The width in nanoseconds of the buckets in which the exit
+     *            counts are accumulated, or 0 to update the counters on every
+     *            exit
+     */
+    public KvmExitStateProvider(@NonNull ITmfTrace trace, long bucketWidth) {
         super(trace, ID);
+        fBucketWidth = Math.max(0, bucketWidth);
     }
 
     @Override
     public int getVersion() {
-        return VERSION;
+        return (fBucketWidth > 0) ? BUCKETED_VERSION : VERSION;
     }
 
     @Override
     public @NonNull ITmfStateProvider getNewInstance() {
-        return new KvmExitStateProvider(getTrace());
+        return new KvmExitStateProvider(getTrace(), fBucketWidth);
     }
 
     @Override
@@ -69,6 +102,12 @@ public class KvmExitStateProvider extends AbstractTmfStateProvider {
         final long timestamp = event.getTimestamp().toNanos();
         final ITmfEventField content = event.getContent();
 
+        // Write the counts of the previous bucket at its end once a new bucket starts
+        if (fNbPending > 0 && timestamp >= fBucketStart + fBucketWidth) {
+            flushCounters(ss, fBucketStart + fBucketWidth);
+        }
+        fLastTimestamp = timestamp;
+
         // Process KVM exit events
         if (eventName.equals(KVM_EXIT)) {
             // Get the CPU ID and exit reason
@@ -141,10 +180,23 @@ public class KvmExitStateProvider extends AbstractTmfStateProvider {
         }
     }
 
+    @Override
+    public void done() {
+        ITmfStateSystemBuilder ss = getStateSystemBuilder();
+        if (ss != null && fNbPending > 0) {
+            flushCounters(ss, fLastTimestamp);
+        }
+        super.done();
+    }
+
     /**
      * Increment a counter in the state system, handling the case where it doesn't exist yet
      */
-    private static void incrementExitCounter(ITmfStateSystemBuilder ss, int quark, long timestamp) {
+    private void incrementExitCounter(ITmfStateSystemBuilder ss, int quark, long timestamp) {
+        if (fBucketWidth > 0) {
+            addToBucket(quark, timestamp);
+            return;
+        }
         Object currentValue = ss.queryOngoing(quark);
         int newValue = 1;
 
@@ -155,6 +207,42 @@ public class KvmExitStateProvider extends AbstractTmfStateProvider {
         ss.modifyAttribute(timestamp, newValue, quark);
     }
 
+    /**
+     * Count an exit in the current bucket, the counter attribute is only
+     * updated when the bucket is flushed. The counts are cumulative, like the
+     * values of the counter attributes.
+     */
+    private void addToBucket(int quark, long timestamp) {
+        if (quark >= fCounts.length) {
+            int length = Math.max(quark + 1, fCounts.length * 2);
+            fCounts = Arrays.copyOf(fCounts, length);
+            fIsPending = Arrays.copyOf(fIsPending, length);
+        }
+        if (!fIsPending[quark]) {
+            if (fNbPending == 0) {
+                fBucketStart = timestamp - Math.floorMod(timestamp, fBucketWidth);
+            }
+            if (fNbPending == fPending.length) {
+                fPending = Arrays.copyOf(fPending, fNbPending * 2);
+            }
+            fPending[fNbPending++] = quark;
+            fIsPending[quark] = true;
+        }
+        fCounts[quark]++;
+    }
+
+    /**
+     * Write the cumulative count of the counters updated in the current bucket
+     */
+    private void flushCounters(ITmfStateSystemBuilder ss, long timestamp) {
+        for (int i = 0; i < fNbPending; i++) {
+            int quark = fPending[i];
+            ss.modifyAttribute(timestamp, fCounts[quark], quark);
+            fIsPending[quark] = false;
+        }
+        fNbPending = 0;
+    }
+
     /**
      * Safely get a field value from the event content
      */
@@ -1,13 +1,12 @@
 package org.eclipse.tracecompass.incubator.overhead.core.data.provider;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.jdt.annotation.NonNull;
@@ -60,9 +59,6 @@ public abstract class AbstractRateDataProvider<T extends @NonNull TmfStateSystem
          */
         protected final double[] fValues;
 
-        private long fPrevCount;
-        private long fPrevTime;
-
         /**
          * Constructor for rate series builder
          *
@@ -79,37 +75,43 @@ public abstract class AbstractRateDataProvider<T extends @NonNull TmfStateSystem
         }
 
         /**
-         * Update the rate value at the specified position.
-         * This calculates the rate as (change in count) / (change in time).
+         * Get the quarks of the cumulative counters of this series. The count
+         * of the series is the sum of the values of these counters.
          *
-         * @param pos The array position to update
-         * @param currentCount The current cumulative count
-         * @param currentTime The current timestamp
+         * @return the counter quarks
          */
-        public void updateValue(int pos, long currentCount, long currentTime) {
-            long deltaCount = currentCount - fPrevCount;
-            long deltaTime = currentTime - getPrevTime();
-
-            double rate = 0;
-            if (deltaCount > 0 && deltaTime > 0) {
-                // Convert nanoseconds to seconds for the rate calculation
-                rate = deltaCount / (deltaTime * SECONDS_PER_NANOSECOND);
-            }
-
-            fValues[pos] = rate;
-            fPrevCount = currentCount;
-            setPrevTime(currentTime);
+        public Collection<Integer> getCounterQuarks() {
+            return Collections.singleton(fMetricQuark);
         }
 
         /**
-         * Set the initial observation for rate calculation
+         * Compute the rate values from the counts of the counters. The rate at
+         * position i is the change of the count between times[i] and
+         * times[i + 1], divided by the time between them.
          *
-         * @param initialCount The starting count value
-         * @param timestamp The starting timestamp
+         * @param times The observation times, one more than the number of values
+         * @param countsByQuark The count of each counter at each observation time
          */
-        public void setPrevObservation(long initialCount, long timestamp) {
-            fPrevCount = initialCount;
-            setPrevTime(timestamp);
+        public void computeValues(long[] times, Map<Integer, long[]> countsByQuark) {
+            long[] total = new long[times.length];
+            for (Integer quark : getCounterQuarks()) {
+                long[] counts = countsByQuark.get(quark);
+                if (counts != null) {
+                    for (int i = 0; i < times.length; i++) {
+                        total[i] += counts[i];
+                    }
+                }
+            }
+            for (int pos = 0; pos < fValues.length; pos++) {
+                long deltaCount = total[pos + 1] - total[pos];
+                long deltaTime = times[pos + 1] - times[pos];
+                double rate = 0;
+                if (deltaCount > 0 && deltaTime > 0) {
+                    // Convert nanoseconds to seconds for the rate calculation
+                    rate = deltaCount / (deltaTime * SECONDS_PER_NANOSECOND);
+                }
+                fValues[pos] = rate;
+            }
         }
 
         /**
@@ -129,14 +131,6 @@ public abstract class AbstractRateDataProvider<T extends @NonNull TmfStateSystem
         public int getQuark() {
             return fMetricQuark;
         }
-
-        public long getPrevTime() {
-            return fPrevTime;
-        }
-
-        public void setPrevTime(long prevTime) {
-            fPrevTime = prevTime;
-        }
     }
 
     /**
@@ -170,65 +164,77 @@ public abstract class AbstractRateDataProvider<T extends @NonNull TmfStateSystem
             return Collections.emptyList();
         }
 
-        // Calculate time step and start time for proper interval handling
-        long halfStepSize = (xValues[1] - xValues[0]) / 2;
-        long startTime = Math.max(filter.getStart() - halfStepSize, ss.getStartTime());
-
-        // Seed each builder with the initial observation
-        // This is crucial for rate calculation - we need a baseline
-        for (RateSeriesBuilder builder : builderByQuark.values()) {
-            ITmfStateInterval iv = ss.querySingleState(startTime, builder.getQuark());
-            Object v = iv.getValue();
-            long count = extractCountFromValue(v);
-            builder.setPrevObservation(count, startTime);
-        }
-
-        // Adjust query times to center on interval midpoints
-        // This provides more accurate rate calculations
+        /*
+         * Observe the counters at the middle between the requested times, plus
+         * one observation before the first time as the baseline, so that each
+         * requested time gets the rate over the interval around it
+         */
         int n = xValues.length;
-        List<Long> adjustedQueryTimes = new ArrayList<>(n);
+        long halfStepSize = (xValues[1] - xValues[0]) / 2;
+        long ssStart = ss.getStartTime();
+        long ssEnd = ss.getCurrentEndTime();
+        long[] times = new long[n + 1];
+        times[0] = filter.getStart() - halfStepSize;
         for (int i = 1; i < n; i++) {
-            adjustedQueryTimes.add(xValues[i] - halfStepSize);
+            times[i] = xValues[i] - halfStepSize;
+        }
+        times[n] = xValues[n - 1] + halfStepSize;
+        List<Long> queryTimes = new ArrayList<>(n + 1);
+        for (int i = 0; i <= n; i++) {
+            // Keep the times sorted and inside the state system
+            long time = Math.min(Math.max(times[i], ssStart), ssEnd);
+            times[i] = (i > 0) ? Math.max(time, times[i - 1]) : time;
+            queryTimes.add(times[i]);
         }
-        adjustedQueryTimes.add(Math.min(xValues[n - 1] + halfStepSize, ss.getCurrentEndTime()));
 
-        // Query all intervals for all metrics in one efficient operation
-        List<ITmfStateInterval> intervals = StreamSupport.stream(
-                ss.query2D(builderByQuark.keySet(), adjustedQueryTimes).spliterator(), false)
-                .sorted(Comparator.comparingLong(ITmfStateInterval::getStartTime))
-                .collect(Collectors.toList());
+        Map<Integer, long[]> countsByQuark = new HashMap<>();
+        for (RateSeriesBuilder builder : builderByQuark.values()) {
+            for (Integer quark : builder.getCounterQuarks()) {
+                countsByQuark.computeIfAbsent(quark, q -> new long[n + 1]);
+            }
+        }
 
-        // Process each interval and update the corresponding builders
-        for (ITmfStateInterval interval : intervals) {
+        // Fill the count of each counter at each observation time in one pass over the intervals
+        for (ITmfStateInterval interval : ss.query2D(countsByQuark.keySet(), queryTimes)) {
             if (monitor != null && monitor.isCanceled()) {
                 return null;
             }
-
-            // Find which time indices this interval affects
-            int from = Collections.binarySearch(adjustedQueryTimes, interval.getStartTime());
-            from = (from >= 0) ? from : -1 - from;
-
-            int to = Collections.binarySearch(adjustedQueryTimes, interval.getEndTime());
-            to = (to >= 0) ? to + 1 : -1 - to;
-
+            long[] counts = countsByQuark.get(interval.getAttribute());
+            if (counts == null) {
+                continue;
+            }
+            int from = lowerBound(times, interval.getStartTime());
+            int to = lowerBound(times, interval.getEndTime() + 1);
             if (from < to) {
-                Object value = interval.getValue();
-                long count = extractCountFromValue(value);
-                RateSeriesBuilder builder = builderByQuark.get(interval.getAttribute());
-                if (builder != null) {
-                    // Update all affected time points
-                    for (int j = from; j < to; j++) {
-                        builder.updateValue(j, count, adjustedQueryTimes.get(j));
-                    }
-                }
+                long count = extractCountFromValue(interval.getValue());
+                Arrays.fill(counts, from, to, count);
             }
         }
 
         // Build and return all the Y-axis models
-        return ImmutableList.copyOf(
-                builderByQuark.values().stream()
-                        .map(builder -> builder.build(getYAxisDescription()))
-                        .collect(Collectors.toList()));
+        List<IYModel> models = new ArrayList<>(builderByQuark.size());
+        for (RateSeriesBuilder builder : builderByQuark.values()) {
+            builder.computeValues(times, countsByQuark);
+            models.add(builder.build(getYAxisDescription()));
+        }
+        return ImmutableList.copyOf(models);
+    }
+
+    /**
+     * Get the index of the first time that is greater or equal to a time
+     */
+    private static int lowerBound(long[] times, long time) {
+        int low = 0;
+        int high = times.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (times[mid] < time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
     }
 
     /**
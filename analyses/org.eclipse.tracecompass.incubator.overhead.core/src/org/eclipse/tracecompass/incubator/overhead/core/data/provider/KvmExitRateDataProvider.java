@@ -6,6 +6,7 @@
 package org.eclipse.tracecompass.incubator.overhead.core.data.provider;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -19,7 +20,6 @@ import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.incubator.internal.overhead.core.analysis.KvmExitAnalysisModule;
 import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
-import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
 import org.eclipse.tracecompass.tmf.core.dataprovider.DataType;
 import org.eclipse.tracecompass.tmf.core.model.filters.SelectionTimeQueryFilter;
 import org.eclipse.tracecompass.tmf.core.model.tree.TmfTreeDataModel;
@@ -110,9 +110,7 @@ public class KvmExitRateDataProvider extends AbstractRateDataProvider<KvmExitAna
             String cpuName = ss.getAttributeName(vcpuQuark);
 
             // Validate that this is actually a CPU number
-            try {
-                Integer.parseInt(cpuName);
-            } catch (NumberFormatException e) {
+            if (!isCpuNumber(cpuName)) {
                 continue; // Skip non-numeric entries
             }
 
@@ -237,94 +235,43 @@ public class KvmExitRateDataProvider extends AbstractRateDataProvider<KvmExitAna
         return builderMap;
     }
 
+    /**
+     * Check whether an attribute name is a CPU number
+     *
+     * @param name
+     *            The attribute name
+     * @return true if the name is made of digits only
+     */
+    private static boolean isCpuNumber(String name) {
+        return !name.isEmpty() && name.chars().allMatch(Character::isDigit);
+    }
+
     /**
      * Specialized builder for aggregated CPU data.
-     * This builder sums the rates from all individual CPUs to provide
-     * a system-wide view of KVM exit activity.
+     * This builder sums the counters of all individual CPUs to provide
+     * a system-wide view of KVM exit activity. The counters are read in the
+     * same pass as the other series, instead of querying each CPU separately.
      */
     private class AggregatedRateSeriesBuilder extends RateSeriesBuilder {
-        private final ITmfStateSystem fStateSystem;
-        private final Map<Integer, Long> fPrevCpuCounts = new HashMap<>();
-        private final Map<Integer, Integer> fCpuExitQuarks = new HashMap<>();
+        private final List<Integer> fCpuExitQuarks = new ArrayList<>();
 
         public AggregatedRateSeriesBuilder(long id, int quark, String name, int length, ITmfStateSystem ss) {
             super(id, quark, name, length);
-            fStateSystem = ss;
 
             for (Integer cpuQuark : ss.getQuarks("VCPUs", "*")) { //$NON-NLS-1$ //$NON-NLS-2$
-                String cpuName = ss.getAttributeName(cpuQuark);
-                try {
-                    int cpuId = Integer.parseInt(cpuName);
+                // Skip non-numeric CPU entries
+                if (isCpuNumber(ss.getAttributeName(cpuQuark))) {
                     int exitQuark = ss.optQuarkRelative(cpuQuark, "kvm_exits"); //$NON-NLS-1$
                     if (exitQuark != ITmfStateSystem.INVALID_ATTRIBUTE) {
-                        fCpuExitQuarks.put(cpuId, exitQuark);
-                    }
-                } catch (NumberFormatException e) {
-                    // Skip non-numeric CPU entries
-                }
-            }
-        }
-
-        @Override
-        public void updateValue(int pos, long currentCount, long currentTime) {
-            // For aggregated data, we need to query all CPUs and sum their rates
-            double totalRate = 0;
-
-            for (Map.Entry<Integer, Integer> entry : fCpuExitQuarks.entrySet()) {
-                int cpuId = entry.getKey();
-                int exitQuark = entry.getValue();
-
-                try {
-                    // Get current count for this CPU
-                    ITmfStateInterval interval = fStateSystem.querySingleState(currentTime, exitQuark);
-                    long currentCpuCount = extractCountFromValue(interval.getValue());
-
-                    // Calculate rate for this CPU
-                    Long prevCount = fPrevCpuCounts.get(cpuId);
-                    if (prevCount != null) {
-                        long deltaCount = currentCpuCount - prevCount;
-                        if (deltaCount > 0) {
-                            // Use the same time delta as the main calculation
-                            long deltaTime = currentTime - super.getPrevTime();
-                            if (deltaTime > 0) {
-                                double cpuRate = deltaCount / (deltaTime * SECONDS_PER_NANOSECOND);
-                                totalRate += cpuRate;
-                            }
-                        }
+                        fCpuExitQuarks.add(exitQuark);
                     }
-
-                    // Update previous count for next iteration
-                    fPrevCpuCounts.put(cpuId, currentCpuCount);
-
-                } catch (Exception e) {
-                    // Skip this CPU if there's an error
-                    continue;
                 }
             }
-
-            // Set the aggregated rate value
-            fValues[pos] = totalRate;
-            setPrevTime(currentTime);
         }
 
         @Override
-        public void setPrevObservation(long initialCount, long timestamp) {
-            // Initialize previous counts for all CPUs
-            super.setPrevObservation(0, timestamp); // We don't use the count parameter for aggregated data
-
-            for (Map.Entry<Integer, Integer> entry : fCpuExitQuarks.entrySet()) {
-                int cpuId = entry.getKey();
-                int exitQuark = entry.getValue();
-
-                try {
-                    ITmfStateInterval interval = fStateSystem.querySingleState(timestamp, exitQuark);
-                    long initialCpuCount = extractCountFromValue(interval.getValue());
-                    fPrevCpuCounts.put(cpuId, initialCpuCount);
-                } catch (Exception e) {
-                    // Initialize to 0 if there's an error
-                    fPrevCpuCounts.put(cpuId, 0L);
-                }
-            }
+        public Collection<Integer> getCounterQuarks() {
+            return fCpuExitQuarks;
         }
     }
 }
\ No newline at end of file
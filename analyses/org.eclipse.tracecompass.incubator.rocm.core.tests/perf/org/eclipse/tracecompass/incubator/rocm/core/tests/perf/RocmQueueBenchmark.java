@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.rocm.core.tests.perf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Objects;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.test.performance.Dimension;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+import org.eclipse.tracecompass.analysis.profiling.core.instrumented.InstrumentedCallStackAnalysis;
+import org.eclipse.tracecompass.incubator.internal.rocm.core.analysis.RocmCallStackAnalysis;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
+import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
+import org.eclipse.tracecompass.tmf.core.event.TmfEvent;
+import org.eclipse.tracecompass.tmf.core.exceptions.TmfAnalysisException;
+import org.eclipse.tracecompass.tmf.core.exceptions.TmfTraceException;
+import org.eclipse.tracecompass.tmf.core.signal.TmfTraceOpenedSignal;
+import org.eclipse.tracecompass.tmf.core.tests.shared.TmfTestHelper;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTraceManager;
+import org.eclipse.tracecompass.tmf.tests.stubs.trace.xml.TmfXmlTraceStub;
+import org.eclipse.tracecompass.tmf.tests.stubs.trace.xml.TmfXmlTraceStubNs;
+import org.junit.Test;
+
+/**
+ * Benchmarks the GPU queues of the ROCm call stack analysis on a synthetic
+ * trace where thousands of asynchronous operations are in flight on each
+ * queue
+ */
+public class RocmQueueBenchmark {
+
+    /**
+     * Test test ID for the ROCm queue benchmarks
+     */
+    public static final String TEST_ID = "org.eclipse.tracecompass.incubator#ROCm queues#";
+
+    private static final String ANALYSIS_ID = "org.eclipse.tracecompass.incubator.rocm.core.stateprovider.atomic";
+    private static final int LOOP_COUNT = 5;
+    private static final int NB_QUEUES = 4;
+    private static final int NB_BURSTS = 5;
+
+    private static File createTrace(int depth) throws IOException {
+        File file = File.createTempFile("rocmQueues", ".xml");
+        try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            writer.write("<trace>\n");
+            long timestamp = 0;
+            long correlationId = 0;
+            for (int burst = 0; burst < NB_BURSTS; burst++) {
+                long firstId = correlationId;
+                // Queue all the kernels of the burst
+                for (int i = 0; i < depth; i++) {
+                    for (int queue = 0; queue < NB_QUEUES; queue++) {
+                        writeOperation(writer, "hip_op_begin", timestamp++, queue, correlationId++);
+                    }
+                }
+                // They complete in the order they were queued
+                for (long id = firstId; id < correlationId; id++) {
+                    writeOperation(writer, "hip_op_end", timestamp++, (int) ((id - firstId) % NB_QUEUES), id);
+                }
+            }
+            writer.write("</trace>\n");
+        }
+        return file;
+    }
+
+    private static void writeOperation(Writer writer, String name, long timestamp, int queue, long correlationId) throws IOException {
+        writer.write("<event timestamp=\"" + timestamp + "\" name=\"" + name + "\">\n");
+        writer.write("<field name=\"context._agent_id\" type=\"int\" value=\"0\" />\n");
+        writer.write("<field name=\"context._queue_id\" type=\"int\" value=\"" + queue + "\" />\n");
+        writer.write("<field name=\"context._correlation_id\" type=\"long\" value=\"" + correlationId + "\" />\n");
+        writer.write("<field name=\"kernel_name\" type=\"string\" value=\"kernel" + correlationId % 16 + "\" />\n");
+        writer.write("</event>\n");
+    }
+
+    /**
+     * Benchmark queues with 500 operations in flight
+     *
+     * @throws IOException
+     *             If the trace cannot be created
+     */
+    @Test
+    public void queueDepth500() throws IOException {
+        runBenchmark(500);
+    }
+
+    /**
+     * Benchmark queues with 4000 operations in flight
+     *
+     * @throws IOException
+     *             If the trace cannot be created
+     */
+    @Test
+    public void queueDepth4000() throws IOException {
+        runBenchmark(4000);
+    }
+
+    private void runBenchmark(int depth) throws IOException {
+        Performance perf = Performance.getDefault();
+        PerformanceMeter pm = Objects.requireNonNull(perf.createPerformanceMeter(TEST_ID + "Depth " + depth));
+        perf.tagAsSummary(pm, "ROCm queues: depth " + depth, Dimension.CPU_TIME);
+
+        File file = createTrace(depth);
+        TmfXmlTraceStub trace = new TmfXmlTraceStubNs();
+        try {
+            IStatus status = trace.validate(null, file.getAbsolutePath());
+            if (!status.isOK()) {
+                fail(status.getException().getMessage());
+            }
+            trace.initTrace(null, file.getAbsolutePath(), TmfEvent.class);
+            trace.traceOpened(new TmfTraceOpenedSignal(this, trace, null));
+
+            for (int i = 0; i < LOOP_COUNT; i++) {
+                RocmCallStackAnalysis module = new RocmCallStackAnalysis();
+                try {
+                    module.setId(ANALYSIS_ID);
+                    assertTrue(module.setTrace(trace));
+                    pm.start();
+                    assertTrue(TmfTestHelper.executeAnalysis(module));
+                    pm.stop();
+
+                    ITmfStateSystem ss = module.getStateSystem();
+                    assertNotNull(ss);
+                    // Every queue is empty at the end and used one lane per operation in flight
+                    for (int quark : ss.getQuarks("root", "Queues", "*", "*", InstrumentedCallStackAnalysis.CALL_STACK)) {
+                        assertEquals(0, ss.querySingleState(ss.getCurrentEndTime(), quark).unboxInt());
+                        assertEquals(depth, ss.getSubAttributes(quark, false).size());
+                    }
+                } finally {
+                    module.dispose();
+                    getHistoryFile(trace).delete();
+                }
+            }
+            pm.commit();
+        } catch (TmfTraceException | TmfAnalysisException | StateSystemDisposedException e) {
+            fail(e.getMessage());
+        } finally {
+            trace.dispose();
+            file.delete();
+        }
+    }
+
+    private static File getHistoryFile(ITmfTrace trace) {
+        return new File(TmfTraceManager.getSupplementaryFileDir(trace) + ANALYSIS_ID + ".ht");
+    }
+}
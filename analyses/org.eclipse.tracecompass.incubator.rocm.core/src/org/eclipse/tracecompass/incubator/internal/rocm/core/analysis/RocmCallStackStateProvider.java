@@ -12,6 +12,7 @@ package org.eclipse.tracecompass.incubator.internal.rocm.core.analysis;
 
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.tracecompass.incubator.internal.rocm.core.analysis.handlers.ApiEventHandler;
+import org.eclipse.tracecompass.incubator.internal.rocm.core.analysis.handlers.CorrelationLaneIndex;
 import org.eclipse.tracecompass.incubator.internal.rocm.core.analysis.handlers.IRocmEventHandler;
 import org.eclipse.tracecompass.incubator.internal.rocm.core.analysis.handlers.OperationEventHandler;
 import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
@@ -39,7 +40,8 @@ import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
  * |  |- Queues
  * |  |  |  |- <ROCm Agent / GPU>
  * |  |  |  |  |- <Queue> -> Each queue implemented as a callstack with corresponding
- * |  |  |  |  |             compute kernel activity.
+ * |  |  |  |  |             compute kernel activity. An operation stays at the
+ * |  |  |  |  |             same depth until it ends.
  * </pre>
  *
  * @author Arnaud Fiorini
@@ -71,13 +73,14 @@ public class RocmCallStackStateProvider extends AbstractTmfStateProvider {
     public RocmCallStackStateProvider(ITmfTrace trace, RocmEventLayout layout) {
         super(trace, ID);
         fLayout = layout;
-        fApiEventHandler = new ApiEventHandler();
-        fOperationEventHandler = new OperationEventHandler();
+        CorrelationLaneIndex hipOperations = new CorrelationLaneIndex();
+        fApiEventHandler = new ApiEventHandler(hipOperations);
+        fOperationEventHandler = new OperationEventHandler(hipOperations);
     }
 
     @Override
     public int getVersion() {
-        return 0;
+        return 1;
     }
 
     @Override
@@ -36,6 +36,19 @@ public class ApiEventHandler implements IRocmEventHandler {
     private boolean fIsThreadIdProvidedHSA = false;
     private boolean fIsThreadIdProvidedHIP = false;
 
+    private final CorrelationLaneIndex fHipOperations;
+
+    /**
+     * Constructor
+     *
+     * @param hipOperations
+     *            The lanes of the HIP calls waiting for their operation,
+     *            shared with the {@link OperationEventHandler}
+     */
+    public ApiEventHandler(CorrelationLaneIndex hipOperations) {
+        fHipOperations = hipOperations;
+    }
+
     private static void provideThreadId(ITmfEvent event, ITmfStateSystemBuilder ssb, int quark, RocmEventLayout layout) {
         Integer tid = event.getContent().getFieldValue(Integer.class, layout.fieldThreadId());
         ssb.modifyAttribute(event.getTimestamp().getValue(), tid, quark);
@@ -85,7 +98,7 @@ public class ApiEventHandler implements IRocmEventHandler {
         ssb.pushAttribute(event.getTimestamp().getValue(), eventName, callStackQuark);
     }
 
-    private static void addEventToOperationQueue(ITmfEvent event, ITmfStateSystemBuilder ssb, RocmEventLayout layout) {
+    private void addEventToOperationQueue(ITmfEvent event, ITmfStateSystemBuilder ssb, RocmEventLayout layout) {
         Long correlationId = event.getContent().getFieldValue(Long.class, layout.fieldCorrelationId());
         if (correlationId == null) {
             return;
@@ -95,13 +108,8 @@ public class ApiEventHandler implements IRocmEventHandler {
 
         if (layout.isMemcpyBegin(event.getName()) || (event.getName().equals(layout.hipLaunchKernelBegin()) && ((RocmCtfPluginTrace) event.getTrace()).isContainingKernelGpuActivity())
                 || event.getName().equals(layout.hipStreamSynchronizeBegin())) {
-            int depth = 1;
+            int depth = fHipOperations.allocate(correlationId);
             int subQuark = ssb.getQuarkRelativeAndAdd(operationsQuark, String.valueOf(depth));
-            // While there is already activity on the quark
-            while (!ssb.queryOngoingState(subQuark).isNull()) {
-                depth += 1;
-                subQuark = ssb.getQuarkRelativeAndAdd(operationsQuark, String.valueOf(depth));
-            }
             // Register event name in the call stack
             ssb.modifyAttribute(ts, correlationId, subQuark);
             int nameQuark = ssb.getQuarkRelativeAndAdd(subQuark, RocmCallStackStateProvider.NAME);
@@ -114,18 +122,12 @@ public class ApiEventHandler implements IRocmEventHandler {
             }
         }
         if (event.getName().equals(layout.hipStreamSynchronizeEnd())) {
-            int depth = 1;
-            int subQuark;
+            int depth = fHipOperations.release(correlationId);
+            if (depth < 0) {
+                return;
+            }
             try {
-                subQuark = ssb.getQuarkRelative(operationsQuark, String.valueOf(depth));
-                // While there is already activity on the quark
-                while (correlationId != ssb.queryOngoingState(subQuark).unboxLong()) {
-                    depth += 1;
-                    subQuark = ssb.optQuarkRelative(operationsQuark, String.valueOf(depth));
-                    if (subQuark == ITmfStateSystem.INVALID_ATTRIBUTE) {
-                        return;
-                    }
-                }
+                int subQuark = ssb.getQuarkRelative(operationsQuark, String.valueOf(depth));
                 ssb.modifyAttribute(ts, null, subQuark);
                 int nameQuark = ssb.getQuarkRelative(subQuark, RocmCallStackStateProvider.NAME);
                 ssb.modifyAttribute(ts, null, nameQuark);
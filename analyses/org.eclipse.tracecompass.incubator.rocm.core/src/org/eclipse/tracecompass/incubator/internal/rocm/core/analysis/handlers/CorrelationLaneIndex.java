@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.tracecompass.incubator.internal.rocm.core.analysis.handlers;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Allocates the lanes (the depths of a queue attribute) of the operations in
+ * flight and indexes them by correlation id. An operation keeps its lane until
+ * it ends, and a new operation takes the lowest free lane, so the operations
+ * are found without walking the lanes and the other operations are never
+ * moved.
+ */
+public class CorrelationLaneIndex {
+
+    /** Lanes start at 1, as the depths of a call stack */
+    private static final int FIRST_LANE = 1;
+
+    private final BitSet fUsedLanes = new BitSet();
+    private final Map<Long, Integer> fLanes = new HashMap<>();
+
+    /**
+     * Allocate the lowest free lane to an operation
+     *
+     * @param correlationId
+     *            The correlation id of the operation
+     * @return The lane of the operation
+     */
+    public int allocate(long correlationId) {
+        int lane = fUsedLanes.nextClearBit(FIRST_LANE);
+        fUsedLanes.set(lane);
+        fLanes.put(correlationId, lane);
+        return lane;
+    }
+
+    /**
+     * Get the lane of an operation in flight
+     *
+     * @param correlationId
+     *            The correlation id of the operation
+     * @return The lane of the operation, or -1 if there is no such operation
+     */
+    public int getLane(long correlationId) {
+        Integer lane = fLanes.get(correlationId);
+        return (lane == null) ? -1 : lane;
+    }
+
+    /**
+     * Release the lane of an operation that ended
+     *
+     * @param correlationId
+     *            The correlation id of the operation
+     * @return The lane that was released, or -1 if there is no such operation
+     */
+    public int release(long correlationId) {
+        Integer lane = fLanes.remove(correlationId);
+        if (lane == null) {
+            return -1;
+        }
+        fUsedLanes.clear(lane);
+        return lane;
+    }
+
+    /**
+     * Get the highest lane in use, the depth of the queue
+     *
+     * @return The highest lane in use, or 0 if there is no operation in flight
+     */
+    public int getDepth() {
+        return Math.max(0, fUsedLanes.length() - 1);
+    }
+}
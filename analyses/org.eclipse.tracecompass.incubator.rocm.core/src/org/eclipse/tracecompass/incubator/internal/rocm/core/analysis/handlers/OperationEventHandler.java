@@ -10,6 +10,9 @@
  *******************************************************************************/
 package org.eclipse.tracecompass.incubator.internal.rocm.core.analysis.handlers;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import org.eclipse.tracecompass.analysis.profiling.core.instrumented.InstrumentedCallStackAnalysis;
 import org.eclipse.tracecompass.incubator.internal.rocm.core.Activator;
 import org.eclipse.tracecompass.incubator.internal.rocm.core.analysis.RocmCallStackStateProvider;
@@ -33,6 +36,21 @@ public class OperationEventHandler implements IRocmEventHandler {
     private static final String QUEUE = "Queue "; //$NON-NLS-1$
     private static final String UNKNOWN = "Unknown Operation"; //$NON-NLS-1$
 
+    private final CorrelationLaneIndex fHipOperations;
+    /** The lanes of the operations of each queue, by call stack quark */
+    private final Map<Integer, CorrelationLaneIndex> fQueueLanes = new HashMap<>();
+
+    /**
+     * Constructor
+     *
+     * @param hipOperations
+     *            The lanes of the HIP calls waiting for their operation,
+     *            shared with the {@link ApiEventHandler}
+     */
+    public OperationEventHandler(CorrelationLaneIndex hipOperations) {
+        fHipOperations = hipOperations;
+    }
+
     @Override
     public void handleEvent(ITmfEvent event, ITmfStateSystemBuilder ssb, RocmEventLayout layout) {
         Long timestamp = event.getTimestamp().toNanos();
@@ -62,76 +80,46 @@ public class OperationEventHandler implements IRocmEventHandler {
             int queueQuark = ssb.getQuarkRelativeAndAdd(agentQuark, QUEUE + queueId.toString());
             int callStackQuark = ssb.getQuarkRelativeAndAdd(queueQuark, InstrumentedCallStackAnalysis.CALL_STACK);
 
+            CorrelationLaneIndex lanes = fQueueLanes.computeIfAbsent(callStackQuark, q -> new CorrelationLaneIndex());
+
             // Add the operation to the queue if we are treating a begin event
             if (isHipOperationBegin) {
-                int depth = 1;
+                int depth = lanes.allocate(correlationId);
                 int subQuark = ssb.getQuarkRelativeAndAdd(callStackQuark, String.valueOf(depth));
-                // While there is already activity on the quark
-                while (!ssb.queryOngoingState(subQuark).isNull()) {
-                    depth += 1;
-                    subQuark = ssb.getQuarkRelativeAndAdd(callStackQuark, String.valueOf(depth));
-                }
                 // Register event name in the call stack
                 ssb.modifyAttribute(timestamp, operationName, subQuark);
                 // Set call stack depth
-                ssb.modifyAttribute(timestamp, depth, callStackQuark);
+                ssb.modifyAttribute(timestamp, lanes.getDepth(), callStackQuark);
                 // Set correlation id
                 int correlationIdQuark = ssb.getQuarkRelativeAndAdd(subQuark, RocmCallStackStateProvider.CORRELATION_ID);
                 ssb.modifyAttribute(timestamp, correlationId, correlationIdQuark);
-                // Else if we have an end event, move all operations after the
-                // one we received up.
+                // Else if we have an end event, free the lane of the operation,
+                // the other operations stay on their lane.
             } else {
-                int depth = 1;
-                int maxDepth = ssb.queryOngoingState(callStackQuark).unboxInt();
-                int subQuark = ssb.getQuarkRelativeAndAdd(callStackQuark, String.valueOf(depth));
-                try {
-                    // While there is already activity on the quark, go through
-                    // each level
-                    while (ssb.queryOngoingState(ssb.getQuarkRelative(subQuark, RocmCallStackStateProvider.CORRELATION_ID)).unboxLong() != correlationId) {
-                        depth += 1;
-                        subQuark = ssb.getQuarkRelative(callStackQuark, String.valueOf(depth));
-                    }
-
-                    int previousQuark = -1;
-                    while (!ssb.queryOngoingState(subQuark).isNull()) {
-                        if (depth >= maxDepth) {
-                            ssb.modifyAttribute(timestamp, null, subQuark);
-                            ssb.modifyAttribute(timestamp, depth - 1, callStackQuark);
-                            break;
-                        }
-                        // Getting previous quark
-                        previousQuark = subQuark;
-                        // Getting next level quark
-                        depth += 1;
-                        subQuark = ssb.getQuarkRelative(callStackQuark, String.valueOf(depth));
-                        int nextCorrelationIdQuark = ssb.getQuarkRelativeAndAdd(subQuark, RocmCallStackStateProvider.CORRELATION_ID);
-                        Long nextCorrelationId = ssb.queryOngoingState(nextCorrelationIdQuark).unboxLong();
-                        // Move operation down 1 level (inserting null to force the creation of a new interval
-                        ssb.modifyAttribute(timestamp, null, previousQuark);
-                        ssb.modifyAttribute(timestamp, ssb.queryOngoingState(subQuark).unboxValue(), previousQuark);
-                        ssb.modifyAttribute(timestamp, nextCorrelationId, ssb.getQuarkRelativeAndAdd(previousQuark, RocmCallStackStateProvider.CORRELATION_ID));
-                    }
-                } catch (AttributeNotFoundException e) {
-                    e.printStackTrace();
+                int depth = lanes.release(correlationId);
+                if (depth < 0) {
+                    return;
                 }
+                int subQuark = ssb.getQuarkRelativeAndAdd(callStackQuark, String.valueOf(depth));
+                ssb.modifyAttribute(timestamp, null, subQuark);
+                ssb.modifyAttribute(timestamp, null, ssb.getQuarkRelativeAndAdd(subQuark, RocmCallStackStateProvider.CORRELATION_ID));
+                ssb.modifyAttribute(timestamp, lanes.getDepth(), callStackQuark);
             }
         }
     }
 
-    private static String getCorrespondingHipCall(ITmfEvent event, ITmfStateSystemBuilder ssb, RocmEventLayout layout) throws AttributeNotFoundException {
+    private String getCorrespondingHipCall(ITmfEvent event, ITmfStateSystemBuilder ssb, RocmEventLayout layout) throws AttributeNotFoundException {
         Long correlationId = event.getContent().getFieldValue(Long.class, layout.fieldCorrelationId());
         if (correlationId == null) {
             return UNKNOWN;
         }
+        int depth = fHipOperations.release(correlationId);
+        if (depth < 0) {
+            return ""; //$NON-NLS-1$
+        }
         int operationsQuark = ssb.getQuarkAbsoluteAndAdd(RocmCallStackStateProvider.HIP_OPERATION_QUEUES);
         long ts = event.getTimestamp().getValue();
-        int depth = 1;
         int subQuark = ssb.getQuarkRelative(operationsQuark, String.valueOf(depth));
-        // While there is already activity on the quark
-        while (correlationId != ssb.queryOngoingState(subQuark).unboxLong()) {
-            depth += 1;
-            subQuark = ssb.getQuarkRelative(operationsQuark, String.valueOf(depth));
-        }
         ssb.modifyAttribute(ts, null, subQuark);
         int nameQuark = ssb.getQuarkRelative(subQuark, RocmCallStackStateProvider.NAME);
         String hipOperationName = ssb.queryOngoingState(nameQuark).unboxStr();
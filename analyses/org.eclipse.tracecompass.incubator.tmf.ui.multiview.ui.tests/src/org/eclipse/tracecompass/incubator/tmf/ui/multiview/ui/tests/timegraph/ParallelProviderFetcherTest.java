@@ -0,0 +1,163 @@
+/**********************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ **********************************************************************/
+
+package org.eclipse.tracecompass.incubator.tmf.ui.multiview.ui.tests.timegraph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.tracecompass.incubator.internal.tmf.ui.multiview.ui.view.timegraph.ParallelProviderFetcher;
+import org.junit.Test;
+
+/**
+ * Test the {@link ParallelProviderFetcher} with slow stub providers, like the
+ * data providers of a multi-view showing several outputs
+ */
+public class ParallelProviderFetcherTest {
+
+    private static final long SLOW_FETCH_MS = 400;
+
+    private static final long POLL_INTERVAL_MS = 5;
+
+    /**
+     * A provider that takes some time to return its result, unless its
+     * monitor is cancelled
+     */
+    private static class SlowProvider {
+        private final String fName;
+        private final long fDelay;
+        private final AtomicInteger fStopped;
+        private final AtomicInteger fInterrupted;
+
+        public SlowProvider(String name, long delay, AtomicInteger stopped, AtomicInteger interrupted) {
+            fName = name;
+            fDelay = delay;
+            fStopped = stopped;
+            fInterrupted = interrupted;
+        }
+
+        public String fetch(IProgressMonitor monitor) {
+            long end = System.currentTimeMillis() + fDelay;
+            while (System.currentTimeMillis() < end) {
+                if (monitor.isCanceled()) {
+                    fStopped.incrementAndGet();
+                    return "cancelled";
+                }
+                try {
+                    Thread.sleep(POLL_INTERVAL_MS);
+                } catch (InterruptedException e) {
+                    fInterrupted.incrementAndGet();
+                    return "interrupted";
+                }
+            }
+            return fName;
+        }
+    }
+
+    /**
+     * Test that fetching from several providers takes about the time of the
+     * slowest provider and that the results are consumed on the calling
+     * thread as they complete
+     */
+    @Test
+    public void testLatencyOfSlowestProvider() {
+        AtomicInteger stopped = new AtomicInteger();
+        AtomicInteger interrupted = new AtomicInteger();
+        List<SlowProvider> providers = Arrays.asList(
+                new SlowProvider("kernel", SLOW_FETCH_MS, stopped, interrupted),
+                new SlowProvider("flame chart", SLOW_FETCH_MS / 2, stopped, interrupted),
+                new SlowProvider("custom", SLOW_FETCH_MS / 4, stopped, interrupted),
+                new SlowProvider("other", SLOW_FETCH_MS / 4, stopped, interrupted));
+        IProgressMonitor monitor = new NullProgressMonitor();
+        Thread caller = Thread.currentThread();
+        List<String> results = new ArrayList<>();
+        Set<Thread> consumerThreads = new HashSet<>();
+
+        long start = System.nanoTime();
+        boolean completed = ParallelProviderFetcher.fetch(providers, provider -> provider.fetch(monitor), (provider, result) -> {
+            consumerThreads.add(Thread.currentThread());
+            results.add(result);
+        }, monitor);
+        long elapsedMs = (System.nanoTime() - start) / 1000000;
+
+        assertTrue(completed);
+        assertEquals(4, results.size());
+        // The slowest provider completes last
+        assertEquals("kernel", results.get(3));
+        assertEquals(Set.of(caller), consumerThreads);
+        assertEquals(0, stopped.get());
+        assertEquals(0, interrupted.get());
+        long sum = SLOW_FETCH_MS + SLOW_FETCH_MS / 2 + SLOW_FETCH_MS / 4 + SLOW_FETCH_MS / 4;
+        assertTrue("Fetch took " + elapsedMs + " ms", elapsedMs >= SLOW_FETCH_MS && elapsedMs < sum);
+    }
+
+    /**
+     * Test that cancelling the monitor, as a newer zoom does, stops the
+     * fetches that are still running through their monitor, without
+     * interrupting their threads
+     */
+    @Test
+    public void testCancel() {
+        AtomicInteger stopped = new AtomicInteger();
+        AtomicInteger interrupted = new AtomicInteger();
+        List<SlowProvider> providers = Arrays.asList(
+                new SlowProvider("fast", 10, stopped, interrupted),
+                new SlowProvider("slow 1", 10 * SLOW_FETCH_MS, stopped, interrupted),
+                new SlowProvider("slow 2", 10 * SLOW_FETCH_MS, stopped, interrupted));
+        IProgressMonitor monitor = new NullProgressMonitor();
+        List<String> results = new ArrayList<>();
+
+        long start = System.nanoTime();
+        boolean completed = ParallelProviderFetcher.fetch(providers, provider -> provider.fetch(monitor), (provider, result) -> {
+            results.add(result);
+            // A newer zoom supersedes this one
+            monitor.setCanceled(true);
+        }, monitor);
+        long elapsedMs = (System.nanoTime() - start) / 1000000;
+
+        assertFalse(completed);
+        assertEquals(Arrays.asList("fast"), results);
+        assertTrue("Fetch took " + elapsedMs + " ms", elapsedMs < SLOW_FETCH_MS);
+        // The slow fetches stop with the monitor
+        long deadline = System.currentTimeMillis() + 10 * SLOW_FETCH_MS;
+        while (stopped.get() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.yield();
+        }
+        assertEquals(2, stopped.get());
+        assertEquals(0, interrupted.get());
+    }
+
+    /**
+     * Test that a single provider is fetched on the calling thread
+     */
+    @Test
+    public void testSingleProvider() {
+        Thread caller = Thread.currentThread();
+        List<Thread> fetchThreads = new ArrayList<>();
+        boolean completed = ParallelProviderFetcher.fetch(Arrays.asList("single"), provider -> {
+            fetchThreads.add(Thread.currentThread());
+            return provider;
+        }, (provider, result) -> assertEquals("single", result), new NullProgressMonitor());
+        assertTrue(completed);
+        assertEquals(Arrays.asList(caller), fetchThreads);
+    }
+
+}
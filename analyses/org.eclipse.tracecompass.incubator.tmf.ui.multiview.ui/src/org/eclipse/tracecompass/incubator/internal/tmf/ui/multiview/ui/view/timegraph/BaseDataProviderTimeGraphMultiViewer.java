@@ -399,17 +399,18 @@ public class BaseDataProviderTimeGraphMultiViewer extends AbstractTimeGraphMulti
         Multimap<ITimeGraphDataProvider<? extends TimeGraphEntryModel>, Long> providersToModelIds = filterGroupEntries(entries, zoomStartTime, zoomEndTime);
         SubMonitor subMonitor = SubMonitor.convert(monitor, getClass().getSimpleName() + "#zoomEntries", providersToModelIds.size()); //$NON-NLS-1$
 
-        for (Entry<ITimeGraphDataProvider<? extends TimeGraphEntryModel>, Collection<Long>> entry : providersToModelIds.asMap().entrySet()) {
-            ITimeGraphDataProvider<? extends TimeGraphEntryModel> dataProvider = entry.getKey();
-            Map<@NonNull String, @NonNull Object> parameters = getFetchRowModelParameters(start, end, resolution, fullSearch, entry.getValue());
-            TmfModelResponse<TimeGraphModel> response = dataProvider.fetchRowModel(parameters, monitor);
-
+        // Fetch the rows of all the providers in parallel
+        Map<ITimeGraphDataProvider<? extends TimeGraphEntryModel>, Collection<Long>> modelIds = providersToModelIds.asMap();
+        ParallelProviderFetcher.fetch(modelIds.keySet(), dataProvider -> {
+            Map<@NonNull String, @NonNull Object> parameters = getFetchRowModelParameters(start, end, resolution, fullSearch, Objects.requireNonNull(modelIds.get(dataProvider)));
+            return dataProvider.fetchRowModel(parameters, monitor);
+        }, (dataProvider, response) -> {
             TimeGraphModel model = response.getModel();
             if (model != null) {
                 zoomEntries(fEntries.row(dataProvider), model.getRows(), response.getStatus() == ITmfResponse.Status.COMPLETED, sampling);
             }
             subMonitor.worked(1);
-        }
+        }, monitor);
     }
 
     /**
@@ -534,8 +535,7 @@ public class BaseDataProviderTimeGraphMultiViewer extends AbstractTimeGraphMulti
         List<@NonNull Long> times = StateSystemUtils.getTimes(zoomStartTime, zoomEndTime, resolution);
         Map<@NonNull String, @NonNull Object> parameters = getFetchArrowsParameters(times);
 
-        for (ITimeGraphDataProvider<? extends TimeGraphEntryModel> provider : providers) {
-            TmfModelResponse<List<ITimeGraphArrow>> response = provider.fetchArrows(parameters, monitor);
+        ParallelProviderFetcher.fetch(providers, provider -> provider.fetchArrows(parameters, monitor), (provider, response) -> {
             List<ITimeGraphArrow> model = response.getModel();
 
             if (model != null) {
@@ -551,7 +551,7 @@ public class BaseDataProviderTimeGraphMultiViewer extends AbstractTimeGraphMulti
                     }
                 }
             }
-        }
+        }, monitor);
         return linkList;
     }
 
@@ -585,36 +585,41 @@ public class BaseDataProviderTimeGraphMultiViewer extends AbstractTimeGraphMulti
             return viewerMarkerList;
         }
         List<@NonNull Long> times = StateSystemUtils.getTimes(startTime, endTime, resolution);
+        Multimap<ITimeGraphDataProvider<? extends TimeGraphEntryModel>, Long> providersToModelIds = HashMultimap.create();
         for (TraceEntry traceEntry : Iterables.filter(traceEntries, TraceEntry.class)) {
-            Multimap<ITimeGraphDataProvider<? extends TimeGraphEntryModel>, Long> providersToModelIds = filterGroupEntries(Utils.flatten(traceEntry), startTime, endTime);
-            for (ITimeGraphDataProvider<? extends TimeGraphEntryModel> provider : providersToModelIds.keySet()) {
-                if (provider instanceof IOutputAnnotationProvider) {
-                    Map<@NonNull String, @NonNull Object> parameters = getFetchAnnotationsParameters(times, providersToModelIds.get(provider));
-                    TmfModelResponse<@NonNull AnnotationModel> response = ((IOutputAnnotationProvider) provider).fetchAnnotations(parameters, new NullProgressMonitor());
-                    AnnotationModel model = response.getModel();
-                    if (model != null) {
-                        for (Entry<String, Collection<Annotation>> entry : model.getAnnotations().entrySet()) {
-                            String category = entry.getKey();
-                            for (Annotation annotation : entry.getValue()) {
-                                if (annotation.getType() == AnnotationType.CHART) {
-                                    // If the annotation entry ID is -1 we want
-                                    // the
-                                    // marker to span across all entries
-                                    ITimeGraphEntry markerEntry = null;
-                                    if (annotation.getEntryId() != -1) {
-                                        synchronized (fEntries) {
-                                            markerEntry = fEntries.get(provider, annotation.getEntryId());
-                                        }
-                                    }
-                                    MarkerEvent markerEvent = new MarkerEvent(annotation, markerEntry, category, true);
-                                    viewerMarkerList.add(markerEvent);
+            providersToModelIds.putAll(filterGroupEntries(Utils.flatten(traceEntry), startTime, endTime));
+        }
+        List<ITimeGraphDataProvider<? extends TimeGraphEntryModel>> providers = new ArrayList<>();
+        for (ITimeGraphDataProvider<? extends TimeGraphEntryModel> provider : providersToModelIds.keySet()) {
+            if (provider instanceof IOutputAnnotationProvider) {
+                providers.add(provider);
+            }
+        }
+        ParallelProviderFetcher.fetch(providers, provider -> {
+            Map<@NonNull String, @NonNull Object> parameters = getFetchAnnotationsParameters(times, providersToModelIds.get(provider));
+            return ((IOutputAnnotationProvider) provider).fetchAnnotations(parameters, monitor);
+        }, (provider, response) -> {
+            AnnotationModel model = response.getModel();
+            if (model != null) {
+                for (Entry<String, Collection<Annotation>> entry : model.getAnnotations().entrySet()) {
+                    String category = entry.getKey();
+                    for (Annotation annotation : entry.getValue()) {
+                        if (annotation.getType() == AnnotationType.CHART) {
+                            // If the annotation entry ID is -1 we want the
+                            // marker to span across all entries
+                            ITimeGraphEntry markerEntry = null;
+                            if (annotation.getEntryId() != -1) {
+                                synchronized (fEntries) {
+                                    markerEntry = fEntries.get(provider, annotation.getEntryId());
                                 }
                             }
+                            MarkerEvent markerEvent = new MarkerEvent(annotation, markerEntry, category, true);
+                            viewerMarkerList.add(markerEvent);
                         }
                     }
                 }
             }
-        }
+        }, monitor);
         return viewerMarkerList;
     }
 
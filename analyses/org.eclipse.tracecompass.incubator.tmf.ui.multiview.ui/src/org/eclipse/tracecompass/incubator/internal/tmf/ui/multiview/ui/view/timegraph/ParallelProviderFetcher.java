@@ -0,0 +1,137 @@
+/**********************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ **********************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.tmf.ui.multiview.ui.view.timegraph;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.tracecompass.tmf.core.util.Pair;
+
+/**
+ * Fetches data from several data providers at the same time, on a bounded
+ * pool of threads shared by all the viewers. The results are handed to the
+ * calling thread as each fetch completes, so that the time to fetch from all
+ * the providers is the time of the slowest one instead of the sum of their
+ * times. When the monitor is cancelled, for instance when a newer zoom
+ * supersedes the current one, the fetches that did not start are cancelled
+ * and the running fetches stop through the monitor they are given. They are
+ * not interrupted: an interrupt during a read of a state system closes its
+ * file channel for all the following queries.
+ */
+public final class ParallelProviderFetcher {
+
+    private static final int NB_THREADS = Math.max(2, Math.min(8, Runtime.getRuntime().availableProcessors()));
+    private static final long POLL_INTERVAL_MS = 50;
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(NB_THREADS, runnable -> {
+        Thread thread = new Thread(runnable, "Multiview fetch " + THREAD_COUNT.incrementAndGet()); //$NON-NLS-1$
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private ParallelProviderFetcher() {
+        // Utility class, not to be instantiated
+    }
+
+    /**
+     * Fetch data from each provider in parallel, and consume the results on
+     * the calling thread in the order the fetches complete. A fetch that
+     * throws an exception cancels the other fetches and the exception is
+     * thrown to the caller.
+     *
+     * @param <P>
+     *            The type of the providers
+     * @param <R>
+     *            The type of the results
+     * @param providers
+     *            The providers to fetch from
+     * @param fetcher
+     *            Fetches the result from a provider, called on a thread of
+     *            the pool
+     * @param consumer
+     *            Consumes the result of a provider, called on the calling
+     *            thread
+     * @param monitor
+     *            The monitor of the caller, that cancels the remaining
+     *            fetches when it is cancelled. The fetcher should pass it to
+     *            the providers so that the running fetches stop.
+     * @return Whether all the results were consumed, <code>false</code> if
+     *         the fetches were cancelled
+     */
+    public static <P, R> boolean fetch(Collection<P> providers, Function<P, R> fetcher, BiConsumer<P, R> consumer, IProgressMonitor monitor) {
+        if (providers.size() <= 1) {
+            // No need to hand a single fetch to another thread
+            for (P provider : providers) {
+                if (monitor.isCanceled()) {
+                    return false;
+                }
+                consumer.accept(provider, fetcher.apply(provider));
+            }
+            return !monitor.isCanceled();
+        }
+
+        CompletionService<Pair<P, R>> completionService = new ExecutorCompletionService<>(EXECUTOR);
+        List<Future<Pair<P, R>>> futures = new ArrayList<>();
+        try {
+            for (P provider : providers) {
+                futures.add(completionService.submit(() -> new Pair<>(provider, fetcher.apply(provider))));
+            }
+            int remaining = futures.size();
+            while (remaining > 0) {
+                if (monitor.isCanceled()) {
+                    return false;
+                }
+                Future<Pair<P, R>> future = completionService.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                if (future != null) {
+                    remaining--;
+                    Pair<P, R> result = future.get();
+                    consumer.accept(result.getFirst(), result.getSecond());
+                }
+            }
+            return !monitor.isCanceled();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (CancellationException e) {
+            return false;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        } finally {
+            // Nothing to do for the fetches that are done, the running ones stop with the monitor
+            for (Future<Pair<P, R>> future : futures) {
+                future.cancel(false);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.xaf.ui.tests.perf;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.function.Function;
+
+import org.eclipse.test.performance.Dimension;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+import org.eclipse.tracecompass.incubator.internal.xaf.core.statemachine.builder.ISuffixIndex;
+import org.eclipse.tracecompass.incubator.internal.xaf.core.statemachine.builder.SuffixArray;
+import org.eclipse.tracecompass.incubator.internal.xaf.core.statemachine.builder.SuffixTree;
+import org.junit.Test;
+
+/**
+ * Benchmarks the build time, the memory footprint and the pattern query time
+ * of the suffix tree and suffix array backends used by the XaF state machine
+ * builder, on long synthetic transition sequences
+ */
+public class SuffixIndexBenchmark {
+
+    /**
+     * Test test ID for the suffix index benchmarks
+     */
+    public static final String TEST_ID = "org.eclipse.tracecompass.incubator#XaF#";
+    private static final String TEST_BUILD = "Build %s (%d symbols)";
+    private static final String TEST_QUERY = "Query %s (%d symbols)";
+    private static final String TEST_MEMORY = "Memory %s (%d symbols)";
+
+    private static final long SEED = 0x5eed;
+    private static final int LOOP_COUNT = 5;
+    private static final int ALPHABET_SIZE = 32;
+    private static final int PATTERN_LENGTH = 12;
+
+    /**
+     * Generate a sequence of transitions made of a repeated pattern with some
+     * random noise, like the event flows of a state machine
+     */
+    private static List<Integer> generateSequence(int length) {
+        Random random = new Random(SEED);
+        List<Integer> pattern = new ArrayList<>(PATTERN_LENGTH);
+        for (int i = 0; i < PATTERN_LENGTH; i++) {
+            pattern.add(random.nextInt(ALPHABET_SIZE));
+        }
+        List<Integer> sequence = new ArrayList<>(length);
+        while (sequence.size() < length) {
+            if (random.nextInt(10) == 0) {
+                sequence.add(random.nextInt(ALPHABET_SIZE));
+            } else {
+                sequence.addAll(pattern.subList(0, Math.min(PATTERN_LENGTH, length - sequence.size())));
+            }
+        }
+        return sequence;
+    }
+
+    private static void collectGarbage() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+    }
+
+    private static void benchmark(String name, int length, Function<List<Integer>, ISuffixIndex<Integer>> factory, boolean query) {
+        Performance perf = Performance.getDefault();
+        PerformanceMeter buildPm = Objects.requireNonNull(perf.createPerformanceMeter(TEST_ID + String.format(TEST_BUILD, name, length)));
+        perf.tagAsSummary(buildPm, String.format(TEST_BUILD, name, length), Dimension.CPU_TIME);
+        PerformanceMeter queryPm = Objects.requireNonNull(perf.createPerformanceMeter(TEST_ID + String.format(TEST_QUERY, name, length)));
+        perf.tagAsSummary(queryPm, String.format(TEST_QUERY, name, length), Dimension.CPU_TIME);
+        // The heap still used once the index is built is its footprint
+        PerformanceMeter memoryPm = Objects.requireNonNull(perf.createPerformanceMeter(TEST_ID + String.format(TEST_MEMORY, name, length)));
+        perf.tagAsSummary(memoryPm, String.format(TEST_MEMORY, name, length), Dimension.USED_JAVA_HEAP);
+
+        List<Integer> sequence = generateSequence(length);
+        for (int i = 0; i < LOOP_COUNT; i++) {
+            collectGarbage();
+            memoryPm.start();
+            buildPm.start();
+            ISuffixIndex<Integer> index = factory.apply(sequence);
+            buildPm.stop();
+            collectGarbage();
+            memoryPm.stop();
+
+            if (query) {
+                queryPm.start();
+                List<Integer> pattern = index.getLongestNonOverlappingRepeatedSubstringWithoutRepeat();
+                queryPm.stop();
+                assertFalse(pattern.isEmpty());
+            } else {
+                assertNotNull(index);
+            }
+        }
+        buildPm.commit();
+        memoryPm.commit();
+        if (query) {
+            queryPm.commit();
+        }
+        buildPm.dispose();
+        memoryPm.dispose();
+        queryPm.dispose();
+    }
+
+    /**
+     * Benchmark both backends on a sequence short enough for the suffix tree
+     * query, which materializes every suffix
+     */
+    @Test
+    public void bothBackends16k() {
+        benchmark("SuffixTree", 16_000, SuffixTree::new, true);
+        benchmark("SuffixArray", 16_000, SuffixArray::new, true);
+    }
+
+    /**
+     * Benchmark the build of the suffix tree on one million symbols. The
+     * query is not run, it is quadratic in the sequence length.
+     */
+    @Test
+    public void suffixTree1M() {
+        benchmark("SuffixTree", 1_000_000, SuffixTree::new, false);
+    }
+
+    /**
+     * Benchmark the suffix array on one million symbols
+     */
+    @Test
+    public void suffixArray1M() {
+        benchmark("SuffixArray", 1_000_000, SuffixArray::new, true);
+    }
+
+    /**
+     * Benchmark the suffix array on four million symbols
+     */
+    @Test
+    public void suffixArray4M() {
+        benchmark("SuffixArray", 4_000_000, SuffixArray::new, true);
+    }
+}
@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.xaf.ui.tests.builder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.tracecompass.incubator.internal.xaf.core.statemachine.builder.ISuffixIndex;
+import org.eclipse.tracecompass.incubator.internal.xaf.core.statemachine.builder.SuffixArray;
+import org.eclipse.tracecompass.incubator.internal.xaf.core.statemachine.builder.SuffixTree;
+import org.junit.Test;
+
+/**
+ * Test the {@link SuffixArray} against the {@link SuffixTree}
+ */
+public class SuffixArrayTest {
+
+    private static final long SEED = 0x5eed;
+
+    private static List<List<String>> getSuffixes(ISuffixIndex<String> index) {
+        List<List<String>> suffixes = new ArrayList<>();
+        Iterator<List<String>> iterator = index.getSuffixArrayIterator();
+        while (iterator.hasNext()) {
+            List<String> suffix = iterator.next();
+            if (suffix != null) {
+                suffixes.add(new ArrayList<>(suffix));
+            }
+        }
+        return suffixes;
+    }
+
+    private static List<String> randomSequence(Random random, int length, int alphabetSize) {
+        List<String> sequence = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            sequence.add("event" + random.nextInt(alphabetSize));
+        }
+        return sequence;
+    }
+
+    /**
+     * Test the order of the suffixes on a simple sequence
+     */
+    @Test
+    public void testSuffixOrder() {
+        SuffixArray<String> suffixArray = new SuffixArray<>(Arrays.asList("b", "a", "n", "a", "n", "a"));
+        List<List<String>> expected = Arrays.asList(
+                Arrays.asList("a"),
+                Arrays.asList("a", "n", "a"),
+                Arrays.asList("a", "n", "a", "n", "a"),
+                Arrays.asList("b", "a", "n", "a", "n", "a"),
+                Arrays.asList("n", "a"),
+                Arrays.asList("n", "a", "n", "a"));
+        assertEquals(expected, getSuffixes(suffixArray));
+    }
+
+    /**
+     * Test the repeated pattern search on a sequence with an obvious loop
+     */
+    @Test
+    public void testRepeatedPattern() {
+        List<String> sequence = new ArrayList<>();
+        sequence.add("init");
+        for (int i = 0; i < 10; i++) {
+            sequence.addAll(Arrays.asList("entry", "read", "write", "exit"));
+        }
+        sequence.add("end");
+
+        List<String> expected = new SuffixTree<>(sequence).getLongestNonOverlappingRepeatedSubstringWithoutRepeat();
+        List<String> pattern = new SuffixArray<>(sequence).getLongestNonOverlappingRepeatedSubstringWithoutRepeat();
+        assertEquals(expected, pattern);
+        assertEquals(4, pattern.size());
+    }
+
+    /**
+     * Test that both backends give the same suffixes and the same patterns on
+     * random sequences
+     */
+    @Test
+    public void testSameAsSuffixTree() {
+        Random random = new Random(SEED);
+        for (int i = 0; i < 500; i++) {
+            List<String> sequence = randomSequence(random, 1 + random.nextInt(80), 1 + random.nextInt(5));
+            SuffixTree<String> suffixTree = new SuffixTree<>(sequence);
+            SuffixArray<String> suffixArray = new SuffixArray<>(sequence);
+
+            assertEquals(sequence.toString(), getSuffixes(suffixTree), getSuffixes(suffixArray));
+            assertEquals(sequence.toString(),
+                    suffixTree.getLongestNonOverlappingRepeatedSubstringWithoutRepeat(),
+                    suffixArray.getLongestNonOverlappingRepeatedSubstringWithoutRepeat());
+        }
+    }
+
+    /**
+     * Test the backend selected by the factory method
+     */
+    @Test
+    public void testCreate() {
+        Random random = new Random(SEED);
+        assertTrue(ISuffixIndex.create(randomSequence(random, ISuffixIndex.SUFFIX_ARRAY_THRESHOLD, 3)) instanceof SuffixTree);
+        assertTrue(ISuffixIndex.create(randomSequence(random, ISuffixIndex.SUFFIX_ARRAY_THRESHOLD + 1, 3)) instanceof SuffixArray);
+    }
+}
@@ -273,7 +273,7 @@ public class BuilderInstanceGroup {
     private Collection<List<BuilderEventInfo>> getModelFlows() {
         Collection<List<BuilderEventInfo>> eventListPerGroup = new ArrayList<>();
         if (eventsPerTid.size() == 1) {
-            SuffixTree<BuilderEventInfo> st = new SuffixTree<>(eventsPerTid.values().iterator().next());
+            ISuffixIndex<BuilderEventInfo> st = ISuffixIndex.create(eventsPerTid.values().iterator().next());
             eventListPerGroup.add(st.getLongestNonOverlappingRepeatedSubstringWithoutRepeat());
         } else {
             Collection<List<BuilderEventInfo>> lcsGroups = getLCSgroups();
@@ -357,7 +357,7 @@ public class BuilderInstanceGroup {
             }
 
             for (List<BuilderEventInfo> lcsGroup : lcsGroups) {
-                SuffixTree<BuilderEventInfo> st = new SuffixTree<>(lcsGroup);
+                ISuffixIndex<BuilderEventInfo> st = ISuffixIndex.create(lcsGroup);
                 eventListPerGroup.add(st.getLongestNonOverlappingRepeatedSubstringWithoutRepeat());
             }
         }
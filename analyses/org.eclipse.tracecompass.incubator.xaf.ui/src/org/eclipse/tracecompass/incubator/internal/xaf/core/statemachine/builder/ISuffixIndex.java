@@ -0,0 +1,121 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.xaf.core.statemachine.builder;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Index over all the suffixes of a sequence, used to find the repeated
+ * patterns of a state machine flow
+ *
+ * @param <T>
+ *            the contained object type
+ */
+public interface ISuffixIndex<T extends Comparable<? super T>> {
+
+    /**
+     * The size of sequence above which the suffix array is used instead of the
+     * suffix tree
+     */
+    int SUFFIX_ARRAY_THRESHOLD = 4096;
+
+    /**
+     * Create the suffix index best suited for the size of a sequence: a
+     * {@link SuffixTree} for small sequences, a {@link SuffixArray} for
+     * sequences longer than {@link #SUFFIX_ARRAY_THRESHOLD}
+     *
+     * @param content
+     *            the sequence to index
+     * @return the suffix index
+     */
+    static <T extends Comparable<? super T>> ISuffixIndex<T> create(List<T> content) {
+        if (content.size() > SUFFIX_ARRAY_THRESHOLD) {
+            return new SuffixArray<>(content);
+        }
+        return new SuffixTree<>(content);
+    }
+
+    /**
+     * Get an iterator on all the non-empty suffixes of the sequence, in
+     * lexicographic order
+     *
+     * @return the suffix array iterator
+     */
+    Iterator<List<T>> getSuffixArrayIterator();
+
+    /**
+     * Get the longest non-overlapping repeated substring
+     *
+     * @return the longest non-overlapping repeated substring, or the whole
+     *         sequence if nothing is repeated
+     */
+    List<T> getLongestNonOverlappingRepeatedSubstring();
+
+    /**
+     * Get the list of longest non-overlapping repeated substring without repeat
+     *
+     * @return the list of longest non-overlapping repeated substring without
+     *         repeat
+     */
+    default List<T> getLongestNonOverlappingRepeatedSubstringWithoutRepeat() {
+        List<T> longest = getLongestNonOverlappingRepeatedSubstring();
+
+        int index = 0;
+        int searchIndex;
+        while ((searchIndex = longest.subList(index + 1, longest.size()).indexOf(longest.get(0))) != -1) {
+            index += searchIndex + 1;
+
+            /*
+             * If there is a rest at the end of the list, compare it directly
+             * now... If it doesn't match, then there probably won't be any
+             * repetition
+             */
+            int rest = longest.size() % index;
+            if (rest > 0
+                    && !longest.subList(0, rest).equals(longest.subList(longest.size() - rest, longest.size()))) {
+                continue;
+            }
+
+            // If nothing says it doesn't work, then consider it works
+            boolean works = true;
+
+            // Store the first substring, it will be use for comparison
+            List<T> first = longest.subList(0, index);
+
+            // Store the maximum value to try
+            int max = longest.size() - index + 1;
+
+            // Loop to test the repetitions
+            for (int j = index; j < max; j += index) {
+                // Get the second substring for comparison
+                List<T> second = longest.subList(j, j + index);
+
+                // If it's not equal, we can stop testing: there is no
+                // comparison here!
+                if (!first.equals(second)) {
+                    works = false;
+                    break;
+                }
+            }
+
+            // If we arrive there with a working situation, we can return the
+            // comparison substring
+            if (works) {
+                return first;
+            }
+
+        }
+
+        return longest;
+    }
+}
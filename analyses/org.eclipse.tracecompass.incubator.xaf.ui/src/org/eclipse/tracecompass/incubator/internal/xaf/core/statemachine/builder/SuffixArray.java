@@ -0,0 +1,290 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.xaf.core.statemachine.builder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.TreeMap;
+
+/**
+ * Suffix index backed by a suffix array and its longest common prefix (LCP)
+ * array. Each symbol of the sequence is replaced by its rank among the
+ * distinct symbols, so the index only keeps a few integers per symbol instead
+ * of one map per node like the {@link SuffixTree}, and the suffixes are never
+ * materialized.
+ *
+ * The suffix array is built by prefix doubling with radix sorts in
+ * O(n log n), and the LCP array with Kasai's algorithm in O(n).
+ *
+ * @param <T>
+ *            the contained object type
+ */
+public class SuffixArray<T extends Comparable<? super T>> implements ISuffixIndex<T> {
+
+    private final List<T> fContent;
+    /** The rank of each symbol of the content among the distinct symbols */
+    private final int[] fSymbols;
+    /** The start positions of the suffixes, in lexicographic order */
+    private final int[] fSuffixes;
+    /** The common prefix length of each suffix with the previous one */
+    private final int[] fLcp;
+    /** The first position of each distinct symbol in the content */
+    private final int[] fFirstOccurrence;
+
+    /**
+     * Constructor
+     *
+     * @param content
+     *            the content to index
+     */
+    public SuffixArray(List<T> content) {
+        fContent = (content instanceof RandomAccess) ? content : new ArrayList<>(content);
+
+        TreeMap<T, Integer> alphabet = new TreeMap<>();
+        for (T symbol : fContent) {
+            alphabet.putIfAbsent(symbol, 0);
+        }
+        int rank = 0;
+        for (Entry<T, Integer> entry : alphabet.entrySet()) {
+            entry.setValue(rank++);
+        }
+
+        int n = fContent.size();
+        fSymbols = new int[n];
+        fFirstOccurrence = new int[alphabet.size()];
+        Arrays.fill(fFirstOccurrence, -1);
+        for (int i = 0; i < n; i++) {
+            int symbol = alphabet.get(fContent.get(i));
+            fSymbols[i] = symbol;
+            if (fFirstOccurrence[symbol] < 0) {
+                fFirstOccurrence[symbol] = i;
+            }
+        }
+
+        fSuffixes = buildSuffixArray(fSymbols, alphabet.size());
+        fLcp = buildLcp(fSymbols, fSuffixes);
+    }
+
+    private static int[] buildSuffixArray(int[] symbols, int alphabetSize) {
+        int n = symbols.length;
+        int[] suffixes = new int[n];
+        if (n == 0) {
+            return suffixes;
+        }
+        int[] ranks = new int[n];
+        int[] tmp = new int[n];
+        int[] counts = new int[Math.max(alphabetSize, n)];
+
+        // Sort the suffixes by their first symbol
+        for (int i = 0; i < n; i++) {
+            counts[symbols[i]]++;
+        }
+        for (int i = 1; i < alphabetSize; i++) {
+            counts[i] += counts[i - 1];
+        }
+        for (int i = n - 1; i >= 0; i--) {
+            suffixes[--counts[symbols[i]]] = i;
+        }
+        int classes = 1;
+        ranks[suffixes[0]] = 0;
+        for (int i = 1; i < n; i++) {
+            if (symbols[suffixes[i]] != symbols[suffixes[i - 1]]) {
+                classes++;
+            }
+            ranks[suffixes[i]] = classes - 1;
+        }
+
+        // Double the length of the sorted prefixes until all ranks are unique
+        for (int h = 1; classes < n; h <<= 1) {
+            // Order by the second half: suffixes without second half come first
+            int p = 0;
+            for (int i = n - h; i < n; i++) {
+                tmp[p++] = i;
+            }
+            for (int i = 0; i < n; i++) {
+                if (suffixes[i] >= h) {
+                    tmp[p++] = suffixes[i] - h;
+                }
+            }
+
+            // Stable sort by the first half
+            Arrays.fill(counts, 0, classes, 0);
+            for (int i = 0; i < n; i++) {
+                counts[ranks[i]]++;
+            }
+            for (int i = 1; i < classes; i++) {
+                counts[i] += counts[i - 1];
+            }
+            for (int i = n - 1; i >= 0; i--) {
+                suffixes[--counts[ranks[tmp[i]]]] = tmp[i];
+            }
+
+            // Compute the ranks of the prefixes of length 2h
+            tmp[suffixes[0]] = 0;
+            classes = 1;
+            for (int i = 1; i < n; i++) {
+                int cur = suffixes[i];
+                int prev = suffixes[i - 1];
+                int curSecond = (cur + h < n) ? ranks[cur + h] : -1;
+                int prevSecond = (prev + h < n) ? ranks[prev + h] : -1;
+                if (ranks[cur] != ranks[prev] || curSecond != prevSecond) {
+                    classes++;
+                }
+                tmp[cur] = classes - 1;
+            }
+            int[] swap = ranks;
+            ranks = tmp;
+            tmp = swap;
+        }
+        return suffixes;
+    }
+
+    private static int[] buildLcp(int[] symbols, int[] suffixes) {
+        int n = suffixes.length;
+        int[] lcp = new int[n];
+        int[] inverse = new int[n];
+        for (int i = 0; i < n; i++) {
+            inverse[suffixes[i]] = i;
+        }
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            if (inverse[i] == 0) {
+                k = 0;
+                continue;
+            }
+            int j = suffixes[inverse[i] - 1];
+            while (i + k < n && j + k < n && symbols[i + k] == symbols[j + k]) {
+                k++;
+            }
+            lcp[inverse[i]] = k;
+            if (k > 0) {
+                k--;
+            }
+        }
+        return lcp;
+    }
+
+    /**
+     * Get the number of indexed symbols
+     *
+     * @return the size of the indexed sequence
+     */
+    public int size() {
+        return fSuffixes.length;
+    }
+
+    @Override
+    public Iterator<List<T>> getSuffixArrayIterator() {
+        return new Iterator<List<T>>() {
+            private int fIndex = 0;
+
+            @Override
+            public boolean hasNext() {
+                return fIndex < fSuffixes.length;
+            }
+
+            @Override
+            public List<T> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return fContent.subList(fSuffixes[fIndex++], fContent.size());
+            }
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * This runs the same neighbor-based search as the {@link SuffixTree}, but
+     * compares the suffixes through their length and the LCP array instead of
+     * comparing their elements.
+     */
+    @Override
+    public List<T> getLongestNonOverlappingRepeatedSubstring() {
+        int n = fSuffixes.length;
+        int longestStart = -1;
+        int longestLength = 0;
+        int neighborsToCheck = 1;
+        int atLeastSize = 1;
+
+        // Common prefix length of the current suffix with each of its previous neighbors
+        int[] neighborLcp = new int[2];
+
+        for (int i = 1; i < n; i++) {
+            int l0 = fSuffixes[i];
+            int l0Size = n - l0;
+
+            int neighbors = neighborsToCheck;
+            if (neighborLcp.length <= neighbors) {
+                neighborLcp = Arrays.copyOf(neighborLcp, 2 * neighbors + 1);
+            }
+            neighborLcp[1] = fLcp[i];
+            for (int neighbor = 2; neighbor <= neighbors; neighbor++) {
+                neighborLcp[neighbor] = Math.min(neighborLcp[neighbor - 1], fLcp[i - neighbor + 1]);
+            }
+
+            for (int neighbor = neighbors; neighbor > 0; neighbor--) {
+                int l1Size = n - fSuffixes[i - neighbor];
+                int commonPrefix = neighborLcp[neighbor];
+
+                int distance = Math.abs(l0Size - l1Size);
+                boolean useAsBest = false;
+                if (longestStart >= 0
+                        && distance == atLeastSize - 1
+                        && l0Size >= atLeastSize - 1
+                        && l1Size >= atLeastSize - 1
+                        && commonPrefix >= atLeastSize - 1
+                        && fFirstOccurrence[fSymbols[l0]] < fFirstOccurrence[fSymbols[longestStart]]) {
+                    useAsBest = true;
+                }
+                if (!useAsBest && distance < atLeastSize) {
+                    if (l0Size >= atLeastSize
+                            && l1Size >= atLeastSize
+                            && commonPrefix >= atLeastSize) {
+                        neighborsToCheck = Math.max(neighborsToCheck, neighbor + 1);
+                    } else {
+                        neighborsToCheck = neighbor;
+                    }
+                    continue;
+                }
+
+                if (!useAsBest
+                        && (l0Size < atLeastSize
+                                || l1Size < atLeastSize
+                                || commonPrefix < atLeastSize)) {
+                    neighborsToCheck = neighbor;
+                    continue;
+                }
+
+                longestStart = l0;
+                longestLength = Math.min(Math.min(Math.min(l0Size, l1Size), distance), commonPrefix);
+                atLeastSize = longestLength + 1;
+                if (longestLength == distance) {
+                    neighborsToCheck = Math.max(neighborsToCheck, neighbor + 1);
+                } else {
+                    neighborsToCheck = neighbor;
+                }
+            }
+        }
+
+        if (longestStart < 0) {
+            return fContent;
+        }
+        return new ArrayList<>(fContent.subList(longestStart, longestStart + longestLength));
+    }
+}
@@ -32,7 +32,7 @@ import org.eclipse.jdt.annotation.Nullable;
  * @param <T>
  *            the contained object type
  */
-public class SuffixTree<T extends Comparable<? super T>> {
+public class SuffixTree<T extends Comparable<? super T>> implements ISuffixIndex<T> {
     private final int oo = Integer.MAX_VALUE / 2;
     private List<Node> nodes;
     private final List<T> origContent;
@@ -126,65 +126,8 @@ public class SuffixTree<T extends Comparable<? super T>> {
         return l0.subList(0, min);
     }
 
-    /**
-     * Get the list of longest non-overlapping repeated substring without repeat
-     *
-     * @return the list of longest non-overlapping repeated substring without
-     *         repeat
-     */
-    public List<T> getLongestNonOverlappingRepeatedSubstringWithoutRepeat() {
-        List<T> longest = getLongestNonOverlappingRepeatedSubstring();
-
-        int index = 0;
-        int searchIndex;
-        while ((searchIndex = longest.subList(index + 1, longest.size()).indexOf(longest.get(0))) != -1) {
-            index += searchIndex + 1;
-
-            /*
-             * If there is a rest at the end of the list, compare it directly
-             * now... If it doesn't match, then there probably won't be any
-             * repetition
-             */
-            int rest = longest.size() % index;
-            if (rest > 0
-                    && !longest.subList(0, rest).equals(longest.subList(longest.size() - rest, longest.size()))) {
-                continue;
-            }
-
-            // If nothing says it doesn't work, then consider it works
-            boolean works = true;
-
-            // Store the first substring, it will be use for comparison
-            List<T> first = longest.subList(0, index);
-
-            // Store the maximum value to try
-            int max = longest.size() - index + 1;
-
-            // Loop to test the repetitions
-            for (int j = index; j < max; j += index) {
-                // Get the second substring for comparison
-                List<T> second = longest.subList(j, j + index);
-
-                // If it's not equal, we can stop testing: there is no
-                // comparison here!
-                if (!first.equals(second)) {
-                    works = false;
-                    break;
-                }
-            }
-
-            // If we arrive there with a working situation, we can return the
-            // comparison substring
-            if (works) {
-                return first;
-            }
-
-        }
-
-        return longest;
-    }
-
-    private List<T> getLongestNonOverlappingRepeatedSubstring() {
+    @Override
+    public List<T> getLongestNonOverlappingRepeatedSubstring() {
         List<T> longest = null;
         int distance = -1;
         int neighbors_to_check = 1;
@@ -360,11 +303,7 @@ public class SuffixTree<T extends Comparable<? super T>> {
      * //suffixArray.removeIf(l -> l.isEmpty()); return suffixArray; }
      */
 
-    /**
-     * Get the suffix array iterator
-     *
-     * @return the suffix array iterator
-     */
+    @Override
     public Iterator<List<T>> getSuffixArrayIterator() {
         return new SuffixArrayIterator();
     }
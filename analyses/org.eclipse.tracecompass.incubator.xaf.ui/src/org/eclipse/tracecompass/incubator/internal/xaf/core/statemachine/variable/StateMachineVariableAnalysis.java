@@ -20,6 +20,7 @@ import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -28,6 +29,9 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
 
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.tracecompass.analysis.graph.core.base.IGraphWorker;
@@ -64,6 +68,7 @@ import org.eclipse.tracecompass.incubator.internal.xaf.core.statemachine.variabl
 import org.eclipse.tracecompass.incubator.internal.xaf.core.statemachine.variable.utils.ResponsibilityMap;
 import org.eclipse.tracecompass.incubator.internal.xaf.core.statemachine.variable.utils.State;
 import org.eclipse.tracecompass.incubator.internal.xaf.ui.statemachine.StateMachineBenchmark;
+import org.eclipse.tracecompass.incubator.internal.xaf.ui.statemachine.StateMachineInstance;
 import org.eclipse.tracecompass.incubator.internal.xaf.ui.statemachine.StateMachineInstance.InstanceStepInformation;
 import org.eclipse.tracecompass.incubator.internal.xaf.ui.statemachine.StateMachineInstanceGroup;
 import org.eclipse.tracecompass.incubator.internal.xaf.ui.statemachine.StateMachineReport;
@@ -112,6 +117,8 @@ public class StateMachineVariableAnalysis {
     private int differentInvalidCases = -1;
     private int differentValidCases = -1;
 
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
     private static final int MAXIMUM_REORDERED_ISI = 10000;
 
     static final double REALISTIC_FACTOR = 0.1; // 10%
@@ -210,6 +217,17 @@ public class StateMachineVariableAnalysis {
          * @throws StateMachineStateSystemTimeRangeException When the time requested is outside the state machine state system time range
          */
         public abstract List<InterruptionEventList> execute(InstanceStepInformation isi) throws StateMachineStateSystemNotFoundException, StateMachineTIDNotFoundException, StateMachineStateSystemTimeRangeException;
+
+        /**
+         * Method to get a runner that can be used concurrently with this one.
+         * Runners that keep state between calls to
+         * {@link #execute(InstanceStepInformation)}, such as trace contexts,
+         * must return a new runner with a fresh state.
+         * @return A runner equivalent to this one
+         */
+        public InterruptionEventRunner fork() {
+            return this;
+        }
     }
 
     /**
@@ -229,6 +247,16 @@ public class StateMachineVariableAnalysis {
          * @throws StateMachineUnexpectedEventException  When the event received is not of the type we expected (can happen when two events share the same timestamp)
          */
         public abstract InterruptionEventList execute(TimestampInterval ti, ITmfStateInterval si, ITmfEvent e) throws StateMachineStateSystemNotFoundException, StateMachineTIDNotFoundException, StateMachineStateSystemTimeRangeException, StateMachineUnexpectedEventException;
+
+        /**
+         * Method to get a getter that can be used concurrently with this one.
+         * Getters that keep state between calls must return a new getter with
+         * a fresh state.
+         * @return A getter equivalent to this one
+         */
+        public InterruptionEventGetter fork() {
+            return this;
+        }
     }
 
     /**
@@ -293,6 +321,15 @@ public class StateMachineVariableAnalysis {
             this.responsibilityMapGetter = responsibilityMapGetter;
         }
 
+        @Override
+        public InterruptionEventRunner fork() {
+            return new DefaultInterruptionEventRunner(
+                    Objects.requireNonNull(variable),
+                    Objects.requireNonNull(attribute),
+                    Objects.requireNonNull(interruptionEventGetter.fork()),
+                    Objects.requireNonNull(responsibilityMapGetter));
+        }
+
         @Override
         public List<InterruptionEventList> execute(InstanceStepInformation isi) throws StateMachineStateSystemNotFoundException, StateMachineTIDNotFoundException, StateMachineStateSystemTimeRangeException {
             // Get the instance group
@@ -412,25 +449,147 @@ public class StateMachineVariableAnalysis {
     }
 
     /**
-     * To perform a partial analysis using only invalid instances
-     * @param runner The runner to use to get the interruption event list and the responsibility map
-     * @throws StateMachineNoInvalidCaseException When no invalid case is found
+     * The interruption information computed for a single instance step, kept
+     * aside until the results of a whole batch of instance steps can be merged
+     * in a deterministic order
      */
-    public void doPartialAnalysis(InterruptionEventRunner runner) throws StateMachineNoInvalidCaseException {
-        StateMachineBenchmark benchmarkObjectAnalysis = new StateMachineBenchmark("Initial analysis (PARTIAL)"); //$NON-NLS-1$
-        // Local variables
-        //List<InterruptionIntervalSet> invalidiisList = new ArrayList<>();
-        Map<Map<InterruptionReason, Integer>, InterruptionIntervalSet> keyMapToiisMap = new HashMap<>();
-        //Map<InterruptionReason, Integer> reasonToInvalidInstanceCounterMap = new HashMap<>();
+    private static class IsiResult {
+        private final InstanceStepInformation isi;
+        private final InterruptionDurationSet ids;
+        private final List<InterruptionDurationSet> distances;
+        private final Exception droppedReason;
+
+        private IsiResult(InstanceStepInformation isi, InterruptionDurationSet ids, List<InterruptionDurationSet> distances) {
+            this.isi = isi;
+            this.ids = ids;
+            this.distances = distances;
+            this.droppedReason = null;
+        }
 
-        // Reset object attributes
-        invalidKeyToIsiMap = HashMultimap.create();
-        analysisResponsibilityMap = new ResponsibilityMap<>(0);
-        keyMapToclosestValidIsiListMap = new HashMap<>();
+        private IsiResult(InstanceStepInformation isi, Exception droppedReason) {
+            this.isi = isi;
+            this.ids = null;
+            this.distances = null;
+            this.droppedReason = droppedReason;
+        }
+    }
 
-        // Reset all counters of dropped instances
-        resetDroppedInstances();
+    /**
+     * To set the number of worker threads used to compute the interruption
+     * sets of the instance steps during the analyses
+     * @param parallelism The number of worker threads, 1 to run the analyses serially
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Compute the interruption duration set of an instance step and, if a
+     * list of valid interruption interval sets is given, its distance to each
+     * of them
+     * @param isi The instance step information
+     * @param runner The runner to use to get the interruption event list
+     * @param validIisList The valid interruption interval sets to compute the distance to, or null
+     * @return The result for that instance step
+     */
+    private static IsiResult computeIsiResult(InstanceStepInformation isi, InterruptionEventRunner runner, List<InterruptionIntervalSet> validIisList) {
+        List<InterruptionEventList> interruptionEventLists;
+        try {
+            interruptionEventLists = runner.execute(isi);
+        } catch (StateMachineStateSystemNotFoundException | StateMachineTIDNotFoundException | StateMachineStateSystemTimeRangeException e) {
+            return new IsiResult(isi, e);
+        }
+
+        // Then, create an InterruptionDurationSet that will represent this case, we will put in it all
+        // the events and it will represents globally what happened in here
+        InterruptionDurationSet ids = new InterruptionDurationSet();
+        for (InterruptionEventList taskList : interruptionEventLists) {
+            for (InterruptionDuration id : taskList.split()) {
+                ids.add(id);
+            }
+        }
+
+        List<InterruptionDurationSet> distances = null;
+        if (validIisList != null) {
+            distances = new ArrayList<>(validIisList.size());
+            for (InterruptionIntervalSet iis : validIisList) {
+                distances.add(iis.distance(ids));
+            }
+        }
+        return new IsiResult(isi, ids, distances);
+    }
 
+    /**
+     * Compute the results of a batch of instance steps on a fork-join pool.
+     * The batch is partitioned per state machine instance and each partition
+     * is treated serially by its own fork of the runner, so the trace
+     * contexts kept by a runner keep moving forward in time. The results are
+     * returned in the order of the batch, whatever the order in which the
+     * partitions completed.
+     * @param pool The pool on which to run the partitions
+     * @param batch The batch of instance step information
+     * @param runner The runner to use to get the interruption event list
+     * @param validIisList The valid interruption interval sets to compute the distance to, or null
+     * @return The results, in the order of the batch
+     */
+    private static List<IsiResult> computeBatch(ForkJoinPool pool, List<InstanceStepInformation> batch, InterruptionEventRunner runner, List<InterruptionIntervalSet> validIisList) {
+        Map<StateMachineInstance, List<Integer>> partitions = new LinkedHashMap<>();
+        for (int idx = 0; idx < batch.size(); idx++) {
+            partitions.computeIfAbsent(batch.get(idx).instance, k -> new ArrayList<>()).add(idx);
+        }
+
+        IsiResult[] results = new IsiResult[batch.size()];
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(partitions.size());
+        for (List<Integer> partition : partitions.values()) {
+            InterruptionEventRunner partitionRunner = runner.fork();
+            tasks.add(pool.submit(() -> {
+                for (int idx : partition) {
+                    results[idx] = computeIsiResult(batch.get(idx), partitionRunner, validIisList);
+                }
+            }));
+        }
+        for (ForkJoinTask<?> task : tasks) {
+            task.join();
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Get the next batch of instance step information to analyze. When the
+     * population is sampled, the batch is reordered by time to limit the
+     * seeks in the traces.
+     * @param isiIterator The iterator on the instance step information
+     * @param isiComparator The comparator to use to reorder the batch
+     * @return The next batch
+     */
+    private static List<InstanceStepInformation> nextBatch(IsiSampleIterator isiIterator, Comparator<InstanceStepInformation> isiComparator) {
+        if (isiIterator.useFullPopulation) {
+            List<InstanceStepInformation> batch = new ArrayList<>();
+            while (isiIterator.hasNext() && batch.size() < MAXIMUM_REORDERED_ISI) {
+                batch.add(isiIterator.next());
+            }
+            return batch;
+        }
+
+        Set<InstanceStepInformation> isiSet = new TreeSet<>(isiComparator);
+        int limit = MAXIMUM_REORDERED_ISI;
+        while (isiIterator.hasNext() && --limit > 0) {
+            isiSet.add(isiIterator.next());
+        }
+        return new ArrayList<>(isiSet);
+    }
+
+    /**
+     * Compute the results of all the instance steps returned by a sample
+     * iterator, and give them to the merger in a deterministic order. Dropped
+     * instances are accounted for and replaced by new samples when possible.
+     * @param pool The pool on which to run the computations
+     * @param isiIterator The iterator on the instance step information
+     * @param runner The runner to use to get the interruption event list
+     * @param validIisList The valid interruption interval sets to compute the distance to, or null
+     * @param merger The consumer of the results of the instance steps that were not dropped
+     */
+    private void computeIsiResults(ForkJoinPool pool, IsiSampleIterator isiIterator, InterruptionEventRunner runner, List<InterruptionIntervalSet> validIisList, Consumer<IsiResult> merger) {
         Comparator<InstanceStepInformation> isiComparator = new Comparator<InstanceStepInformation>() {
             @Override
             public int compare(InstanceStepInformation isi1, InstanceStepInformation isi2) {
@@ -440,92 +599,94 @@ public class StateMachineVariableAnalysis {
             }
         };
 
-        StateMachineBenchmark benchmarkObject = new StateMachineBenchmark("Analysis get data"); //$NON-NLS-1$
-        /////////////////////////////////////////////
-        // COMPUTE SETS FOR INVALID INSTANCE STEPS //
-        /////////////////////////////////////////////
-
-        // For invalid instances
-        IsiSampleIterator invalidIsiIterator = new IsiSampleIterator(invalidIsiList);
-
         int i = 0;
-        StateMachineReport.debug("Invalid instances: " + invalidIsiList.size()); //$NON-NLS-1$
-        StateMachineReport.debug("Treating ? " + invalidIsiIterator.size()); //$NON-NLS-1$
-        while (invalidIsiIterator.hasNext()) {
-            Iterator<InstanceStepInformation> isiIterator;
-            if (invalidIsiIterator.useFullPopulation) {
-                isiIterator = invalidIsiIterator;
-            } else {
-                Set<InstanceStepInformation> isiSet = new TreeSet<>(isiComparator);
-                int limit = MAXIMUM_REORDERED_ISI;
-                while (invalidIsiIterator.hasNext() && --limit > 0) {
-                    isiSet.add(invalidIsiIterator.next());
-                }
-                isiIterator = isiSet.iterator();
-            }
-
-            while (isiIterator.hasNext()) {
-                InstanceStepInformation isi = isiIterator.next();
-                List<InterruptionEventList> interruptionEventLists;
-                try {
-                    interruptionEventLists = runner.execute(isi);
-                } catch (StateMachineStateSystemNotFoundException | StateMachineTIDNotFoundException | StateMachineStateSystemTimeRangeException e) {
-                    addDroppedInstance(e);
-                    invalidIsiIterator.inc();
+        while (isiIterator.hasNext()) {
+            for (IsiResult result : computeBatch(pool, nextBatch(isiIterator, isiComparator), runner, validIisList)) {
+                if (result.droppedReason != null) {
+                    addDroppedInstance(result.droppedReason);
+                    isiIterator.inc();
                     continue;
                 }
+                merger.accept(result);
 
-                // Then, create an InterruptionDurationSet that will represent this case, we will put in it all
-                // the events and it will represents globally what happened in here
-                InterruptionDurationSet ids = new InterruptionDurationSet();
-                for (InterruptionEventList taskList : interruptionEventLists) {
-                    for (InterruptionDuration id : taskList.split()) {
-                        ids.add(id);
-                    }
+                // DEBUG
+                i++;
+                if (i%20 == 0) {
+                    StateMachineReport.debug(Integer.toString(i));
                 }
+            }
+        }
+    }
+
+    /**
+     * To perform a partial analysis using only invalid instances
+     * @param runner The runner to use to get the interruption event list and the responsibility map
+     * @throws StateMachineNoInvalidCaseException When no invalid case is found
+     */
+    public void doPartialAnalysis(InterruptionEventRunner runner) throws StateMachineNoInvalidCaseException {
+        for (int cores : StateMachineBenchmark.getSpeedupCoreCounts()) {
+            long start = System.nanoTime();
+            doPartialAnalysis(runner, cores);
+            StateMachineBenchmark.addSpeedupMeasure("Initial analysis (PARTIAL)", cores, System.nanoTime() - start); //$NON-NLS-1$
+        }
+        doPartialAnalysis(runner, parallelism);
+    }
+
+    private void doPartialAnalysis(InterruptionEventRunner runner, int cores) throws StateMachineNoInvalidCaseException {
+        StateMachineBenchmark benchmarkObjectAnalysis = new StateMachineBenchmark("Initial analysis (PARTIAL)"); //$NON-NLS-1$
+        // Local variables
+        Map<Map<InterruptionReason, Integer>, InterruptionIntervalSet> keyMapToiisMap = new LinkedHashMap<>();
 
-                Map<InterruptionReason, Integer> keyMap = ids.keyMap();
-                invalidKeyToIsiMap.put(keyMap, isi);
+        // Reset object attributes
+        invalidKeyToIsiMap = HashMultimap.create();
+        analysisResponsibilityMap = new ResponsibilityMap<>(0);
+        keyMapToclosestValidIsiListMap = new HashMap<>();
+
+        // Reset all counters of dropped instances
+        resetDroppedInstances();
+
+        ForkJoinPool pool = new ForkJoinPool(cores);
+        try {
+            StateMachineBenchmark benchmarkObject = new StateMachineBenchmark("Analysis get data"); //$NON-NLS-1$
+            /////////////////////////////////////////////
+            // COMPUTE SETS FOR INVALID INSTANCE STEPS //
+            /////////////////////////////////////////////
+
+            // For invalid instances
+            IsiSampleIterator invalidIsiIterator = new IsiSampleIterator(invalidIsiList);
+
+            StateMachineReport.debug("Invalid instances: " + invalidIsiList.size()); //$NON-NLS-1$
+            StateMachineReport.debug("Treating ? " + invalidIsiIterator.size()); //$NON-NLS-1$
+            computeIsiResults(pool, invalidIsiIterator, runner, null, result -> {
+                Map<InterruptionReason, Integer> keyMap = result.ids.keyMap();
+                invalidKeyToIsiMap.put(keyMap, result.isi);
 
                 InterruptionIntervalSet invalidIis = keyMapToiisMap.get(keyMap);
                 if (invalidIis == null) {
                     invalidIis = new InterruptionIntervalSet(constraint.getDirection());
                     keyMapToiisMap.put(keyMap, invalidIis);
                 }
-                invalidIis.addDurationSet(ids);
+                invalidIis.addDurationSet(result.ids);
+            });
+            if (invalidKeyToIsiMap.isEmpty()) {
+                throw new StateMachineNoInvalidCaseException();
+            }
 
-                /*for (InterruptionReason reason : ids.getReasonSet()) {
-                    reasonToInvalidInstanceCounterMap.put(reason, reasonToInvalidInstanceCounterMap.getOrDefault(reason, 0) + 1);
-                }*/
+            benchmarkObject.stop();
+            benchmarkObject = new StateMachineBenchmark("Analysis weight data"); //$NON-NLS-1$
 
-                // DEBUG
-                i++;
-                if (i%20 == 0) {
-                    StateMachineReport.debug(Integer.toString(i));
+            InterruptionIntervalSetDiff iisd = new InterruptionIntervalSetDiff();
+            for (InterruptionIntervalSet iis : keyMapToiisMap.values()) {
+                for (InterruptionInterval ii : iis.getMergedIntervals()) {
+                    iisd.add(ii, ii.getCounter());
                 }
             }
-        }
-        if (invalidKeyToIsiMap.isEmpty()) {
-            throw new StateMachineNoInvalidCaseException();
-        }
-
-        benchmarkObject.stop();
-        benchmarkObject = new StateMachineBenchmark("Analysis weight data"); //$NON-NLS-1$
+            analysisResponsibilityMap.mergeAll(runner.getResponsibilityMap(iisd));
 
-        InterruptionIntervalSetDiff iisd = new InterruptionIntervalSetDiff();
-        for (InterruptionIntervalSet iis : keyMapToiisMap.values()) {
-            for (InterruptionInterval ii : iis.getMergedIntervals()) {
-                iisd.add(ii, ii.getCounter());
-            }
+            benchmarkObject.stop();
+        } finally {
+            pool.shutdown();
         }
-        analysisResponsibilityMap.mergeAll(runner.getResponsibilityMap(iisd));
-        /*for (Entry<InterruptionReason, Integer> entry : reasonToInvalidInstanceCounterMap.entrySet()) {
-            analysisResponsibilityMap.put(entry.getKey(), entry.getValue().doubleValue() / invalidIsiIterator.size());
-        }*/
-        /*System.out.println("CASE 1 => " + runner.getResponsibilityMap(iisd));
-        System.out.println("CASE 2 => " + analysisResponsibilityMap);*/
-
-        benchmarkObject.stop();
 
         // Update counters
         differentValidCases = -1;
@@ -541,14 +702,23 @@ public class StateMachineVariableAnalysis {
      * @throws StateMachineNoInvalidCaseException When no invalid case is found for the comparison
      */
     public void doAnalysis(InterruptionEventRunner runner) throws StateMachineNoValidCaseException, StateMachineNoInvalidCaseException {
+        for (int cores : StateMachineBenchmark.getSpeedupCoreCounts()) {
+            long start = System.nanoTime();
+            doAnalysis(runner, cores);
+            StateMachineBenchmark.addSpeedupMeasure("Initial analysis (FULL)", cores, System.nanoTime() - start); //$NON-NLS-1$
+        }
+        doAnalysis(runner, parallelism);
+    }
+
+    private void doAnalysis(InterruptionEventRunner runner, int cores) throws StateMachineNoValidCaseException, StateMachineNoInvalidCaseException {
         StateMachineBenchmark benchmarkObjectAnalysis = new StateMachineBenchmark("Initial analysis (FULL)"); //$NON-NLS-1$
         // Local variables
         // List of the InterruptionIntervalSet
-        Map<Map<InterruptionReason, Integer>, InterruptionIntervalSet> validiisMap = new HashMap<>();
+        Map<Map<InterruptionReason, Integer>, InterruptionIntervalSet> validiisMap = new LinkedHashMap<>();
         // Map of keyMap to valid InstanceStepInformation
         Multimap<Map<InterruptionReason, Integer>, InstanceStepInformation> validKeyToIsiMap = HashMultimap.create();
 
-        Map<Map<InterruptionReason, Integer>, Map<InterruptionIntervalSet, List<InterruptionDurationSet>>> keyMapToSolutionsMap = new HashMap<>();
+        Map<Map<InterruptionReason, Integer>, Map<InterruptionIntervalSet, List<InterruptionDurationSet>>> keyMapToSolutionsMap = new LinkedHashMap<>();
         Map<Map<InterruptionReason, Integer>, InterruptionIntervalSet> keyMapToiisMap = new HashMap<>();
 
         // Reset object attributes
@@ -559,306 +729,193 @@ public class StateMachineVariableAnalysis {
         // Reset all counters of dropped instances
         resetDroppedInstances();
 
-        Comparator<InstanceStepInformation> isiComparator = new Comparator<InstanceStepInformation>() {
-            @Override
-            public int compare(InstanceStepInformation isi1, InstanceStepInformation isi2) {
-                TimestampInterval t1 = isi1.getVariableInterval(variable.getName());
-                TimestampInterval t2 = isi2.getVariableInterval(variable.getName());
-                return t1.compareTo(t2);
-            }
-        };
-
-        StateMachineBenchmark benchmarkObject = new StateMachineBenchmark("Analysis get data"); //$NON-NLS-1$
-        ///////////////////////////////////////////
-        // COMPUTE SETS FOR VALID INSTANCE STEPS //
-        ///////////////////////////////////////////
-
-        // For valid instances
-        IsiSampleIterator validIsiIterator = new IsiSampleIterator(validIsiList);
-
-        int i = 0;
-        StateMachineReport.debug("Valid instances: " + validIsiList.size()); //$NON-NLS-1$
-        StateMachineReport.debug("Treating ? " + validIsiIterator.size()); //$NON-NLS-1$
-        while (validIsiIterator.hasNext()) {
-            Iterator<InstanceStepInformation> isiIterator;
-            if (validIsiIterator.useFullPopulation) {
-                isiIterator = validIsiIterator;
-            } else {
-                Set<InstanceStepInformation> isiSet = new TreeSet<>(isiComparator);
-                int limit = MAXIMUM_REORDERED_ISI;
-                while (validIsiIterator.hasNext() && --limit > 0) {
-                    isiSet.add(validIsiIterator.next());
-                }
-                isiIterator = isiSet.iterator();
-            }
-
-            while (isiIterator.hasNext()) {
-                InstanceStepInformation isi = isiIterator.next();
-                List<InterruptionEventList> interruptionEventLists;
-                try {
-                    interruptionEventLists = runner.execute(isi);
-                } catch (StateMachineStateSystemNotFoundException | StateMachineTIDNotFoundException | StateMachineStateSystemTimeRangeException e) {
-                    addDroppedInstance(e);
-                    validIsiIterator.inc();
-                    continue;
-                }
+        ForkJoinPool pool = new ForkJoinPool(cores);
+        try {
+            StateMachineBenchmark benchmarkObject = new StateMachineBenchmark("Analysis get data"); //$NON-NLS-1$
+            ///////////////////////////////////////////
+            // COMPUTE SETS FOR VALID INSTANCE STEPS //
+            ///////////////////////////////////////////
 
-                InterruptionDurationSet ids = new InterruptionDurationSet();
-                for (InterruptionEventList taskList : interruptionEventLists) {
-                    for (InterruptionDuration id : taskList.split()) {
-                        ids.add(id);
-                    }
-                }
-                //interruptionEventLists.clear();
+            // For valid instances
+            IsiSampleIterator validIsiIterator = new IsiSampleIterator(validIsiList);
 
-                Map<InterruptionReason, Integer> keyMap = ids.keyMap();
-                validKeyToIsiMap.put(keyMap, isi);
+            StateMachineReport.debug("Valid instances: " + validIsiList.size()); //$NON-NLS-1$
+            StateMachineReport.debug("Treating ? " + validIsiIterator.size()); //$NON-NLS-1$
+            computeIsiResults(pool, validIsiIterator, runner, null, result -> {
+                Map<InterruptionReason, Integer> keyMap = result.ids.keyMap();
+                validKeyToIsiMap.put(keyMap, result.isi);
 
                 InterruptionIntervalSet iis = validiisMap.get(keyMap);
                 if (iis == null) {
                     iis = new InterruptionIntervalSet(constraint.getDirection());
                     validiisMap.put(keyMap, iis);
                 }
-                iis.addDurationSet(ids);
-
-                // DEBUG
-                i++;
-                if (i%20 == 0) {
-                    StateMachineReport.debug(Integer.toString(i));
-                }
+                iis.addDurationSet(result.ids);
+            });
+            if (validiisMap.isEmpty()) {
+                throw new StateMachineNoValidCaseException();
             }
-        }
-        if (validiisMap.isEmpty()) {
-            throw new StateMachineNoValidCaseException();
-        }
-
-        //////////////////////////
-        // WORK ON INVALID ONES //
-        //////////////////////////
 
-        // For invalid instances
-        IsiSampleIterator invalidIsiIterator = new IsiSampleIterator(invalidIsiList);
+            //////////////////////////
+            // WORK ON INVALID ONES //
+            //////////////////////////
 
-        i = 0;
-        StateMachineReport.debug("Invalid instances: " + invalidIsiList.size()); //$NON-NLS-1$
-        StateMachineReport.debug("Treating ? " + invalidIsiIterator.size()); //$NON-NLS-1$
-        while (invalidIsiIterator.hasNext()) {
-            Iterator<InstanceStepInformation> isiIterator;
-            if (invalidIsiIterator.useFullPopulation) {
-                isiIterator = invalidIsiIterator;
-            } else {
-                Set<InstanceStepInformation> isiSet = new TreeSet<>(isiComparator);
-                int limit = MAXIMUM_REORDERED_ISI;
-                while (invalidIsiIterator.hasNext() && --limit > 0) {
-                    isiSet.add(invalidIsiIterator.next());
-                }
-                isiIterator = isiSet.iterator();
-            }
-
-            while (isiIterator.hasNext()) {
-                InstanceStepInformation isi = isiIterator.next();
-                List<InterruptionEventList> interruptionEventLists;
-                try {
-                    interruptionEventLists = runner.execute(isi);
-                } catch (StateMachineStateSystemNotFoundException | StateMachineTIDNotFoundException | StateMachineStateSystemTimeRangeException e) {
-                    addDroppedInstance(e);
-                    invalidIsiIterator.inc();
-                    continue;
-                }
+            // The valid sets do not change anymore, the distances can be computed by the workers
+            List<InterruptionIntervalSet> validIisList = new ArrayList<>(validiisMap.values());
 
-                // Then, create an InterruptionDurationSet that will represent this case, we will put in it all
-                // the events and it will represents globally what happened in here
-                InterruptionDurationSet ids = new InterruptionDurationSet();
-                for (InterruptionEventList taskList : interruptionEventLists) {
-                    for (InterruptionDuration id : taskList.split()) {
-                        ids.add(id);
-                    }
-                }
+            // For invalid instances
+            IsiSampleIterator invalidIsiIterator = new IsiSampleIterator(invalidIsiList);
 
-                Map<InterruptionReason, Integer> keyMap = ids.keyMap();
-                invalidKeyToIsiMap.put(keyMap, isi);
+            StateMachineReport.debug("Invalid instances: " + invalidIsiList.size()); //$NON-NLS-1$
+            StateMachineReport.debug("Treating ? " + invalidIsiIterator.size()); //$NON-NLS-1$
+            computeIsiResults(pool, invalidIsiIterator, runner, validIisList, result -> {
+                Map<InterruptionReason, Integer> keyMap = result.ids.keyMap();
+                invalidKeyToIsiMap.put(keyMap, result.isi);
 
                 InterruptionIntervalSet invalidIis = keyMapToiisMap.get(keyMap);
                 if (invalidIis == null) {
                     invalidIis = new InterruptionIntervalSet(constraint.getDirection());
                     keyMapToiisMap.put(keyMap, invalidIis);
                 }
-                invalidIis.addDurationSet(ids);
+                invalidIis.addDurationSet(result.ids);
 
                 Map<InterruptionIntervalSet, List<InterruptionDurationSet>> dataMap = keyMapToSolutionsMap.get(keyMap);
                 if (dataMap == null) {
-                    dataMap = new HashMap<>();
+                    dataMap = new LinkedHashMap<>();
                     keyMapToSolutionsMap.put(keyMap, dataMap);
                 }
 
-                for (InterruptionIntervalSet iis : validiisMap.values()) {
-                    List<InterruptionDurationSet> data = dataMap.get(iis);
+                for (int idx = 0; idx < validIisList.size(); idx++) {
+                    List<InterruptionDurationSet> data = dataMap.get(validIisList.get(idx));
                     if (data == null) {
                         data = new ArrayList<>();
-                        dataMap.put(iis, data);
+                        dataMap.put(validIisList.get(idx), data);
                     }
 
-                    data.add(iis.distance(ids));
+                    data.add(result.distances.get(idx));
                 }
+            });
+            if (invalidKeyToIsiMap.isEmpty()) {
+                throw new StateMachineNoInvalidCaseException();
+            }
 
-                // DEBUG
-                i++;
-                if (i%20 == 0) {
-                    StateMachineReport.debug(Integer.toString(i));
+            benchmarkObject.stop();
+            benchmarkObject = new StateMachineBenchmark("Analysis weight data"); //$NON-NLS-1$
+
+            // Compute distance and store it accordingly, one task per invalid case
+            List<ForkJoinTask<ResponsibilityMap<InterruptionReason>>> tasks = new ArrayList<>(keyMapToSolutionsMap.size());
+            for (Entry<Map<InterruptionReason, Integer>, Map<InterruptionIntervalSet, List<InterruptionDurationSet>>> entryReasonSolutions : keyMapToSolutionsMap.entrySet()) {
+                InterruptionIntervalSet iisError = Objects.requireNonNull(keyMapToiisMap.get(entryReasonSolutions.getKey()));
+                tasks.add(pool.submit(() -> weightInvalidCase(entryReasonSolutions, iisError, validKeyToIsiMap, runner)));
+            }
+
+            // Merge the responsibility maps in the order of the invalid cases
+            for (ForkJoinTask<ResponsibilityMap<InterruptionReason>> task : tasks) {
+                ResponsibilityMap<InterruptionReason> rm = task.join();
+                if (rm != null) {
+                    analysisResponsibilityMap.mergeAll(rm);
                 }
             }
-        }
-        if (invalidKeyToIsiMap.isEmpty()) {
-            throw new StateMachineNoInvalidCaseException();
+            benchmarkObject.stop();
+        } finally {
+            pool.shutdown();
         }
 
-        benchmarkObject.stop();
-        benchmarkObject = new StateMachineBenchmark("Analysis weight data"); //$NON-NLS-1$
-
-        // Compute distance and store it accordingly
-        for (Entry<Map<InterruptionReason, Integer>, Map<InterruptionIntervalSet, List<InterruptionDurationSet>>> entryReasonSolutions : keyMapToSolutionsMap.entrySet()) {
-            // Re-organize the solutions in order of distance to the current invalid situation
-            Map<Integer, List<InterruptionIntervalSet>> validIisPerDistance = new TreeMap<>();
-            for (Entry<InterruptionIntervalSet, List<InterruptionDurationSet>> entrySolutionDistances : entryReasonSolutions.getValue().entrySet()) {
-                // TODO: well, I had a good reason to use -1 instead of 0, but I don't remember it!
-                int distance = -1;
-                for (InterruptionDurationSet ids : entrySolutionDistances.getValue()) {
-                   distance += ids.size();
-                }
-                distance = (int) Math.ceil((double) distance / (double) entrySolutionDistances.getValue().size());
+        // Update counters
+        differentValidCases = validKeyToIsiMap.keySet().size();
+        differentInvalidCases = invalidKeyToIsiMap.keySet().size();
 
-                List<InterruptionIntervalSet> iisList = validIisPerDistance.get(distance);
-                if (iisList == null) {
-                    iisList = new ArrayList<>();
-                    validIisPerDistance.put(distance, iisList);
-                }
-                iisList.add(entrySolutionDistances.getKey());
-            }
+        benchmarkObjectAnalysis.stop();
+    }
 
-            // Compute the size of the invalid set
-            double s = 0;
-            for (int value : entryReasonSolutions.getKey().values()) {
-                s += value;
+    /**
+     * Weight the valid solutions of an invalid case and compute the
+     * responsibility map of that invalid case
+     * @param entryReasonSolutions The invalid case and the distances to each valid solution
+     * @param iisError The interruption interval set of the invalid case
+     * @param validKeyToIsiMap The map of keyMap to valid instance step information
+     * @param runner The runner to use to get the responsibility map
+     * @return The responsibility map of the invalid case, or null if none could be computed
+     */
+    private ResponsibilityMap<InterruptionReason> weightInvalidCase(Entry<Map<InterruptionReason, Integer>, Map<InterruptionIntervalSet, List<InterruptionDurationSet>>> entryReasonSolutions,
+            InterruptionIntervalSet iisError, Multimap<Map<InterruptionReason, Integer>, InstanceStepInformation> validKeyToIsiMap, InterruptionEventRunner runner) {
+        // Re-organize the solutions in order of distance to the current invalid situation
+        Map<Integer, List<InterruptionIntervalSet>> validIisPerDistance = new TreeMap<>();
+        for (Entry<InterruptionIntervalSet, List<InterruptionDurationSet>> entrySolutionDistances : entryReasonSolutions.getValue().entrySet()) {
+            // TODO: well, I had a good reason to use -1 instead of 0, but I don't remember it!
+            int distance = -1;
+            for (InterruptionDurationSet ids : entrySolutionDistances.getValue()) {
+               distance += ids.size();
             }
-            double totalsize = Math.max(1.0, s);
+            distance = (int) Math.ceil((double) distance / (double) entrySolutionDistances.getValue().size());
 
-            // To count the total number of occurrences up to now
-            double totaloccurrences = 0;
+            List<InterruptionIntervalSet> iisList = validIisPerDistance.get(distance);
+            if (iisList == null) {
+                iisList = new ArrayList<>();
+                validIisPerDistance.put(distance, iisList);
+            }
+            iisList.add(entrySolutionDistances.getKey());
+        }
 
-            // For the penalty calculation
-            double penalty = REALISTIC_FACTOR * (1.0 - 1.0 / entryReasonSolutions.getValue().keySet().size());
+        // Compute the size of the invalid set
+        double s = 0;
+        for (int value : entryReasonSolutions.getKey().values()) {
+            s += value;
+        }
+        double totalsize = Math.max(1.0, s);
 
-            Set<ElementProbability<InterruptionIntervalSet>> iisPerProbability = new TreeSet<>();
-            for (Entry<Integer, List<InterruptionIntervalSet>> entryIisPerDistances : validIisPerDistance.entrySet()) {
-                double distance = entryIisPerDistances.getKey();
+        // To count the total number of occurrences up to now
+        double totaloccurrences = 0;
 
-                // We need to add to the totaloccurrences counter
-                for (InterruptionIntervalSet iis : entryIisPerDistances.getValue()) {
-                    totaloccurrences += iis.getCounter();
-                }
+        // For the penalty calculation
+        double penalty = REALISTIC_FACTOR * (1.0 - 1.0 / entryReasonSolutions.getValue().keySet().size());
 
-                // Then we treat each list, for which we'll add the probability
-                for (InterruptionIntervalSet iis : entryIisPerDistances.getValue()) {
-                    double occurrences = iis.getCounter();
-                    double probability = (occurrences / totaloccurrences) * (distance / totalsize) + (totalsize - distance) / totalsize - penalty;
+        Set<ElementProbability<InterruptionIntervalSet>> iisPerProbability = new TreeSet<>();
+        for (Entry<Integer, List<InterruptionIntervalSet>> entryIisPerDistances : validIisPerDistance.entrySet()) {
+            double distance = entryIisPerDistances.getKey();
 
-                    // Only take that probability into account if it's more than 0%
-                    if (probability > 0) {
-                        iisPerProbability.add(new ElementProbability<>(iis, (int) occurrences, (int) distance, probability));
-                    }
-                }
+            // We need to add to the totaloccurrences counter
+            for (InterruptionIntervalSet iis : entryIisPerDistances.getValue()) {
+                totaloccurrences += iis.getCounter();
             }
 
-            // TODO: remove debug start
-            /*
-            System.out.println("Invalid interruption list " + //$NON-NLS-1$
-                                keyMapToiisMap.get(entryReasonSolutions.getKey()) +
-                                " has been encountered " + //$NON-NLS-1$
-                                requireNonNull(keyMapToiisMap.get(entryReasonSolutions.getKey())).getCounter() +
-                                " times"); //$NON-NLS-1$
-            System.out.println("Interruption lists identified as potential expected list instead of this invalid one:"); //$NON-NLS-1$
-            String[] columnNames = {
-                "Valid interruption list ", //$NON-NLS-1$
-                "Distance ", //$NON-NLS-1$
-                "Occurrences ", //$NON-NLS-1$
-                "Weight (%) ", //$NON-NLS-1$
-            };
-            List<Object[]> tableLines = new ArrayList<>();
-            Iterator<ElementProbability<InterruptionIntervalSet>> it2 = iisPerProbability.iterator();
-            while (it2.hasNext()) {
-                ElementProbability<InterruptionIntervalSet> proba = it2.next();
-
-                tableLines.add(new Object[]{
-                    proba.element.toStringOneLine(),
-                    new Integer(proba.distance),
-                    new Integer(proba.occurrences),
-                    String.format("   %.4f", proba.probability * 100), //$NON-NLS-1$
-                });
-            }
-            Object[][] res = new Object[tableLines.size()][];
-            tableLines.toArray(res);
-            TextTable tt = new TextTable(columnNames, res);
-            tt.setAddRowNumbering(true);
-            tt.printTable();
-            System.out.println(""); //$NON-NLS-1$*/
-            // TODO: remove debug end
-
-            keyMapToclosestValidIsiListMap.put(entryReasonSolutions.getKey(), validKeyToIsiMap.get(iisPerProbability.iterator().next().element.keyMap()));
-
-            InterruptionIntervalSetDiff iisd = null;
-            InterruptionIntervalSet iisError = Objects.requireNonNull(keyMapToiisMap.get(entryReasonSolutions.getKey()));
-            Iterator<ElementProbability<InterruptionIntervalSet>> it = iisPerProbability.iterator();
-            while (it.hasNext()) {
-                ElementProbability<InterruptionIntervalSet> proba = it.next();
-                if (proba.probability > .5 || iisd == null) {
-                    InterruptionIntervalSetDiff iisdlocal = iisError.substract(proba.element);
-                    if (iisd == null) {
-                        iisd = iisdlocal;
-                    } else {
-                        iisd = iisd.interUnion(iisdlocal);
-                    }
-                } else {
-                    break;
+            // Then we treat each list, for which we'll add the probability
+            for (InterruptionIntervalSet iis : entryIisPerDistances.getValue()) {
+                double occurrences = iis.getCounter();
+                double probability = (occurrences / totaloccurrences) * (distance / totalsize) + (totalsize - distance) / totalsize - penalty;
+
+                // Only take that probability into account if it's more than 0%
+                if (probability > 0) {
+                    iisPerProbability.add(new ElementProbability<>(iis, (int) occurrences, (int) distance, probability));
                 }
             }
+        }
 
-            // TODO: REMOVE DEBUG START
-            /*String[] header = {"Valid list", "Distance", "Occurrences", "Weight"}; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
-            String[][] strs = new String[iisPerProbability.size()][4];
-            int idx = 0;
-            int progressSize = 10;
-            it = iisPerProbability.iterator();
-            while (it.hasNext()) {
-                ElementProbability<InterruptionIntervalSet> proba = it.next();
-                double ratioValue = proba.probability * 100;
-                String symbol = StateMachineReport.progressBar(ratioValue, progressSize);
-
-                strs[idx][0] = String.format("%s", proba.element.toString() + "\n "); //$NON-NLS-1$
-                strs[idx][1] = String.format("%d", proba.distance); //$NON-NLS-1$
-                strs[idx][2] = String.format("%d", proba.occurrences); //$NON-NLS-1$
-                strs[idx][3] = String.format("%.2f%% %s", ratioValue, symbol); //$NON-NLS-1$
-                idx++;
-            }
-            StateMachineReport.R.println_table(header, strs, Arrays.asList(new Integer[]{1, 2, 3}));
-            StateMachineReport.R.println();
-            StateMachineReport.R.println(iisError);
-            StateMachineReport.R.println();
-            StateMachineReport.R.println(iisd);
-            StateMachineReport.R.println();*/
-            // TODO: REMOVE DEBUG END
+        Collection<InstanceStepInformation> closestValidIsiList = validKeyToIsiMap.get(iisPerProbability.iterator().next().element.keyMap());
+        synchronized (keyMapToclosestValidIsiListMap) {
+            keyMapToclosestValidIsiListMap.put(entryReasonSolutions.getKey(), closestValidIsiList);
+        }
 
-            if (iisd != null) {
-                ResponsibilityMap<InterruptionReason> rm = runner.getResponsibilityMap(iisd);
-                analysisResponsibilityMap.mergeAll(rm);
+        InterruptionIntervalSetDiff iisd = null;
+        Iterator<ElementProbability<InterruptionIntervalSet>> it = iisPerProbability.iterator();
+        while (it.hasNext()) {
+            ElementProbability<InterruptionIntervalSet> proba = it.next();
+            if (proba.probability > .5 || iisd == null) {
+                InterruptionIntervalSetDiff iisdlocal = iisError.substract(proba.element);
+                if (iisd == null) {
+                    iisd = iisdlocal;
+                } else {
+                    iisd = iisd.interUnion(iisdlocal);
+                }
+            } else {
+                break;
             }
         }
-        benchmarkObject.stop();
 
-        // Update counters
-        differentValidCases = validKeyToIsiMap.keySet().size();
-        differentInvalidCases = invalidKeyToIsiMap.keySet().size();
-
-        benchmarkObjectAnalysis.stop();
+        if (iisd != null) {
+            return runner.getResponsibilityMap(iisd);
+        }
+        return null;
     }
 
     /**
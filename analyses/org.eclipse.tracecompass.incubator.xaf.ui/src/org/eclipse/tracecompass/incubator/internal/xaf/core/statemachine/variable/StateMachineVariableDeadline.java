@@ -289,6 +289,11 @@ public class StateMachineVariableDeadline extends StateMachineVariable {
     private static class StateInterruptionEventGetter extends InterruptionEventGetter {
         private String lastSyscall = null;
 
+        @Override
+        public InterruptionEventGetter fork() {
+            return new StateInterruptionEventGetter();
+        }
+
         @Override
         public InterruptionEventList execute(TimestampInterval ti, ITmfStateInterval si, ITmfEvent e)
                 throws StateMachineStateSystemNotFoundException, StateMachineTIDNotFoundException, StateMachineStateSystemTimeRangeException, StateMachineUnexpectedEventException {
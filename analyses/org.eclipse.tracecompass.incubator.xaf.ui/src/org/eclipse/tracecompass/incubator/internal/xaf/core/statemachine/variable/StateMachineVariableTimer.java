@@ -187,6 +187,11 @@ public abstract class StateMachineVariableTimer extends StateMachineVariable {
             this.attribute = variable.getTimerAttribute();
         }
 
+        @Override
+        public InterruptionEventRunner fork() {
+            return new DefaultTimerInterruptionEventRunner(variable);
+        }
+
         @Override
         public List<InterruptionEventList> execute(InstanceStepInformation isi) throws StateMachineStateSystemNotFoundException, StateMachineTIDNotFoundException, StateMachineStateSystemTimeRangeException {
             // Get the instance group
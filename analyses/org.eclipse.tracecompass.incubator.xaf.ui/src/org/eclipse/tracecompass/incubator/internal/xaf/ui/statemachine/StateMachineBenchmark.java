@@ -12,10 +12,15 @@
 package org.eclipse.tracecompass.incubator.internal.xaf.ui.statemachine;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Map.Entry;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 import com.google.common.base.Strings;
 import com.google.common.collect.HashMultimap;
@@ -30,13 +35,85 @@ import com.google.common.collect.HashMultimap;
 public class StateMachineBenchmark {
 
     private static final HashMultimap<String, StateMachineBenchmark> benchmarks = HashMultimap.create();
+    private static final Map<String, SortedMap<Integer, Long>> speedups = new LinkedHashMap<>();
     private final int localInc;
     private static int inc = 0;
 
+    /**
+     * The environment variable containing the comma-separated list of core
+     * counts at which to measure the speedup of the analyses, e.g. "1,2,4,8"
+     */
+    private static final String SPEEDUP_CORES_ENV = "BENCHMARKCORES"; //$NON-NLS-1$
+
+    /**
+     * Get the core counts at which the analyses should be run to measure their
+     * speedup, as given by the BENCHMARKCORES environment variable
+     *
+     * @return The core counts, or an empty array if the speedup should not be
+     *         measured
+     */
+    public static int[] getSpeedupCoreCounts() {
+        String envv = System.getenv(SPEEDUP_CORES_ENV);
+        if (envv == null || envv.trim().isEmpty()) {
+            return new int[0];
+        }
+        try {
+            return Arrays.stream(envv.split(",")) //$NON-NLS-1$
+                    .map(String::trim)
+                    .mapToInt(Integer::parseInt)
+                    .filter(cores -> cores > 0)
+                    .distinct()
+                    .sorted()
+                    .toArray();
+        } catch (NumberFormatException e) {
+            StateMachineReport.debug("Invalid " + SPEEDUP_CORES_ENV + " value: " + envv); //$NON-NLS-1$ //$NON-NLS-2$
+            return new int[0];
+        }
+    }
+
+    /**
+     * Add the duration of a run of an analysis at a given core count, to
+     * report the speedup compared to the smallest core count
+     *
+     * @param name
+     *            The name of the benchmark
+     * @param cores
+     *            The number of cores used for that run
+     * @param duration
+     *            The duration of the run, in nanoseconds
+     */
+    public static void addSpeedupMeasure(String name, int cores, long duration) {
+        synchronized (speedups) {
+            speedups.computeIfAbsent(name, n -> new TreeMap<>()).merge(cores, duration, Long::sum);
+        }
+    }
+
     /**
      * Print the results of all the benchmarks
      */
     public final static void printBenchmarks() {
+        synchronized (benchmarks) {
+            printDurations();
+        }
+        synchronized (speedups) {
+            printSpeedups();
+        }
+    }
+
+    private static void printSpeedups() {
+        for (Entry<String, SortedMap<Integer, Long>> entry : speedups.entrySet()) {
+            long baseline = entry.getValue().get(entry.getValue().firstKey());
+            for (Entry<Integer, Long> measure : entry.getValue().entrySet()) {
+                double speedup = (double) baseline / Math.max(1L, measure.getValue());
+                StateMachineReport.benchmark(String.format("%s [%d cores] = %d ns (speedup x%.2f)", //$NON-NLS-1$
+                        entry.getKey(), measure.getKey(), measure.getValue(), speedup));
+                StateMachineReport.debug(String.format("%s [%d cores] = %f ms (speedup x%.2f)", //$NON-NLS-1$
+                        entry.getKey(), measure.getKey(), measure.getValue() / 1e6, speedup));
+            }
+        }
+    }
+
+    private static void printDurations() {
         // Sort by appearing time
         ArrayList<Entry<String, Collection<StateMachineBenchmark>>> list = new ArrayList<>(benchmarks.asMap().entrySet());
         list.sort(new Comparator<Entry<String, Collection<StateMachineBenchmark>>>() {
@@ -78,9 +155,11 @@ public class StateMachineBenchmark {
      * @param name The name of the new benchmark
      */
     public StateMachineBenchmark(String name) {
-        benchmarks.put(name, this);
-        localInc = inc;
-        inc++;
+        synchronized (benchmarks) {
+            benchmarks.put(name, this);
+            localInc = inc;
+            inc++;
+        }
         startTime = System.nanoTime();
     }
 
@@ -89,7 +168,9 @@ public class StateMachineBenchmark {
      */
     public void stop() {
         endTime = System.nanoTime();
-        inc--;
+        synchronized (benchmarks) {
+            inc--;
+        }
     }
 
     /**
@@ -0,0 +1,163 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.callstack.core.tests.perf.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.test.performance.Dimension;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+import org.eclipse.tracecompass.incubator.analysis.core.concepts.AggregatedCallSite;
+import org.eclipse.tracecompass.incubator.analysis.core.weighted.tree.AllGroupDescriptor;
+import org.eclipse.tracecompass.incubator.analysis.core.weighted.tree.IWeightedTreeGroupDescriptor;
+import org.eclipse.tracecompass.incubator.callstack.core.base.CallStackElement;
+import org.eclipse.tracecompass.incubator.callstack.core.base.ICallStackElement;
+import org.eclipse.tracecompass.incubator.callstack.core.callgraph.CallGraph;
+import org.eclipse.tracecompass.incubator.callstack.core.sampled.callgraph.ProfilingCallGraphAnalysisModule;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.util.Pair;
+import org.junit.Test;
+
+/**
+ * Benchmarks the aggregation of sampled stack traces in a call graph, by
+ * merging the callsites of each stack trace and by adding the raw stack traces
+ * directly. The throughput is measured by the performance meter, and the
+ * bytes allocated per sample by the raw stack traces are checked against a
+ * bound.
+ */
+public class SampledCallGraphBenchmark {
+
+    /**
+     * Test test ID for the sampled call graph benchmarks
+     */
+    public static final String TEST_ID = "org.eclipse.tracecompass.incubator#Sampled CallGraph#";
+
+    private static final int LOOP_COUNT = 5;
+    private static final int NB_SAMPLES = 1_000_000;
+    private static final int NB_STACK_TRACES = 1000;
+    private static final int STACK_DEPTH = 50;
+    private static final int NB_FUNCTIONS = 500;
+    /* The callsites of the first samples of each stack trace, amortized */
+    private static final long MAX_ALLOCATED_PER_SAMPLE = 64;
+
+    /**
+     * A profiling analysis that only creates the callsites
+     */
+    private static class BenchmarkProfilingAnalysis extends ProfilingCallGraphAnalysisModule {
+
+        @Override
+        public Collection<IWeightedTreeGroupDescriptor> getGroupDescriptors() {
+            return Collections.singleton(AllGroupDescriptor.getInstance());
+        }
+
+        @Override
+        public Map<String, Collection<Object>> getCallStack(ITmfEvent event) {
+            return Collections.emptyMap();
+        }
+
+        @Override
+        protected @Nullable Pair<ICallStackElement, AggregatedCallSite> getProfiledStackTrace(ITmfEvent event) {
+            return null;
+        }
+
+    }
+
+    private static final BenchmarkProfilingAnalysis ANALYSIS = new BenchmarkProfilingAnalysis();
+
+    private interface SampleAggregator {
+        void add(CallGraph callGraph, ICallStackElement element, long[] stackTrace, long ts);
+    }
+
+    /**
+     * Create the stack traces to sample. Stack traces share their bottom
+     * frames, like the stack traces of a real program.
+     */
+    private static long[][] createStackTraces() {
+        Random random = new Random(42);
+        long[][] stackTraces = new long[NB_STACK_TRACES][];
+        for (int i = 0; i < NB_STACK_TRACES; i++) {
+            long[] stackTrace = new long[STACK_DEPTH];
+            long[] previous = (i == 0) ? stackTrace : stackTraces[random.nextInt(i)];
+            int common = random.nextInt(STACK_DEPTH);
+            for (int depth = 0; depth < STACK_DEPTH; depth++) {
+                stackTrace[depth] = (depth < common) ? previous[depth] : 0x400000L + 16L * random.nextInt(NB_FUNCTIONS);
+            }
+            stackTraces[i] = stackTrace;
+        }
+        return stackTraces;
+    }
+
+    /**
+     * Benchmark merging the callsites created for every stack trace
+     */
+    @Test
+    public void mergeCallSites() {
+        runBenchmark("Merge callsites", (callGraph, element, stackTrace, ts) -> callGraph.addAggregatedCallSite(element, ANALYSIS.getCallSite(element, stackTrace, ts)));
+    }
+
+    /**
+     * Benchmark adding the raw stack traces to the call graph
+     */
+    @Test
+    public void addStackTraces() {
+        long allocated = runBenchmark("Add stack traces", (callGraph, element, stackTrace, ts) -> callGraph.addStackTrace(element, stackTrace, ts, ANALYSIS));
+        assertTrue(allocated + " bytes allocated per sample", allocated <= MAX_ALLOCATED_PER_SAMPLE);
+    }
+
+    /**
+     * Run a benchmark
+     *
+     * @return The least number of bytes allocated per sample in a loop
+     */
+    private static long runBenchmark(String name, SampleAggregator aggregator) {
+        Performance perf = Performance.getDefault();
+        PerformanceMeter pm = Objects.requireNonNull(perf.createPerformanceMeter(TEST_ID + name));
+        perf.tagAsSummary(pm, "Sampled CallGraph: " + name, Dimension.CPU_TIME);
+
+        long[][] stackTraces = createStackTraces();
+        int[] samples = new Random(7).ints(NB_SAMPLES, 0, NB_STACK_TRACES).toArray();
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long minAllocated = Long.MAX_VALUE;
+
+        for (int i = 0; i < LOOP_COUNT; i++) {
+            CallGraph callGraph = new CallGraph();
+            ICallStackElement element = new CallStackElement("bench", AllGroupDescriptor.getInstance());
+            long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+            pm.start();
+            for (int sample = 0; sample < NB_SAMPLES; sample++) {
+                aggregator.add(callGraph, element, stackTraces[samples[sample]], sample);
+            }
+            pm.stop();
+            long allocated = threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+            minAllocated = Math.min(minAllocated, allocated / NB_SAMPLES);
+
+            long weight = 0;
+            for (AggregatedCallSite callsite : callGraph.getCallingContextTree(element)) {
+                weight += callsite.getWeight();
+            }
+            assertEquals(NB_SAMPLES, weight);
+        }
+        pm.commit();
+        return minAllocated;
+    }
+
+}
@@ -150,4 +150,50 @@ public class SampledCallGraphTest {
 
     }
 
+    /**
+     * Test that adding the raw stack traces to the call graph aggregates the
+     * same callsites as merging the callsites of the stack traces
+     */
+    @Test
+    public void testAddStackTraces() {
+        TestProfilingAnalysis pg = new TestProfilingAnalysis();
+        try {
+            ICallStackElement element = pg.getElement();
+            long[][] stackTraces = { CALLSITE_1, CALLSITE_2, CALLSITE_3, CALLSITE_4, CALLSITE_5, CALLSITE_6, CALLSITE_7, CALLSITE_8, CALLSITE_9, CALLSITE_10 };
+
+            CallGraph expected = new CallGraph();
+            CallGraph actual = new CallGraph();
+            for (int i = 0; i < stackTraces.length; i++) {
+                expected.addAggregatedCallSite(element, pg.getCallSite(element, stackTraces[i], i + 1));
+                actual.addStackTrace(element, stackTraces[i], i + 1, pg);
+            }
+            // A callsite merged after the stack traces is reused by the next ones
+            long[] newStackTrace = { 10, 11, 13 };
+            expected.addAggregatedCallSite(element, pg.getCallSite(element, newStackTrace, 11));
+            actual.addAggregatedCallSite(element, pg.getCallSite(element, newStackTrace, 11));
+            expected.addAggregatedCallSite(element, pg.getCallSite(element, newStackTrace, 12));
+            actual.addStackTrace(element, newStackTrace, 12, pg);
+
+            assertEquals(expected.getElements(), actual.getElements());
+            assertSameCallSites(expected.getCallingContextTree(element), actual.getCallingContextTree(element));
+        } finally {
+            pg.dispose();
+        }
+    }
+
+    private static void assertSameCallSites(Collection<AggregatedCallSite> expected, Collection<AggregatedCallSite> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (AggregatedCallSite expectedSite : expected) {
+            AggregatedCallSite actualSite = null;
+            for (AggregatedCallSite site : actual) {
+                if (site.getObject().equals(expectedSite.getObject())) {
+                    actualSite = site;
+                }
+            }
+            assertNotNull(actualSite);
+            assertEquals(expectedSite.getWeight(), actualSite.getWeight());
+            assertSameCallSites(expectedSite.getCallees(), actualSite.getCallees());
+        }
+    }
+
 }
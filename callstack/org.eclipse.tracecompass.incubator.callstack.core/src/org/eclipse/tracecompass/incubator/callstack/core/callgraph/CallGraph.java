@@ -17,10 +17,13 @@ import java.util.HashSet;
 import java.util.Set;
 
 import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.incubator.analysis.core.concepts.AggregatedCallSite;
 import org.eclipse.tracecompass.incubator.analysis.core.concepts.ICallStackSymbol;
 import org.eclipse.tracecompass.incubator.analysis.core.weighted.tree.IWeightedTreeSet;
+import org.eclipse.tracecompass.incubator.analysis.core.weighted.tree.WeightedTree;
 import org.eclipse.tracecompass.incubator.callstack.core.base.ICallStackElement;
+import org.eclipse.tracecompass.incubator.callstack.core.symbol.CallStackSymbolFactory;
 
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableSet;
@@ -44,6 +47,7 @@ public class CallGraph implements IWeightedTreeSet<@NonNull ICallStackSymbol, IC
 
     private Set<ICallStackElement> fRootElements = new HashSet<>();
     private final Multimap<ICallStackElement, AggregatedCallSite> fCcts = HashMultimap.create();
+    private final StackTraceIndex fStackTraces = new StackTraceIndex();
 
     /**
      * Constructor
@@ -72,14 +76,7 @@ public class CallGraph implements IWeightedTreeSet<@NonNull ICallStackSymbol, IC
      * @param callsite the callsite to add
      */
     public void addAggregatedCallSite(ICallStackElement dstGroup, AggregatedCallSite callsite) {
-        // Make sure the root element is present
-        ICallStackElement root = dstGroup;
-        ICallStackElement parent = dstGroup.getParentElement();
-        while (parent != null) {
-            root = parent;
-            parent = parent.getParentElement();
-        }
-        fRootElements.add(root);
+        addRootElement(dstGroup);
         // Add the callsite to the appropriate group
         Collection<AggregatedCallSite> callsites = fCcts.get(dstGroup);
         for (AggregatedCallSite site : callsites) {
@@ -91,6 +88,80 @@ public class CallGraph implements IWeightedTreeSet<@NonNull ICallStackSymbol, IC
         fCcts.put(dstGroup, callsite);
     }
 
+    /**
+     * Add a sampled stack trace to a callstack element. Each frame of the
+     * stack trace adds one sample to the weight of its callsite. Contrary to
+     * {@link #addAggregatedCallSite(ICallStackElement, AggregatedCallSite)},
+     * which merges a chain of callsites created for the whole stack trace, the
+     * frames are looked up in the callsites already aggregated and callsites
+     * are only created for the frames seen for the first time at their
+     * position in the call graph.
+     *
+     * @param dstGroup
+     *            The destination group
+     * @param stackTrace
+     *            The addresses of the frames, the symbol at position 0 is the
+     *            bottom of the stack
+     * @param ts
+     *            The timestamp of the stack trace, to get the symbols
+     * @param provider
+     *            The call graph provider that creates the new callsites
+     */
+    public void addStackTrace(ICallStackElement dstGroup, long[] stackTrace, long ts, ICallGraphProvider provider) {
+        int node = fStackTraces.getElementNode(dstGroup);
+        if (node < 0) {
+            addRootElement(dstGroup);
+            node = fStackTraces.addElementNode(dstGroup);
+        }
+        int symbolKey = dstGroup.getSymbolKeyAt(ts);
+        AggregatedCallSite parent = null;
+        for (long address : stackTrace) {
+            int child = fStackTraces.getChild(node, symbolKey, address);
+            AggregatedCallSite callsite;
+            if (child >= 0) {
+                callsite = fStackTraces.getCallSite(child);
+                callsite.addToWeight(1);
+            } else {
+                callsite = addCallSite(dstGroup, parent, provider.createCallSite(CallStackSymbolFactory.createSymbol(address, dstGroup, ts)));
+                child = fStackTraces.addChild(node, symbolKey, address, callsite);
+            }
+            node = child;
+            parent = callsite;
+        }
+    }
+
+    /**
+     * Add a new callsite under a parent callsite, or at the root of the group.
+     * The callsite may already have been aggregated by another method, in
+     * which case it is merged.
+     */
+    private AggregatedCallSite addCallSite(ICallStackElement dstGroup, @Nullable AggregatedCallSite parent, AggregatedCallSite callsite) {
+        Collection<? extends WeightedTree<ICallStackSymbol>> siblings = (parent == null) ? fCcts.get(dstGroup) : parent.getChildren();
+        for (WeightedTree<ICallStackSymbol> sibling : siblings) {
+            if (sibling instanceof AggregatedCallSite && sibling.getObject().equals(callsite.getObject())) {
+                sibling.merge(callsite);
+                return (AggregatedCallSite) sibling;
+            }
+        }
+        if (parent == null) {
+            fCcts.put(dstGroup, callsite);
+        } else {
+            parent.addChild(callsite);
+        }
+        return callsite;
+    }
+
+    private void addRootElement(ICallStackElement dstGroup) {
+        // Make sure the root element is present
+        ICallStackElement root = dstGroup;
+        ICallStackElement parent = dstGroup.getParentElement();
+        while (parent != null) {
+            root = parent;
+            parent = parent.getParentElement();
+        }
+        fRootElements.add(root);
+    }
+
     /**
      * Get the root elements containing the call graph data.
      *
@@ -0,0 +1,178 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.callstack.core.callgraph;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.incubator.analysis.core.concepts.AggregatedCallSite;
+import org.eclipse.tracecompass.incubator.callstack.core.base.ICallStackElement;
+
+/**
+ * Index of the call sites of a call graph as a trie of frame addresses. Each
+ * node is identified by its position in the node array, and the roots of an
+ * element are the children of a node without call site for this element. The
+ * children of all the nodes are kept in a single open addressing table keyed
+ * by parent node, symbol key and address, so that walking a stack trace does
+ * not allocate anything for the frames already in the index.
+ */
+final class StackTraceIndex {
+
+    private static final int INITIAL_NODES = 64;
+    private static final int INITIAL_SLOTS = 128;
+
+    private final Map<ICallStackElement, Integer> fElementNodes = new HashMap<>();
+
+    private @Nullable AggregatedCallSite[] fCallSites = new AggregatedCallSite[INITIAL_NODES];
+    private int fNbNodes = 0;
+
+    /* The child table, a slot is empty when its child is 0 */
+    private int[] fParents = new int[INITIAL_SLOTS];
+    private int[] fSymbolKeys = new int[INITIAL_SLOTS];
+    private long[] fAddresses = new long[INITIAL_SLOTS];
+    /* The child node + 1 */
+    private int[] fChildren = new int[INITIAL_SLOTS];
+    private int fNbChildren = 0;
+
+    /**
+     * Get the node of an element
+     *
+     * @param element
+     *            The callstack element
+     * @return The node whose children are the roots of the element, or -1 if
+     *         the element has no node yet
+     */
+    public int getElementNode(ICallStackElement element) {
+        Integer node = fElementNodes.get(element);
+        return (node == null) ? -1 : node;
+    }
+
+    /**
+     * Add the node of an element
+     *
+     * @param element
+     *            The callstack element
+     * @return The new node
+     */
+    public int addElementNode(ICallStackElement element) {
+        int node = newNode(null);
+        fElementNodes.put(element, node);
+        return node;
+    }
+
+    /**
+     * Get the child of a node for a frame
+     *
+     * @param parent
+     *            The parent node
+     * @param symbolKey
+     *            The symbol key of the frame
+     * @param address
+     *            The address of the frame
+     * @return The child node, or -1 if there is none
+     */
+    public int getChild(int parent, int symbolKey, long address) {
+        int mask = fChildren.length - 1;
+        for (int slot = hash(parent, symbolKey, address) & mask; fChildren[slot] != 0; slot = (slot + 1) & mask) {
+            if (fParents[slot] == parent && fSymbolKeys[slot] == symbolKey && fAddresses[slot] == address) {
+                return fChildren[slot] - 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Add the child of a node for a frame. The child must not already be in
+     * the index.
+     *
+     * @param parent
+     *            The parent node
+     * @param symbolKey
+     *            The symbol key of the frame
+     * @param address
+     *            The address of the frame
+     * @param callsite
+     *            The call site of the frame
+     * @return The new child node
+     */
+    public int addChild(int parent, int symbolKey, long address, AggregatedCallSite callsite) {
+        if (2 * (fNbChildren + 1) > fChildren.length) {
+            resize();
+        }
+        int child = newNode(callsite);
+        put(parent, symbolKey, address, child + 1);
+        fNbChildren++;
+        return child;
+    }
+
+    /**
+     * Get the call site of a node added with
+     * {@link #addChild(int, int, long, AggregatedCallSite)}
+     *
+     * @param node
+     *            The node
+     * @return The call site of the node
+     */
+    public AggregatedCallSite getCallSite(int node) {
+        return Objects.requireNonNull(fCallSites[node]);
+    }
+
+    private int newNode(@Nullable AggregatedCallSite callsite) {
+        if (fNbNodes == fCallSites.length) {
+            fCallSites = Arrays.copyOf(fCallSites, 2 * fNbNodes);
+        }
+        fCallSites[fNbNodes] = callsite;
+        return fNbNodes++;
+    }
+
+    private void put(int parent, int symbolKey, long address, int childPlusOne) {
+        int mask = fChildren.length - 1;
+        int slot = hash(parent, symbolKey, address) & mask;
+        while (fChildren[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        fParents[slot] = parent;
+        fSymbolKeys[slot] = symbolKey;
+        fAddresses[slot] = address;
+        fChildren[slot] = childPlusOne;
+    }
+
+    private void resize() {
+        int[] parents = fParents;
+        int[] symbolKeys = fSymbolKeys;
+        long[] addresses = fAddresses;
+        int[] children = fChildren;
+        int size = 2 * children.length;
+        fParents = new int[size];
+        fSymbolKeys = new int[size];
+        fAddresses = new long[size];
+        fChildren = new int[size];
+        for (int i = 0; i < children.length; i++) {
+            if (children[i] != 0) {
+                put(parents[i], symbolKeys[i], addresses[i], children[i]);
+            }
+        }
+    }
+
+    private static int hash(int parent, int symbolKey, long address) {
+        // Mix the bits so that close addresses land in distant slots
+        long h = address * 0x9E3779B97F4A7C15L + (((long) parent << 32) | (symbolKey & 0xffffffffL));
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+}
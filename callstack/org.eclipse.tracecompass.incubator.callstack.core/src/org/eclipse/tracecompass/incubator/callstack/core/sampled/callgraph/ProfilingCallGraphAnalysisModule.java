@@ -164,6 +164,27 @@ public abstract class ProfilingCallGraphAnalysisModule extends TmfAbstractAnalys
      */
     protected abstract @Nullable Pair<ICallStackElement, AggregatedCallSite> getProfiledStackTrace(ITmfEvent event);
 
+    /**
+     * Get the raw stack trace from an event. Analyses that have the frames of
+     * the stack trace as addresses should implement this method: the frames
+     * are then added directly to the call graph with
+     * {@link CallGraph#addStackTrace(ICallStackElement, long[], long, ICallGraphProvider)},
+     * without creating a callsite for every frame as
+     * {@link #getProfiledStackTrace(ITmfEvent)} does. By default, it returns
+     * <code>null</code> and the callsite from
+     * {@link #getProfiledStackTrace(ITmfEvent)} is used.
+     *
+     * @param event
+     *            The trace event to process
+     * @return A pair of callstack element and stack trace from this event, the
+     *         symbol at position 0 of the stack trace is the bottom of the
+     *         stack, or <code>null</code> to use
+     *         {@link #getProfiledStackTrace(ITmfEvent)}
+     */
+    protected @Nullable Pair<ICallStackElement, long[]> getProfiledStackFrames(ITmfEvent event) {
+        return null;
+    }
+
     @Override
     protected boolean executeAnalysis(@NonNull IProgressMonitor monitor) throws TmfAnalysisException {
         CallGraph callgraph = executeForRange(TmfTimeRange.ETERNITY);
@@ -254,6 +275,13 @@ public abstract class ProfilingCallGraphAnalysisModule extends TmfAbstractAnalys
         }
 
         private void processEvent(ITmfEvent event) {
+            Pair<ICallStackElement, long[]> stackTrace = getProfiledStackFrames(event);
+            if (stackTrace != null) {
+                if (stackTrace.getSecond().length > 0) {
+                    fCallGraph.addStackTrace(stackTrace.getFirst(), stackTrace.getSecond(), event.getTimestamp().getValue(), ProfilingCallGraphAnalysisModule.this);
+                }
+                return;
+            }
             Pair<ICallStackElement, AggregatedCallSite> perfCallSite = getProfiledStackTrace(event);
             if (perfCallSite == null) {
                 return;
@@ -11,7 +11,6 @@
 
 package org.eclipse.tracecompass.incubator.scripting.core.filters;
 
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -79,7 +78,7 @@ public class FiltersScriptingModule {
             if (validate.isEmpty()) {
                 trace.broadcast(new TmfFilterAppliedSignal(trace, trace, TraceCompassFilter.fromRegex(Collections.singleton(regex), trace)));
             }
-        } catch (IOException | RecognitionException e) {
+        } catch (RecognitionException e) {
             // Nothing to do, simply don't filter
         }
     }
@@ -0,0 +1,218 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.trace.server.jersey.rest.core.tests.perf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.Response;
+
+import org.eclipse.test.performance.Dimension;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.model.views.QueryParameters;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.TraceTypeDetector;
+import org.eclipse.tracecompass.incubator.trace.server.jersey.rest.core.tests.stubs.TraceModelStub;
+import org.eclipse.tracecompass.incubator.trace.server.jersey.rest.core.tests.utils.RestServerTest;
+import org.eclipse.tracecompass.tmf.core.project.model.TmfTraceImportException;
+import org.eclipse.tracecompass.tmf.core.project.model.TmfTraceType;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Benchmarks the import of a directory of many small traces: the detection of
+ * their trace types one type after the other, concurrently, from the cache,
+ * and the import through the trace server
+ */
+@SuppressWarnings("null")
+public class TraceImportBenchmark extends RestServerTest {
+
+    /**
+     * Test test ID for the trace import benchmarks
+     */
+    public static final String TEST_ID = "org.eclipse.tracecompass.incubator#Trace import#";
+
+    private static final int LOOP_COUNT = 3;
+    private static final int NB_TRACES = 1000;
+
+    private static File fDirectory;
+    private static final List<String> TRACE_PATHS = new ArrayList<>();
+
+    /**
+     * Create the directory of traces, linked to the files of a small trace
+     *
+     * @throws IOException
+     *             If the traces cannot be created
+     */
+    @BeforeClass
+    public static void createTraces() throws IOException {
+        File[] files = new File(sfArm64KernelNotIntitialzedStub.getPath()).listFiles(File::isFile);
+        assertNotNull(files);
+        fDirectory = Files.createTempDirectory("traces").toFile();
+        for (int i = 0; i < NB_TRACES; i++) {
+            File trace = new File(fDirectory, String.format("trace-%04d", i));
+            Files.createDirectory(trace.toPath());
+            for (File file : Objects.requireNonNull(files)) {
+                try {
+                    Files.createLink(new File(trace, file.getName()).toPath(), file.toPath());
+                } catch (IOException | UnsupportedOperationException e) {
+                    Files.copy(file.toPath(), new File(trace, file.getName()).toPath());
+                }
+            }
+            TRACE_PATHS.add(trace.getAbsolutePath());
+        }
+    }
+
+    /**
+     * Delete the directory of traces
+     */
+    @AfterClass
+    public static void deleteTraces() {
+        File[] traces = fDirectory.listFiles();
+        if (traces != null) {
+            for (File trace : traces) {
+                File[] files = trace.listFiles();
+                if (files != null) {
+                    for (File file : files) {
+                        file.delete();
+                    }
+                }
+                trace.delete();
+            }
+        }
+        fDirectory.delete();
+    }
+
+    private static PerformanceMeter createMeter(String name) {
+        Performance perf = Performance.getDefault();
+        PerformanceMeter pm = Objects.requireNonNull(perf.createPerformanceMeter(TEST_ID + name));
+        perf.tagAsSummary(pm, "Trace import: " + name, Dimension.CPU_TIME);
+        return pm;
+    }
+
+    /**
+     * Benchmark the detection of the trace types with
+     * {@link TmfTraceType#selectTraceType(String, String)}, which validates
+     * the trace types one after the other
+     *
+     * @throws TmfTraceImportException
+     *             If the detection fails
+     */
+    @Test
+    public void selectTraceType() throws TmfTraceImportException {
+        PerformanceMeter pm = createMeter("Sequential detection");
+        for (int i = 0; i < LOOP_COUNT; i++) {
+            pm.start();
+            for (String path : TRACE_PATHS) {
+                assertFalse(TmfTraceType.selectTraceType(path, "").isEmpty());
+            }
+            pm.stop();
+        }
+        pm.commit();
+    }
+
+    /**
+     * Benchmark the detection of the trace types with the concurrent
+     * validation of the trace types, without cache
+     *
+     * @throws TmfTraceImportException
+     *             If the detection fails
+     */
+    @Test
+    public void detectConcurrently() throws TmfTraceImportException {
+        PerformanceMeter pm = createMeter("Concurrent detection");
+        for (int i = 0; i < LOOP_COUNT; i++) {
+            TraceTypeDetector.getInstance().clear();
+            pm.start();
+            for (String path : TRACE_PATHS) {
+                assertFalse(TraceTypeDetector.getInstance().detect(path, "").getTraceTypeIds().isEmpty());
+            }
+            pm.stop();
+        }
+        pm.commit();
+    }
+
+    /**
+     * Benchmark the detection of the trace types from the cache
+     *
+     * @throws TmfTraceImportException
+     *             If the detection fails
+     */
+    @Test
+    public void detectFromCache() throws TmfTraceImportException {
+        PerformanceMeter pm = createMeter("Cached detection");
+        for (String path : TRACE_PATHS) {
+            TraceTypeDetector.getInstance().detect(path, "");
+        }
+        for (int i = 0; i < LOOP_COUNT; i++) {
+            pm.start();
+            for (String path : TRACE_PATHS) {
+                assertFalse(TraceTypeDetector.getInstance().detect(path, "").getTraceTypeIds().isEmpty());
+            }
+            pm.stop();
+        }
+        pm.commit();
+    }
+
+    /**
+     * Benchmark the import of the traces through the trace server, with the
+     * trace types detected for the first time then from the cache
+     */
+    @Test
+    public void importDirectory() {
+        PerformanceMeter coldPm = createMeter("Import");
+        PerformanceMeter cachedPm = createMeter("Import with cached detection");
+        WebTarget traces = getApplicationEndpoint().path(TRACES);
+        for (int i = 0; i < LOOP_COUNT; i++) {
+            TraceTypeDetector.getInstance().clear();
+            importTraces(traces, coldPm);
+            importTraces(traces, cachedPm);
+        }
+        coldPm.commit();
+        cachedPm.commit();
+    }
+
+    private static void importTraces(WebTarget traces, PerformanceMeter pm) {
+        List<String> uuids = new ArrayList<>();
+        pm.start();
+        for (String path : TRACE_PATHS) {
+            Map<String, Object> parameters = new HashMap<>();
+            parameters.put("name", new File(path).getName());
+            parameters.put("uri", path);
+            try (Response response = traces.request().post(Entity.json(new QueryParameters(parameters, Collections.emptyList())))) {
+                assertEquals(200, response.getStatus());
+                uuids.add(response.readEntity(TraceModelStub.class).getUUID().toString());
+            }
+        }
+        pm.stop();
+        for (String uuid : uuids) {
+            try (Response response = traces.path(uuid).request().delete()) {
+                assertEquals(200, response.getStatus());
+            }
+        }
+    }
+
+}
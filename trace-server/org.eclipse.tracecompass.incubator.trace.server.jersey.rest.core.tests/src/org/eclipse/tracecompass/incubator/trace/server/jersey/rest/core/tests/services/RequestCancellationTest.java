@@ -0,0 +1,169 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.trace.server.jersey.rest.core.tests.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.Response;
+
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.model.views.QueryParameters;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.ClientRequestMonitor;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.DataProviderService;
+import org.eclipse.tracecompass.incubator.trace.server.jersey.rest.core.tests.stubs.ExperimentModelStub;
+import org.eclipse.tracecompass.incubator.trace.server.jersey.rest.core.tests.stubs.SlowTimeGraphDataProvider;
+import org.eclipse.tracecompass.incubator.trace.server.jersey.rest.core.tests.stubs.TgStatesOutputResponseStub;
+import org.eclipse.tracecompass.incubator.trace.server.jersey.rest.core.tests.utils.RestServerTest;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Test that the {@link DataProviderService} cancels the computation of the
+ * requests superseded by a request with the same request key, using a slow
+ * data provider
+ */
+@SuppressWarnings("null")
+public class RequestCancellationTest extends RestServerTest {
+
+    private static final String REQUESTED_TIMERANGE_KEY = "requested_timerange";
+    private static final String REQUESTED_ITEMS_KEY = "requested_items";
+    private static final String START = "start";
+    private static final String END = "end";
+    private static final String NB_TIMES = "nbTimes";
+
+    /* Much longer than the test should take if the request is cancelled */
+    private static final long SLOW_DURATION_MS = 60000;
+    private static final long SHORT_DURATION_MS = 200;
+    private static final long PROMPT_MS = 5000;
+
+    private static final String ZOOM_KEY = "view-1-zoom";
+
+    /**
+     * Reset the fetch counts of the slow provider
+     */
+    @Before
+    public void resetProvider() {
+        SlowTimeGraphDataProvider.reset();
+    }
+
+    private static Entity<QueryParameters> statesQuery(long duration) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put(REQUESTED_TIMERANGE_KEY, ImmutableMap.of(START, 0L, END, 100L, NB_TIMES, 10));
+        parameters.put(REQUESTED_ITEMS_KEY, ImmutableList.of(1));
+        parameters.put(SlowTimeGraphDataProvider.DURATION_KEY, duration);
+        return Entity.json(new QueryParameters(parameters, Collections.emptyList()));
+    }
+
+    private static WebTarget getSlowStatesEndpoint() {
+        ExperimentModelStub exp = assertPostExperiment(sfContextSwitchesUstNotInitializedStub.getName(), sfContextSwitchesUstNotInitializedStub);
+        return getTimeGraphStatesEndpoint(exp.getUUID().toString(), SlowTimeGraphDataProvider.ID);
+    }
+
+    private static void waitForStarted(int nbStarted) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + PROMPT_MS;
+        while (SlowTimeGraphDataProvider.getStarted() < nbStarted) {
+            assertTrue("The slow request did not start", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Test that a request superseded by a request with the same key is
+     * cancelled and frees its worker long before its computation would have
+     * completed
+     *
+     * @throws InterruptedException
+     *             If the test is interrupted
+     * @throws ExecutionException
+     *             If the slow request fails
+     * @throws TimeoutException
+     *             If the slow request is not cancelled
+     */
+    @Test
+    public void testSupersededRequestIsCancelled() throws InterruptedException, ExecutionException, TimeoutException {
+        WebTarget statesEndpoint = getSlowStatesEndpoint();
+
+        Future<Response> slowRequest = statesEndpoint.request()
+                .header(ClientRequestMonitor.REQUEST_KEY_HEADER, ZOOM_KEY)
+                .async().post(statesQuery(SLOW_DURATION_MS));
+        waitForStarted(1);
+
+        long start = System.currentTimeMillis();
+        try (Response newRequest = statesEndpoint.request()
+                .header(ClientRequestMonitor.REQUEST_KEY_HEADER, ZOOM_KEY)
+                .post(statesQuery(0))) {
+            assertEquals(200, newRequest.getStatus());
+            assertTrue(newRequest.readEntity(TgStatesOutputResponseStub.class).isCompleted());
+        }
+
+        try (Response slowResponse = slowRequest.get(PROMPT_MS, TimeUnit.MILLISECONDS)) {
+            long elapsed = System.currentTimeMillis() - start;
+            assertEquals(200, slowResponse.getStatus());
+            assertTrue(slowResponse.readEntity(TgStatesOutputResponseStub.class).isCancelled());
+            assertTrue("Cancelled request took " + elapsed + " ms", elapsed < PROMPT_MS);
+        }
+        assertEquals(1, SlowTimeGraphDataProvider.getCancelled());
+        assertEquals(1, SlowTimeGraphDataProvider.getCompleted());
+    }
+
+    /**
+     * Test that requests with different keys, or without key, do not cancel
+     * each other
+     *
+     * @throws InterruptedException
+     *             If the test is interrupted
+     * @throws ExecutionException
+     *             If a request fails
+     * @throws TimeoutException
+     *             If a request does not complete
+     */
+    @Test
+    public void testOtherRequestsAreNotCancelled() throws InterruptedException, ExecutionException, TimeoutException {
+        WebTarget statesEndpoint = getSlowStatesEndpoint();
+
+        Future<Response> firstRequest = statesEndpoint.request()
+                .header(ClientRequestMonitor.REQUEST_KEY_HEADER, ZOOM_KEY)
+                .async().post(statesQuery(SHORT_DURATION_MS));
+        // Identical requests share their computation, so the query differs
+        Future<Response> noKeyRequest = statesEndpoint.request()
+                .async().post(statesQuery(SHORT_DURATION_MS + 1));
+        waitForStarted(2);
+
+        try (Response otherRequest = statesEndpoint.request()
+                .header(ClientRequestMonitor.REQUEST_KEY_HEADER, "view-2-zoom")
+                .post(statesQuery(0))) {
+            assertTrue(otherRequest.readEntity(TgStatesOutputResponseStub.class).isCompleted());
+        }
+        try (Response response = firstRequest.get(PROMPT_MS, TimeUnit.MILLISECONDS)) {
+            assertTrue(response.readEntity(TgStatesOutputResponseStub.class).isCompleted());
+        }
+        try (Response response = noKeyRequest.get(PROMPT_MS, TimeUnit.MILLISECONDS)) {
+            assertTrue(response.readEntity(TgStatesOutputResponseStub.class).isCompleted());
+        }
+        assertEquals(0, SlowTimeGraphDataProvider.getCancelled());
+        assertEquals(3, SlowTimeGraphDataProvider.getCompleted());
+    }
+
+}
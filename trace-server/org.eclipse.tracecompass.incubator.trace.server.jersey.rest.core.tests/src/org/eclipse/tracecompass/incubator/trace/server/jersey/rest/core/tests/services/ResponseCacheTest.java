@@ -0,0 +1,241 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.trace.server.jersey.rest.core.tests.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.model.views.QueryParameters;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.ClientRequestMonitor;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.ResponseCache;
+import org.eclipse.tracecompass.incubator.trace.server.jersey.rest.core.tests.stubs.ExperimentModelStub;
+import org.eclipse.tracecompass.incubator.trace.server.jersey.rest.core.tests.stubs.SlowTimeGraphDataProvider;
+import org.eclipse.tracecompass.incubator.trace.server.jersey.rest.core.tests.stubs.TgStatesOutputResponseStub;
+import org.eclipse.tracecompass.incubator.trace.server.jersey.rest.core.tests.utils.RestServerTest;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Load test of the {@link ResponseCache}: identical concurrent requests share
+ * one computation of the slow data provider, and the completed response is
+ * cached with an entity tag.
+ */
+@SuppressWarnings("null")
+public class ResponseCacheTest extends RestServerTest {
+
+    private static final String REQUESTED_TIMERANGE_KEY = "requested_timerange";
+    private static final String REQUESTED_ITEMS_KEY = "requested_items";
+    private static final String START = "start";
+    private static final String END = "end";
+    private static final String NB_TIMES = "nbTimes";
+
+    private static final int NB_CONCURRENT_REQUESTS = 16;
+    private static final long DURATION_MS = 1000;
+    private static final long TIMEOUT_MS = 10000;
+
+    /**
+     * Reset the fetch counts of the slow provider
+     */
+    @Before
+    public void resetProvider() {
+        SlowTimeGraphDataProvider.reset();
+    }
+
+    private static Entity<QueryParameters> statesQuery(long duration) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put(REQUESTED_TIMERANGE_KEY, ImmutableMap.of(START, 0L, END, 100L, NB_TIMES, 10));
+        parameters.put(REQUESTED_ITEMS_KEY, ImmutableList.of(1, 2, 3));
+        parameters.put(SlowTimeGraphDataProvider.DURATION_KEY, duration);
+        return Entity.json(new QueryParameters(parameters, Collections.emptyList()));
+    }
+
+    private static WebTarget getSlowStatesEndpoint() {
+        return getSlowStatesEndpoint(assertPostExperiment(sfContextSwitchesUstNotInitializedStub.getName(), sfContextSwitchesUstNotInitializedStub));
+    }
+
+    private static WebTarget getSlowStatesEndpoint(ExperimentModelStub exp) {
+        return getTimeGraphStatesEndpoint(exp.getUUID().toString(), SlowTimeGraphDataProvider.ID);
+    }
+
+    /**
+     * Fire identical concurrent requests and verify that the provider computes
+     * the response once
+     *
+     * @throws InterruptedException
+     *             If the test is interrupted
+     * @throws ExecutionException
+     *             If a request fails
+     * @throws TimeoutException
+     *             If a request does not complete
+     */
+    @Test
+    public void testConcurrentIdenticalRequests() throws InterruptedException, ExecutionException, TimeoutException {
+        WebTarget statesEndpoint = getSlowStatesEndpoint();
+
+        long start = System.currentTimeMillis();
+        List<Future<Response>> requests = new ArrayList<>();
+        for (int i = 0; i < NB_CONCURRENT_REQUESTS; i++) {
+            requests.add(statesEndpoint.request().async().post(statesQuery(DURATION_MS)));
+        }
+        for (Future<Response> request : requests) {
+            try (Response response = request.get(TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                assertEquals(200, response.getStatus());
+                assertTrue(response.readEntity(TgStatesOutputResponseStub.class).isCompleted());
+            }
+        }
+        long elapsed = System.currentTimeMillis() - start;
+
+        assertEquals("Provider invocations", 1, SlowTimeGraphDataProvider.getStarted());
+        assertEquals(1, SlowTimeGraphDataProvider.getCompleted());
+        // One computation instead of one per request
+        assertTrue("Requests took " + elapsed + " ms", elapsed < NB_CONCURRENT_REQUESTS * DURATION_MS / 2);
+    }
+
+    /**
+     * Test that a completed response is served from the cache with a strong
+     * entity tag, and that a request with a matching
+     * <code>If-None-Match</code> header gets a <code>304 Not Modified</code>
+     * response
+     */
+    @Test
+    public void testEntityTag() {
+        WebTarget statesEndpoint = getSlowStatesEndpoint();
+
+        EntityTag tag;
+        try (Response response = statesEndpoint.request().post(statesQuery(0))) {
+            assertEquals(200, response.getStatus());
+            tag = response.getEntityTag();
+            assertNotNull(tag);
+            assertTrue(!tag.isWeak());
+        }
+
+        try (Response response = statesEndpoint.request().post(statesQuery(0))) {
+            assertEquals(200, response.getStatus());
+            assertEquals(tag, response.getEntityTag());
+            assertTrue(response.readEntity(TgStatesOutputResponseStub.class).isCompleted());
+        }
+
+        try (Response response = statesEndpoint.request()
+                .header(HttpHeaders.IF_NONE_MATCH, tag.toString())
+                .post(statesQuery(0))) {
+            assertEquals(Status.NOT_MODIFIED.getStatusCode(), response.getStatus());
+            assertEquals(tag, response.getEntityTag());
+        }
+
+        try (Response response = statesEndpoint.request()
+                .header(HttpHeaders.IF_NONE_MATCH, "\"other\"")
+                .post(statesQuery(0))) {
+            assertEquals(200, response.getStatus());
+        }
+        assertEquals("Provider invocations", 1, SlowTimeGraphDataProvider.getStarted());
+
+        // Another query is computed again
+        try (Response response = statesEndpoint.request().post(statesQuery(1))) {
+            assertEquals(200, response.getStatus());
+            assertNotNull(response.getEntityTag());
+        }
+        assertEquals("Provider invocations", 2, SlowTimeGraphDataProvider.getStarted());
+    }
+
+    /**
+     * Test that responses that are not completed are not cached
+     *
+     * @throws InterruptedException
+     *             If the test is interrupted
+     * @throws ExecutionException
+     *             If a request fails
+     * @throws TimeoutException
+     *             If a request does not complete
+     */
+    @Test
+    public void testCancelledResponseNotCached() throws InterruptedException, ExecutionException, TimeoutException {
+        WebTarget statesEndpoint = getSlowStatesEndpoint();
+        String requestKey = "view-1-zoom";
+
+        Future<Response> slowRequest = statesEndpoint.request()
+                .header(ClientRequestMonitor.REQUEST_KEY_HEADER, requestKey)
+                .async().post(statesQuery(TIMEOUT_MS));
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (SlowTimeGraphDataProvider.getStarted() < 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        // Supersede the slow request
+        try (Response response = statesEndpoint.request()
+                .header(ClientRequestMonitor.REQUEST_KEY_HEADER, requestKey)
+                .post(statesQuery(0))) {
+            assertEquals(200, response.getStatus());
+        }
+        try (Response response = slowRequest.get(TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+            assertTrue(response.readEntity(TgStatesOutputResponseStub.class).isCancelled());
+            assertNull(response.getEntityTag());
+        }
+    }
+
+    /**
+     * Test that a response computed while its experiment is invalidated is
+     * not cached
+     *
+     * @throws InterruptedException
+     *             If the test is interrupted
+     * @throws ExecutionException
+     *             If a request fails
+     * @throws TimeoutException
+     *             If a request does not complete
+     */
+    @Test
+    public void testInvalidatedDuringComputation() throws InterruptedException, ExecutionException, TimeoutException {
+        ExperimentModelStub exp = assertPostExperiment(sfContextSwitchesUstNotInitializedStub.getName(), sfContextSwitchesUstNotInitializedStub);
+        WebTarget statesEndpoint = getSlowStatesEndpoint(exp);
+
+        Future<Response> slowRequest = statesEndpoint.request().async().post(statesQuery(DURATION_MS));
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (SlowTimeGraphDataProvider.getStarted() < 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        ResponseCache.getInstance().invalidate(exp.getUUID());
+        try (Response response = slowRequest.get(TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+            assertEquals(200, response.getStatus());
+            assertTrue(response.readEntity(TgStatesOutputResponseStub.class).isCompleted());
+            assertNull(response.getEntityTag());
+        }
+
+        // The stale response was not cached, the next request computes it again
+        try (Response response = statesEndpoint.request().post(statesQuery(DURATION_MS))) {
+            assertEquals(200, response.getStatus());
+            assertNotNull(response.getEntityTag());
+        }
+        assertEquals("Provider invocations", 2, SlowTimeGraphDataProvider.getStarted());
+    }
+
+}
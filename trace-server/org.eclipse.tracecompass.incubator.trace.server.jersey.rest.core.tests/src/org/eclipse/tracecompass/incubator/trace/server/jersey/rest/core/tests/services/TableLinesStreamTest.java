@@ -0,0 +1,187 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.trace.server.jersey.rest.core.tests.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.Response;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.model.views.QueryParameters;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.TableLinesStreamingOutput;
+import org.eclipse.tracecompass.incubator.trace.server.jersey.rest.core.tests.stubs.ExperimentModelStub;
+import org.eclipse.tracecompass.incubator.trace.server.jersey.rest.core.tests.stubs.GeneratedTableDataProvider;
+import org.eclipse.tracecompass.incubator.trace.server.jersey.rest.core.tests.utils.RestServerTest;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Test the streaming of the table lines as newline-delimited JSON, with a
+ * generated table much larger than what the server should hold in memory
+ */
+@SuppressWarnings("null")
+public class TableLinesStreamTest extends RestServerTest {
+
+    private static final String REQUESTED_TABLE_INDEX_KEY = "requested_table_index";
+    private static final String REQUESTED_TABLE_COUNT_KEY = "requested_table_count";
+    private static final String STREAM_PATH = "stream";
+
+    private static final int NB_SAMPLES = 10;
+    /* Much less than the size of the stream, or of all its lines */
+    private static final long MAX_HEAP_GROWTH = 64L * 1024 * 1024;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static WebTarget getStreamEndpoint() {
+        ExperimentModelStub exp = assertPostExperiment(sfContextSwitchesUstNotInitializedStub.getName(), sfContextSwitchesUstNotInitializedStub);
+        return getTableLinesEndpoint(exp.getUUID().toString(), GeneratedTableDataProvider.ID).path(STREAM_PATH);
+    }
+
+    private static Entity<QueryParameters> streamQuery(@Nullable Long index, @Nullable Long count) {
+        Map<String, Object> parameters = new HashMap<>();
+        if (index != null) {
+            parameters.put(REQUESTED_TABLE_INDEX_KEY, index);
+        }
+        if (count != null) {
+            parameters.put(REQUESTED_TABLE_COUNT_KEY, count);
+        }
+        return Entity.json(new QueryParameters(parameters, Collections.emptyList()));
+    }
+
+    private static long getUsedHeap() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * Read the lines of a stream and check that their indexes follow each
+     * other from the first index
+     *
+     * @return the number of lines read
+     */
+    private static long readLines(Response response, long firstIndex, long maxLines) throws IOException {
+        assertEquals(200, response.getStatus());
+        assertEquals(TableLinesStreamingOutput.NDJSON, response.getMediaType().toString());
+        long nbLines = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(response.readEntity(InputStream.class), StandardCharsets.UTF_8))) {
+            String line;
+            while (nbLines < maxLines && (line = reader.readLine()) != null) {
+                JsonNode node = MAPPER.readTree(line);
+                assertEquals(firstIndex + nbLines, node.get("index").asLong());
+                assertEquals(3, node.get("cells").size());
+                nbLines++;
+            }
+        }
+        return nbLines;
+    }
+
+    /**
+     * Stream the whole generated table and check that the heap used by the
+     * server does not grow with the number of lines streamed
+     *
+     * @throws IOException
+     *             If the stream cannot be read
+     */
+    @Test
+    public void testStreamWithFlatHeap() throws IOException {
+        WebTarget streamEndpoint = getStreamEndpoint();
+        long baseline = getUsedHeap();
+        long maxGrowth = 0;
+        long nbLines = 0;
+        long nbBytes = 0;
+        long sampleInterval = GeneratedTableDataProvider.NB_LINES / NB_SAMPLES;
+
+        try (Response response = streamEndpoint.request(TableLinesStreamingOutput.NDJSON).post(streamQuery(null, null));
+                BufferedReader reader = new BufferedReader(new InputStreamReader(response.readEntity(InputStream.class), StandardCharsets.UTF_8))) {
+            assertEquals(200, response.getStatus());
+            String line;
+            while ((line = reader.readLine()) != null) {
+                // The index is the first field of the line
+                assertTrue(line, line.startsWith("{\"index\":" + nbLines + ','));
+                nbBytes += line.length() + 1;
+                nbLines++;
+                if (nbLines % sampleInterval == 0) {
+                    maxGrowth = Math.max(maxGrowth, getUsedHeap() - baseline);
+                }
+            }
+        }
+        assertEquals(GeneratedTableDataProvider.NB_LINES, nbLines);
+        assertTrue("Streamed " + nbBytes + " bytes", nbBytes > 2 * MAX_HEAP_GROWTH);
+        assertTrue("Heap grew by " + maxGrowth + " bytes", maxGrowth < MAX_HEAP_GROWTH);
+    }
+
+    /**
+     * Test that an interrupted stream can be resumed from the index following
+     * the last line received
+     *
+     * @throws IOException
+     *             If the stream cannot be read
+     */
+    @Test
+    public void testResumeStream() throws IOException {
+        WebTarget streamEndpoint = getStreamEndpoint();
+
+        // Abandon the stream in its second chunk
+        long received;
+        try (Response response = streamEndpoint.request().post(streamQuery(null, null))) {
+            received = readLines(response, 0, TableLinesStreamingOutput.CHUNK_SIZE + 500L);
+        }
+        assertEquals(TableLinesStreamingOutput.CHUNK_SIZE + 500L, received);
+
+        long count = 2L * TableLinesStreamingOutput.CHUNK_SIZE + 10;
+        try (Response response = streamEndpoint.request().post(streamQuery(received, count))) {
+            assertEquals(count, readLines(response, received, Long.MAX_VALUE));
+        }
+    }
+
+    /**
+     * Test that the stream ends at the end of the table, and the errors of the
+     * query
+     *
+     * @throws IOException
+     *             If the stream cannot be read
+     */
+    @Test
+    public void testStreamBounds() throws IOException {
+        WebTarget streamEndpoint = getStreamEndpoint();
+
+        long index = GeneratedTableDataProvider.NB_LINES - 5;
+        try (Response response = streamEndpoint.request().post(streamQuery(index, null))) {
+            assertEquals(5, readLines(response, index, Long.MAX_VALUE));
+        }
+        try (Response response = streamEndpoint.request().post(streamQuery(index, 2L))) {
+            assertEquals(2, readLines(response, index, Long.MAX_VALUE));
+        }
+        try (Response response = streamEndpoint.request().post(streamQuery(0L, 0L))) {
+            assertEquals(0, readLines(response, 0, Long.MAX_VALUE));
+        }
+        try (Response response = streamEndpoint.request().post(streamQuery(0L, -1L))) {
+            assertEquals(400, response.getStatus());
+        }
+    }
+
+}
@@ -0,0 +1,218 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.trace.server.jersey.rest.core.tests.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.Response;
+
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.model.views.QueryParameters;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.TraceTypeDetector;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.TraceTypeDetector.Detection;
+import org.eclipse.tracecompass.incubator.trace.server.jersey.rest.core.tests.utils.RestServerTest;
+import org.eclipse.tracecompass.tmf.core.project.model.TmfTraceImportException;
+import org.eclipse.tracecompass.tmf.core.project.model.TmfTraceType;
+import org.eclipse.tracecompass.tmf.core.project.model.TraceTypeHelper;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test the detection of the trace types and its cache
+ */
+@SuppressWarnings("null")
+public class TraceTypeDetectorTest extends RestServerTest {
+
+    private static final String SERVER_TIMING = "Server-Timing";
+
+    /**
+     * Start each test with an empty cache
+     */
+    @Before
+    public void clearCache() {
+        TraceTypeDetector.getInstance().clear();
+    }
+
+    /**
+     * Test that the concurrent detection selects the same trace type as
+     * {@link TmfTraceType#selectTraceType(String, String)}, and that the second
+     * detection comes from the cache
+     *
+     * @throws TmfTraceImportException
+     *             If the detection fails
+     */
+    @Test
+    public void testCachedDetection() throws TmfTraceImportException {
+        String path = sfContextSwitchesUstNotInitializedStub.getPath();
+        List<TraceTypeHelper> expected = TmfTraceType.selectTraceType(path, "");
+        assertFalse(expected.isEmpty());
+
+        Detection detection = TraceTypeDetector.getInstance().detect(path, "");
+        assertFalse(detection.isCached());
+        assertEquals(expected.get(0).getTraceTypeId(), detection.getTraceTypeIds().get(0));
+
+        Detection cached = TraceTypeDetector.getInstance().detect(path, "");
+        assertTrue(cached.isCached());
+        assertEquals(detection.getTraceTypeIds(), cached.getTraceTypeIds());
+    }
+
+    /**
+     * Test that a valid type hint is selected
+     *
+     * @throws TmfTraceImportException
+     *             If the detection fails
+     */
+    @Test
+    public void testTypeHint() throws TmfTraceImportException {
+        String path = sfContextSwitchesUstNotInitializedStub.getPath();
+        String typeId = TraceTypeDetector.getInstance().detect(path, "").getTraceTypeIds().get(0);
+
+        Detection detection = TraceTypeDetector.getInstance().detect(path, typeId);
+        assertFalse(detection.isCached());
+        assertEquals(Collections.singletonList(typeId), detection.getTraceTypeIds());
+    }
+
+    /**
+     * Test that a trace that changed since its last detection is detected
+     * again
+     *
+     * @throws IOException
+     *             If the trace cannot be copied
+     * @throws TmfTraceImportException
+     *             If the detection fails
+     */
+    @Test
+    public void testModifiedTrace() throws IOException, TmfTraceImportException {
+        File source = new File(sfContextSwitchesUstNotInitializedStub.getPath());
+        File copy = Files.createTempDirectory("detection").toFile();
+        try {
+            File[] files = source.listFiles();
+            assertNotNull(files);
+            for (File file : files) {
+                if (file.isFile()) {
+                    Files.copy(file.toPath(), new File(copy, file.getName()).toPath());
+                }
+            }
+            String path = copy.getAbsolutePath();
+            Detection detection = TraceTypeDetector.getInstance().detect(path, "");
+            assertFalse(detection.isCached());
+            assertTrue(TraceTypeDetector.getInstance().detect(path, "").isCached());
+
+            File metadata = new File(copy, "metadata");
+            assertTrue(metadata.setLastModified(metadata.lastModified() + 10000));
+            Detection modified = TraceTypeDetector.getInstance().detect(path, "");
+            assertFalse(modified.isCached());
+            assertEquals(detection.getTraceTypeIds(), modified.getTraceTypeIds());
+        } finally {
+            File[] files = copy.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    Files.delete(file.toPath());
+                }
+            }
+            Files.delete(copy.toPath());
+        }
+    }
+
+    /**
+     * Test that a trace file that is only accepted by the trace types that
+     * accept any file, with a confidence of 0, gets the same trace types as
+     * {@link TmfTraceType#selectTraceType(String, String)}
+     *
+     * @throws IOException
+     *             If the trace cannot be written
+     * @throws TmfTraceImportException
+     *             If the detection fails
+     */
+    @Test
+    public void testLowConfidenceTrace() throws IOException, TmfTraceImportException {
+        File file = Files.createTempFile("detection", ".txt").toFile();
+        try {
+            Files.write(file.toPath(), "Not a trace\n".getBytes(StandardCharsets.UTF_8));
+            String path = file.getAbsolutePath();
+            List<String> expected = TmfTraceType.selectTraceType(path, "").stream()
+                    .map(TraceTypeHelper::getTraceTypeId)
+                    .collect(Collectors.toList());
+
+            Detection detection = TraceTypeDetector.getInstance().detect(path, "");
+            assertEquals(expected, detection.getTraceTypeIds());
+        } finally {
+            Files.delete(file.toPath());
+        }
+    }
+
+    /**
+     * Test that a trace directory that no trace type accepts is not imported,
+     * like with {@link TmfTraceType#selectTraceType(String, String)}
+     *
+     * @throws IOException
+     *             If the trace directory cannot be created
+     */
+    @Test
+    public void testUnknownDirectory() throws IOException {
+        File directory = Files.createTempDirectory("detection").toFile();
+        try {
+            String path = directory.getAbsolutePath();
+            try {
+                TmfTraceType.selectTraceType(path, "");
+                fail("The trace type of an empty directory was selected");
+            } catch (TmfTraceImportException e) {
+                // Expected
+            }
+            try {
+                TraceTypeDetector.getInstance().detect(path, "");
+                fail("The trace type of an empty directory was detected");
+            } catch (TmfTraceImportException e) {
+                // Expected
+            }
+        } finally {
+            Files.delete(directory.toPath());
+        }
+    }
+
+    /**
+     * Test that the trace import response has the duration of the detection
+     */
+    @Test
+    public void testServerTiming() {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("name", sfContextSwitchesUstNotInitializedStub.getName());
+        parameters.put("uri", sfContextSwitchesUstNotInitializedStub.getPath());
+        Entity<QueryParameters> query = Entity.json(new QueryParameters(parameters, Collections.emptyList()));
+
+        try (Response response = getApplicationEndpoint().path(TRACES).request().post(query)) {
+            assertEquals(200, response.getStatus());
+            String timing = response.getHeaderString(SERVER_TIMING);
+            assertNotNull(timing);
+            assertTrue(timing, timing.startsWith("detect;dur=") && timing.endsWith("desc=\"probed\""));
+        }
+        try (Response response = getApplicationEndpoint().path(TRACES).request().post(query)) {
+            assertEquals(200, response.getStatus());
+            assertTrue(response.getHeaderString(SERVER_TIMING).endsWith("desc=\"cached\""));
+        }
+    }
+
+}
@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.trace.server.jersey.rest.core.tests.stubs;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.internal.provisional.tmf.core.model.table.ITmfVirtualTableDataProvider;
+import org.eclipse.tracecompass.internal.provisional.tmf.core.model.table.ITmfVirtualTableModel;
+import org.eclipse.tracecompass.internal.provisional.tmf.core.model.table.TmfVirtualTableModel;
+import org.eclipse.tracecompass.internal.provisional.tmf.core.model.table.VirtualTableCell;
+import org.eclipse.tracecompass.internal.provisional.tmf.core.model.table.VirtualTableLine;
+import org.eclipse.tracecompass.tmf.core.dataprovider.DataProviderParameterUtils;
+import org.eclipse.tracecompass.tmf.core.model.AbstractTmfTraceDataProvider;
+import org.eclipse.tracecompass.tmf.core.model.CommonStatusMessage;
+import org.eclipse.tracecompass.tmf.core.model.tree.TmfTreeDataModel;
+import org.eclipse.tracecompass.tmf.core.model.tree.TmfTreeModel;
+import org.eclipse.tracecompass.tmf.core.response.ITmfResponse.Status;
+import org.eclipse.tracecompass.tmf.core.response.TmfModelResponse;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Virtual table data provider of {@link #NB_LINES} lines generated when they
+ * are fetched, to test the streaming of a table much larger than what the
+ * server should hold in memory.
+ */
+@SuppressWarnings({ "restriction", "null" })
+public class GeneratedTableDataProvider extends AbstractTmfTraceDataProvider implements ITmfVirtualTableDataProvider<@NonNull VirtualTableLine, @NonNull TmfTreeDataModel> {
+
+    /** The ID of the provider, which is the ID of its factory */
+    public static final String ID = "org.eclipse.tracecompass.incubator.trace.server.jersey.rest.core.tests.stubs.GeneratedTableDataProviderFactory";
+
+    /** The number of lines of the table */
+    public static final long NB_LINES = 1000000;
+
+    private static final List<Long> COLUMN_IDS = ImmutableList.of(0L, 1L, 2L);
+    private static final String PAYLOAD = "x".repeat(100);
+
+    /**
+     * Constructor
+     *
+     * @param trace
+     *            The trace of the provider
+     */
+    public GeneratedTableDataProvider(ITmfTrace trace) {
+        super(trace);
+    }
+
+    @Override
+    public @NonNull String getId() {
+        return ID;
+    }
+
+    @Override
+    public @NonNull TmfModelResponse<@NonNull TmfTreeModel<@NonNull TmfTreeDataModel>> fetchTree(@NonNull Map<@NonNull String, @NonNull Object> fetchParameters, @Nullable IProgressMonitor monitor) {
+        List<TmfTreeDataModel> columns = new ArrayList<>();
+        for (Long id : COLUMN_IDS) {
+            columns.add(new TmfTreeDataModel(id, -1, ImmutableList.of("Column " + id)));
+        }
+        return new TmfModelResponse<>(new TmfTreeModel<>(ImmutableList.of("Name"), columns), Status.COMPLETED, CommonStatusMessage.COMPLETED);
+    }
+
+    @Override
+    public @NonNull TmfModelResponse<@NonNull ITmfVirtualTableModel<@NonNull VirtualTableLine>> fetchLines(@NonNull Map<@NonNull String, @NonNull Object> fetchParameters, @Nullable IProgressMonitor monitor) {
+        Object index = fetchParameters.get(DataProviderParameterUtils.REQUESTED_TABLE_INDEX_KEY);
+        Object count = fetchParameters.get(DataProviderParameterUtils.REQUESTED_TABLE_COUNT_KEY);
+        if (!(index instanceof Number) || !(count instanceof Number)) {
+            return new TmfModelResponse<>(null, Status.FAILED, CommonStatusMessage.INCORRECT_QUERY_PARAMETERS);
+        }
+        long start = ((Number) index).longValue();
+        long end = Math.min(NB_LINES, start + ((Number) count).longValue());
+        List<@NonNull VirtualTableLine> lines = new ArrayList<>();
+        for (long rank = start; rank < end; rank++) {
+            if (monitor != null && monitor.isCanceled()) {
+                return new TmfModelResponse<>(null, Status.CANCELLED, CommonStatusMessage.TASK_CANCELLED);
+            }
+            lines.add(new VirtualTableLine(rank, ImmutableList.of(new VirtualTableCell("Event " + rank), new VirtualTableCell(String.valueOf(rank * 1000)), new VirtualTableCell(PAYLOAD))));
+        }
+        return new TmfModelResponse<>(new TmfVirtualTableModel<>(COLUMN_IDS, lines, start, NB_LINES), Status.COMPLETED, CommonStatusMessage.COMPLETED);
+    }
+
+}
@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.trace.server.jersey.rest.core.tests.stubs;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.tmf.core.model.AbstractTmfTraceDataProvider;
+import org.eclipse.tracecompass.tmf.core.model.CommonStatusMessage;
+import org.eclipse.tracecompass.tmf.core.model.timegraph.ITimeGraphArrow;
+import org.eclipse.tracecompass.tmf.core.model.timegraph.ITimeGraphDataProvider;
+import org.eclipse.tracecompass.tmf.core.model.timegraph.ITimeGraphEntryModel;
+import org.eclipse.tracecompass.tmf.core.model.timegraph.TimeGraphModel;
+import org.eclipse.tracecompass.tmf.core.model.tree.TmfTreeModel;
+import org.eclipse.tracecompass.tmf.core.response.ITmfResponse.Status;
+import org.eclipse.tracecompass.tmf.core.response.TmfModelResponse;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+
+/**
+ * Time graph data provider whose row model takes the time requested by the
+ * {@link #DURATION_KEY} parameter to compute, unless its monitor is cancelled.
+ * It counts the fetches to test the cancellation of the requests.
+ */
+@SuppressWarnings("null")
+public class SlowTimeGraphDataProvider extends AbstractTmfTraceDataProvider implements ITimeGraphDataProvider<@NonNull ITimeGraphEntryModel> {
+
+    /** The ID of the provider, which is the ID of its factory */
+    public static final String ID = "org.eclipse.tracecompass.incubator.trace.server.jersey.rest.core.tests.stubs.SlowDataProviderFactory";
+
+    /** Parameter of the time to compute the row model, in milliseconds */
+    public static final String DURATION_KEY = "duration";
+
+    private static final long POLL_INTERVAL_MS = 10;
+
+    private static final AtomicInteger STARTED = new AtomicInteger();
+    private static final AtomicInteger CANCELLED = new AtomicInteger();
+    private static final AtomicInteger COMPLETED = new AtomicInteger();
+
+    /**
+     * Constructor
+     *
+     * @param trace
+     *            The trace of the provider
+     */
+    public SlowTimeGraphDataProvider(ITmfTrace trace) {
+        super(trace);
+    }
+
+    /**
+     * Reset the fetch counts
+     */
+    public static void reset() {
+        STARTED.set(0);
+        CANCELLED.set(0);
+        COMPLETED.set(0);
+    }
+
+    /**
+     * @return The number of row model fetches that started
+     */
+    public static int getStarted() {
+        return STARTED.get();
+    }
+
+    /**
+     * @return The number of row model fetches that were cancelled
+     */
+    public static int getCancelled() {
+        return CANCELLED.get();
+    }
+
+    /**
+     * @return The number of row model fetches that completed
+     */
+    public static int getCompleted() {
+        return COMPLETED.get();
+    }
+
+    @Override
+    public @NonNull String getId() {
+        return ID;
+    }
+
+    @Override
+    public @NonNull TmfModelResponse<@NonNull TmfTreeModel<@NonNull ITimeGraphEntryModel>> fetchTree(@NonNull Map<@NonNull String, @NonNull Object> fetchParameters, @Nullable IProgressMonitor monitor) {
+        return new TmfModelResponse<>(new TmfTreeModel<>(Collections.emptyList(), Collections.emptyList()), Status.COMPLETED, CommonStatusMessage.COMPLETED);
+    }
+
+    @Override
+    public @NonNull TmfModelResponse<@NonNull TimeGraphModel> fetchRowModel(@NonNull Map<@NonNull String, @NonNull Object> fetchParameters, @Nullable IProgressMonitor monitor) {
+        STARTED.incrementAndGet();
+        Object duration = fetchParameters.get(DURATION_KEY);
+        long end = System.currentTimeMillis() + ((duration instanceof Number) ? ((Number) duration).longValue() : 0);
+        while (System.currentTimeMillis() < end) {
+            if (monitor != null && monitor.isCanceled()) {
+                CANCELLED.incrementAndGet();
+                return new TmfModelResponse<>(null, Status.CANCELLED, CommonStatusMessage.TASK_CANCELLED);
+            }
+            try {
+                Thread.sleep(POLL_INTERVAL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return new TmfModelResponse<>(null, Status.CANCELLED, CommonStatusMessage.TASK_CANCELLED);
+            }
+        }
+        COMPLETED.incrementAndGet();
+        return new TmfModelResponse<>(new TimeGraphModel(Collections.emptyList()), Status.COMPLETED, CommonStatusMessage.COMPLETED);
+    }
+
+    @Override
+    public @NonNull TmfModelResponse<@NonNull List<@NonNull ITimeGraphArrow>> fetchArrows(@NonNull Map<@NonNull String, @NonNull Object> fetchParameters, @Nullable IProgressMonitor monitor) {
+        return new TmfModelResponse<>(Collections.emptyList(), Status.COMPLETED, CommonStatusMessage.COMPLETED);
+    }
+
+    @Override
+    public @NonNull TmfModelResponse<@NonNull Map<@NonNull String, @NonNull String>> fetchTooltip(@NonNull Map<@NonNull String, @NonNull Object> fetchParameters, @Nullable IProgressMonitor monitor) {
+        return new TmfModelResponse<>(Collections.emptyMap(), Status.COMPLETED, CommonStatusMessage.COMPLETED);
+    }
+
+}
@@ -0,0 +1,101 @@
+/**********************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ **********************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.jetty.ee8.nested.HttpChannel;
+import org.eclipse.jetty.ee8.nested.Request;
+import org.eclipse.jetty.io.EndPoint;
+
+/**
+ * Progress monitor of a client request, passed to the data provider that
+ * computes the response. It is cancelled when the connection of the client is
+ * closed, or when the client sends a new request with the same request key,
+ * for instance when it zooms again in a view, so that the data provider stops
+ * computing a response that nobody will read.
+ *
+ * The monitor must be closed once the response is computed.
+ */
+public class ClientRequestMonitor extends NullProgressMonitor implements AutoCloseable {
+
+    /**
+     * Header of the key of a request. A request supersedes the running request
+     * of the same key.
+     */
+    public static final String REQUEST_KEY_HEADER = "X-Request-Key"; //$NON-NLS-1$
+
+    private static final Map<String, IProgressMonitor> RUNNING_REQUESTS = new ConcurrentHashMap<>();
+
+    private final @Nullable String fRequestKey;
+    private final @Nullable EndPoint fEndPoint;
+
+    private ClientRequestMonitor(@Nullable String requestKey, @Nullable EndPoint endPoint) {
+        fRequestKey = requestKey;
+        fEndPoint = endPoint;
+    }
+
+    /**
+     * Create the monitor of a request and cancel the running request with the
+     * same request key, if any. This method must be called on the thread of
+     * the request.
+     *
+     * @param request
+     *            The servlet request, or <code>null</code> if the request is
+     *            not served by a servlet
+     * @return The monitor of the request
+     */
+    public static ClientRequestMonitor create(@Nullable HttpServletRequest request) {
+        if (request == null) {
+            return new ClientRequestMonitor(null, null);
+        }
+        Request baseRequest = Request.getBaseRequest(request);
+        HttpChannel channel = (baseRequest == null) ? null : baseRequest.getHttpChannel();
+        ClientRequestMonitor monitor = new ClientRequestMonitor(request.getHeader(REQUEST_KEY_HEADER), (channel == null) ? null : channel.getEndPoint());
+        String requestKey = monitor.fRequestKey;
+        if (requestKey != null) {
+            IProgressMonitor superseded = RUNNING_REQUESTS.put(requestKey, monitor);
+            if (superseded != null) {
+                superseded.setCanceled(true);
+            }
+        }
+        return monitor;
+    }
+
+    @Override
+    public boolean isCanceled() {
+        if (super.isCanceled()) {
+            return true;
+        }
+        EndPoint endPoint = fEndPoint;
+        if (endPoint != null && !endPoint.isOpen()) {
+            setCanceled(true);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void close() {
+        String requestKey = fRequestKey;
+        if (requestKey != null) {
+            RUNNING_REQUESTS.remove(requestKey, this);
+        }
+    }
+
+}
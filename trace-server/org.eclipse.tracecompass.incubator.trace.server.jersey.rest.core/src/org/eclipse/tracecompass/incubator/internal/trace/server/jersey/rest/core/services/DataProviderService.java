@@ -86,9 +86,11 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
 import javax.ws.rs.GET;
@@ -97,10 +99,13 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
 
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.common.core.log.TraceCompassLog;
@@ -159,12 +164,10 @@ import org.eclipse.tracecompass.tmf.core.model.annotations.TraceAnnotationProvid
 import org.eclipse.tracecompass.tmf.core.model.timegraph.ITimeGraphArrow;
 import org.eclipse.tracecompass.tmf.core.model.timegraph.ITimeGraphDataProvider;
 import org.eclipse.tracecompass.tmf.core.model.timegraph.ITimeGraphEntryModel;
-import org.eclipse.tracecompass.tmf.core.model.timegraph.TimeGraphModel;
 import org.eclipse.tracecompass.tmf.core.model.tree.ITmfTreeDataModel;
 import org.eclipse.tracecompass.tmf.core.model.tree.ITmfTreeDataProvider;
 import org.eclipse.tracecompass.tmf.core.model.tree.TmfTreeModel;
 import org.eclipse.tracecompass.tmf.core.model.xy.ITmfTreeXYDataProvider;
-import org.eclipse.tracecompass.tmf.core.model.xy.ITmfXyModel;
 import org.eclipse.tracecompass.tmf.core.response.ITmfResponse;
 import org.eclipse.tracecompass.tmf.core.response.TmfModelResponse;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
@@ -201,11 +204,20 @@ public class DataProviderService {
     // Reports factory ID
     private static final String REPORTS_FACTORY_ID = "org.eclipse.tracecompass.incubator.analysis.core.reports.reportsDataProviderFactory"; //$NON-NLS-1$
 
+    // Endpoints whose responses are shared between identical requests
+    private static final String TREE_ENDPOINT = "tree"; //$NON-NLS-1$
+    private static final String STATES_ENDPOINT = "states"; //$NON-NLS-1$
+    private static final String XY_ENDPOINT = "xy"; //$NON-NLS-1$
+
     private static final @NonNull Logger LOGGER = TraceCompassLog.getLogger(DataProviderService.class);
 
     private final DataProviderManager manager = DataProviderManager.getInstance();
     private final XmlDataProviderManager xmlManager = XmlDataProviderManager.getInstance();
 
+    // Request of the client, to cancel the computations of abandoned requests
+    @Context
+    private HttpServletRequest fServletRequest;
+
     /**
      * Getter for the list of data provider descriptions
      *
@@ -385,7 +397,8 @@ public class DataProviderService {
             return errorResponse;
         }
         try (FlowScopeLog scope = new FlowScopeLogBuilder(LOGGER, Level.FINE, "DataProviderService#getXY") //$NON-NLS-1$
-                .setCategory(outputId).build()) {
+                .setCategory(outputId).build();
+                ClientRequestMonitor monitor = ClientRequestMonitor.create(fServletRequest)) {
             TmfExperiment experiment = ExperimentManagerService.getExperimentByUUID(expUUID);
             if (experiment == null) {
                 return Response.status(Status.NOT_FOUND).entity(NO_SUCH_TRACE).build();
@@ -410,8 +423,8 @@ public class DataProviderService {
                 return Response.status(Status.BAD_REQUEST).entity(errorMessage).build();
             }
 
-            TmfModelResponse<@NonNull ITmfXyModel> response = provider.fetchXY(params, null);
-            return Response.ok(response).build();
+            ITmfTreeXYDataProvider<@NonNull ITmfTreeDataModel> xyProvider = provider;
+            return getSharedResponse(expUUID, outputId, XY_ENDPOINT, params, monitor, m -> xyProvider.fetchXY(params, m));
         }
     }
 
@@ -513,7 +526,8 @@ public class DataProviderService {
             return errorResponse;
         }
         try (FlowScopeLog scope = new FlowScopeLogBuilder(LOGGER, Level.FINE, "DataProviderService#getStates") //$NON-NLS-1$
-                .setCategory(outputId).build()) {
+                .setCategory(outputId).build();
+                ClientRequestMonitor monitor = ClientRequestMonitor.create(fServletRequest)) {
             TmfExperiment experiment = ExperimentManagerService.getExperimentByUUID(expUUID);
             if (experiment == null) {
                 return Response.status(Status.NOT_FOUND).entity(NO_SUCH_TRACE).build();
@@ -537,8 +551,7 @@ public class DataProviderService {
                 return Response.status(Status.BAD_REQUEST).entity(errorMessage).build();
             }
 
-            TmfModelResponse<TimeGraphModel> response = provider.fetchRowModel(params, null);
-            return Response.ok(response).build();
+            return getSharedResponse(expUUID, outputId, STATES_ENDPOINT, params, monitor, m -> provider.fetchRowModel(params, m));
         }
     }
 
@@ -579,7 +592,8 @@ public class DataProviderService {
             return errorResponse;
         }
         try (FlowScopeLog scope = new FlowScopeLogBuilder(LOGGER, Level.FINE, "DataProviderService#getArrows") //$NON-NLS-1$
-                .setCategory(outputId).build()) {
+                .setCategory(outputId).build();
+                ClientRequestMonitor monitor = ClientRequestMonitor.create(fServletRequest)) {
             TmfExperiment experiment = ExperimentManagerService.getExperimentByUUID(expUUID);
             if (experiment == null) {
                 return Response.status(Status.NOT_FOUND).entity(NO_SUCH_TRACE).build();
@@ -598,7 +612,7 @@ public class DataProviderService {
                 return Response.status(Status.BAD_REQUEST).entity(errorMessage).build();
             }
 
-            TmfModelResponse<@NonNull List<@NonNull ITimeGraphArrow>> response = provider.fetchArrows(params, null);
+            TmfModelResponse<@NonNull List<@NonNull ITimeGraphArrow>> response = provider.fetchArrows(params, monitor);
             return Response.ok(response).build();
         }
     }
@@ -659,7 +673,8 @@ public class DataProviderService {
             return Response.status(Status.BAD_REQUEST).entity(MISSING_OUTPUTID).build();
         }
         try (FlowScopeLog scope = new FlowScopeLogBuilder(LOGGER, Level.FINE, "DataProviderService#getAnnotationCategories") //$NON-NLS-1$
-                .setCategory(outputId).build()) {
+                .setCategory(outputId).build();
+                ClientRequestMonitor monitor = ClientRequestMonitor.create(fServletRequest)) {
             TmfExperiment experiment = ExperimentManagerService.getExperimentByUUID(expUUID);
             if (experiment == null) {
                 return Response.status(Status.NOT_FOUND).entity(NO_SUCH_TRACE).build();
@@ -682,7 +697,7 @@ public class DataProviderService {
                 @NonNull Map<@NonNull String, @NonNull Object> params =
                         (markerSetId == null) ? Collections.emptyMap() :
                             ImmutableMap.of(DataProviderParameterUtils.REQUESTED_MARKER_SET_KEY, markerSetId);
-                TmfModelResponse<@NonNull AnnotationCategoriesModel> traceAnnotations = traceAnnotationProvider.fetchAnnotationCategories(params, null);
+                TmfModelResponse<@NonNull AnnotationCategoriesModel> traceAnnotations = traceAnnotationProvider.fetchAnnotationCategories(params, monitor);
                 if (traceAnnotations.getStatus() == ITmfResponse.Status.CANCELLED || traceAnnotations.getStatus() == ITmfResponse.Status.FAILED) {
                     return Response.ok(new TmfModelResponse<>(new AnnotationCategoriesModel(Collections.emptyList()), traceAnnotations.getStatus(), traceAnnotations.getStatusMessage())).build();
                 }
@@ -691,7 +706,7 @@ public class DataProviderService {
             }
             // Fetch data provider annotation categories
             if (provider instanceof IOutputAnnotationProvider) {
-                TmfModelResponse<@NonNull AnnotationCategoriesModel> annotations = ((IOutputAnnotationProvider) provider).fetchAnnotationCategories(Collections.emptyMap(), null);
+                TmfModelResponse<@NonNull AnnotationCategoriesModel> annotations = ((IOutputAnnotationProvider) provider).fetchAnnotationCategories(Collections.emptyMap(), monitor);
                 if (annotations.getStatus() == ITmfResponse.Status.CANCELLED || annotations.getStatus() == ITmfResponse.Status.FAILED) {
                     return Response.ok(new TmfModelResponse<>(new AnnotationCategoriesModel(Collections.emptyList()), annotations.getStatus(), annotations.getStatusMessage())).build();
                 }
@@ -743,7 +758,8 @@ public class DataProviderService {
             return errorResponse;
         }
         try (FlowScopeLog scope = new FlowScopeLogBuilder(LOGGER, Level.FINE, "DataProviderService#getAnnotations") //$NON-NLS-1$
-                .setCategory(outputId).build()) {
+                .setCategory(outputId).build();
+                ClientRequestMonitor monitor = ClientRequestMonitor.create(fServletRequest)) {
             TmfExperiment experiment = ExperimentManagerService.getExperimentByUUID(expUUID);
             if (experiment == null) {
                 return Response.status(Status.NOT_FOUND).entity(NO_SUCH_TRACE).build();
@@ -769,7 +785,7 @@ public class DataProviderService {
             // Fetch trace annotations
             TraceAnnotationProvider traceAnnotationProvider = ExperimentManagerService.getTraceAnnotationProvider(expUUID);
             if (traceAnnotationProvider != null) {
-                TmfModelResponse<@NonNull AnnotationModel> traceAnnotations = traceAnnotationProvider.fetchAnnotations(params, null);
+                TmfModelResponse<@NonNull AnnotationModel> traceAnnotations = traceAnnotationProvider.fetchAnnotations(params, monitor);
                 if (traceAnnotations.getStatus() == ITmfResponse.Status.CANCELLED || traceAnnotations.getStatus() == ITmfResponse.Status.FAILED) {
                     return Response.ok(new TmfModelResponse<>(new AnnotationModel(Collections.emptyMap()), traceAnnotations.getStatus(), traceAnnotations.getStatusMessage())).build();
                 }
@@ -778,7 +794,7 @@ public class DataProviderService {
             }
             // Fetch data provider annotations
             if (provider instanceof IOutputAnnotationProvider) {
-                TmfModelResponse<@NonNull AnnotationModel> annotations = ((IOutputAnnotationProvider) provider).fetchAnnotations(params, null);
+                TmfModelResponse<@NonNull AnnotationModel> annotations = ((IOutputAnnotationProvider) provider).fetchAnnotations(params, monitor);
                 if (annotations.getStatus() == ITmfResponse.Status.CANCELLED || annotations.getStatus() == ITmfResponse.Status.FAILED) {
                     return Response.ok(new TmfModelResponse<>(new AnnotationModel(Collections.emptyMap()), annotations.getStatus(), annotations.getStatusMessage())).build();
                 }
@@ -836,7 +852,8 @@ public class DataProviderService {
             return errorResponse;
         }
         try (FlowScopeLog scope = new FlowScopeLogBuilder(LOGGER, Level.FINE, "DataProviderService#getTimeGraphTooltip") //$NON-NLS-1$
-                .setCategory(outputId).build()) {
+                .setCategory(outputId).build();
+                ClientRequestMonitor monitor = ClientRequestMonitor.create(fServletRequest)) {
             TmfExperiment experiment = ExperimentManagerService.getExperimentByUUID(expUUID);
             if (experiment == null) {
                 return Response.status(Status.NOT_FOUND).entity(NO_SUCH_TRACE).build();
@@ -855,7 +872,7 @@ public class DataProviderService {
                 return Response.status(Status.BAD_REQUEST).entity(errorMessage).build();
             }
 
-            TmfModelResponse<@NonNull Map<@NonNull String, @NonNull String>> response = provider.fetchTooltip(params, null);
+            TmfModelResponse<@NonNull Map<@NonNull String, @NonNull String>> response = provider.fetchTooltip(params, monitor);
             return Response.ok(response).build();
         }
     }
@@ -958,7 +975,8 @@ public class DataProviderService {
             return errorResponse;
         }
         try (FlowScopeLog scope = new FlowScopeLogBuilder(LOGGER, Level.FINE, "DataProviderService#getLines") //$NON-NLS-1$
-                .setCategory(outputId).build()) {
+                .setCategory(outputId).build();
+                ClientRequestMonitor monitor = ClientRequestMonitor.create(fServletRequest)) {
             TmfExperiment experiment = ExperimentManagerService.getExperimentByUUID(expUUID);
             if (experiment == null) {
                 return Response.status(Status.NOT_FOUND).entity(NO_SUCH_TRACE).build();
@@ -975,7 +993,7 @@ public class DataProviderService {
                 return Response.status(Status.BAD_REQUEST).entity(errorMessage).build();
             }
 
-            TmfModelResponse<?> response = provider.fetchLines(params, null);
+            TmfModelResponse<?> response = provider.fetchLines(params, monitor);
             if (response.getStatus() == ITmfResponse.Status.FAILED) {
                 return Response.status(Status.BAD_REQUEST).entity(response.getStatusMessage()).build();
             }
@@ -983,6 +1001,89 @@ public class DataProviderService {
         }
     }
 
+    /**
+     * Stream the table lines from the provider, as newline-delimited JSON
+     *
+     * @param expUUID
+     *            desired experiment UUID
+     * @param outputId
+     *            Output ID for the data provider to query
+     * @param queryParameters
+     *            Parameters to stream table lines as described by
+     *            {@link QueryParameters}
+     * @return The stream of lines
+     */
+    @POST
+    @Path("/table/{outputId}/lines/stream")
+    @Tag(name = VTB)
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(TableLinesStreamingOutput.NDJSON)
+    @Operation(summary = "API to stream virtual table lines", description = "Streams the lines as newline-delimited JSON, " +
+            "one line of the table per line, while they are read from the trace. Each line has its index: an interrupted " +
+            "stream can be resumed with the '" + DataProviderParameterUtils.REQUESTED_TABLE_INDEX_KEY + "' following the last line received.", responses = {
+                    @ApiResponse(responseCode = "200", description = "Returns the table lines, one JSON object per line"),
+                    @ApiResponse(responseCode = "400", description = INVALID_PARAMETERS, content = @Content(schema = @Schema(implementation = String.class))),
+                    @ApiResponse(responseCode = "404", description = PROVIDER_NOT_FOUND, content = @Content(schema = @Schema(implementation = String.class))),
+                    @ApiResponse(responseCode = "405", description = NO_PROVIDER, content = @Content(schema = @Schema(implementation = String.class)))
+            })
+    public Response streamLines(
+            @Parameter(description = EXP_UUID) @PathParam("expUUID") UUID expUUID,
+            @Parameter(description = OUTPUT_ID) @PathParam("outputId") String outputId,
+            @RequestBody(description = "Query parameters to stream the table lines. " + ONE_OF +
+                    INDEX + TABLE_TIMES + "If present, the '" + DataProviderParameterUtils.REQUESTED_TABLE_COUNT_KEY + "' is the maximum number of lines " + //$NON-NLS-1$ //$NON-NLS-2$
+                    "to stream, otherwise the lines are streamed to the end of the table. " + COLUMNS + EXPRESSIONS, content = { //$NON-NLS-1$
+                            @Content(examples = @ExampleObject("{\"parameters\":{" +
+                                    INDEX_EX + COLUMNS_EX + EXPRESSIONS_EX +
+                                    "}}"), schema = @Schema(implementation = LinesQueryParameters.class))
+                    }, required = true) QueryParameters queryParameters) {
+
+        Response errorResponse = validateParameters(outputId, queryParameters);
+        if (errorResponse != null) {
+            return errorResponse;
+        }
+        try (FlowScopeLog scope = new FlowScopeLogBuilder(LOGGER, Level.FINE, "DataProviderService#streamLines") //$NON-NLS-1$
+                .setCategory(outputId).build();
+                ClientRequestMonitor monitor = ClientRequestMonitor.create(fServletRequest)) {
+            TmfExperiment experiment = ExperimentManagerService.getExperimentByUUID(expUUID);
+            if (experiment == null) {
+                return Response.status(Status.NOT_FOUND).entity(NO_SUCH_TRACE).build();
+            }
+
+            ITmfVirtualTableDataProvider<? extends IVirtualTableLine, ? extends ITmfTreeDataModel> provider = manager.getOrCreateDataProvider(experiment, outputId, ITmfVirtualTableDataProvider.class);
+            if (provider == null) {
+                return Response.status(Status.METHOD_NOT_ALLOWED).entity(NO_PROVIDER).build();
+            }
+
+            Map<String, Object> params = new HashMap<>(queryParameters.getParameters());
+            String errorMessage = QueryParametersUtil.validateStreamLinesQueryParameters(params);
+            if (errorMessage != null) {
+                return Response.status(Status.BAD_REQUEST).entity(errorMessage).build();
+            }
+            Object count = params.remove(DataProviderParameterUtils.REQUESTED_TABLE_COUNT_KEY);
+            long maxCount = (count == null) ? Long.MAX_VALUE : ((Number) count).longValue();
+            if (!params.containsKey(DataProviderParameterUtils.REQUESTED_TIME_KEY)) {
+                params.putIfAbsent(DataProviderParameterUtils.REQUESTED_TABLE_INDEX_KEY, 0L);
+            }
+
+            // Fetch the first chunk before committing the response, to report the errors
+            TmfModelResponse<?> response = TableLinesStreamingOutput.fetchChunk(provider, params, maxCount, monitor);
+            List<? extends IVirtualTableLine> lines = TableLinesStreamingOutput.getLines(response);
+            if (response.getStatus() == ITmfResponse.Status.FAILED || lines == null) {
+                return Response.status(Status.BAD_REQUEST).entity(response.getStatusMessage()).build();
+            }
+            if (maxCount == 0) {
+                lines = Collections.emptyList();
+            }
+            return Response.ok(new TableLinesStreamingOutput(provider, params, lines, maxCount, fServletRequest)).build();
+        }
+    }
+
+    private Response getSharedResponse(UUID expUUID, String outputId, String endpoint, Map<String, Object> params,
+            IProgressMonitor monitor, Function<IProgressMonitor, TmfModelResponse<?>> computation) {
+        String ifNoneMatch = (fServletRequest == null) ? null : fServletRequest.getHeader(HttpHeaders.IF_NONE_MATCH);
+        return ResponseCache.getInstance().getResponse(expUUID, outputId, endpoint, params, monitor, ifNoneMatch, computation);
+    }
+
     private Response getTree(UUID expUUID, String outputId, QueryParameters queryParameters) {
         Response errorResponse = validateParameters(outputId, queryParameters);
         if (errorResponse != null) {
@@ -994,7 +1095,8 @@ public class DataProviderService {
             return Response.status(Status.BAD_REQUEST).entity(errorMessage).build();
         }
         try (FlowScopeLog scope = new FlowScopeLogBuilder(LOGGER, Level.FINE, "DataProviderService#getTree") //$NON-NLS-1$
-                .setCategory(outputId).build()) {
+                .setCategory(outputId).build();
+                ClientRequestMonitor monitor = ClientRequestMonitor.create(fServletRequest)) {
             TmfExperiment experiment = ExperimentManagerService.getExperimentByUUID(expUUID);
             if (experiment == null) {
                 return Response.status(Status.NOT_FOUND).entity(NO_SUCH_TRACE).build();
@@ -1019,9 +1121,13 @@ public class DataProviderService {
                 timeRequested = ImmutableList.of(experiment.getStartTime().toNanos(), experiment.getEndTime().toNanos());
                 params.put(DataProviderParameterUtils.REQUESTED_TIME_KEY, timeRequested);
             }
-            TmfModelResponse<?> treeResponse = provider.fetchTree(params, null);
-            Object model = treeResponse.getModel();
-            return Response.ok(model instanceof TmfTreeModel ? new TmfModelResponse<>(new TreeModelWrapper((TmfTreeModel<@NonNull ITmfTreeDataModel>) model), treeResponse.getStatus(), treeResponse.getStatusMessage()) : treeResponse).build();
+            ITmfTreeDataProvider<? extends @NonNull ITmfTreeDataModel> treeProvider = provider;
+            Map<String, Object> treeParams = params;
+            return getSharedResponse(expUUID, outputId, TREE_ENDPOINT, treeParams, monitor, m -> {
+                TmfModelResponse<?> treeResponse = treeProvider.fetchTree(treeParams, m);
+                Object model = treeResponse.getModel();
+                return model instanceof TmfTreeModel ? new TmfModelResponse<>(new TreeModelWrapper((TmfTreeModel<@NonNull ITmfTreeDataModel>) model), treeResponse.getStatus(), treeResponse.getStatusMessage()) : treeResponse;
+            });
         }
     }
 
@@ -1061,7 +1167,8 @@ public class DataProviderService {
         }
         Map<String, Object> params = queryParameters.getParameters();
         try (FlowScopeLog scope = new FlowScopeLogBuilder(LOGGER, Level.FINE, "DataProviderService#getStyles") //$NON-NLS-1$
-                .setCategory(outputId).build()) {
+                .setCategory(outputId).build();
+                ClientRequestMonitor monitor = ClientRequestMonitor.create(fServletRequest)) {
             TmfExperiment experiment = ExperimentManagerService.getExperimentByUUID(expUUID);
             if (experiment == null) {
                 return Response.status(Status.NOT_FOUND).entity(NO_SUCH_TRACE).build();
@@ -1076,7 +1183,7 @@ public class DataProviderService {
             }
 
             if (provider instanceof IOutputStyleProvider) {
-                TmfModelResponse<@NonNull OutputStyleModel> styleModelResponse = ((IOutputStyleProvider) provider).fetchStyle(params, null);
+                TmfModelResponse<@NonNull OutputStyleModel> styleModelResponse = ((IOutputStyleProvider) provider).fetchStyle(params, monitor);
                 return Response.ok(styleModelResponse).build();
             }
 
@@ -1253,6 +1360,7 @@ public class DataProviderService {
                 return Response.status(Status.NOT_FOUND).entity(NO_SUCH_CONFIGURATION_TYPE).build();
             }
             IDataProviderDescriptor returnDescr = configurator.createDataProviderDescriptors(experiment, inputConfig);
+            ResponseCache.getInstance().invalidate(expUUID);
             return Response.ok(returnDescr).build();
         } catch (TmfConfigurationException e) {
             return Response.status(Status.BAD_REQUEST).entity(e.getMessage()).build();
@@ -1327,6 +1435,7 @@ public class DataProviderService {
 
             // Clean-up configuration
             configurator.removeDataProviderDescriptor(experiment, derivedDescriptor);
+            ResponseCache.getInstance().invalidate(expUUID);
 
             return Response.ok(derivedDescriptor).build();
         } catch (TmfConfigurationException e) {
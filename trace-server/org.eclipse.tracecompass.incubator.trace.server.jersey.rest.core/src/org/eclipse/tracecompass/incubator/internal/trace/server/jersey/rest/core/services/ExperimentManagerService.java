@@ -222,6 +222,7 @@ public class ExperimentManagerService {
             experiment.dispose();
         }
         TRACE_ANNOTATION_PROVIDERS.remove(expUUID);
+        ResponseCache.getInstance().invalidate(expUUID);
         TRACE_UUIDS.remove(expUUID);
         TRACE_INSTANCES.remove(expUUID);
         boolean deleteResources = true;
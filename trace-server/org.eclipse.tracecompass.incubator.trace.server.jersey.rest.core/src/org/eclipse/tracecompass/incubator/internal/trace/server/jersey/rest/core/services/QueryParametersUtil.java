@@ -200,6 +200,26 @@ public class QueryParametersUtil {
         return null;
     }
 
+    /**
+     * Validate and convert streamed lines query parameters. The count of lines
+     * is optional.
+     *
+     * @param params
+     *            the mutable map of query parameters
+     * @return an error message if validation fails, or null otherwise
+     */
+    public static String validateStreamLinesQueryParameters(Map<String, Object> params) {
+        String errorMessage;
+        if ((errorMessage = validateLinesQueryParameters(params)) != null) {
+            return errorMessage;
+        }
+        Object count = params.get(DataProviderParameterUtils.REQUESTED_TABLE_COUNT_KEY);
+        if (count != null && !(count instanceof Number && ((Number) count).longValue() >= 0)) {
+            return INVALID_PARAMETERS + SEP + DataProviderParameterUtils.REQUESTED_TABLE_COUNT_KEY;
+        }
+        return null;
+    }
+
     /**
      * Validate and convert the filter_query_parameters query parameter
      *
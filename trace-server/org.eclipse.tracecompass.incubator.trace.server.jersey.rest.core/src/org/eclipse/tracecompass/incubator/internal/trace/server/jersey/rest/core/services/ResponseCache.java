@@ -0,0 +1,387 @@
+/**********************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ **********************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.Response;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.internal.provisional.tmf.core.model.table.ITmfVirtualTableModel;
+import org.eclipse.tracecompass.internal.provisional.tmf.core.model.table.IVirtualTableLine;
+import org.eclipse.tracecompass.tmf.core.model.CommonStatusMessage;
+import org.eclipse.tracecompass.tmf.core.model.timegraph.ITimeGraphRowModel;
+import org.eclipse.tracecompass.tmf.core.model.timegraph.TimeGraphModel;
+import org.eclipse.tracecompass.tmf.core.model.tree.TmfTreeModel;
+import org.eclipse.tracecompass.tmf.core.model.xy.ISeriesModel;
+import org.eclipse.tracecompass.tmf.core.model.xy.ITmfXyModel;
+import org.eclipse.tracecompass.tmf.core.response.ITmfResponse;
+import org.eclipse.tracecompass.tmf.core.response.TmfModelResponse;
+
+/**
+ * Shares the responses of the data providers between identical requests,
+ * identified by the experiment, the output, the endpoint and the query
+ * parameters.
+ *
+ * Concurrent identical requests share one computation: the first request
+ * computes the response and the others wait for it. The computation is
+ * cancelled only when all the requests that wait for it are cancelled.
+ *
+ * The completed responses do not change, so the last ones are kept in a cache
+ * with a strong entity tag. A request whose <code>If-None-Match</code> header
+ * matches the tag of the cached response gets a <code>304 Not Modified</code>
+ * response. The query endpoints are POST requests only to send their
+ * parameters in the body, they do not modify anything.
+ *
+ * The cache is bounded by the estimated size of the responses, and the
+ * responses larger than a fraction of this bound are not cached. The
+ * responses of an experiment that is invalidated while they are computed are
+ * not cached either.
+ */
+@SuppressWarnings("restriction")
+public final class ResponseCache {
+
+    private static final long MAX_CACHED_SIZE = 64L * 1024 * 1024;
+    private static final long MAX_RESPONSE_SIZE = MAX_CACHED_SIZE / 8;
+    private static final long POLL_INTERVAL_MS = 50;
+
+    /* Estimated sizes of the elements of the models, in bytes */
+    private static final long RESPONSE_SIZE = 256;
+    private static final long ENTRY_SIZE = 256;
+    private static final long STATE_SIZE = 64;
+    private static final long POINT_SIZE = 16;
+    private static final long CELL_SIZE = 64;
+
+    private static final ResponseCache INSTANCE = new ResponseCache(MAX_CACHED_SIZE);
+
+    private final Map<String, Computation> fComputations = new ConcurrentHashMap<>();
+    /* Access-ordered, guarded by itself */
+    private final Map<String, CachedResponse> fCache = new LinkedHashMap<>(16, 0.75f, true);
+    private final long fMaxCachedSize;
+    private long fCachedSize = 0;
+    /* Incremented each time the responses of an experiment are invalidated */
+    private final Map<UUID, AtomicLong> fGenerations = new ConcurrentHashMap<>();
+    /* Tags are unique to this server instance */
+    private final String fTagPrefix = Long.toHexString(UUID.randomUUID().getMostSignificantBits());
+    private final AtomicLong fNextTag = new AtomicLong();
+
+    /**
+     * A completed response and its entity tag
+     */
+    private static final class CachedResponse {
+        private final TmfModelResponse<?> fResponse;
+        private final EntityTag fTag;
+        private final long fSize;
+
+        public CachedResponse(TmfModelResponse<?> response, EntityTag tag, long size) {
+            fResponse = response;
+            fTag = tag;
+            fSize = size;
+        }
+    }
+
+    /**
+     * A computation shared by identical requests. Its monitor is cancelled
+     * when all the monitors of the requests are cancelled.
+     */
+    private static final class Computation extends NullProgressMonitor {
+        private final CompletableFuture<TmfModelResponse<?>> fFuture = new CompletableFuture<>();
+        private final List<IProgressMonitor> fRequestMonitors = new ArrayList<>();
+
+        public synchronized void attach(IProgressMonitor monitor) {
+            fRequestMonitors.add(monitor);
+        }
+
+        @Override
+        public boolean isCanceled() {
+            if (super.isCanceled()) {
+                return true;
+            }
+            synchronized (this) {
+                for (IProgressMonitor monitor : fRequestMonitors) {
+                    if (!monitor.isCanceled()) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+    }
+
+    private ResponseCache(long maxCachedSize) {
+        fMaxCachedSize = maxCachedSize;
+    }
+
+    /**
+     * Get the instance of the cache
+     *
+     * @return The instance
+     */
+    public static ResponseCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Get the response to a request, from the cache, from an identical request
+     * being computed, or by computing it on the calling thread.
+     *
+     * @param expUUID
+     *            The UUID of the experiment
+     * @param outputId
+     *            The ID of the output
+     * @param endpoint
+     *            The name of the endpoint
+     * @param parameters
+     *            The query parameters
+     * @param monitor
+     *            The monitor of the request
+     * @param ifNoneMatch
+     *            The <code>If-None-Match</code> header of the request, if any
+     * @param computation
+     *            Computes the response with the monitor it receives
+     * @return The HTTP response
+     */
+    public Response getResponse(UUID expUUID, String outputId, String endpoint, Map<String, Object> parameters,
+            IProgressMonitor monitor, @Nullable String ifNoneMatch, Function<IProgressMonitor, TmfModelResponse<?>> computation) {
+        String key = getKey(expUUID, outputId, endpoint, parameters);
+        boolean retried = false;
+        while (true) {
+            CachedResponse cached;
+            synchronized (fCache) {
+                cached = fCache.get(key);
+            }
+            if (cached != null) {
+                if (matches(ifNoneMatch, cached.fTag)) {
+                    return Response.notModified(cached.fTag).build();
+                }
+                return Response.ok(cached.fResponse).tag(cached.fTag).build();
+            }
+
+            boolean[] owner = { false };
+            Computation computationState = fComputations.computeIfAbsent(key, k -> {
+                owner[0] = true;
+                return new Computation();
+            });
+            computationState.attach(monitor);
+            TmfModelResponse<?> response = owner[0] ? compute(key, expUUID, computationState, computation) : await(computationState, monitor);
+            if (!owner[0] && !retried && response.getStatus() == ITmfResponse.Status.CANCELLED && !monitor.isCanceled()) {
+                // The shared computation was cancelled before this request joined it
+                retried = true;
+                continue;
+            }
+            EntityTag tag = getTag(key, response);
+            return (tag == null) ? Response.ok(response).build() : Response.ok(response).tag(tag).build();
+        }
+    }
+
+    private TmfModelResponse<?> compute(String key, UUID expUUID, Computation computationState, Function<IProgressMonitor, TmfModelResponse<?>> computation) {
+        AtomicLong generation = fGenerations.computeIfAbsent(expUUID, uuid -> new AtomicLong());
+        long startGeneration = generation.get();
+        try {
+            TmfModelResponse<?> response = computation.apply(computationState);
+            long size = (response.getStatus() == ITmfResponse.Status.COMPLETED) ? estimateSize(response) : Long.MAX_VALUE;
+            if (size <= MAX_RESPONSE_SIZE) {
+                synchronized (fCache) {
+                    // The experiment may have been invalidated during the computation
+                    if (generation.get() == startGeneration) {
+                        put(key, new CachedResponse(response, new EntityTag(fTagPrefix + '-' + Long.toHexString(fNextTag.incrementAndGet())), size));
+                    }
+                }
+            }
+            computationState.fFuture.complete(response);
+            return response;
+        } catch (RuntimeException | Error e) {
+            computationState.fFuture.completeExceptionally(e);
+            throw e;
+        } finally {
+            fComputations.remove(key, computationState);
+        }
+    }
+
+    /**
+     * Put a response in the cache and evict the least recently used responses
+     * while the cache is too large. Must be called with the lock of the cache.
+     */
+    private void put(String key, CachedResponse cached) {
+        CachedResponse previous = fCache.put(key, cached);
+        if (previous != null) {
+            fCachedSize -= previous.fSize;
+        }
+        fCachedSize += cached.fSize;
+        Iterator<CachedResponse> iterator = fCache.values().iterator();
+        while (fCachedSize > fMaxCachedSize && iterator.hasNext()) {
+            fCachedSize -= iterator.next().fSize;
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Estimate the size of a response in memory from the number of elements of
+     * its model
+     */
+    private static long estimateSize(TmfModelResponse<?> response) {
+        Object model = response.getModel();
+        long size = RESPONSE_SIZE;
+        if (model instanceof TmfTreeModel) {
+            size += ((TmfTreeModel<?>) model).getEntries().size() * ENTRY_SIZE;
+        } else if (model instanceof TimeGraphModel) {
+            for (ITimeGraphRowModel row : ((TimeGraphModel) model).getRows()) {
+                size += ENTRY_SIZE + row.getStates().size() * STATE_SIZE;
+            }
+        } else if (model instanceof ITmfXyModel) {
+            for (ISeriesModel series : ((ITmfXyModel) model).getSeriesData()) {
+                size += ENTRY_SIZE + series.getData().length * POINT_SIZE;
+            }
+        } else if (model instanceof ITmfVirtualTableModel) {
+            for (IVirtualTableLine line : ((ITmfVirtualTableModel<?>) model).getLines()) {
+                size += ENTRY_SIZE + line.getCells().size() * CELL_SIZE;
+            }
+        } else if (model instanceof Collection) {
+            size += ((Collection<?>) model).size() * ENTRY_SIZE;
+        }
+        return size;
+    }
+
+    private static TmfModelResponse<?> await(Computation computationState, IProgressMonitor monitor) {
+        while (true) {
+            if (monitor.isCanceled()) {
+                return new TmfModelResponse<>(null, ITmfResponse.Status.CANCELLED, CommonStatusMessage.TASK_CANCELLED);
+            }
+            try {
+                return computationState.fFuture.get(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // Check the monitor again
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return new TmfModelResponse<>(null, ITmfResponse.Status.CANCELLED, CommonStatusMessage.TASK_CANCELLED);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new IllegalStateException(cause);
+            }
+        }
+    }
+
+    private @Nullable EntityTag getTag(String key, TmfModelResponse<?> response) {
+        synchronized (fCache) {
+            CachedResponse cached = fCache.get(key);
+            return (cached != null && cached.fResponse == response) ? cached.fTag : null;
+        }
+    }
+
+    /**
+     * Remove the responses of an experiment from the cache, for instance when
+     * it is deleted or its outputs change
+     *
+     * @param expUUID
+     *            The UUID of the experiment
+     */
+    public void invalidate(UUID expUUID) {
+        String prefix = expUUID.toString() + '/';
+        synchronized (fCache) {
+            fGenerations.computeIfAbsent(expUUID, uuid -> new AtomicLong()).incrementAndGet();
+            Iterator<Entry<String, CachedResponse>> iterator = fCache.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Entry<String, CachedResponse> entry = iterator.next();
+                if (entry.getKey().startsWith(prefix)) {
+                    fCachedSize -= entry.getValue().fSize;
+                    iterator.remove();
+                }
+            }
+        }
+        // The new requests do not join the computations of the old outputs
+        fComputations.keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    private static boolean matches(@Nullable String ifNoneMatch, EntityTag tag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String value : ifNoneMatch.split(",")) { //$NON-NLS-1$
+            String trimmed = value.trim();
+            if (trimmed.equals("*")) { //$NON-NLS-1$
+                return true;
+            }
+            // If-None-Match uses the weak comparison
+            if (trimmed.startsWith("W/")) { //$NON-NLS-1$
+                trimmed = trimmed.substring(2);
+            }
+            if (trimmed.equals('"' + tag.getValue() + '"')) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String getKey(UUID expUUID, String outputId, String endpoint, Map<String, Object> parameters) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(expUUID).append('/').append(outputId).append('/').append(endpoint).append('/');
+        normalize(parameters, sb);
+        return sb.toString();
+    }
+
+    /**
+     * Write the parameters with the keys of the maps sorted, so that requests
+     * with the same parameters in a different order have the same key
+     */
+    private static void normalize(@Nullable Object value, StringBuilder sb) {
+        if (value instanceof Map) {
+            Map<String, @Nullable Object> sorted = new TreeMap<>();
+            for (Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                sorted.put(String.valueOf(entry.getKey()), entry.getValue());
+            }
+            sb.append('{');
+            for (Entry<String, @Nullable Object> entry : sorted.entrySet()) {
+                normalize(entry.getKey(), sb);
+                sb.append(':');
+                normalize(entry.getValue(), sb);
+                sb.append(',');
+            }
+            sb.append('}');
+        } else if (value instanceof Collection) {
+            sb.append('[');
+            for (Object element : (Collection<?>) value) {
+                normalize(element, sb);
+                sb.append(',');
+            }
+            sb.append(']');
+        } else if (value instanceof String) {
+            sb.append('"').append(((String) value).replace("\\", "\\\\").replace("\"", "\\\"")).append('"'); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+        } else {
+            sb.append(value);
+        }
+    }
+
+}
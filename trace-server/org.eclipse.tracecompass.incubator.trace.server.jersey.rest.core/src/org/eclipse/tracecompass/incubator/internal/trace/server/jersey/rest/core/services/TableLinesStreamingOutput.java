@@ -0,0 +1,170 @@
+/**********************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ **********************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.core.StreamingOutput;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.webapp.JacksonObjectMapperProvider;
+import org.eclipse.tracecompass.internal.provisional.tmf.core.model.table.ITmfVirtualTableDataProvider;
+import org.eclipse.tracecompass.internal.provisional.tmf.core.model.table.ITmfVirtualTableModel;
+import org.eclipse.tracecompass.internal.provisional.tmf.core.model.table.IVirtualTableLine;
+import org.eclipse.tracecompass.tmf.core.dataprovider.DataProviderParameterUtils;
+import org.eclipse.tracecompass.tmf.core.model.tree.ITmfTreeDataModel;
+import org.eclipse.tracecompass.tmf.core.response.ITmfResponse;
+import org.eclipse.tracecompass.tmf.core.response.TmfModelResponse;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Writes the lines of a virtual table as newline-delimited JSON, one line of
+ * the table per line of the output, while they are read from the trace.
+ *
+ * The lines are fetched from the data provider in chunks of
+ * {@link #CHUNK_SIZE} lines, starting at the rank of the line following the
+ * last line written, so that the server holds at most one chunk in memory
+ * whatever the size of the trace. The lines of a chunk are written to the
+ * buffered output, which is flushed to the client once per chunk, before the
+ * next one is read: the writes block while the client does not read, so a
+ * slow client slows down the reading of the trace instead of filling the
+ * memory of the server.
+ *
+ * Each line has its index, so a client whose stream is interrupted can
+ * resume it with a request starting at the index following the last complete
+ * line it received.
+ */
+@SuppressWarnings("restriction")
+public class TableLinesStreamingOutput implements StreamingOutput {
+
+    /** Media type of newline-delimited JSON */
+    public static final String NDJSON = "application/x-ndjson"; //$NON-NLS-1$
+
+    /** Maximum number of lines fetched from the data provider at once */
+    public static final int CHUNK_SIZE = 1000;
+
+    private static final ObjectMapper MAPPER = new JacksonObjectMapperProvider().getContext(IVirtualTableLine.class);
+    /* The lines are flushed once per chunk, not after each line */
+    private static final ObjectWriter WRITER = MAPPER.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+    private final ITmfVirtualTableDataProvider<? extends IVirtualTableLine, ? extends ITmfTreeDataModel> fProvider;
+    private final Map<String, Object> fParameters;
+    private final List<? extends IVirtualTableLine> fFirstChunk;
+    private final long fCount;
+    private final @Nullable HttpServletRequest fRequest;
+
+    /**
+     * Constructor
+     *
+     * @param provider
+     *            The data provider of the table
+     * @param parameters
+     *            The query parameters of the lines, other than their index
+     *            and count
+     * @param firstChunk
+     *            The first chunk of lines, already fetched to report the
+     *            errors of the query before the response is committed
+     * @param count
+     *            The maximum number of lines to write
+     * @param request
+     *            The servlet request, to stop reading the trace when the
+     *            request is abandoned
+     */
+    public TableLinesStreamingOutput(ITmfVirtualTableDataProvider<? extends IVirtualTableLine, ? extends ITmfTreeDataModel> provider,
+            Map<String, Object> parameters, List<? extends IVirtualTableLine> firstChunk, long count, @Nullable HttpServletRequest request) {
+        fProvider = provider;
+        fParameters = parameters;
+        fFirstChunk = firstChunk;
+        fCount = count;
+        fRequest = request;
+    }
+
+    /**
+     * Fetch a chunk of lines
+     *
+     * @param provider
+     *            The data provider of the table
+     * @param parameters
+     *            The query parameters of the lines
+     * @param count
+     *            The number of lines to fetch, at most {@link #CHUNK_SIZE}
+     * @param monitor
+     *            The monitor of the request
+     * @return The response of the data provider
+     */
+    public static TmfModelResponse<?> fetchChunk(ITmfVirtualTableDataProvider<? extends IVirtualTableLine, ? extends ITmfTreeDataModel> provider,
+            Map<String, Object> parameters, long count, ClientRequestMonitor monitor) {
+        Map<String, Object> chunkParameters = new HashMap<>(parameters);
+        chunkParameters.put(DataProviderParameterUtils.REQUESTED_TABLE_COUNT_KEY, (int) Math.min(count, CHUNK_SIZE));
+        return provider.fetchLines(chunkParameters, monitor);
+    }
+
+    /**
+     * Get the lines of the response of a chunk
+     *
+     * @param response
+     *            The response of the data provider
+     * @return The lines, or <code>null</code> if the response has no model
+     */
+    public static @Nullable List<? extends IVirtualTableLine> getLines(TmfModelResponse<?> response) {
+        Object model = response.getModel();
+        return (model instanceof ITmfVirtualTableModel) ? ((ITmfVirtualTableModel<?>) model).getLines() : null;
+    }
+
+    @Override
+    public void write(@Nullable OutputStream output) throws IOException {
+        if (output == null) {
+            return;
+        }
+        try (ClientRequestMonitor monitor = ClientRequestMonitor.create(fRequest);
+                JsonGenerator generator = MAPPER.getFactory().createGenerator(output)) {
+            // The lines are separated by new lines instead of spaces
+            generator.setRootValueSeparator(null);
+            List<? extends IVirtualTableLine> lines = fFirstChunk;
+            long remaining = fCount;
+            Map<String, Object> parameters = new HashMap<>(fParameters);
+            // The following chunks start at the rank of the next line
+            parameters.remove(DataProviderParameterUtils.REQUESTED_TIME_KEY);
+            parameters.remove(DataProviderParameterUtils.TABLE_SEARCH_DIRECTION_KEY);
+            while (!lines.isEmpty()) {
+                for (IVirtualTableLine line : lines) {
+                    WRITER.writeValue(generator, line);
+                    generator.writeRaw('\n');
+                }
+                // Blocks until the client has read enough of the previous lines
+                generator.flush();
+                remaining -= lines.size();
+                if (remaining <= 0 || monitor.isCanceled()) {
+                    return;
+                }
+                parameters.put(DataProviderParameterUtils.REQUESTED_TABLE_INDEX_KEY, lines.get(lines.size() - 1).getIndex() + 1);
+                TmfModelResponse<?> response = fetchChunk(fProvider, parameters, remaining, monitor);
+                List<? extends IVirtualTableLine> nextLines = getLines(response);
+                if (response.getStatus() == ITmfResponse.Status.FAILED || response.getStatus() == ITmfResponse.Status.CANCELLED || nextLines == null) {
+                    // The client sees that the stream ended before the last line
+                    return;
+                }
+                lines = nextLines;
+            }
+        }
+    }
+
+}
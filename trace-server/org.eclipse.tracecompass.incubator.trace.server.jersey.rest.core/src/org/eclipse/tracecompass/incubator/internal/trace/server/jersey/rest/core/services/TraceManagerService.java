@@ -59,13 +59,13 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.Activator;
 import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.model.TraceQueryParameters;
 import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.model.views.QueryParameters;
+import org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services.TraceTypeDetector.Detection;
 import org.eclipse.tracecompass.tmf.core.TmfCommonConstants;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
 import org.eclipse.tracecompass.tmf.core.exceptions.TmfTraceException;
 import org.eclipse.tracecompass.tmf.core.io.ResourceUtil;
 import org.eclipse.tracecompass.tmf.core.project.model.TmfTraceImportException;
 import org.eclipse.tracecompass.tmf.core.project.model.TmfTraceType;
-import org.eclipse.tracecompass.tmf.core.project.model.TraceTypeHelper;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfContext;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
 
@@ -91,6 +91,9 @@ public class TraceManagerService {
 
     private static final String TRACES_FOLDER = "Traces"; //$NON-NLS-1$
 
+    /* Header with the duration of the trace type detection */
+    private static final String SERVER_TIMING = "Server-Timing"; //$NON-NLS-1$
+
     /**
      * Getter method to access the list of traces
      *
@@ -184,12 +187,18 @@ public class TraceManagerService {
             return Response.status(Status.NOT_FOUND).entity("No trace at " + path).build(); //$NON-NLS-1$
         }
 
-        List<TraceTypeHelper> traceTypes = TmfTraceType.selectTraceType(path, typeID);
+        Detection detection = TraceTypeDetector.getInstance().detect(path, typeID);
+        List<String> traceTypes = detection.getTraceTypeIds();
         if (traceTypes.isEmpty()) {
-            return Response.status(Status.NOT_IMPLEMENTED).entity(NOT_SUPPORTED).build();
+            return Response.status(Status.NOT_IMPLEMENTED).entity(NOT_SUPPORTED).header(SERVER_TIMING, detection.getServerTiming()).build();
         }
-        String traceType = traceTypes.get(0).getTraceTypeId();
+        String traceType = traceTypes.get(0);
         String traceName = name == null ? Paths.get(path).getFileName().toString() : name;
+        Response response = putResource(path, traceName, traceType);
+        return Response.fromResponse(response).header(SERVER_TIMING, detection.getServerTiming()).build();
+    }
+
+    private static Response putResource(String path, String traceName, String traceType) throws CoreException {
 
         IResource resource = getResource(path, traceName);
         if (!resource.exists()) {
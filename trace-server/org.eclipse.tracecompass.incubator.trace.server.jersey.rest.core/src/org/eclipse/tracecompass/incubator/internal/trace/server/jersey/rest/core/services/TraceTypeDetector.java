@@ -0,0 +1,299 @@
+/**********************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ **********************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.trace.server.jersey.rest.core.services;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.tmf.core.project.model.TmfTraceImportException;
+import org.eclipse.tracecompass.tmf.core.project.model.TmfTraceType;
+import org.eclipse.tracecompass.tmf.core.project.model.TraceTypeHelper;
+import org.eclipse.tracecompass.tmf.core.util.Pair;
+
+/**
+ * Detects the type of the traces to import, and caches the detected types.
+ *
+ * Without a type hint, the validation of every registered trace type runs on
+ * a bounded pool of threads instead of one after the other, and the type is
+ * selected like {@link TmfTraceType#selectTraceType(String, String)} does.
+ * With a type hint, only the hinted type is validated, unless it does not
+ * validate.
+ *
+ * The detected types are cached by the canonical path of the trace, its size,
+ * its modification time and a fingerprint of its content: the first bytes of
+ * a file, or the names, sizes and modification times of the files of a
+ * directory. A trace that changes in any of these is detected again.
+ */
+public final class TraceTypeDetector {
+
+    private static final int MAX_CACHED_DETECTIONS = 4096;
+    private static final int FINGERPRINT_SIZE = 4096;
+    private static final int NB_THREADS = Math.max(2, Math.min(8, Runtime.getRuntime().availableProcessors()));
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(NB_THREADS, runnable -> {
+        Thread thread = new Thread(runnable, "Trace type detection " + THREAD_COUNT.incrementAndGet()); //$NON-NLS-1$
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final TraceTypeDetector INSTANCE = new TraceTypeDetector(MAX_CACHED_DETECTIONS);
+
+    private final Map<String, List<String>> fCache;
+
+    /**
+     * The result of a detection
+     */
+    public static final class Detection {
+        private final List<String> fTraceTypeIds;
+        private final long fDuration;
+        private final boolean fCached;
+
+        private Detection(List<String> traceTypeIds, long duration, boolean cached) {
+            fTraceTypeIds = traceTypeIds;
+            fDuration = duration;
+            fCached = cached;
+        }
+
+        /**
+         * @return The IDs of the detected trace types, the most likely first.
+         *         It is empty if no trace type validates the trace file with a
+         *         positive confidence.
+         */
+        public List<String> getTraceTypeIds() {
+            return fTraceTypeIds;
+        }
+
+        /**
+         * @return The duration of the detection, in nanoseconds
+         */
+        public long getDuration() {
+            return fDuration;
+        }
+
+        /**
+         * @return Whether the trace types were found in the cache
+         */
+        public boolean isCached() {
+            return fCached;
+        }
+
+        /**
+         * Get the value of a <code>Server-Timing</code> header with the
+         * duration of the detection
+         *
+         * @return The header value
+         */
+        public String getServerTiming() {
+            return String.format(Locale.ROOT, "detect;dur=%.3f;desc=\"%s\"", fDuration / 1e6, fCached ? "cached" : "probed"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        }
+    }
+
+    private TraceTypeDetector(int maxCachedDetections) {
+        fCache = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Entry<String, List<String>> eldest) {
+                return size() > maxCachedDetections;
+            }
+        };
+    }
+
+    /**
+     * Get the instance of the detector
+     *
+     * @return The instance
+     */
+    public static TraceTypeDetector getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Detect the type of a trace, from the cache if the trace did not change
+     * since its last detection
+     *
+     * @param path
+     *            The path of the trace
+     * @param typeHint
+     *            The ID of the expected trace type, or an empty string
+     * @return The detection
+     * @throws TmfTraceImportException
+     *             If the detection fails, or if no trace type validates a
+     *             trace directory
+     */
+    public Detection detect(String path, String typeHint) throws TmfTraceImportException {
+        long start = System.nanoTime();
+        String key = getKey(path, typeHint);
+        if (key != null) {
+            List<String> cached;
+            synchronized (fCache) {
+                cached = fCache.get(key);
+            }
+            // The trace type may have been removed, for instance a custom parser
+            if (cached != null && cached.stream().allMatch(id -> TmfTraceType.getTraceType(id) != null)) {
+                return new Detection(cached, System.nanoTime() - start, true);
+            }
+        }
+        List<String> traceTypeIds = probe(path, typeHint);
+        if (key != null && !traceTypeIds.isEmpty()) {
+            synchronized (fCache) {
+                fCache.put(key, traceTypeIds);
+            }
+        }
+        return new Detection(traceTypeIds, System.nanoTime() - start, false);
+    }
+
+    /**
+     * Clear the cache of the detected types
+     */
+    public void clear() {
+        synchronized (fCache) {
+            fCache.clear();
+        }
+    }
+
+    private static List<String> probe(String path, String typeHint) throws TmfTraceImportException {
+        TraceTypeHelper hinted = typeHint.isEmpty() ? null : TmfTraceType.getTraceType(typeHint);
+        if (hinted != null && isCandidate(hinted) && hinted.validateWithConfidence(path) >= 0) {
+            return Collections.singletonList(hinted.getTraceTypeId());
+        }
+
+        List<TraceTypeHelper> helpers = new ArrayList<>();
+        List<Callable<Integer>> validations = new ArrayList<>();
+        for (TraceTypeHelper helper : TmfTraceType.getTraceTypeHelpers()) {
+            if (isCandidate(helper)) {
+                helpers.add(helper);
+                validations.add(() -> helper.validateWithConfidence(path));
+            }
+        }
+        List<Pair<Integer, TraceTypeHelper>> candidates = new ArrayList<>();
+        try {
+            List<Future<Integer>> confidences = EXECUTOR.invokeAll(validations);
+            for (int i = 0; i < helpers.size(); i++) {
+                int confidence = getConfidence(confidences.get(i));
+                if (confidence >= 0) {
+                    candidates.add(new Pair<>(confidence, helpers.get(i)));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TmfTraceImportException("Interrupted while detecting the type of " + path); //$NON-NLS-1$
+        }
+        if (candidates.isEmpty()) {
+            if (new File(path).isFile()) {
+                return Collections.emptyList();
+            }
+            throw new TmfTraceImportException("No trace type matches " + path); //$NON-NLS-1$
+        }
+        return select(candidates);
+    }
+
+    private static boolean isCandidate(TraceTypeHelper helper) {
+        return helper.isEnabled() && !helper.isExperimentType();
+    }
+
+    private static int getConfidence(Future<Integer> confidence) throws InterruptedException {
+        try {
+            return confidence.get();
+        } catch (ExecutionException | CancellationException e) {
+            // A validation that fails does not validate the trace
+            return -1;
+        }
+    }
+
+    /**
+     * Select the trace types among the valid candidates: a trace type whose
+     * trace class is a parent of the trace class of another candidate is less
+     * specific and is removed, then the trace types that validate the trace
+     * with a positive confidence are kept, the highest confidence first, then
+     * by name. A trace type that accepts any trace, with a confidence of 0, is
+     * not selected without a type hint.
+     */
+    private static List<String> select(List<Pair<Integer, TraceTypeHelper>> candidates) {
+        List<Pair<Integer, TraceTypeHelper>> specific = new ArrayList<>();
+        for (Pair<Integer, TraceTypeHelper> candidate : candidates) {
+            Class<?> traceClass = candidate.getSecond().getTraceClass();
+            boolean isParent = candidates.stream().anyMatch(other -> {
+                Class<?> otherClass = other.getSecond().getTraceClass();
+                return traceClass != otherClass && traceClass.isAssignableFrom(otherClass);
+            });
+            if (!isParent) {
+                specific.add(candidate);
+            }
+        }
+        List<String> traceTypeIds = new ArrayList<>();
+        specific.stream()
+                .filter(candidate -> candidate.getFirst() > 0)
+                .sorted(Comparator.<Pair<Integer, TraceTypeHelper>> comparingInt(Pair::getFirst).reversed()
+                        .thenComparing(candidate -> candidate.getSecond().getName()))
+                .forEach(candidate -> traceTypeIds.add(candidate.getSecond().getTraceTypeId()));
+        return Collections.unmodifiableList(traceTypeIds);
+    }
+
+    private static @Nullable String getKey(String path, String typeHint) {
+        try {
+            File file = new File(path).getCanonicalFile();
+            StringBuilder sb = new StringBuilder();
+            sb.append(file.getPath()).append('|').append(typeHint).append('|')
+                    .append(file.length()).append('|').append(file.lastModified()).append('|')
+                    .append(Long.toHexString(getFingerprint(file)));
+            return sb.toString();
+        } catch (IOException | SecurityException e) {
+            // The trace is detected without cache
+            return null;
+        }
+    }
+
+    private static long getFingerprint(File file) throws IOException {
+        CRC32 crc = new CRC32();
+        if (file.isDirectory()) {
+            File[] children = file.listFiles();
+            if (children == null) {
+                throw new IOException("Cannot list " + file); //$NON-NLS-1$
+            }
+            Arrays.sort(children);
+            for (File child : children) {
+                crc.update((child.getName() + '|' + child.length() + '|' + child.lastModified() + '\n').getBytes(StandardCharsets.UTF_8));
+            }
+        } else {
+            byte[] header = new byte[FINGERPRINT_SIZE];
+            try (InputStream input = new FileInputStream(file)) {
+                int length = input.readNBytes(header, 0, FINGERPRINT_SIZE);
+                crc.update(header, 0, length);
+            }
+        }
+        return crc.getValue();
+    }
+
+}
@@ -32,7 +32,8 @@ public class CORSFilter implements ContainerResponseFilter {
     @Override
     public void filter(ContainerRequestContext request, ContainerResponseContext response) throws IOException {
         response.getHeaders().add("Access-Control-Allow-Origin", "*"); //$NON-NLS-1$ //$NON-NLS-2$
-        response.getHeaders().add("Access-Control-Allow-Headers", "origin, content-type, accept, authorization"); //$NON-NLS-1$ //$NON-NLS-2$
+        response.getHeaders().add("Access-Control-Allow-Headers", "origin, content-type, accept, authorization, if-none-match, x-request-key"); //$NON-NLS-1$ //$NON-NLS-2$
         response.getHeaders().add("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS, HEAD"); //$NON-NLS-1$ //$NON-NLS-2$
+        response.getHeaders().add("Access-Control-Expose-Headers", "etag, server-timing"); //$NON-NLS-1$ //$NON-NLS-2$
     }
 }
\ No newline at end of file
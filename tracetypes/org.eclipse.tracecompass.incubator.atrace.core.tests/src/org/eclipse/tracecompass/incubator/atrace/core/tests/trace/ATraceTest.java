@@ -13,9 +13,15 @@ package org.eclipse.tracecompass.incubator.atrace.core.tests.trace;
 
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.tracecompass.incubator.internal.atrace.trace.ATrace;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.event.TmfEvent;
+import org.eclipse.tracecompass.tmf.core.exceptions.TmfTraceException;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfContext;
+import org.eclipse.tracecompass.tmf.core.trace.location.ITmfLocation;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
 
 /**
  * Testing of systrace html files
@@ -65,4 +71,37 @@ public class ATraceTest {
 
         assertEquals(0x04, status.getSeverity());
     }
+
+    /**
+     * Test reading the events of a systrace html trace, the first event is
+     * found after the html wrapper and the trace data ends with the script
+     *
+     * @throws TmfTraceException
+     *             If the trace cannot be opened
+     */
+    @Test
+    public void testReadEvents() throws TmfTraceException {
+        ATrace androidTrace = new ATrace();
+        try {
+            androidTrace.initTrace(null, "res/android_trace.html", TmfEvent.class);
+            ITmfContext context = androidTrace.seekEvent((ITmfLocation) null);
+            ITmfEvent event = androidTrace.getNext(context);
+            assertNotNull(event);
+            assertEquals(214168479892000L, event.getTimestamp().toNanos());
+            assertEquals("sched_wakeup", event.getName());
+            int count = 1;
+            while (androidTrace.getNext(context) != null) {
+                count++;
+            }
+            assertEquals(537, count);
+
+            // Seeking the start again gives the same first event
+            context = androidTrace.seekEvent((ITmfLocation) null);
+            event = androidTrace.getNext(context);
+            assertNotNull(event);
+            assertEquals(214168479892000L, event.getTimestamp().toNanos());
+        } finally {
+            androidTrace.dispose();
+        }
+    }
 }
@@ -27,6 +27,7 @@ import org.eclipse.tracecompass.incubator.internal.atrace.core.Activator;
 import org.eclipse.tracecompass.incubator.internal.atrace.event.IAtraceConstants;
 import org.eclipse.tracecompass.incubator.internal.atrace.event.SystraceProcessDumpEvent;
 import org.eclipse.tracecompass.incubator.internal.atrace.event.SystraceProcessDumpEventField;
+import org.eclipse.tracecompass.incubator.internal.ftrace.core.event.GenericFtraceEvent;
 import org.eclipse.tracecompass.incubator.internal.ftrace.core.event.GenericFtraceField;
 import org.eclipse.tracecompass.incubator.internal.ftrace.core.event.IGenericFtraceConstants;
 import org.eclipse.tracecompass.incubator.internal.ftrace.core.trace.GenericFtrace;
@@ -63,7 +64,14 @@ public class ATrace extends GenericFtrace {
     private static final TmfLongLocation NULL_LOCATION = new TmfLongLocation(-1L);
     private static final TmfContext INVALID_CONTEXT = new TmfContext(NULL_LOCATION, ITmfContext.UNKNOWN_RANK);
 
-    private long startingTimestamp;
+    private static final String HTML_DOCTYPE = "<!DOCTYPE"; //$NON-NLS-1$
+    private static final String HTML_TAG = "<html"; //$NON-NLS-1$
+    private static final String SCRIPT_TAG = "<script"; //$NON-NLS-1$
+    private static final String TRACE_DATA_CLASS = "class=\"trace-data\""; //$NON-NLS-1$
+    private static final String PROCESS_DUMP_HEADER = "USER "; //$NON-NLS-1$
+
+    private long fStartingTimestamp;
+    private long fFirstEventOffset;
 
     @Override
     public IStatus validate(IProject project, String path) {
@@ -131,6 +139,49 @@ public class ATrace extends GenericFtrace {
 
     }
 
+    /**
+     * Find the first event of the trace, skipping the HTML wrapper of the
+     * systrace files and the comments without matching the lines against the
+     * event patterns. If the trace starts with a process dump, the timestamp of
+     * the first ftrace event is kept to timestamp the process dump events.
+     */
+    @Override
+    protected long getFileStart() throws IOException {
+        RandomAccessFile fileInput = getFileInput();
+        fileInput.seek(0);
+        boolean inTraceData = true;
+        long firstEventOffset = -1;
+        long lineStartOffset = 0;
+        String line = fileInput.readLine();
+        while (line != null) {
+            int start = skipWhitespace(line);
+            if (lineStartOffset == 0 && (line.startsWith(HTML_DOCTYPE, start) || line.startsWith(HTML_TAG, start))) {
+                // Systrace file, the events are in the trace data scripts
+                inTraceData = false;
+            }
+            if (!inTraceData) {
+                inTraceData = line.startsWith(SCRIPT_TAG, start) && line.contains(TRACE_DATA_CLASS);
+            } else if (start < line.length() && !line.startsWith(IGenericFtraceConstants.FTRACE_COMMENT_CHAR, start)) {
+                GenericFtraceField field = GenericFtraceField.parseLine(line);
+                if (field != null) {
+                    if (firstEventOffset < 0) {
+                        firstEventOffset = lineStartOffset;
+                    }
+                    fStartingTimestamp = field.getTs();
+                    break;
+                }
+                if (firstEventOffset < 0 && !isSkipped(line, start) && SystraceProcessDumpEventField.parseLine(line) != null) {
+                    // Look for the first atrace event to extract timestamp
+                    firstEventOffset = lineStartOffset;
+                }
+            }
+            lineStartOffset = fileInput.getFilePointer();
+            line = fileInput.readLine();
+        }
+        fFirstEventOffset = (firstEventOffset < 0) ? lineStartOffset : firstEventOffset;
+        return fFirstEventOffset;
+    }
+
     @Override
     public ITmfContext seekEvent(ITmfLocation location) {
         if (getFile() == null) {
@@ -143,39 +194,13 @@ public class ATrace extends GenericFtrace {
         RandomAccessFile fileInput = getFileInput();
         try {
             if (location == null) {
-                fileInput.seek(0);
-                long lineStartOffset = fileInput.getFilePointer();
-                String line = fileInput.readLine();
-
-                // Look for process dump matches
-                Matcher processDumpMatcher = IAtraceConstants.PROCESS_DUMP_PATTERN.matcher(line);
-                Matcher atraceMatcher = IGenericFtraceConstants.FTRACE_PATTERN.matcher(line);
-
-                while (!atraceMatcher.matches() && !processDumpMatcher.matches()) {
-                    lineStartOffset = fileInput.getFilePointer();
-                    line = fileInput.readLine();
-                    atraceMatcher = IGenericFtraceConstants.FTRACE_PATTERN.matcher(line);
-                    processDumpMatcher = IAtraceConstants.PROCESS_DUMP_PATTERN.matcher(line);
-                }
-                if (processDumpMatcher.matches()) {
-                    // Look for the first atrace event to extract timestamp
-                    while (!atraceMatcher.matches()) {
-                        line = fileInput.readLine();
-                        atraceMatcher = IGenericFtraceConstants.FTRACE_PATTERN.matcher(line);
-                    }
-                    GenericFtraceField field = GenericFtraceField.parseLine(line);
-                    if (field != null) {
-                        startingTimestamp = field.getTs();
-                    }
-                }
-
-                fileInput.seek(lineStartOffset);
+                fileInput.seek(fFirstEventOffset);
             } else if (location.getLocationInfo() instanceof Long) {
                 fileInput.seek((Long) location.getLocationInfo());
             }
             context.setLocation(new TmfLongLocation(fileInput.getFilePointer()));
             context.setRank(0);
-        } catch (NullPointerException | IOException e) {
+        } catch (IOException e) {
             Activator.getInstance().logError("Error seeking event." + getPath(), e); //$NON-NLS-1$
         }
         return context;
@@ -183,43 +208,60 @@ public class ATrace extends GenericFtrace {
     }
 
     @Override
-    public ITmfEvent parseEvent(ITmfContext context) {
-        ITmfEvent event = super.parseEvent(context);
-        if (event != null) {
-            return event;
+    protected ITmfEvent parseEvent(RandomAccessFile fileInput, TmfLongLocation tmfLongLocation, long rank) {
+        Long locationInfo = tmfLongLocation.getLocationInfo();
+        if (tmfLongLocation.equals(NULL_LOCATION)) {
+            locationInfo = fFirstEventOffset;
         }
-        // We might be in the process dump generated by systrace
-        ITmfLocation location = context.getLocation();
-        if (location instanceof TmfLongLocation) {
-            TmfLongLocation tmfLongLocation = (TmfLongLocation) location;
-            Long locationInfo = tmfLongLocation.getLocationInfo();
-            if (location.equals(NULL_LOCATION)) {
-                locationInfo = 0L;
+        if (locationInfo == null) {
+            return null;
+        }
+        try {
+            if (!locationInfo.equals(fileInput.getFilePointer())) {
+                fileInput.seek(locationInfo);
             }
-            super.parseEvent(context);
-            if (locationInfo != null) {
-                RandomAccessFile fileInput = getFileInput();
-                try {
-                    if (!locationInfo.equals(fileInput.getFilePointer())) {
-                        fileInput.seek(locationInfo);
-                    }
-                    String nextLine = fileInput.readLine();
-                    // TODO: Check here if matches the following. If it does,
-                    // skip line.
-                    // - USER PID PPID ..
-                    // - html tags </script> <script class="trace-data"
-                    // type="application/text">
-                    // - Starts with #
-                    SystraceProcessDumpEventField field = SystraceProcessDumpEventField.parseLine(nextLine);
+            String line = fileInput.readLine();
+            while (line != null) {
+                int start = skipWhitespace(line);
+                if (start < line.length() && !line.startsWith(IGenericFtraceConstants.FTRACE_COMMENT_CHAR, start)) {
+                    GenericFtraceField field = parseLine(line);
                     if (field != null) {
-                        return new SystraceProcessDumpEvent(this, context.getRank(), TmfTimestamp.fromNanos(startingTimestamp), field);
+                        return new GenericFtraceEvent(this, rank, field);
+                    }
+                    if (!isSkipped(line, start)) {
+                        // We might be in the process dump generated by systrace
+                        SystraceProcessDumpEventField dumpField = SystraceProcessDumpEventField.parseLine(line);
+                        if (dumpField != null) {
+                            return new SystraceProcessDumpEvent(this, rank, TmfTimestamp.fromNanos(fStartingTimestamp), dumpField);
+                        }
+                        return null;
                     }
-                } catch (IOException e) {
-                    Activator.getInstance().logError("Error parsing event", e); //$NON-NLS-1$
                 }
+                line = fileInput.readLine();
             }
+        } catch (IOException e) {
+            Activator.getInstance().logError("Error parsing event", e); //$NON-NLS-1$
+        }
+        return null;
+    }
+
+    /**
+     * Whether a line that is not an event can be skipped: the header of the
+     * process dump and the HTML tags around the trace data
+     */
+    private static boolean isSkipped(String line, int start) {
+        if (line.startsWith(PROCESS_DUMP_HEADER, start)) {
+            return true;
         }
-        return event;
+        return line.charAt(start) == '<' && line.trim().endsWith(">"); //$NON-NLS-1$
+    }
+
+    private static int skipWhitespace(String line) {
+        int i = 0;
+        while (i < line.length() && Character.isWhitespace(line.charAt(i))) {
+            i++;
+        }
+        return i;
     }
 
     @Override
@@ -230,45 +272,41 @@ public class ATrace extends GenericFtrace {
 
         GenericFtraceField field = GenericFtraceField.parseLine(line);
 
-        if (field != null) {
+        /*
+         * User spaces event that permit us to create the call stack are
+         * inserted in the raw trace. Those events are named
+         * 'tracing_mark_write'. The format in the "function" column is not like
+         * any other ftrace events, so we must handle them separately.
+         */
+        if (field != null && field.getName().equals(ATRACE_TRACEEVENT_EVENT)) {
             Matcher matcher = IGenericFtraceConstants.FTRACE_PATTERN.matcher(line);
             if (matcher.matches()) {
+                String data = matcher.group(IGenericFtraceConstants.FTRACE_DATA_GROUP);
+                Matcher atraceMatcher = IAtraceConstants.TRACE_EVENT_PATTERN.matcher(data);
+                if (atraceMatcher.matches()) {
+                    String phase = atraceMatcher.group(TRACE_EVENT_PHASE_GROUP);
+                    String pname = matcher.group(IGenericFtraceConstants.FTRACE_COMM_GROUP);
+                    String content = atraceMatcher.group(TRACE_EVENT_CONTENT_GROUP);
+                    Integer tid = field.getTid();
+                    Integer pid = field.getPid();
 
-                /*
-                 * User spaces event that permit us to create the call stack are
-                 * inserted in the raw trace. Those events are named
-                 * 'tracing_mark_write'. The format in the "function" column is
-                 * not like any other ftrace events, so we must handle them
-                 * separately.
-                 */
-                if (field.getName().equals(ATRACE_TRACEEVENT_EVENT)) {
-                    String data = matcher.group(IGenericFtraceConstants.FTRACE_DATA_GROUP);
-                    Matcher atraceMatcher = IAtraceConstants.TRACE_EVENT_PATTERN.matcher(data);
-                    if (atraceMatcher.matches()) {
-                        String phase = atraceMatcher.group(TRACE_EVENT_PHASE_GROUP);
-                        String pname = matcher.group(IGenericFtraceConstants.FTRACE_COMM_GROUP);
-                        String content = atraceMatcher.group(TRACE_EVENT_CONTENT_GROUP);
-                        Integer tid = field.getTid();
-                        Integer pid = field.getPid();
-
-                        Map<@NonNull String, @NonNull Object> argmap = new HashMap<>();
-                        if (phase != null) {
-                            argmap.put(ITraceEventConstants.PHASE, phase);
-                        }
-                        if (tid != null) {
-                            argmap.put(ITraceEventConstants.TID, tid);
-                        }
-                        if (pid != null) {
-                            argmap.put("pid", pid); //$NON-NLS-1$
-                        }
-                        if (pname != null) {
-                            argmap.put("tname", pname); //$NON-NLS-1$
-                        }
-                        if (content != null) {
-                            field.setName(content);
-                        }
-                        field.setContent(argmap);
+                    Map<@NonNull String, @NonNull Object> argmap = new HashMap<>();
+                    if (phase != null) {
+                        argmap.put(ITraceEventConstants.PHASE, phase);
+                    }
+                    if (tid != null) {
+                        argmap.put(ITraceEventConstants.TID, tid);
+                    }
+                    if (pid != null) {
+                        argmap.put("pid", pid); //$NON-NLS-1$
+                    }
+                    if (pname != null) {
+                        argmap.put("tname", pname); //$NON-NLS-1$
+                    }
+                    if (content != null) {
+                        field.setName(content);
                     }
+                    field.setContent(argmap);
                 }
             }
         }
@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.ftrace.core.tests.perf;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+import org.eclipse.test.performance.Dimension;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+import org.eclipse.tracecompass.incubator.ftrace.core.tests.ActivatorTest;
+import org.eclipse.tracecompass.incubator.internal.ftrace.core.event.GenericFtraceField;
+import org.junit.Test;
+
+/**
+ * Benchmarks the parsing of text ftrace lines, with the regular expressions
+ * and with the tokenizer used by {@link GenericFtraceField#parseLine(String)}
+ */
+public class FtraceParseBenchmark {
+
+    /**
+     * Test test ID for the ftrace parsing benchmarks
+     */
+    public static final String TEST_ID = "org.eclipse.tracecompass.incubator#Ftrace parse#";
+    private static final String TRACE_PATH = "res";
+
+    private static final int LOOP_COUNT = 10;
+    private static final int NB_LINES = 1_000_000;
+
+    private static List<String> readLines() throws IOException {
+        File[] traceFiles = ActivatorTest.getAbsoluteFilePath(TRACE_PATH).toFile().listFiles();
+        assertTrue(traceFiles != null && traceFiles.length > 0);
+        List<String> events = new ArrayList<>();
+        for (File traceFile : Objects.requireNonNull(traceFiles)) {
+            for (String line : Files.readAllLines(traceFile.toPath(), StandardCharsets.UTF_8)) {
+                if (!line.startsWith("#")) {
+                    events.add(line);
+                }
+            }
+        }
+        List<String> lines = new ArrayList<>(NB_LINES);
+        while (lines.size() < NB_LINES) {
+            lines.addAll(events.subList(0, Math.min(events.size(), NB_LINES - lines.size())));
+        }
+        return lines;
+    }
+
+    private static void benchmark(String name, Function<String, GenericFtraceField> parser) throws IOException {
+        Performance perf = Performance.getDefault();
+        PerformanceMeter pm = Objects.requireNonNull(perf.createPerformanceMeter(TEST_ID + name));
+        perf.tagAsSummary(pm, "Ftrace parse: " + name, Dimension.CPU_TIME);
+
+        List<String> lines = readLines();
+        for (int i = 0; i < LOOP_COUNT; i++) {
+            int nbEvents = 0;
+            pm.start();
+            for (String line : lines) {
+                if (parser.apply(line) != null) {
+                    nbEvents++;
+                }
+            }
+            pm.stop();
+            assertTrue(nbEvents > 0);
+        }
+        pm.commit();
+    }
+
+    /**
+     * Benchmark the parsing with the regular expressions only
+     *
+     * @throws IOException
+     *             If the traces cannot be read
+     */
+    @Test
+    public void parseWithRegex() throws IOException {
+        benchmark("Regex", GenericFtraceField::parseLineWithRegex);
+    }
+
+    /**
+     * Benchmark the parsing with the tokenizer and the regular expressions
+     * fallback
+     *
+     * @throws IOException
+     *             If the traces cannot be read
+     */
+    @Test
+    public void parseWithTokenizer() throws IOException {
+        benchmark("Tokenizer", GenericFtraceField::parseLine);
+    }
+}
@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.ftrace.core.tests.event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.incubator.ftrace.core.tests.ActivatorTest;
+import org.eclipse.tracecompass.incubator.internal.ftrace.core.event.GenericFtraceField;
+import org.junit.Test;
+
+/**
+ * Golden tests of the single-pass tokenizer of ftrace lines: it must give the
+ * same result as the regular expressions for every line it handles
+ */
+public class FtraceTokenizerTest {
+
+    private static final String TRACE_PATH = "res";
+
+    /**
+     * Lines that exercise the corners of the format: tgid, docker cgroups,
+     * syscall rewrites, unusual separators and values
+     */
+    private static final List<String> EDGE_CASES = List.of(
+            "  bash-1234  ( 1200) [003] d..1  100.000001: sched_switch: prev_comm=bash prev_pid=1234 prev_prio=120 prev_state=S ==> next_comm=swapper/3 next_pid=0 next_prio=120",
+            "  kworker-12 (-----) [000] ....  5.5: workqueue_execute_start: work struct 00000000a1b2 function foo",
+            "  docker-99 [001] .... 7.000001: cgroup_attach_task: dst_root=1 dst_id=2 dst_level=1 dst_path=/docker:[abc:def] comm=runc",
+            "  a-b-5 [0] 1: x(a=1, b=[2], c)",
+            "  trace-cmd-5   [000]   123.456789: sys_exit_read: 0x3",
+            "  trace-cmd-5   [000]   123.456789: sys_enter_read: fd: 0x00000003, buf: 0x7ffd, count: 0x00002000",
+            "  foo-1 [01] 9.9: sys_open -> 0x0",
+            "  x-1 [1] 2: y: k=v,w k2=[a] k3=, k4= k5=  ,",
+            "  x-1 [1] 2: y: a:b:c d:e f:[1:2] g::h",
+            "          <idle>-0     [002] dNh.   395.708011: irq_handler_entry: irq=30 name=ahci[0000:01:00.0]",
+            // The regex takes the last possible comm
+            "  x-1 [1] 2.0: y: z=a-2 [3] 4.0: w: v");
+
+    /**
+     * Lines that the tokenizer leaves to the regular expressions
+     */
+    private static final List<String> FALLBACK_CASES = List.of(
+            // Another CPU-like bracket in the data
+            "  x-1 [1] 2.0: y: z=a [3] b",
+            // Parenthesis in the tgid
+            "  x-1 ((2) [1] 2.0: y: z",
+            // Closing parenthesis in the middle of the data
+            "  x-1 [1] 2.0: y: z=(a) b=c",
+            // The event name starts like a timestamp
+            "  x-1 [1] 2.0: 9p_read: fid=1",
+            // Not an event
+            "# tracer: nop");
+
+    /**
+     * Test that the tokenizer handles all the events of the test traces and
+     * gives the same result as the regular expressions
+     *
+     * @throws IOException
+     *             If a trace cannot be read
+     */
+    @Test
+    public void testTraces() throws IOException {
+        IPath path = ActivatorTest.getAbsoluteFilePath(TRACE_PATH);
+        File[] traceFiles = path.toFile().listFiles();
+        assertNotNull(traceFiles);
+        assertTrue(traceFiles.length > 0);
+        int nbEvents = 0;
+        for (File traceFile : traceFiles) {
+            for (String line : Files.readAllLines(traceFile.toPath(), StandardCharsets.UTF_8)) {
+                GenericFtraceField expected = GenericFtraceField.parseLineWithRegex(line);
+                GenericFtraceField actual = GenericFtraceField.tokenizeLine(line);
+                if (expected == null) {
+                    assertNull(line, actual);
+                    continue;
+                }
+                assertNotNull(line, actual);
+                assertSameField(line, expected, actual);
+                nbEvents++;
+            }
+        }
+        assertTrue(nbEvents > 0);
+    }
+
+    /**
+     * Test lines with uncommon constructs
+     */
+    @Test
+    public void testEdgeCases() {
+        for (String line : EDGE_CASES) {
+            GenericFtraceField expected = GenericFtraceField.parseLineWithRegex(line);
+            GenericFtraceField actual = GenericFtraceField.tokenizeLine(line);
+            assertNotNull(line, expected);
+            assertNotNull(line, actual);
+            assertSameField(line, expected, actual);
+        }
+    }
+
+    /**
+     * Test that the lines not handled by the tokenizer are still parsed like
+     * before by {@link GenericFtraceField#parseLine(String)}
+     */
+    @Test
+    public void testFallback() {
+        for (String line : FALLBACK_CASES) {
+            assertNull(line, GenericFtraceField.tokenizeLine(line));
+            assertSameField(line, GenericFtraceField.parseLineWithRegex(line), GenericFtraceField.parseLine(line));
+        }
+    }
+
+    private static void assertSameField(String line, @Nullable GenericFtraceField expected, @Nullable GenericFtraceField actual) {
+        if (expected == null || actual == null) {
+            assertEquals(line, expected, actual);
+            return;
+        }
+        assertEquals(line, expected.getName(), actual.getName());
+        assertEquals(line, expected.getCpu(), actual.getCpu());
+        assertEquals(line, expected.getTs(), actual.getTs());
+        assertEquals(line, expected.getPid(), actual.getPid());
+        assertEquals(line, expected.getTid(), actual.getTid());
+        assertEquals(line, expected.getContent(), actual.getContent());
+    }
+}
@@ -103,6 +103,23 @@ public class GenericFtraceField {
      * @return An event field
      */
     public static @Nullable GenericFtraceField parseLine(String line) {
+        GenericFtraceField field = tokenizeLine(line);
+        if (field != null) {
+            return field;
+        }
+        return parseLineWithRegex(line);
+    }
+
+    /**
+     * Parse a line from an ftrace output file with the regular expressions of
+     * {@link IGenericFtraceConstants#FTRACE_PATTERN}. This is the reference
+     * parser, {@link #parseLine(String)} only uses it for the lines that
+     * {@link #tokenizeLine(String)} does not handle.
+     *
+     * @param line The string to parse
+     * @return An event field, or null if the line is not an event
+     */
+    public static @Nullable GenericFtraceField parseLineWithRegex(String line) {
         Matcher matcher = IGenericFtraceConstants.FTRACE_PATTERN.matcher(line);
         if (matcher.matches()) {
             Integer pid = Integer.parseInt(matcher.group(IGenericFtraceConstants.FTRACE_PID_GROUP));
@@ -145,7 +162,7 @@ public class GenericFtraceField {
                     if (key != null) {
                         int start = keyvalMatcher.start();
                         String value = attributes.substring(0, start);
-                        putKeyValueField(name, fields, key, value);
+                        putKeyValueField(name, fields, key, extractValueWithRegex(value));
                     }
                     valStart = keyvalMatcher.end();
                     key = keyvalMatcher.group(KEYVAL_KEY_GROUP);
@@ -155,7 +172,7 @@ public class GenericFtraceField {
                 }
 
                 if (key != null && valStart > 0) {
-                    putKeyValueField(name, fields, key, attributes);
+                    putKeyValueField(name, fields, key, extractValueWithRegex(attributes));
                 }
 
                 /*
@@ -176,14 +193,368 @@ public class GenericFtraceField {
         return null;
     }
 
-    private static void putKeyValueField(String name, Map<@NonNull String, @NonNull Object> fields, String key, String value) {
-        String actualValue;
+    /**
+     * Parse a line from an ftrace output file in a single pass, without
+     * regular expressions. The result is the same as
+     * {@link #parseLineWithRegex(String)}, but only for the lines in the
+     * usual format: lines that the regular expressions could match in more
+     * than one way, or that they may not match at all, are not handled.
+     *
+     * @param line The string to parse
+     * @return An event field, or null if the line is not handled by the
+     *         tokenizer
+     */
+    public static @Nullable GenericFtraceField tokenizeLine(String line) {
+        int length = line.length();
+        for (int i = 0; i < length; i++) {
+            if (isLineTerminator(line.charAt(i))) {
+                return null;
+            }
+        }
+
+        /*
+         * The comm can contain anything, so start from the CPU: it is the last
+         * " [<digit>", any other one after it could make the regex match
+         * another way.
+         */
+        int cpuStart = -1;
+        for (int i = length - 2; i > 0; i--) {
+            if (line.charAt(i) == '[' && isDigit(line.charAt(i + 1)) && isWhitespace(line.charAt(i - 1))) {
+                cpuStart = i + 1;
+                break;
+            }
+        }
+        if (cpuStart < 0) {
+            return null;
+        }
+        int cpuEnd = skipDigits(line, cpuStart);
+        if (cpuEnd >= length || line.charAt(cpuEnd) != ']') {
+            return null;
+        }
+
+        // Go backward from the CPU over the optional tgid and the pid
+        int pos = skipWhitespaceBackward(line, cpuStart - 2);
+        if (pos < 0) {
+            return null;
+        }
+        String tgid = null;
+        if (line.charAt(pos) == ')') {
+            int tgidEnd = pos;
+            pos--;
+            while (pos >= 0 && isDigit(line.charAt(pos))) {
+                pos--;
+            }
+            if (pos + 1 < tgidEnd) {
+                tgid = line.substring(pos + 1, tgidEnd);
+            }
+            while (pos >= 0 && line.charAt(pos) != '(') {
+                char c = line.charAt(pos);
+                if (isDigit(c) || c == ')') {
+                    return null;
+                }
+                pos--;
+            }
+            pos--;
+            if (pos < 0 || !isWhitespace(line.charAt(pos))) {
+                return null;
+            }
+            pos = skipWhitespaceBackward(line, pos);
+            if (pos < 0) {
+                return null;
+            }
+        }
+        int pidEnd = pos + 1;
+        while (pos >= 0 && isDigit(line.charAt(pos))) {
+            pos--;
+        }
+        if (pos + 1 == pidEnd || pos < 0 || line.charAt(pos) != '-') {
+            return null;
+        }
+        int pidStart = pos + 1;
+
+        /*
+         * Go forward from the CPU over the optional flags and the timestamp.
+         * The regex first tries to use the first token as the flags, so if the
+         * second one could be a timestamp, it must be.
+         */
+        pos = cpuEnd + 1;
+        if (pos >= length || !isWhitespace(line.charAt(pos))) {
+            return null;
+        }
+        pos = skipWhitespace(line, pos);
+        int tokenStart = pos;
+        pos = skipNonWhitespace(line, pos);
+        int tokenEnd = pos;
+        pos = skipWhitespace(line, pos);
+        if (pos < length && isDigit(line.charAt(pos))) {
+            tokenStart = pos;
+            tokenEnd = skipNonWhitespace(line, pos);
+        }
+        int timestampEnd = tokenEnd - 1;
+        if (!isTimestamp(line, tokenStart, timestampEnd) || line.charAt(timestampEnd) != ':'
+                || tokenEnd >= length || line.charAt(tokenEnd) != ' ') {
+            return null;
+        }
+
+        // Event name and separator
+        int nameStart = tokenEnd + 1;
+        pos = nameStart;
+        while (pos < length && isWordChar(line.charAt(pos))) {
+            pos++;
+        }
+        int nameEnd = pos;
+        if (nameEnd == nameStart || pos >= length) {
+            return null;
+        }
+        String separator;
+        char c = line.charAt(pos);
+        if (c == ':') {
+            pos++;
+            if (pos >= length || !isWhitespace(line.charAt(pos))) {
+                return null;
+            }
+            pos = skipWhitespace(line, pos);
+            separator = ":"; //$NON-NLS-1$
+        } else if (c == '(') {
+            pos++;
+            separator = "("; //$NON-NLS-1$
+        } else if (isWhitespace(c)) {
+            pos = skipWhitespace(line, pos);
+            if (!line.startsWith(IGenericFtraceConstants.FTRACE_EXIT_SYSCALL_SEPARATOR, pos)) {
+                return null;
+            }
+            pos += IGenericFtraceConstants.FTRACE_EXIT_SYSCALL_SEPARATOR.length();
+            if (pos >= length || !isWhitespace(line.charAt(pos))) {
+                return null;
+            }
+            pos = skipWhitespace(line, pos);
+            separator = IGenericFtraceConstants.FTRACE_EXIT_SYSCALL_SEPARATOR;
+        } else {
+            return null;
+        }
+
+        // The data ends at the only closing parenthesis, if any
+        int dataEnd = line.indexOf(')', pos);
+        if (dataEnd < 0) {
+            dataEnd = length;
+        } else if (dataEnd != length - 1) {
+            return null;
+        }
+
+        Integer pid = Integer.parseInt(line.substring(pidStart, pidEnd));
+        Integer tid = pid;
+        Integer cpu = Integer.parseInt(line.substring(cpuStart, cpuEnd));
+        Double timestampInSec = Double.parseDouble(line.substring(tokenStart, timestampEnd));
+        Long timestampInNano = (long) (timestampInSec * SECONDS_TO_NANO);
+        String name = eventNameRewrite(line.substring(nameStart, nameEnd), separator);
+        if (tgid != null) {
+            Integer tgidNumeric = Integer.parseInt(tgid);
+            if (!tgidNumeric.equals(pid)) {
+                pid = tgidNumeric;
+            }
+        }
+
+        Map<@NonNull String, @NonNull Object> fields = new HashMap<>();
+        if (pos < dataEnd) {
+            tokenizeAttributes(name, line.substring(pos, dataEnd), fields);
+        }
+        return new GenericFtraceField(name, cpu, timestampInNano, pid, tid, fields);
+    }
+
+    /**
+     * Split the key/value pairs of the event data like the
+     * {@link #KEYVAL_KEY_PATTERN_MAP} patterns do: a key is the longest run
+     * of key characters followed by the separator, and all the keys use the
+     * separator of the first one.
+     */
+    private static void tokenizeAttributes(String name, String attributes, Map<@NonNull String, @NonNull Object> fields) {
+        int length = attributes.length();
+        int valueStart = 0;
+        String key = null;
+        char separator = 0;
+        int pos = 0;
+        while (pos < length) {
+            if (!isKeyChar(attributes.charAt(pos))) {
+                pos++;
+                continue;
+            }
+            int keyStart = pos;
+            while (pos < length && isKeyChar(attributes.charAt(pos))) {
+                pos++;
+            }
+            int separatorIndex = -1;
+            if (separator != ':' && pos < length && attributes.charAt(pos) == '=') {
+                separatorIndex = pos;
+            } else if (separator != '=') {
+                // ':' is a key character, the key ends at the last one
+                separatorIndex = attributes.lastIndexOf(':', pos - 1);
+                if (separatorIndex <= keyStart) {
+                    separatorIndex = -1;
+                }
+            }
+            if (separatorIndex < 0) {
+                continue;
+            }
+            if (key != null) {
+                putKeyValueField(name, fields, key, extractValue(attributes.substring(valueStart, keyStart)));
+            }
+            key = attributes.substring(keyStart, separatorIndex);
+            separator = attributes.charAt(separatorIndex);
+            valueStart = separatorIndex + 1;
+            pos = valueStart;
+        }
+
+        String rest = attributes.substring(valueStart);
+        if (key != null) {
+            putKeyValueField(name, fields, key, extractValue(rest));
+        }
+
+        /*
+         * If anything else fails, but we have discovered sort of a valid event
+         * attributes lets just add the unparsed attributes with key "data".
+         */
+        if (fields.isEmpty()) {
+            String dataKey = "data"; //$NON-NLS-1$
+            if (name.equals(IGenericFtraceConstants.FTRACE_EXIT_SYSCALL)) {
+                dataKey = "ret"; //$NON-NLS-1$
+            }
+            fields.put(dataKey, decodeString(rest));
+        }
+    }
+
+    private static String extractValueWithRegex(String value) {
         Matcher valMatcher = KEYVAL_VALUE_PATTERN.matcher(value);
         if (!KEYVAL_VALUE_DOCKER_BYPASS.matcher(value).find() && valMatcher.matches()) {
-            actualValue = valMatcher.group(KEYVAL_VALUE_GROUP).trim();
-        } else {
-            actualValue = value.trim();
+            return valMatcher.group(KEYVAL_VALUE_GROUP).trim();
+        }
+        return value.trim();
+    }
+
+    /**
+     * Same as {@link #extractValueWithRegex(String)}, for values without line
+     * terminators: the value stops at the first '[', ']' or ',', unless it
+     * looks like a docker cgroup
+     */
+    private static String extractValue(String value) {
+        if (!isDockerValue(value)) {
+            int length = value.length();
+            int start = skipWhitespace(value, 0);
+            if (start < length && !isValueDelimiter(value.charAt(start))) {
+                int end = start;
+                while (end < length && !isValueDelimiter(value.charAt(end))) {
+                    end++;
+                }
+                return value.substring(start, end).trim();
+            }
+            if (start > 0) {
+                // Only whitespace is left before the delimiter
+                return ""; //$NON-NLS-1$
+            }
+        }
+        return value.trim();
+    }
+
+    /**
+     * Same as finding {@link #KEYVAL_VALUE_DOCKER_BYPASS} in the value
+     */
+    private static boolean isDockerValue(String value) {
+        int length = value.length();
+        for (int i = value.indexOf(":[", 1); i > 0; i = value.indexOf(":[", i + 1)) { //$NON-NLS-1$ //$NON-NLS-2$
+            if (isWhitespace(value.charAt(i - 1))) {
+                continue;
+            }
+            int start = i + 2;
+            int end = skipNonWhitespace(value, start);
+            int colon = value.indexOf(':', start + 1);
+            if (colon < 0 || colon >= end) {
+                continue;
+            }
+            int bracket = value.lastIndexOf(']', end - 1);
+            if (bracket >= colon + 2) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isTimestamp(String line, int start, int end) {
+        int pos = skipDigits(line, start);
+        if (pos == start) {
+            return false;
+        }
+        if (pos < end && line.charAt(pos) == '.') {
+            int fractionStart = pos + 1;
+            pos = skipDigits(line, fractionStart);
+            if (pos == fractionStart) {
+                return false;
+            }
+        }
+        return pos == end;
+    }
+
+    private static int skipDigits(String line, int start) {
+        int pos = start;
+        while (pos < line.length() && isDigit(line.charAt(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static int skipWhitespace(String line, int start) {
+        int pos = start;
+        while (pos < line.length() && isWhitespace(line.charAt(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static int skipNonWhitespace(String line, int start) {
+        int pos = start;
+        while (pos < line.length() && !isWhitespace(line.charAt(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static int skipWhitespaceBackward(String line, int start) {
+        int pos = start;
+        while (pos >= 0 && isWhitespace(line.charAt(pos))) {
+            pos--;
         }
+        return pos;
+    }
+
+    /** Same as \d in a regex */
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /** Same as \s in a regex */
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /** Same as \w in a regex */
+    private static boolean isWordChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || isDigit(c) || c == '_';
+    }
+
+    /** Characters that the . of a regex does not match */
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    /** Characters of a key in {@link #KEYVAL_KEY_PATTERN} */
+    private static boolean isKeyChar(char c) {
+        return !isWhitespace(c) && c != '=' && c != '[' && c != ']' && c != ',';
+    }
+
+    /** Characters that end a value in {@link #KEYVAL_VALUE_PATTERN} */
+    private static boolean isValueDelimiter(char c) {
+        return c == '[' || c == ']' || c == ',';
+    }
+
+    private static void putKeyValueField(String name, Map<@NonNull String, @NonNull Object> fields, String key, String actualValue) {
         if (!actualValue.trim().isEmpty()) {
             // This is a temporary solution. Refactor suggestions
             // are welcome.
@@ -0,0 +1,212 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.opentracing.core.tests.perf;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.Objects;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.test.performance.Dimension;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+import org.eclipse.tracecompass.incubator.internal.opentracing.core.analysis.spanlife.SpanLifeAnalysis;
+import org.eclipse.tracecompass.incubator.internal.opentracing.core.analysis.spanlife.SpanLifeDataProvider;
+import org.eclipse.tracecompass.incubator.internal.opentracing.core.analysis.spanstore.SpanStoreAnalysis;
+import org.eclipse.tracecompass.incubator.internal.opentracing.core.analysis.spanstore.SpanStoreDataProvider;
+import org.eclipse.tracecompass.incubator.internal.opentracing.core.trace.OpenTracingTrace;
+import org.eclipse.tracecompass.internal.tmf.core.model.filters.FetchParametersUtils;
+import org.eclipse.tracecompass.tmf.core.analysis.IAnalysisModule;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.exceptions.TmfAnalysisException;
+import org.eclipse.tracecompass.tmf.core.exceptions.TmfTraceException;
+import org.eclipse.tracecompass.tmf.core.model.filters.TimeQueryFilter;
+import org.eclipse.tracecompass.tmf.core.model.timegraph.TimeGraphEntryModel;
+import org.eclipse.tracecompass.tmf.core.model.tree.TmfTreeModel;
+import org.eclipse.tracecompass.tmf.core.response.TmfModelResponse;
+import org.eclipse.tracecompass.tmf.core.tests.shared.TmfTestHelper;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTraceManager;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Compares the state system backed span life analysis with the segment store
+ * backed span store analysis on a synthetic Jaeger trace with many spans:
+ * build time, heap used once the analysis is built and latency of the first
+ * tree fetch
+ */
+public class SpanStoreBenchmark {
+
+    /**
+     * Test test ID for the span store benchmarks
+     */
+    public static final String TEST_ID = "org.eclipse.tracecompass.incubator#Open tracing spans#";
+
+    private static final int LOOP_COUNT = 3;
+    private static final int NB_TRACES = 200;
+    private static final int NB_SPANS = 500;
+    private static final int NB_LOGS = 2;
+
+    private static File fFile;
+
+    /**
+     * Create the synthetic trace
+     *
+     * @throws IOException
+     *             If the trace cannot be created
+     */
+    @BeforeClass
+    public static void createTrace() throws IOException {
+        File file = File.createTempFile("spans", ".json");
+        try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            writer.write("{\"data\":[");
+            long time = 1526674498419000L;
+            for (int trace = 0; trace < NB_TRACES; trace++) {
+                String traceId = String.format("%016x", trace + 1);
+                writer.write((trace == 0 ? "" : ",") + "{\"traceID\":\"" + traceId + "\",\"spans\":[");
+                for (int span = 0; span < NB_SPANS; span++) {
+                    // Every span is the child of the span started 10 spans before
+                    long start = time + span * 10L;
+                    writer.write((span == 0 ? "" : ",") + "{\"traceID\":\"" + traceId + "\",\"spanID\":\"" + spanId(trace, span) + "\",\"flags\":1,"
+                            + "\"operationName\":\"op" + (span % 20) + "\",\"references\":["
+                            + (span < 10 ? "" : "{\"refType\":\"CHILD_OF\",\"traceID\":\"" + traceId + "\",\"spanID\":\"" + spanId(trace, span - 10) + "\"}")
+                            + "],\"startTime\":" + start + ",\"duration\":95,\"tags\":[],\"logs\":[");
+                    for (int log = 0; log < NB_LOGS; log++) {
+                        writer.write((log == 0 ? "" : ",") + "{\"timestamp\":" + (start + log * 10 + 5)
+                                + ",\"fields\":[{\"key\":\"event\",\"type\":\"string\",\"value\":\"log" + log + "\"}]}");
+                    }
+                    writer.write("],\"processID\":\"p1\",\"warnings\":null}");
+                }
+                writer.write("],\"processes\":{\"p1\":{\"serviceName\":\"bench\",\"tags\":[]}},\"warnings\":null}");
+                time += NB_SPANS * 5L;
+            }
+            writer.write("],\"total\":0,\"limit\":0,\"offset\":0,\"errors\":null}");
+        }
+        fFile = file;
+    }
+
+    private static String spanId(int trace, int span) {
+        return String.format("%08x%08x", trace + 1, span + 1);
+    }
+
+    /**
+     * Delete the synthetic trace
+     */
+    @AfterClass
+    public static void deleteTrace() {
+        File file = fFile;
+        if (file != null) {
+            file.delete();
+        }
+    }
+
+    /**
+     * Benchmark the state system backed span life analysis
+     */
+    @Test
+    public void spanLife() {
+        runBenchmark("Span life", () -> new SpanLifeAnalysis(), (trace, module) -> new SpanLifeDataProvider(trace, (SpanLifeAnalysis) module).fetchTree(getTreeParameters(trace), new NullProgressMonitor()));
+    }
+
+    /**
+     * Benchmark the segment store backed span store analysis
+     */
+    @Test
+    public void spanStore() {
+        runBenchmark("Span store", () -> new SpanStoreAnalysis(), (trace, module) -> new SpanStoreDataProvider(trace, (SpanStoreAnalysis) module).fetchTree(getTreeParameters(trace), new NullProgressMonitor()));
+    }
+
+    private static Map<String, Object> getTreeParameters(ITmfTrace trace) {
+        return FetchParametersUtils.timeQueryToMap(new TimeQueryFilter(trace.getStartTime().toNanos(), trace.getEndTime().toNanos(), 2));
+    }
+
+    private interface ModuleFactory {
+        IAnalysisModule create();
+    }
+
+    private interface TreeFetcher {
+        TmfModelResponse<TmfTreeModel<TimeGraphEntryModel>> fetch(ITmfTrace trace, IAnalysisModule module);
+    }
+
+    private static void runBenchmark(String name, ModuleFactory factory, TreeFetcher fetcher) {
+        Performance perf = Performance.getDefault();
+        PerformanceMeter buildPm = Objects.requireNonNull(perf.createPerformanceMeter(TEST_ID + name + ": build"));
+        perf.tagAsSummary(buildPm, name + ": build", Dimension.CPU_TIME);
+        PerformanceMeter treePm = Objects.requireNonNull(perf.createPerformanceMeter(TEST_ID + name + ": tree"));
+        perf.tagAsSummary(treePm, name + ": tree", Dimension.CPU_TIME);
+        // The heap still used once the analysis is built is its footprint
+        PerformanceMeter heapPm = Objects.requireNonNull(perf.createPerformanceMeter(TEST_ID + name + ": heap"));
+        perf.tagAsSummary(heapPm, name + ": heap", Dimension.USED_JAVA_HEAP);
+
+        OpenTracingTrace trace = new OpenTracingTrace();
+        try {
+            String path = Objects.requireNonNull(fFile).getAbsolutePath();
+            IStatus status = trace.validate(null, path);
+            if (!status.isOK()) {
+                fail(status.getMessage());
+            }
+            trace.initTrace(null, path, ITmfEvent.class);
+
+            for (int i = 0; i < LOOP_COUNT; i++) {
+                IAnalysisModule module = factory.create();
+                try {
+                    assertTrue(module.setTrace(trace));
+                    collectGarbage();
+                    heapPm.start();
+                    buildPm.start();
+                    assertTrue(TmfTestHelper.executeAnalysis(module));
+                    buildPm.stop();
+                    collectGarbage();
+                    heapPm.stop();
+
+                    treePm.start();
+                    TmfModelResponse<TmfTreeModel<TimeGraphEntryModel>> response = fetcher.fetch(trace, module);
+                    treePm.stop();
+                    TmfTreeModel<TimeGraphEntryModel> tree = response.getModel();
+                    assertNotNull(tree);
+                    // At least one entry per span
+                    assertTrue(tree.getEntries().size() > NB_TRACES * NB_SPANS);
+                } finally {
+                    module.dispose();
+                    TmfTraceManager.deleteSupplementaryFiles(trace);
+                }
+            }
+            buildPm.commit();
+            treePm.commit();
+            heapPm.commit();
+        } catch (TmfTraceException | TmfAnalysisException e) {
+            fail(e.getMessage());
+        } finally {
+            trace.dispose();
+            buildPm.dispose();
+            treePm.dispose();
+            heapPm.dispose();
+        }
+    }
+
+    private static void collectGarbage() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+    }
+}
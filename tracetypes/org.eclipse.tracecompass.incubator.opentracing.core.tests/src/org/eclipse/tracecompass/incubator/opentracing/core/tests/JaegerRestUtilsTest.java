@@ -0,0 +1,384 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.opentracing.core.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.tracecompass.incubator.internal.opentracing.core.trace.JaegerRestUtils;
+import org.eclipse.tracecompass.incubator.internal.opentracing.core.trace.JaegerTracesReader.TraceSummary;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Test the streaming and paged fetch of Jaeger traces, against a local stub of
+ * the Jaeger query service that generates synthetic traces
+ */
+public class JaegerRestUtilsTest {
+
+    private static final String SERVICE = "stub-service";
+    /** Time between the start of two consecutive synthetic traces, in us */
+    private static final long TRACE_INTERVAL = 1000000L;
+    private static final long START_TIME = 1526674498419000L;
+    private static final int NB_TRACES = 100;
+    /* Much less than the size of the large payload */
+    private static final long MAX_HEAP_GROWTH = 16L * 1024 * 1024;
+
+    private HttpServer fServer;
+    private String fBaseUrl;
+    private File fFolder;
+    private final AtomicInteger fNbRequests = new AtomicInteger();
+    private int fNbSpans = 3;
+    private boolean fFail = false;
+    private String fTraceIdPrefix = "";
+
+    /**
+     * Start the stub server
+     *
+     * @throws IOException
+     *             If the server or the folder cannot be created
+     */
+    @Before
+    public void setUp() throws IOException {
+        fServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        fServer.createContext("/api/traces", this::handleTraces);
+        fServer.start();
+        fBaseUrl = "http://" + fServer.getAddress().getHostString() + ':' + fServer.getAddress().getPort() + "/api";
+        fFolder = Files.createTempDirectory("jaegerTest").toFile();
+    }
+
+    /**
+     * Stop the stub server and delete the fetched traces
+     */
+    @After
+    public void tearDown() {
+        fServer.stop(0);
+        File[] files = fFolder.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        fFolder.delete();
+    }
+
+    /**
+     * Test fetching a time range that spans many pages
+     *
+     * @throws IOException
+     *             If a trace file cannot be read
+     */
+    @Test
+    public void testPagedFetch() throws IOException {
+        List<TraceSummary> summaries = new ArrayList<>();
+        long endTime = START_TIME + (NB_TRACES - 1) * TRACE_INTERVAL;
+        int nbTraces = JaegerRestUtils.fetchJaegerTraces(fBaseUrl, SERVICE, START_TIME, endTime, 10 * TRACE_INTERVAL, 1000,
+                "", "", "", fFolder.getAbsolutePath(), summaries::add, new NullProgressMonitor());
+
+        assertEquals(NB_TRACES, nbTraces);
+        assertEquals(NB_TRACES, summaries.size());
+        assertEquals(10, fNbRequests.get());
+        // The most recent page is fetched first
+        assertEquals(traceId(NB_TRACES - 1), summaries.get(0).getTraceId());
+        for (TraceSummary summary : summaries) {
+            assertEquals(summary.getTraceId() + ".json", summary.getFileName());
+            assertEquals(fNbSpans, summary.getNbSpans());
+            assertEquals("root", summary.getFirstSpanName());
+            assertEquals(List.of(SERVICE), summary.getServices());
+            assertTraceFile(summary.getFileName(), summary.getTraceId(), fNbSpans);
+        }
+        File[] files = fFolder.listFiles();
+        assertEquals(NB_TRACES, files == null ? 0 : files.length);
+    }
+
+    /**
+     * Test that the limit applies to the total number of traces of all the
+     * pages
+     */
+    @Test
+    public void testLimit() {
+        List<TraceSummary> summaries = new ArrayList<>();
+        long endTime = START_TIME + (NB_TRACES - 1) * TRACE_INTERVAL;
+        int nbTraces = JaegerRestUtils.fetchJaegerTraces(fBaseUrl, SERVICE, START_TIME, endTime, 10 * TRACE_INTERVAL, 15,
+                "", "", "", fFolder.getAbsolutePath(), summaries::add, new NullProgressMonitor());
+
+        assertEquals(15, nbTraces);
+        assertEquals(15, summaries.size());
+        assertEquals(2, fNbRequests.get());
+        for (int i = 0; i < 15; i++) {
+            assertEquals(traceId(NB_TRACES - 1 - i), summaries.get(i).getTraceId());
+        }
+    }
+
+    /**
+     * Test that the consumer can stop the fetch
+     */
+    @Test
+    public void testStop() {
+        List<TraceSummary> summaries = new ArrayList<>();
+        long endTime = START_TIME + (NB_TRACES - 1) * TRACE_INTERVAL;
+        int nbTraces = JaegerRestUtils.fetchJaegerTraces(fBaseUrl, SERVICE, START_TIME, endTime, 50 * TRACE_INTERVAL, 1000,
+                "", "", "", fFolder.getAbsolutePath(), summary -> {
+                    summaries.add(summary);
+                    return summaries.size() < 3;
+                }, new NullProgressMonitor());
+
+        assertEquals(3, nbTraces);
+        assertEquals(3, summaries.size());
+        assertEquals(1, fNbRequests.get());
+    }
+
+    /**
+     * Test that canceling the monitor stops the fetch
+     */
+    @Test
+    public void testCancel() {
+        List<TraceSummary> summaries = new ArrayList<>();
+        IProgressMonitor monitor = new NullProgressMonitor();
+        long endTime = START_TIME + (NB_TRACES - 1) * TRACE_INTERVAL;
+        int nbTraces = JaegerRestUtils.fetchJaegerTraces(fBaseUrl, SERVICE, START_TIME, endTime, 10 * TRACE_INTERVAL, 1000,
+                "", "", "", fFolder.getAbsolutePath(), summary -> {
+                    summaries.add(summary);
+                    if (summaries.size() == 15) {
+                        monitor.setCanceled(true);
+                    }
+                    return true;
+                }, monitor);
+
+        assertEquals(15, nbTraces);
+        assertEquals(15, summaries.size());
+        assertEquals(2, fNbRequests.get());
+    }
+
+    /**
+     * Test a page whose response is much larger than the heap the fetch may
+     * use: all the spans are streamed to the trace files, and the heap does
+     * not grow with the size of the response
+     *
+     * @throws IOException
+     *             If a trace file cannot be read
+     */
+    @Test
+    public void testLargePayload() throws IOException {
+        fNbSpans = 25000;
+        List<TraceSummary> summaries = new ArrayList<>();
+        long endTime = START_TIME + 9 * TRACE_INTERVAL;
+        long baseline = getUsedHeap();
+        long[] maxGrowth = { 0 };
+        int nbTraces = JaegerRestUtils.fetchJaegerTraces(fBaseUrl, SERVICE, START_TIME, endTime, JaegerRestUtils.DEFAULT_PAGE_DURATION, 1000,
+                "", "", "", fFolder.getAbsolutePath(), summary -> {
+                    maxGrowth[0] = Math.max(maxGrowth[0], getUsedHeap() - baseline);
+                    return summaries.add(summary);
+                }, new NullProgressMonitor());
+
+        assertEquals(10, nbTraces);
+        assertEquals(1, fNbRequests.get());
+        long nbBytes = 0;
+        for (TraceSummary summary : summaries) {
+            assertEquals(fNbSpans, summary.getNbSpans());
+            assertTraceFile(summary.getFileName(), summary.getTraceId(), fNbSpans);
+            nbBytes += new File(fFolder, summary.getFileName()).length();
+        }
+        assertTrue("Fetched " + nbBytes + " bytes", nbBytes > 4 * MAX_HEAP_GROWTH);
+        assertTrue("Heap grew by " + maxGrowth[0] + " bytes", maxGrowth[0] < MAX_HEAP_GROWTH);
+    }
+
+    /**
+     * Test that trace IDs that are not hexadecimal do not name the trace
+     * files, so they cannot write outside of the folder
+     *
+     * @throws IOException
+     *             If a trace file cannot be read
+     */
+    @Test
+    public void testInvalidTraceId() throws IOException {
+        fTraceIdPrefix = "../";
+        List<TraceSummary> summaries = new ArrayList<>();
+        long endTime = START_TIME + 9 * TRACE_INTERVAL;
+        int nbTraces = JaegerRestUtils.fetchJaegerTraces(fBaseUrl, SERVICE, START_TIME, endTime, JaegerRestUtils.DEFAULT_PAGE_DURATION, 1000,
+                "", "", "", fFolder.getAbsolutePath(), summaries::add, new NullProgressMonitor());
+
+        assertEquals(10, nbTraces);
+        for (TraceSummary summary : summaries) {
+            assertTrue(summary.getTraceId().startsWith(fTraceIdPrefix));
+            assertFalse(summary.getFileName(), summary.getFileName().contains("/"));
+            assertTraceFile(summary.getFileName(), summary.getTraceId(), fNbSpans);
+        }
+        File[] files = fFolder.listFiles();
+        assertEquals(10, files == null ? 0 : files.length);
+    }
+
+    /**
+     * Test the result when the server returns an error
+     */
+    @Test
+    public void testServerError() {
+        fFail = true;
+        int nbTraces = JaegerRestUtils.fetchJaegerTraces(fBaseUrl, SERVICE, START_TIME, START_TIME + TRACE_INTERVAL, TRACE_INTERVAL, 1000,
+                "", "", "", fFolder.getAbsolutePath(), summary -> true, new NullProgressMonitor());
+        assertEquals(-1, nbTraces);
+    }
+
+    private void assertTraceFile(String fileName, String traceId, int nbSpans) throws IOException {
+        File file = new File(fFolder, fileName);
+        assertTrue(file.exists());
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            JsonObject object = new Gson().fromJson(reader, JsonObject.class);
+            JsonArray data = object.get("data").getAsJsonArray();
+            assertEquals(1, data.size());
+            JsonObject trace = data.get(0).getAsJsonObject();
+            assertEquals(traceId, trace.get("traceID").getAsString());
+            assertEquals(nbSpans, trace.get("spans").getAsJsonArray().size());
+            assertFalse(trace.get("processes").getAsJsonObject().entrySet().isEmpty());
+        }
+        // The trace parser expects the trace ID before the spans
+        byte[] header = new byte[64];
+        try (InputStream input = Files.newInputStream(file.toPath())) {
+            input.readNBytes(header, 0, header.length);
+        }
+        String start = new String(header, StandardCharsets.UTF_8);
+        assertTrue(start, start.startsWith("{\"data\":[{\"traceID\":\"" + traceId + "\",\"spans\":["));
+    }
+
+    private static String traceId(int index) {
+        return String.format("%016x", index);
+    }
+
+    private static long getUsedHeap() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    // ------------------------------------------------------------------------
+    // Stub server
+    // ------------------------------------------------------------------------
+
+    private void handleTraces(HttpExchange exchange) throws IOException {
+        fNbRequests.incrementAndGet();
+        if (fFail) {
+            exchange.sendResponseHeaders(500, -1);
+            exchange.close();
+            return;
+        }
+        Map<String, String> query = parseQuery(exchange.getRequestURI());
+        long start = Long.parseLong(query.get("start"));
+        long end = Long.parseLong(query.get("end"));
+        int limit = Integer.parseInt(query.get("limit"));
+
+        // Unknown length: the response is sent in chunks as it is generated
+        exchange.sendResponseHeaders(200, 0);
+        try (JsonWriter writer = new JsonWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8))) {
+            writer.beginObject().name("data").beginArray();
+            int count = 0;
+            // Like Jaeger, return the most recent traces, start and end included
+            for (int i = NB_TRACES - 1; i >= 0 && count < limit; i--) {
+                long traceStart = START_TIME + i * TRACE_INTERVAL;
+                if (traceStart >= start && traceStart <= end) {
+                    writeTrace(writer, fTraceIdPrefix + traceId(i), traceStart);
+                    count++;
+                }
+            }
+            writer.endArray();
+            writer.name("total").value(0);
+            writer.name("limit").value(0);
+            writer.name("offset").value(0);
+            writer.name("errors").nullValue();
+            writer.endObject();
+        }
+    }
+
+    private void writeTrace(JsonWriter writer, String traceId, long traceStart) throws IOException {
+        writer.beginObject();
+        writer.name("traceID").value(traceId);
+        writer.name("spans").beginArray();
+        for (int i = 0; i < fNbSpans; i++) {
+            writer.beginObject();
+            writer.name("traceID").value(traceId);
+            writer.name("spanID").value(String.format("%016x", i));
+            writer.name("flags").value(1);
+            writer.name("operationName").value(i == 0 ? "root" : "child");
+            writer.name("references").beginArray();
+            if (i > 0) {
+                writer.beginObject();
+                writer.name("refType").value("CHILD_OF");
+                writer.name("traceID").value(traceId);
+                writer.name("spanID").value(String.format("%016x", 0));
+                writer.endObject();
+            }
+            writer.endArray();
+            writer.name("startTime").value(traceStart + i);
+            writer.name("duration").value(fNbSpans - i);
+            writer.name("tags").beginArray();
+            writer.beginObject();
+            writer.name("key").value("index");
+            writer.name("type").value("int64");
+            writer.name("value").value(i);
+            writer.endObject();
+            writer.endArray();
+            writer.name("logs").beginArray().endArray();
+            writer.name("processID").value("p1");
+            writer.name("warnings").nullValue();
+            writer.endObject();
+        }
+        writer.endArray();
+        writer.name("processes").beginObject();
+        writer.name("p1").beginObject();
+        writer.name("serviceName").value(SERVICE);
+        writer.name("tags").beginArray().endArray();
+        writer.endObject();
+        writer.endObject();
+        writer.name("warnings").nullValue();
+        writer.endObject();
+    }
+
+    private static Map<String, String> parseQuery(URI uri) {
+        Map<String, String> query = new HashMap<>();
+        String rawQuery = uri.getQuery();
+        if (rawQuery != null) {
+            for (String parameter : rawQuery.split("&")) {
+                int separator = parameter.indexOf('=');
+                if (separator > 0) {
+                    query.put(parameter.substring(0, separator), parameter.substring(separator + 1));
+                }
+            }
+        }
+        return query;
+    }
+}
@@ -0,0 +1,171 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.opentracing.core.analysis.spanstore;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.tracecompass.datastore.core.serialization.ISafeByteBufferReader;
+import org.eclipse.tracecompass.datastore.core.serialization.ISafeByteBufferWriter;
+import org.eclipse.tracecompass.datastore.core.serialization.SafeByteBufferFactory;
+import org.eclipse.tracecompass.segmentstore.core.ISegment;
+import org.eclipse.tracecompass.segmentstore.core.segment.interfaces.INamedSegment;
+
+/**
+ * A log of a span, represented as an {@link ISegment} of length 0 at the time
+ * of the log. The fields of the log are kept as the "key:value~key:value"
+ * string of the span life analysis.
+ */
+public final class SpanLogSegment implements INamedSegment {
+
+    private static final long serialVersionUID = 6405330283564911542L;
+
+    private static final String ERROR = "error"; //$NON-NLS-1$
+    private static final String EVENT = "event"; //$NON-NLS-1$
+    private static final String MESSAGE = "message"; //$NON-NLS-1$
+    private static final String STACK = "stack"; //$NON-NLS-1$
+    private static final String OTHER = "other"; //$NON-NLS-1$
+
+    private final long fTime;
+    private final String fTraceId;
+    private final String fSpanId;
+    private final String fFields;
+
+    /**
+     * Constructor
+     *
+     * @param time
+     *            The time of the log
+     * @param traceId
+     *            The ID of the trace of the span
+     * @param spanId
+     *            The ID of the span
+     * @param fields
+     *            The fields of the log, as "key:value" strings separated by '~'
+     */
+    public SpanLogSegment(long time, String traceId, String spanId, String fields) {
+        fTime = time;
+        fTraceId = traceId;
+        fSpanId = spanId;
+        fFields = fields;
+    }
+
+    static SpanLogSegment read(ISafeByteBufferReader buffer) {
+        return new SpanLogSegment(buffer.getLong(), buffer.getString(), buffer.getString(), buffer.getString());
+    }
+
+    @Override
+    public long getStart() {
+        return fTime;
+    }
+
+    @Override
+    public long getEnd() {
+        return fTime;
+    }
+
+    @Override
+    public String getName() {
+        return getType();
+    }
+
+    /**
+     * Get the ID of the trace of the span of this log
+     *
+     * @return The trace ID
+     */
+    public String getTraceId() {
+        return fTraceId;
+    }
+
+    /**
+     * Get the ID of the span of this log
+     *
+     * @return The span ID
+     */
+    public String getSpanId() {
+        return fSpanId;
+    }
+
+    /**
+     * Get the fields of this log
+     *
+     * @return The values of the log by key, in the order of the log
+     */
+    public Map<String, String> getFields() {
+        Map<String, String> fields = new LinkedHashMap<>();
+        for (String field : fFields.split("~")) { //$NON-NLS-1$
+            int colon = field.indexOf(':');
+            if (colon >= 0) {
+                fields.put(field.substring(0, colon), field.substring(colon + 1));
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * Get the type of this log, from the keys of its fields
+     *
+     * @return The type of the log, "error", "event", "message", "stack" or
+     *         "other"
+     */
+    public String getType() {
+        StringBuilder builder = new StringBuilder();
+        for (String key : getFields().keySet()) {
+            builder.append(key);
+        }
+        String types = builder.toString();
+        if (types.contains(ERROR)) {
+            return ERROR;
+        } else if (types.contains(EVENT)) {
+            return EVENT;
+        } else if (types.contains(MESSAGE)) {
+            return MESSAGE;
+        } else if (types.contains(STACK)) {
+            return STACK;
+        }
+        return OTHER;
+    }
+
+    @Override
+    public int getSizeOnDisk() {
+        return 1 + Long.BYTES + SafeByteBufferFactory.getStringSizeInBuffer(fTraceId)
+                + SafeByteBufferFactory.getStringSizeInBuffer(fSpanId)
+                + SafeByteBufferFactory.getStringSizeInBuffer(fFields);
+    }
+
+    @Override
+    public void writeSegment(ISafeByteBufferWriter buffer) {
+        buffer.put(SpanSegment.LOG_TYPE);
+        buffer.putLong(fTime);
+        buffer.putString(fTraceId);
+        buffer.putString(fSpanId);
+        buffer.putString(fFields);
+    }
+
+    @Override
+    public int compareTo(ISegment o) {
+        int ret = INamedSegment.super.compareTo(o);
+        if (ret != 0) {
+            return ret;
+        }
+        return toString().compareTo(o.toString());
+    }
+
+    @Override
+    public String toString() {
+        return "Time = " + getStart() + //$NON-NLS-1$
+                "; Trace ID = " + getTraceId() + //$NON-NLS-1$
+                "; Span ID = " + getSpanId() + //$NON-NLS-1$
+                "; Fields = " + fFields; //$NON-NLS-1$
+    }
+}
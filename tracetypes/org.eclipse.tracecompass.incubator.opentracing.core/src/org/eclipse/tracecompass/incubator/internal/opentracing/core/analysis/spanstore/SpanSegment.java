@@ -0,0 +1,189 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.opentracing.core.analysis.spanstore;
+
+import org.eclipse.tracecompass.datastore.core.interval.IHTIntervalReader;
+import org.eclipse.tracecompass.datastore.core.serialization.ISafeByteBufferReader;
+import org.eclipse.tracecompass.datastore.core.serialization.ISafeByteBufferWriter;
+import org.eclipse.tracecompass.datastore.core.serialization.SafeByteBufferFactory;
+import org.eclipse.tracecompass.segmentstore.core.ISegment;
+import org.eclipse.tracecompass.segmentstore.core.segment.interfaces.INamedSegment;
+
+/**
+ * A span of an open tracing trace, represented as an {@link ISegment}. The
+ * logs of the span are separate {@link SpanLogSegment}s in the same segment
+ * store, so they are only read when they are needed.
+ */
+public final class SpanSegment implements INamedSegment {
+
+    private static final long serialVersionUID = -3170542287474211851L;
+
+    /** Type of the segments written before a span */
+    static final byte SPAN_TYPE = 0;
+    /** Type of the segments written before a log */
+    static final byte LOG_TYPE = 1;
+
+    /**
+     * The reader for the segments of the span store, spans and logs
+     */
+    public static final IHTIntervalReader<ISegment> READER = buffer -> {
+        byte type = buffer.get();
+        if (type == LOG_TYPE) {
+            return SpanLogSegment.read(buffer);
+        }
+        return read(buffer);
+    };
+
+    private final long fStartTime;
+    private final long fEndTime;
+    private final String fName;
+    private final String fTraceId;
+    private final String fSpanId;
+    private final String fParentId;
+    private final String fProcessName;
+    private final boolean fError;
+
+    /**
+     * Constructor
+     *
+     * @param startTime
+     *            The start time of the span
+     * @param endTime
+     *            The end time of the span
+     * @param name
+     *            The operation name of the span
+     * @param traceId
+     *            The ID of the trace of the span
+     * @param spanId
+     *            The ID of the span
+     * @param parentId
+     *            The ID of the parent span, empty if the span has no parent
+     * @param processName
+     *            The name of the process of the span
+     * @param error
+     *            Whether the span was tagged with an error
+     */
+    public SpanSegment(long startTime, long endTime, String name, String traceId, String spanId, String parentId, String processName, boolean error) {
+        fStartTime = startTime;
+        fEndTime = endTime;
+        fName = name;
+        fTraceId = traceId;
+        fSpanId = spanId;
+        fParentId = parentId;
+        fProcessName = processName;
+        fError = error;
+    }
+
+    private static SpanSegment read(ISafeByteBufferReader buffer) {
+        return new SpanSegment(buffer.getLong(), buffer.getLong(), buffer.getString(), buffer.getString(), buffer.getString(), buffer.getString(), buffer.getString(), buffer.get() != 0);
+    }
+
+    @Override
+    public long getStart() {
+        return fStartTime;
+    }
+
+    @Override
+    public long getEnd() {
+        return fEndTime;
+    }
+
+    @Override
+    public String getName() {
+        return fName;
+    }
+
+    /**
+     * Get the ID of the trace of this span
+     *
+     * @return The trace ID
+     */
+    public String getTraceId() {
+        return fTraceId;
+    }
+
+    /**
+     * Get the ID of this span
+     *
+     * @return The span ID
+     */
+    public String getSpanId() {
+        return fSpanId;
+    }
+
+    /**
+     * Get the ID of the parent of this span
+     *
+     * @return The parent span ID, empty if the span has no parent
+     */
+    public String getParentId() {
+        return fParentId;
+    }
+
+    /**
+     * Get the name of the process of this span
+     *
+     * @return The process name
+     */
+    public String getProcessName() {
+        return fProcessName;
+    }
+
+    /**
+     * Get whether this span was tagged with an error
+     *
+     * @return true if the span has an error tag
+     */
+    public boolean getErrorTag() {
+        return fError;
+    }
+
+    @Override
+    public int getSizeOnDisk() {
+        return 1 + 2 * Long.BYTES + SafeByteBufferFactory.getStringSizeInBuffer(fName)
+                + SafeByteBufferFactory.getStringSizeInBuffer(fTraceId)
+                + SafeByteBufferFactory.getStringSizeInBuffer(fSpanId)
+                + SafeByteBufferFactory.getStringSizeInBuffer(fParentId)
+                + SafeByteBufferFactory.getStringSizeInBuffer(fProcessName) + 1;
+    }
+
+    @Override
+    public void writeSegment(ISafeByteBufferWriter buffer) {
+        buffer.put(SPAN_TYPE);
+        buffer.putLong(fStartTime);
+        buffer.putLong(fEndTime);
+        buffer.putString(fName);
+        buffer.putString(fTraceId);
+        buffer.putString(fSpanId);
+        buffer.putString(fParentId);
+        buffer.putString(fProcessName);
+        buffer.put((byte) (fError ? 1 : 0));
+    }
+
+    @Override
+    public int compareTo(ISegment o) {
+        int ret = INamedSegment.super.compareTo(o);
+        if (ret != 0) {
+            return ret;
+        }
+        return toString().compareTo(o.toString());
+    }
+
+    @Override
+    public String toString() {
+        return "Start Time = " + getStart() + //$NON-NLS-1$
+                "; End Time = " + getEnd() + //$NON-NLS-1$
+                "; Name = " + getName() + //$NON-NLS-1$
+                "; Trace ID = " + getTraceId() + //$NON-NLS-1$
+                "; Span ID = " + getSpanId(); //$NON-NLS-1$
+    }
+}
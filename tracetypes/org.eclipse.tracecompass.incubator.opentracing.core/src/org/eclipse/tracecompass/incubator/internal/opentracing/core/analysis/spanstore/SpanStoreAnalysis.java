@@ -0,0 +1,253 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.opentracing.core.analysis.spanstore;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.analysis.timing.core.segmentstore.AbstractSegmentStoreAnalysisEventBasedModule;
+import org.eclipse.tracecompass.datastore.core.interval.IHTIntervalReader;
+import org.eclipse.tracecompass.incubator.internal.opentracing.core.event.IOpenTracingConstants;
+import org.eclipse.tracecompass.segmentstore.core.ISegment;
+import org.eclipse.tracecompass.segmentstore.core.ISegmentStore;
+import org.eclipse.tracecompass.segmentstore.core.SegmentStoreFactory.SegmentStoreType;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTraceUtils;
+
+/**
+ * Stores the spans of open tracing traces and their logs in an on-disk segment
+ * store, instead of one state system attribute per span. The spans are indexed
+ * by time by the segment store, and the time range of each trace ID is kept to
+ * find the spans and logs of a trace.
+ */
+public class SpanStoreAnalysis extends AbstractSegmentStoreAnalysisEventBasedModule {
+
+    /**
+     * ID
+     */
+    public static final String ID = "org.eclipse.tracecompass.incubator.opentracing.analysis.spanstore"; //$NON-NLS-1$
+
+    private static final int VERSION = 1;
+
+    private static final String OPEN_TRACING_SPAN = "OpenTracingSpan"; //$NON-NLS-1$
+    private static final String UST_START_SPAN = "jaeger_ust:start_span"; //$NON-NLS-1$
+    private static final String UST_END_SPAN = "jaeger_ust:end_span"; //$NON-NLS-1$
+
+    /* Time range of each trace ID, start and end */
+    private @Nullable Map<String, long[]> fTraceRanges = null;
+
+    /**
+     * Constructor
+     */
+    public SpanStoreAnalysis() {
+        setId(ID);
+    }
+
+    @Override
+    protected int getVersion() {
+        return VERSION;
+    }
+
+    @Override
+    protected SegmentStoreType getSegmentStoreType() {
+        return SegmentStoreType.OnDisk;
+    }
+
+    @Override
+    protected IHTIntervalReader<ISegment> getSegmentReader() {
+        return SpanSegment.READER;
+    }
+
+    @Override
+    protected AbstractSegmentStoreAnalysisRequest createAnalysisRequest(ISegmentStore<ISegment> spanStore, IProgressMonitor monitor) {
+        return new SpanStoreAnalysisRequest(spanStore, monitor);
+    }
+
+    /**
+     * Get the IDs of the traces of the spans
+     *
+     * @return The trace IDs
+     */
+    public Collection<String> getTraceIds() {
+        return Collections.unmodifiableSet(getTraceRanges().keySet());
+    }
+
+    /**
+     * Get the logs of the spans of a trace in a time range, read from the
+     * segment store in the part of the range where the trace has spans
+     *
+     * @param traceId
+     *            The trace ID
+     * @param start
+     *            The start of the time range
+     * @param end
+     *            The end of the time range
+     * @return The logs of the trace in the time range
+     */
+    public List<SpanLogSegment> getLogs(String traceId, long start, long end) {
+        ISegmentStore<ISegment> store = getSegmentStore();
+        long[] range = getTraceRanges().get(traceId);
+        if (store == null || range == null || range[0] > end || range[1] < start) {
+            return Collections.emptyList();
+        }
+        List<SpanLogSegment> logs = new ArrayList<>();
+        for (ISegment segment : store.getIntersectingElements(Math.max(start, range[0]), Math.min(end, range[1]))) {
+            if (segment instanceof SpanLogSegment && ((SpanLogSegment) segment).getTraceId().equals(traceId)) {
+                logs.add((SpanLogSegment) segment);
+            }
+        }
+        return logs;
+    }
+
+    private synchronized Map<String, long[]> getTraceRanges() {
+        Map<String, long[]> traceRanges = fTraceRanges;
+        if (traceRanges != null) {
+            return traceRanges;
+        }
+        // The segment store was read from disk, index it once
+        ISegmentStore<ISegment> store = getSegmentStore();
+        if (store == null) {
+            return Collections.emptyMap();
+        }
+        traceRanges = new HashMap<>();
+        for (ISegment segment : store) {
+            if (segment instanceof SpanSegment) {
+                updateRange(traceRanges, ((SpanSegment) segment).getTraceId(), segment);
+            } else if (segment instanceof SpanLogSegment) {
+                updateRange(traceRanges, ((SpanLogSegment) segment).getTraceId(), segment);
+            }
+        }
+        fTraceRanges = traceRanges;
+        return traceRanges;
+    }
+
+    private synchronized void setTraceRanges(Map<String, long[]> traceRanges) {
+        fTraceRanges = traceRanges;
+    }
+
+    private static void updateRange(Map<String, long[]> traceRanges, String traceId, ISegment segment) {
+        long[] range = traceRanges.computeIfAbsent(traceId, id -> new long[] { Long.MAX_VALUE, Long.MIN_VALUE });
+        range[0] = Math.min(range[0], segment.getStart());
+        range[1] = Math.max(range[1], segment.getEnd());
+    }
+
+    private class SpanStoreAnalysisRequest extends AbstractSegmentStoreAnalysisRequest {
+        private final Map<String, long[]> fRanges = new HashMap<>();
+        private final Map<String, SpanSegment> fOngoingUstSpans = new HashMap<>();
+        private final IProgressMonitor fMonitor;
+
+        public SpanStoreAnalysisRequest(ISegmentStore<ISegment> spanStore, IProgressMonitor monitor) {
+            super(spanStore);
+            fMonitor = monitor;
+        }
+
+        @Override
+        public void handleData(final ITmfEvent event) {
+            super.handleData(event);
+            switch (event.getName()) {
+            case OPEN_TRACING_SPAN:
+                handleSpan(event);
+                break;
+            case UST_START_SPAN:
+                handleUstStart(event);
+                break;
+            case UST_END_SPAN:
+                handleUstEnd(event);
+                break;
+            default:
+                break;
+            }
+        }
+
+        private void add(String traceId, ISegment segment) {
+            getSegmentStore().add(segment);
+            updateRange(fRanges, traceId, segment);
+        }
+
+        private void handleSpan(ITmfEvent event) {
+            Long duration = event.getContent().getFieldValue(Long.class, IOpenTracingConstants.DURATION);
+            String traceId = event.getContent().getFieldValue(String.class, IOpenTracingConstants.TRACE_ID);
+            String spanId = event.getContent().getFieldValue(String.class, IOpenTracingConstants.SPAN_ID);
+            if (duration == null || traceId == null || spanId == null) {
+                return;
+            }
+            long timestamp = event.getTimestamp().toNanos();
+            String name = String.valueOf(TmfTraceUtils.resolveAspectOfNameForEvent(event.getTrace(), "Name", event)); //$NON-NLS-1$
+            String refId = event.getContent().getFieldValue(String.class, IOpenTracingConstants.REFERENCES + "/CHILD_OF"); //$NON-NLS-1$
+            String processName = event.getContent().getFieldValue(String.class, IOpenTracingConstants.PROCESS_NAME);
+            boolean errorTag = Boolean.parseBoolean(event.getContent().getFieldValue(String.class, IOpenTracingConstants.TAGS + "/error")); //$NON-NLS-1$
+            String parentId = (refId == null) ? "" : refId; //$NON-NLS-1$
+            add(traceId, new SpanSegment(timestamp, timestamp + duration, name.intern(), traceId, spanId, parentId, String.valueOf(processName).intern(), errorTag));
+
+            Map<Long, Map<String, String>> logs = event.getContent().getFieldValue(Map.class, IOpenTracingConstants.LOGS);
+            if (logs != null) {
+                for (Map.Entry<Long, Map<String, String>> log : logs.entrySet()) {
+                    List<String> logString = new ArrayList<>();
+                    for (Map.Entry<String, String> entry : log.getValue().entrySet()) {
+                        logString.add(entry.getKey() + ':' + entry.getValue());
+                    }
+                    add(traceId, new SpanLogSegment(log.getKey(), traceId, spanId, String.join("~", logString))); //$NON-NLS-1$
+                }
+            }
+        }
+
+        private void handleUstStart(ITmfEvent event) {
+            String traceId = event.getContent().getFieldValue(String.class, "trace_id_low"); //$NON-NLS-1$
+            String spanId = event.getContent().getFieldValue(String.class, "span_id"); //$NON-NLS-1$
+            String name = event.getContent().getFieldValue(String.class, "op_name"); //$NON-NLS-1$
+            if (traceId == null || spanId == null) {
+                return;
+            }
+            traceId = Long.toHexString(Long.decode(traceId));
+            spanId = Long.toHexString(Long.decode(spanId));
+            long timestamp = event.getTimestamp().toNanos();
+            fOngoingUstSpans.put(spanId, new SpanSegment(timestamp, timestamp, String.valueOf(name), traceId, spanId, "", "", false)); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+
+        private void handleUstEnd(ITmfEvent event) {
+            String spanId = event.getContent().getFieldValue(String.class, "span_id"); //$NON-NLS-1$
+            if (spanId == null) {
+                return;
+            }
+            SpanSegment start = fOngoingUstSpans.remove(Long.toHexString(Long.decode(spanId)));
+            if (start == null) {
+                // We have not seen the start of this span
+                return;
+            }
+            add(start.getTraceId(), new SpanSegment(start.getStart(), event.getTimestamp().toNanos(), start.getName(), start.getTraceId(), start.getSpanId(), "", "", false)); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+
+        @Override
+        public void handleSuccess() {
+            setTraceRanges(fRanges);
+            super.handleSuccess();
+        }
+
+        @Override
+        public void handleCompleted() {
+            fOngoingUstSpans.clear();
+            super.handleCompleted();
+        }
+
+        @Override
+        public void handleCancel() {
+            fMonitor.setCanceled(true);
+            super.handleCancel();
+        }
+    }
+}
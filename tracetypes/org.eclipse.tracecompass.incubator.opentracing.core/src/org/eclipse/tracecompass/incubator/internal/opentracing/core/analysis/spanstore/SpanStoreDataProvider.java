@@ -0,0 +1,308 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.opentracing.core.analysis.spanstore;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.incubator.internal.opentracing.core.analysis.spanlife.SpanLifeEntryModel;
+import org.eclipse.tracecompass.incubator.internal.opentracing.core.event.IOpenTracingConstants;
+import org.eclipse.tracecompass.internal.tmf.core.model.filters.FetchParametersUtils;
+import org.eclipse.tracecompass.segmentstore.core.ISegment;
+import org.eclipse.tracecompass.segmentstore.core.ISegmentStore;
+import org.eclipse.tracecompass.tmf.core.dataprovider.DataProviderParameterUtils;
+import org.eclipse.tracecompass.tmf.core.model.AbstractTmfTraceDataProvider;
+import org.eclipse.tracecompass.tmf.core.model.CommonStatusMessage;
+import org.eclipse.tracecompass.tmf.core.model.OutputElementStyle;
+import org.eclipse.tracecompass.tmf.core.model.StyleProperties;
+import org.eclipse.tracecompass.tmf.core.model.StyleProperties.SymbolType;
+import org.eclipse.tracecompass.tmf.core.model.annotations.Annotation;
+import org.eclipse.tracecompass.tmf.core.model.annotations.AnnotationCategoriesModel;
+import org.eclipse.tracecompass.tmf.core.model.annotations.AnnotationModel;
+import org.eclipse.tracecompass.tmf.core.model.annotations.IOutputAnnotationProvider;
+import org.eclipse.tracecompass.tmf.core.model.filters.SelectionTimeQueryFilter;
+import org.eclipse.tracecompass.tmf.core.model.timegraph.ITimeGraphArrow;
+import org.eclipse.tracecompass.tmf.core.model.timegraph.ITimeGraphDataProvider;
+import org.eclipse.tracecompass.tmf.core.model.timegraph.ITimeGraphRowModel;
+import org.eclipse.tracecompass.tmf.core.model.timegraph.ITimeGraphState;
+import org.eclipse.tracecompass.tmf.core.model.timegraph.TimeGraphEntryModel;
+import org.eclipse.tracecompass.tmf.core.model.timegraph.TimeGraphModel;
+import org.eclipse.tracecompass.tmf.core.model.timegraph.TimeGraphRowModel;
+import org.eclipse.tracecompass.tmf.core.model.timegraph.TimeGraphState;
+import org.eclipse.tracecompass.tmf.core.model.tree.TmfTreeModel;
+import org.eclipse.tracecompass.tmf.core.response.ITmfResponse.Status;
+import org.eclipse.tracecompass.tmf.core.response.TmfModelResponse;
+import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimestamp;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Data provider that shows the spans of the {@link SpanStoreAnalysis}, with the
+ * same entries as the span life data provider. The tree is built in one pass
+ * on the segment store, the rows come from the spans of the entries, and the
+ * logs are only queried for the tooltips and annotations of the requested
+ * entries and time range.
+ */
+@SuppressWarnings("restriction")
+public class SpanStoreDataProvider extends AbstractTmfTraceDataProvider implements ITimeGraphDataProvider<TimeGraphEntryModel>, IOutputAnnotationProvider {
+
+    /**
+     * Suffix for dataprovider ID
+     */
+    public static final String SUFFIX = ".dataprovider"; //$NON-NLS-1$
+
+    /** The data provider ID */
+    public static final String ID = SpanStoreAnalysis.ID + SUFFIX;
+
+    private static final int MARKER_SIZE = 500;
+    private static final int CANCEL_CHECK_PERIOD = 10000;
+
+    private final SpanStoreAnalysis fAnalysis;
+
+    private @Nullable TmfTreeModel<TimeGraphEntryModel> fTree = null;
+    private long fNextId = 0;
+    /* The span of each span entry, the segments are not kept in memory */
+    private final Map<Long, SpanEntry> fSpans = new HashMap<>();
+    /* The entry of each span, by trace ID then span ID */
+    private final Map<String, Map<String, Long>> fEntryIds = new HashMap<>();
+
+    /**
+     * The entry of a span in the tree, with the IDs needed to find its logs
+     */
+    private static final class SpanEntry {
+        private final TimeGraphEntryModel fEntry;
+        private final String fTraceId;
+        private final String fSpanId;
+
+        public SpanEntry(TimeGraphEntryModel entry, String traceId, String spanId) {
+            fEntry = entry;
+            fTraceId = traceId;
+            fSpanId = spanId;
+        }
+    }
+
+    /**
+     * Constructor
+     *
+     * @param trace
+     *            the trace this provider represents
+     * @param analysis
+     *            the span store analysis
+     */
+    public SpanStoreDataProvider(ITmfTrace trace, SpanStoreAnalysis analysis) {
+        super(trace);
+        fAnalysis = analysis;
+    }
+
+    @Override
+    public String getId() {
+        return ID;
+    }
+
+    @Override
+    public TmfModelResponse<TmfTreeModel<TimeGraphEntryModel>> fetchTree(Map<String, Object> fetchParameters, @Nullable IProgressMonitor monitor) {
+        boolean complete = (monitor == null) ? fAnalysis.waitForCompletion() : fAnalysis.waitForCompletion(monitor);
+        if (monitor != null && monitor.isCanceled()) {
+            return new TmfModelResponse<>(null, Status.CANCELLED, CommonStatusMessage.TASK_CANCELLED);
+        }
+        ISegmentStore<ISegment> store = fAnalysis.getSegmentStore();
+        if (!complete || store == null) {
+            return new TmfModelResponse<>(null, Status.FAILED, CommonStatusMessage.ANALYSIS_INITIALIZATION_FAILED);
+        }
+        TmfTreeModel<TimeGraphEntryModel> tree = getTree(store, monitor);
+        if (tree == null) {
+            return new TmfModelResponse<>(null, Status.CANCELLED, CommonStatusMessage.TASK_CANCELLED);
+        }
+        return new TmfModelResponse<>(tree, Status.COMPLETED, CommonStatusMessage.COMPLETED);
+    }
+
+    private synchronized @Nullable TmfTreeModel<TimeGraphEntryModel> getTree(ISegmentStore<ISegment> store, @Nullable IProgressMonitor monitor) {
+        TmfTreeModel<TimeGraphEntryModel> tree = fTree;
+        if (tree != null) {
+            return tree;
+        }
+        // Group the spans by trace ID, the logs are skipped
+        Map<String, List<SpanSegment>> spansByTrace = new HashMap<>();
+        long nbSegments = 0;
+        for (ISegment segment : store) {
+            if (++nbSegments % CANCEL_CHECK_PERIOD == 0 && monitor != null && monitor.isCanceled()) {
+                return null;
+            }
+            if (segment instanceof SpanSegment) {
+                SpanSegment span = (SpanSegment) segment;
+                spansByTrace.computeIfAbsent(span.getTraceId(), id -> new ArrayList<>()).add(span);
+            }
+        }
+
+        List<TimeGraphEntryModel> entries = new ArrayList<>();
+        long rootId = fNextId++;
+        long start = getTrace().getStartTime().toNanos();
+        long end = Math.max(start, getTrace().getEndTime().toNanos());
+        entries.add(new TimeGraphEntryModel(rootId, -1, Collections.singletonList(String.valueOf(getTrace().getName())), start, end));
+
+        List<List<SpanSegment>> traces = new ArrayList<>(spansByTrace.values());
+        for (List<SpanSegment> spans : traces) {
+            spans.sort(Comparator.comparingLong(SpanSegment::getStart));
+        }
+        traces.sort(Comparator.comparingLong(spans -> spans.get(0).getStart()));
+        for (List<SpanSegment> spans : traces) {
+            String traceId = spans.get(0).getTraceId();
+            long traceEntryId = fNextId++;
+            Map<String, Long> entryIds = new HashMap<>();
+            long traceEnd = Long.MIN_VALUE;
+            long firstId = fNextId;
+            for (SpanSegment span : spans) {
+                entryIds.put(span.getSpanId(), fNextId++);
+                traceEnd = Math.max(traceEnd, span.getEnd());
+            }
+            fEntryIds.put(traceId, entryIds);
+            entries.add(new TimeGraphEntryModel(traceEntryId, rootId, Collections.singletonList(traceId), spans.get(0).getStart(), traceEnd));
+            for (int i = 0; i < spans.size(); i++) {
+                SpanSegment span = spans.get(i);
+                long id = firstId + i;
+                // Spans whose parent is not in the trace are at the root of the trace
+                Long parentId = entryIds.get(span.getParentId());
+                SpanLifeEntryModel entry = new SpanLifeEntryModel(id, parentId == null ? traceEntryId : parentId,
+                        Collections.singletonList(span.getName()), span.getStart(), span.getEnd(), Collections.emptyList(), span.getErrorTag(), span.getProcessName());
+                entries.add(entry);
+                fSpans.put(id, new SpanEntry(entry, traceId, span.getSpanId()));
+            }
+        }
+        tree = new TmfTreeModel<>(Collections.emptyList(), entries);
+        fTree = tree;
+        return tree;
+    }
+
+    @Override
+    public TmfModelResponse<TimeGraphModel> fetchRowModel(Map<String, Object> fetchParameters, @Nullable IProgressMonitor monitor) {
+        SelectionTimeQueryFilter filter = FetchParametersUtils.createSelectionTimeQuery(fetchParameters);
+        if (filter == null) {
+            return new TmfModelResponse<>(null, Status.FAILED, CommonStatusMessage.INCORRECT_QUERY_PARAMETERS);
+        }
+        List<ITimeGraphRowModel> rows = new ArrayList<>();
+        synchronized (this) {
+            for (Long id : filter.getSelectedItems()) {
+                if (monitor != null && monitor.isCanceled()) {
+                    return new TmfModelResponse<>(null, Status.CANCELLED, CommonStatusMessage.TASK_CANCELLED);
+                }
+                List<ITimeGraphState> states = new ArrayList<>();
+                SpanEntry span = fSpans.get(id);
+                TimeGraphEntryModel entry = (span == null) ? null : span.fEntry;
+                if (entry != null && entry.getStartTime() <= filter.getEnd() && entry.getEndTime() >= filter.getStart()) {
+                    states.add(new TimeGraphState(entry.getStartTime(), entry.getEndTime() - entry.getStartTime(), 0, entry.getName()));
+                }
+                rows.add(new TimeGraphRowModel(id, states));
+            }
+        }
+        return new TmfModelResponse<>(new TimeGraphModel(rows), Status.COMPLETED, CommonStatusMessage.COMPLETED);
+    }
+
+    @Override
+    public TmfModelResponse<List<ITimeGraphArrow>> fetchArrows(Map<String, Object> fetchParameters, @Nullable IProgressMonitor monitor) {
+        return new TmfModelResponse<>(null, Status.COMPLETED, CommonStatusMessage.COMPLETED);
+    }
+
+    @Override
+    public TmfModelResponse<Map<String, String>> fetchTooltip(Map<String, Object> fetchParameters, @Nullable IProgressMonitor monitor) {
+        SelectionTimeQueryFilter filter = FetchParametersUtils.createSelectionTimeQuery(fetchParameters);
+        if (filter == null) {
+            return new TmfModelResponse<>(null, Status.FAILED, CommonStatusMessage.INCORRECT_QUERY_PARAMETERS);
+        }
+        SpanEntry span;
+        synchronized (this) {
+            span = (filter.getSelectedItems().size() == 1) ? fSpans.get(filter.getSelectedItems().iterator().next()) : null;
+        }
+        if (span == null) {
+            return new TmfModelResponse<>(null, Status.COMPLETED, CommonStatusMessage.COMPLETED);
+        }
+        long[] times = filter.getTimesRequested();
+        long hoverTime = (times.length > 1) ? times[1] : filter.getStart();
+        long deviationAccepted = (filter.getEnd() - filter.getStart()) / MARKER_SIZE;
+        Map<String, String> retMap = new HashMap<>();
+        for (SpanLogSegment log : fAnalysis.getLogs(span.fTraceId, hoverTime - deviationAccepted, hoverTime + deviationAccepted)) {
+            if (log.getSpanId().equals(span.fSpanId)) {
+                retMap.put("log timestamp", TmfTimestamp.fromNanos(log.getStart()).toString()); //$NON-NLS-1$
+                retMap.putAll(log.getFields());
+                break;
+            }
+        }
+        return new TmfModelResponse<>(retMap, Status.COMPLETED, CommonStatusMessage.COMPLETED);
+    }
+
+    @Override
+    public TmfModelResponse<AnnotationCategoriesModel> fetchAnnotationCategories(Map<String, Object> fetchParameters, @Nullable IProgressMonitor monitor) {
+        return new TmfModelResponse<>(new AnnotationCategoriesModel(Collections.singletonList(IOpenTracingConstants.LOGS)), Status.COMPLETED, CommonStatusMessage.COMPLETED);
+    }
+
+    @Override
+    public TmfModelResponse<AnnotationModel> fetchAnnotations(Map<String, Object> fetchParameters, @Nullable IProgressMonitor monitor) {
+        SelectionTimeQueryFilter filter = FetchParametersUtils.createSelectionTimeQuery(fetchParameters);
+        if (filter == null) {
+            return new TmfModelResponse<>(null, Status.FAILED, CommonStatusMessage.INCORRECT_QUERY_PARAMETERS);
+        }
+        Set<String> selectedCategories = DataProviderParameterUtils.extractSelectedCategories(fetchParameters);
+        if (selectedCategories != null && !selectedCategories.contains(IOpenTracingConstants.LOGS)) {
+            return new TmfModelResponse<>(null, Status.COMPLETED, CommonStatusMessage.COMPLETED);
+        }
+        // The selected spans, by trace ID
+        Map<String, Map<String, Long>> selected = new HashMap<>();
+        synchronized (this) {
+            for (Long id : filter.getSelectedItems()) {
+                SpanEntry span = fSpans.get(id);
+                if (span != null) {
+                    selected.computeIfAbsent(span.fTraceId, traceId -> new HashMap<>()).put(span.fSpanId, id);
+                }
+            }
+        }
+        OutputElementStyle style = new OutputElementStyle(null, ImmutableMap.of(
+                StyleProperties.COLOR, "#7f0000", //$NON-NLS-1$
+                StyleProperties.VERTICAL_ALIGN, "top", //$NON-NLS-1$
+                StyleProperties.HEIGHT, 0.5f,
+                StyleProperties.SYMBOL_TYPE, SymbolType.INVERTED_TRIANGLE));
+        List<Annotation> annotations = new ArrayList<>();
+        for (Map.Entry<String, Map<String, Long>> trace : selected.entrySet()) {
+            if (monitor != null && monitor.isCanceled()) {
+                return new TmfModelResponse<>(null, Status.CANCELLED, CommonStatusMessage.TASK_CANCELLED);
+            }
+            for (SpanLogSegment log : fAnalysis.getLogs(trace.getKey(), filter.getStart(), filter.getEnd())) {
+                Long entryId = trace.getValue().get(log.getSpanId());
+                if (entryId != null) {
+                    annotations.add(new Annotation(log.getStart(), 0, entryId, "", style)); //$NON-NLS-1$
+                }
+            }
+        }
+        return new TmfModelResponse<>(new AnnotationModel(Collections.singletonMap(IOpenTracingConstants.LOGS, annotations)), Status.COMPLETED, CommonStatusMessage.COMPLETED);
+    }
+
+    /**
+     * Get the entry of a span
+     *
+     * @param traceId
+     *            The trace ID of the span
+     * @param spanId
+     *            The ID of the span
+     * @return The ID of the entry of the span, or null if the tree was not
+     *         fetched or there is no such span
+     */
+    public synchronized @Nullable Long getEntryId(String traceId, String spanId) {
+        Map<String, Long> entryIds = fEntryIds.get(traceId);
+        return (entryIds == null) ? null : entryIds.get(spanId);
+    }
+}
@@ -11,14 +11,15 @@
 
 package org.eclipse.tracecompass.incubator.internal.opentracing.core.trace;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URI;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
-import java.time.Instant;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Predicate;
 
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.ClientBuilder;
@@ -28,7 +29,9 @@ import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriBuilder;
 
-import org.eclipse.tracecompass.incubator.internal.opentracing.core.event.IOpenTracingConstants;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.tracecompass.incubator.internal.opentracing.core.trace.JaegerTracesReader.TraceSummary;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonArray;
@@ -44,21 +47,17 @@ public class JaegerRestUtils {
     private static final String SERVICES_ENDPOINT = "services"; //$NON-NLS-1$
     private static final String SERVICES_DATA_KEY = "data"; //$NON-NLS-1$
     private static final String TRACES_ENDPOINT = "traces"; //$NON-NLS-1$
-    private static final String NANOSECONDS_PADDING = "000"; //$NON-NLS-1$
-    private static final long HOUR_TO_SEC = 3600L;
+
+    /**
+     * Default duration of the time window of each page of traces fetched, in
+     * microseconds
+     */
+    public static final long DEFAULT_PAGE_DURATION = 15 * 60 * 1000000L;
 
     /*
-     * Default and non-default query values
+     * Lookback of the queries with explicit start and end times
      */
-    private static final String DEFAULT_LIMIT = "20"; //$NON-NLS-1$
-    private static final String DEFAULT_SERVICE = "jaeger-query"; //$NON-NLS-1$
-    private static final String DEFAULT_BASE_URL = "http://localhost:16686/api"; //$NON-NLS-1$
-    private static final String DEFAULT_LOOKBACK = "1h"; //$NON-NLS-1$
-    private static final String LOOKBACK_1_HOUR = "1h"; //$NON-NLS-1$
-    private static final String LOOKBACK_2_HOUR = "2h"; //$NON-NLS-1$
-    private static final String LOOKBACK_3_HOUR = "3h"; //$NON-NLS-1$
-    private static final String LOOKBACK_6_HOUR = "6h"; //$NON-NLS-1$
-    private static final String LOOKBACK_12_HOUR = "12h"; //$NON-NLS-1$
+    private static final String LOOKBACK_CUSTOM = "custom"; //$NON-NLS-1$
 
 
     /**
@@ -146,15 +145,94 @@ public class JaegerRestUtils {
     }
 
     /**
-     * Fetch the traces from Jaeger
+     * Fetch the traces from Jaeger and write each of them to its own file as
+     * they are received. The time range is queried by pages of
+     * <code>pageDuration</code>, from the most recent one, so that neither the
+     * server nor this method ever hold more than a page of traces, and the
+     * response of each page is parsed as it is downloaded, see
+     * {@link JaegerTracesReader}. A trace with spans in many pages is only
+     * reported once.
      *
-     * @param url
-     *            The complete URL (built from buildTracesUrl)
-     * @return A JSon string that contains all the traces or null if there is a
-     *         problem with the connection
+     * @param baseUrl
+     *            Base URL of Jaeger API
+     * @param service
+     *            Service name
+     * @param startTime
+     *            Search start time, in microseconds
+     * @param endTime
+     *            Search end time, in microseconds
+     * @param pageDuration
+     *            Duration of the time window of each page, in microseconds
+     * @param limit
+     *            Limit on the total number of traces fetched
+     * @param maxDuration
+     *            Trace maximum duration
+     * @param minDuration
+     *            Trace minimum duration
+     * @param tags
+     *            Span tags filter
+     * @param folderPath
+     *            Path of the folder where the trace files are written
+     * @param traceConsumer
+     *            Called for each new trace once its file is written. Returning
+     *            false stops the fetch.
+     * @param monitor
+     *            The progress monitor, one unit of work per page. Canceling
+     *            it stops the fetch like the trace consumer does.
+     * @return The number of traces fetched, or -1 if there is a problem with
+     *         the connection or the response
      */
-    public static String fetchJaegerTraces(String url) {
-        return jaegerGet(url);
+    public static int fetchJaegerTraces(String baseUrl, String service, long startTime, long endTime, long pageDuration, int limit,
+            String maxDuration, String minDuration, String tags, String folderPath, Predicate<TraceSummary> traceConsumer, IProgressMonitor monitor) {
+        if (pageDuration <= 0) {
+            throw new IllegalArgumentException("The page duration must be positive"); //$NON-NLS-1$
+        }
+        long nbPages = endTime < startTime ? 0 : (endTime - startTime) / (pageDuration + 1) + 1;
+        SubMonitor subMonitor = SubMonitor.convert(monitor, (int) Math.min(Integer.MAX_VALUE, nbPages));
+        JaegerTracesReader tracesReader = new JaegerTracesReader(folderPath);
+        Set<String> traceIds = new HashSet<>();
+        boolean[] stopped = { false };
+        long pageEnd = endTime;
+        while (pageEnd >= startTime && traceIds.size() < limit && !stopped[0] && !subMonitor.isCanceled()) {
+            long pageStart = Math.max(startTime, pageEnd - pageDuration);
+            String url = buildTracesUrl(baseUrl, Long.toString(pageEnd), Integer.toString(limit - traceIds.size()), LOOKBACK_CUSTOM,
+                    maxDuration, minDuration, service, Long.toString(pageStart), tags);
+            boolean success = jaegerGetStream(url, tracesReader, summary -> {
+                if (traceIds.add(summary.getTraceId())) {
+                    stopped[0] = !traceConsumer.test(summary) || traceIds.size() >= limit;
+                }
+                return !stopped[0] && !subMonitor.isCanceled();
+            });
+            if (!success) {
+                return -1;
+            }
+            subMonitor.worked(1);
+            // The bounds are inclusive, the next page ends right before this one
+            pageEnd = pageStart - 1;
+        }
+        return traceIds.size();
+    }
+
+    private static boolean jaegerGetStream(String url, JaegerTracesReader tracesReader, Predicate<TraceSummary> traceConsumer) {
+        Client client = ClientBuilder.newClient();
+        try {
+            WebTarget resource = client.target(url);
+            Builder request = resource.request();
+            request.accept(MediaType.APPLICATION_JSON);
+            Response response = request.get();
+            if (Response.Status.fromStatusCode(response.getStatus()) != Response.Status.OK) {
+                response.close();
+                return false;
+            }
+            try (InputStream inputStream = response.readEntity(InputStream.class)) {
+                tracesReader.read(inputStream, traceConsumer);
+            }
+            return true;
+        } catch (IOException | RuntimeException e) {
+            return false;
+        } finally {
+            client.close();
+        }
     }
 
     private static String jaegerGet(String url) {
@@ -187,79 +265,4 @@ public class JaegerRestUtils {
             return false;
         }
     }
-
-    /**
-     * Fetch the traces from Jaeger
-     *
-     * @param parameters
-     *            Map of parameters used when querying the Jaeger Query Service
-     *            via HTTP JSON API
-     * @return A JSON string that contains all the traces or null if there is a
-     *         problem with the connection
-     */
-    public static String fetchJaegerTraces(Map<String, Object> parameters) {
-        Object targetUrlObject = parameters.get("targetUrl"); //$NON-NLS-1$
-        String targetUrlText = targetUrlObject != null ? (String) targetUrlObject : DEFAULT_BASE_URL;
-        Object serviceObject = parameters.get(SERVICE_NAME);
-        String service = serviceObject != null ? (String) serviceObject : DEFAULT_SERVICE;
-        Object tagsObject = parameters.get(TAGS);
-        String tags = tagsObject != null ? (String) tagsObject : ""; //$NON-NLS-1$
-        Object limitResultsObject = parameters.get(NB_TRACES_LIMIT);
-        String limitResults = limitResultsObject != null ? (String) limitResultsObject : DEFAULT_LIMIT;
-        Object lookBackObject = parameters.get(LOOKBACK);
-        String lookBackText = lookBackObject != null ? (String) lookBackObject : DEFAULT_LOOKBACK;
-        long lookBack = HOUR_TO_SEC;
-        switch (lookBackText) {
-        case LOOKBACK_1_HOUR:
-            lookBack = HOUR_TO_SEC;
-            break;
-        case LOOKBACK_2_HOUR:
-            lookBack = HOUR_TO_SEC * 2;
-            break;
-        case LOOKBACK_3_HOUR:
-            lookBack = HOUR_TO_SEC * 3;
-            break;
-        case LOOKBACK_6_HOUR:
-            lookBack = HOUR_TO_SEC * 6;
-            break;
-        case LOOKBACK_12_HOUR:
-            lookBack = HOUR_TO_SEC * 12;
-            break;
-        default:
-            lookBack = HOUR_TO_SEC;
-            break;
-        }
-        Object maxDurationObject = parameters.get(MAX_DURATION);
-        String targetMaxDurationText = maxDurationObject != null ? (String) maxDurationObject : ""; //$NON-NLS-1$
-        Object minDurationObject = parameters.get(MIN_DURATION);
-        String targetMinDurationText = minDurationObject != null ? (String) minDurationObject : ""; //$NON-NLS-1$
-
-        long startTime = Instant.now().minusSeconds(lookBack).toEpochMilli();
-        long endTime = Instant.now().toEpochMilli();
-
-        String requestUrl = JaegerRestUtils.buildTracesUrl(targetUrlText, Long.toString(endTime) + NANOSECONDS_PADDING, limitResults, lookBackText,
-                targetMaxDurationText, targetMinDurationText, service, Long.toString(startTime) + NANOSECONDS_PADDING, tags);
-        return JaegerRestUtils.fetchJaegerTraces(requestUrl);
-    }
-
-    /**
-     * Get a list of traceIDs from a JSON Object containing all traces
-     *
-     * @param tracesObject
-     *            a {@link JsonObject} hat contains all the traces
-     * @return a list of traceIDs identified in the tracesObject. If the list is
-     *         empty, no traceIDs have been found
-     */
-    public static List<String> getTraceIDs(JsonObject tracesObject) {
-        JsonArray tracesArray = tracesObject.get(SERVICES_DATA_KEY).getAsJsonArray();
-        // Get all traceIDs and put in a list
-        List<String> traceIDs = new ArrayList<>();
-        if (tracesArray.size() > 0) {
-            for (int i = 0; i < tracesArray.size(); i++) {
-                JsonObject trace = tracesArray.get(i).getAsJsonObject();
-                traceIDs.add(trace.get(IOpenTracingConstants.TRACE_ID).getAsString());
-            }
-        }
-        return traceIDs;
-    }
 }
@@ -0,0 +1,266 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.opentracing.core.trace;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Streaming reader of Jaeger API trace responses. The traces of the response
+ * are written one by one to their own trace file as they are read, span by
+ * span, so only one span is kept in memory at a time instead of the whole
+ * response.
+ */
+public class JaegerTracesReader {
+
+    private static final String DATA_KEY = "data"; //$NON-NLS-1$
+    private static final String TRACE_ID = "traceID"; //$NON-NLS-1$
+    private static final String SPANS_KEY = "spans"; //$NON-NLS-1$
+    private static final String PROCESSES_KEY = "processes"; //$NON-NLS-1$
+    private static final String SERVICE_KEY = "serviceName"; //$NON-NLS-1$
+    private static final String SPAN_NAME_KEY = "operationName"; //$NON-NLS-1$
+    private static final String TOTAL_KEY = "total"; //$NON-NLS-1$
+    private static final String LIMIT_KEY = "limit"; //$NON-NLS-1$
+    private static final String OFFSET_KEY = "offset"; //$NON-NLS-1$
+    private static final String ERRORS_KEY = "errors"; //$NON-NLS-1$
+    private static final String TRACE_EXTENSION = ".json"; //$NON-NLS-1$
+    private static final String PARTIAL_EXTENSION = ".part"; //$NON-NLS-1$
+    private static final String UNNAMED_PREFIX = "trace-"; //$NON-NLS-1$
+    /** Jaeger trace IDs are 64 or 128 bit integers in hexadecimal */
+    private static final Pattern TRACE_ID_PATTERN = Pattern.compile("[0-9a-fA-F]{1,32}"); //$NON-NLS-1$
+
+    /**
+     * Summary of a trace written by the reader
+     */
+    public static class TraceSummary {
+        private final String fTraceId;
+        private final String fFileName;
+        private final @Nullable String fFirstSpanName;
+        private final int fNbSpans;
+        private final List<String> fServices;
+
+        private TraceSummary(String traceId, String fileName, @Nullable String firstSpanName, int nbSpans, List<String> services) {
+            fTraceId = traceId;
+            fFileName = fileName;
+            fFirstSpanName = firstSpanName;
+            fNbSpans = nbSpans;
+            fServices = services;
+        }
+
+        /**
+         * Get the trace ID
+         *
+         * @return The trace ID
+         */
+        public String getTraceId() {
+            return fTraceId;
+        }
+
+        /**
+         * Get the name of the file the trace was written to, relative to the
+         * folder of the reader
+         *
+         * @return The file name
+         */
+        public String getFileName() {
+            return fFileName;
+        }
+
+        /**
+         * Get the operation name of the first span of the trace
+         *
+         * @return The name of the first span, or null if the trace has no span
+         */
+        public @Nullable String getFirstSpanName() {
+            return fFirstSpanName;
+        }
+
+        /**
+         * Get the number of spans in the trace
+         *
+         * @return The number of spans
+         */
+        public int getNbSpans() {
+            return fNbSpans;
+        }
+
+        /**
+         * Get the names of the services that participate in the trace
+         *
+         * @return The service names
+         */
+        public List<String> getServices() {
+            return fServices;
+        }
+    }
+
+    private final File fFolder;
+    private final Gson fGson = new Gson();
+    private int fPartialCount = 0;
+
+    /**
+     * Constructor
+     *
+     * @param folderPath
+     *            Path of the folder where the trace files are written, it is
+     *            created if it does not exist
+     */
+    public JaegerTracesReader(String folderPath) {
+        fFolder = new File(folderPath);
+        fFolder.mkdirs();
+    }
+
+    /**
+     * Read a Jaeger traces response and write each of its traces to its own
+     * file, named after the trace ID. A trace whose ID is not hexadecimal is
+     * named after its position in the responses of the reader instead, so the
+     * response cannot choose the path of the file. A trace file that already
+     * exists is replaced.
+     *
+     * @param inputStream
+     *            The stream of the response, it is closed by this method
+     * @param traceConsumer
+     *            Called for each trace once its file is complete. Returning
+     *            false stops the reading.
+     * @return The number of traces written
+     * @throws IOException
+     *             If the stream cannot be read or is not a valid Jaeger
+     *             response, or if a trace file cannot be written
+     */
+    public int read(InputStream inputStream, Predicate<TraceSummary> traceConsumer) throws IOException {
+        int count = 0;
+        try (JsonReader reader = new JsonReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (!DATA_KEY.equals(reader.nextName()) || reader.peek() != JsonToken.BEGIN_ARRAY) {
+                    reader.skipValue();
+                    continue;
+                }
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    TraceSummary summary = readTrace(reader);
+                    count++;
+                    if (!traceConsumer.test(summary)) {
+                        return count;
+                    }
+                }
+                reader.endArray();
+            }
+            reader.endObject();
+        } catch (IllegalStateException | NumberFormatException e) {
+            throw new IOException(e);
+        }
+        return count;
+    }
+
+    private TraceSummary readTrace(JsonReader reader) throws IOException {
+        File partial = new File(fFolder, (fPartialCount++) + PARTIAL_EXTENSION);
+        String traceId = null;
+        String firstSpanName = null;
+        int nbSpans = 0;
+        List<String> services = Collections.emptyList();
+        try (Writer fileWriter = Files.newBufferedWriter(partial.toPath(), StandardCharsets.UTF_8);
+                JsonWriter writer = new JsonWriter(fileWriter)) {
+            writer.beginObject().name(DATA_KEY).beginArray();
+            writer.beginObject();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                writer.name(name);
+                if (SPANS_KEY.equals(name) && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                    reader.beginArray();
+                    writer.beginArray();
+                    while (reader.hasNext()) {
+                        JsonElement span = JsonParser.parseReader(reader);
+                        if (nbSpans == 0 && span.isJsonObject()) {
+                            JsonObject spanObject = span.getAsJsonObject();
+                            firstSpanName = getString(spanObject, SPAN_NAME_KEY);
+                            if (traceId == null) {
+                                traceId = getString(spanObject, TRACE_ID);
+                            }
+                        }
+                        nbSpans++;
+                        fGson.toJson(span, writer);
+                    }
+                    reader.endArray();
+                    writer.endArray();
+                } else {
+                    JsonElement value = JsonParser.parseReader(reader);
+                    if (TRACE_ID.equals(name) && value.isJsonPrimitive()) {
+                        traceId = value.getAsString();
+                    } else if (PROCESSES_KEY.equals(name) && value.isJsonObject()) {
+                        services = getServices(value.getAsJsonObject());
+                    }
+                    fGson.toJson(value, writer);
+                }
+            }
+            reader.endObject();
+            writer.endObject();
+            writer.endArray();
+            writer.name(TOTAL_KEY).value(0);
+            writer.name(LIMIT_KEY).value(0);
+            writer.name(OFFSET_KEY).value(0);
+            writer.name(ERRORS_KEY).nullValue();
+            writer.endObject();
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(partial.toPath());
+            throw e;
+        }
+        String index = partial.getName().substring(0, partial.getName().length() - PARTIAL_EXTENSION.length());
+        if (traceId == null) {
+            traceId = index;
+        }
+        String fileName = (TRACE_ID_PATTERN.matcher(traceId).matches() ? traceId : UNNAMED_PREFIX + index) + TRACE_EXTENSION;
+        Files.move(partial.toPath(), new File(fFolder, fileName).toPath(), StandardCopyOption.REPLACE_EXISTING);
+        return new TraceSummary(traceId, fileName, firstSpanName, nbSpans, services);
+    }
+
+    private static @Nullable String getString(JsonObject object, String key) {
+        JsonElement element = object.get(key);
+        return (element != null && element.isJsonPrimitive()) ? element.getAsString() : null;
+    }
+
+    private static List<String> getServices(JsonObject processes) {
+        List<String> services = new ArrayList<>(processes.size());
+        for (Entry<String, JsonElement> process : processes.entrySet()) {
+            if (process.getValue().isJsonObject()) {
+                String service = getString(process.getValue().getAsJsonObject(), SERVICE_KEY);
+                if (service != null) {
+                    services.add(service);
+                }
+            }
+        }
+        return services;
+    }
+}
@@ -14,6 +14,8 @@ package org.eclipse.tracecompass.incubator.internal.opentracing.core.trace;
 import java.io.File;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.List;
 import java.util.function.BiPredicate;
 
@@ -103,4 +105,44 @@ public class SplitImportTracesOperation {
         return splitAndImportWithoutIssues;
     }
 
+    /**
+     * Import trace files already written by a {@link JaegerTracesReader}, by
+     * moving the selected ones to their destination folder
+     *
+     * @param stagingFolderPath
+     *            Absolute path of the folder where the traces were written
+     * @param fileNames
+     *            Names of the trace files to import
+     * @param newFolderPath
+     *            Absolute path indicating where the imported traces will be
+     *            stored
+     * @param predicate
+     *            Function that should be executed for each jaeger trace after
+     *            it has been moved
+     * @return true if the operation has not found any issue, false if an
+     *         exception arisen or the predicate failed
+     */
+    public static boolean importTraces(String stagingFolderPath, List<String> fileNames, String newFolderPath, BiPredicate<String, String> predicate) {
+        boolean importWithoutIssues = true;
+
+        new File(newFolderPath).mkdir();
+
+        for (String fileName : fileNames) {
+            File source = new File(stagingFolderPath, fileName);
+            File subTrace = new File(newFolderPath + '/' + fileName);
+            try {
+                Files.move(source.toPath(), subTrace.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+                /*
+                 * Handle the file that has just been moved. Usually it is an
+                 * import action.
+                 */
+                importWithoutIssues = predicate.test(newFolderPath, fileName) && importWithoutIssues;
+            } catch (IOException e) {
+                importWithoutIssues = false;
+            }
+        }
+        return importWithoutIssues;
+    }
+
 }
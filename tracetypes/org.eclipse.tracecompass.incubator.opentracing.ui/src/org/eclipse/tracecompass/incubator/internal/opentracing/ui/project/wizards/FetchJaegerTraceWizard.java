@@ -30,6 +30,7 @@ public class FetchJaegerTraceWizard extends Wizard implements IImportWizard {
     public void init(IWorkbench workbench, IStructuredSelection selection) {
         fSelection = selection;
         setWindowTitle(Messages.FetchJaegerTraceWizard_wizardTitle);
+        setNeedsProgressMonitor(true);
     }
 
     @Override
@@ -11,11 +11,19 @@
 
 package org.eclipse.tracecompass.incubator.internal.opentracing.ui.project.wizards;
 
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Files;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+
 import org.apache.commons.lang3.StringUtils;
 import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.jface.layout.GridDataFactory;
 import org.eclipse.jface.layout.GridLayoutFactory;
 import org.eclipse.jface.viewers.IStructuredSelection;
@@ -30,6 +38,7 @@ import org.eclipse.swt.events.SelectionEvent;
 import org.eclipse.swt.widgets.Button;
 import org.eclipse.swt.widgets.Combo;
 import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Group;
 import org.eclipse.swt.widgets.Label;
 import org.eclipse.swt.widgets.Table;
@@ -37,12 +46,11 @@ import org.eclipse.swt.widgets.TableColumn;
 import org.eclipse.swt.widgets.TableItem;
 import org.eclipse.swt.widgets.Text;
 import org.eclipse.tracecompass.incubator.internal.opentracing.core.trace.JaegerRestUtils;
+import org.eclipse.tracecompass.incubator.internal.opentracing.core.trace.JaegerTracesReader.TraceSummary;
 import org.eclipse.tracecompass.incubator.internal.opentracing.core.trace.SplitImportTracesOperation;
 import org.eclipse.tracecompass.incubator.internal.opentracing.ui.project.handlers.SplitTracesHandler;
 import org.eclipse.tracecompass.tmf.ui.project.model.TmfTraceFolder;
 
-import com.google.gson.Gson;
-import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 
 /**
@@ -59,19 +67,17 @@ public class FetchJaegerTracesWizardPage extends WizardPage {
     private static final String[] DEFAULT_LOOKBACKS = {"1h", "2h", "3h", "6h", "12h", "1d", "2d"};
     private static final Long[] DEFAULT_LOOKBACKS_SECONDS = {3600L, 7200L, 10800L, 21600L, 43200L, 86400L, 172800L};
 
-    private static final String NANOSECONDS_PADDING = "000"; //$NON-NLS-1$
-    private static final String JAEGER_DATA_KEY = "data"; //$NON-NLS-1$
-    private static final String JAEGER_SPANS_KEY = "spans"; //$NON-NLS-1$
-    private static final String JAEGER_TRACE_ID_KEY = "traceID"; //$NON-NLS-1$
-    private static final String JAEGER_SPAN_NAME_KEY = "operationName"; //$NON-NLS-1$
-    private static final String JAEGER_PROCESSES_KEY = "processes"; //$NON-NLS-1$
-    private static final String JAEGER_SERVICE_KEY = "serviceName"; //$NON-NLS-1$
+    private static final long MILLISECONDS_TO_MICROSECONDS = 1000L;
+    private static final String STAGING_FOLDER_PREFIX = "jaeger"; //$NON-NLS-1$
 
 
     private Table fTracesTable;
     private String fTraceFolderName;
     private TmfTraceFolder fTmfTraceFolder;
-    private JsonObject fJaegerJsonTrace;
+    /** Folder where the fetched traces are written until they are imported */
+    private File fStagingFolder;
+    /** File name of the fetched traces, by trace ID */
+    private final Map<String, String> fFetchedTraces = new LinkedHashMap<>();
 
     /**
      * Constructor.
@@ -228,39 +234,65 @@ public class FetchJaegerTracesWizardPage extends WizardPage {
                 long endTime = Instant.now().toEpochMilli();
                 long startTime = Instant.now().minusSeconds(DEFAULT_LOOKBACKS_SECONDS[lookbackCombo.indexOf(lookbackCombo.getText())]).toEpochMilli();
                 String tags = buildTagsString(targetTagsText.getText());
-                String requestUrl = JaegerRestUtils.buildTracesUrl(targetUrlText.getText(), Long.toString(endTime) + NANOSECONDS_PADDING, traceNumberLimitText.getText(), lookbackCombo.getText(),
-                        targetMaxDurationText.getText(), targetMinDurationText.getText(), serviceCombo.getText(), Long.toString(startTime) + NANOSECONDS_PADDING, tags);
-                String jaegerTraces = JaegerRestUtils.fetchJaegerTraces(requestUrl);
-                if (jaegerTraces == null) {
+                int limit;
+                try {
+                    limit = Integer.parseInt(traceNumberLimitText.getText());
+                } catch (NumberFormatException ex) {
+                    limit = Integer.parseInt(DEFAULT_LIMIT);
+                }
+                fTracesTable.removeAll();
+                fFetchedTraces.clear();
+                deleteStagingFolder();
+                try {
+                    fStagingFolder = Files.createTempDirectory(STAGING_FOLDER_PREFIX).toFile();
+                } catch (IOException ex) {
                     setPageComplete(false);
                     setErrorMessage(Messages.FetchJaegerTracesWizardPage_errorFetchTraces);
                     return;
                 }
-                Gson gson = new Gson();
-                JsonObject tracesObject = gson.fromJson(jaegerTraces, JsonObject.class);
-                JsonArray tracesArray = tracesObject.get(JAEGER_DATA_KEY).getAsJsonArray();
-                fTracesTable.removeAll();
-                tracesInfoGroup.setText(Messages.FetchJaegerTracesWizardPage_tracesGroup + " ("+ tracesArray.size() + ')'); //$NON-NLS-1$
-                if (tracesArray.size() > 0) {
-                    for (int i = 0; i < tracesArray.size(); i++) {
-                        TableItem traceItem = new TableItem(fTracesTable, SWT.NONE);
-                        JsonObject trace = tracesArray.get(i).getAsJsonObject();
-                        JsonArray spans = trace.get(JAEGER_SPANS_KEY).getAsJsonArray();
-                        traceItem.setText(0, spans.get(0).getAsJsonObject().get(JAEGER_SPAN_NAME_KEY).getAsString());
-                        traceItem.setText(1, Integer.toString(spans.size()));
-                        traceItem.setText(2, StringUtils.join(fetchTraceServices(trace), ", ")); //$NON-NLS-1$
-                        traceItem.setText(3, trace.get(JAEGER_TRACE_ID_KEY).getAsString());
-                        traceItem.setChecked(true);
-                        for(TableColumn column : fTracesTable.getColumns()) {
-                            column.pack();
-                        }
-                    }
-                    fJaegerJsonTrace = tracesObject;
-                    updatePageCompletion();
-                } else {
-                    setPageComplete(false);
-                    setErrorMessage(Messages.FetchJaegerTracesWizardPage_errorNoTracesFound);
+                String baseUrl = targetUrlText.getText();
+                String service = serviceCombo.getText();
+                String maxDuration = targetMaxDurationText.getText();
+                String minDuration = targetMinDurationText.getText();
+                String folderPath = fStagingFolder.getAbsolutePath();
+                int nbTracesLimit = limit;
+                Display display = fTracesTable.getDisplay();
+                int[] nbTraces = { -1 };
+                try {
+                    // Fetch in the background, the traces are added to the table as they are received
+                    getContainer().run(true, true, monitor -> {
+                        SubMonitor subMonitor = SubMonitor.convert(monitor, Messages.FetchJaegerTracesWizardPage_fetchingTraces, 1);
+                        nbTraces[0] = JaegerRestUtils.fetchJaegerTraces(baseUrl, service,
+                                startTime * MILLISECONDS_TO_MICROSECONDS, endTime * MILLISECONDS_TO_MICROSECONDS, JaegerRestUtils.DEFAULT_PAGE_DURATION, nbTracesLimit,
+                                maxDuration, minDuration, tags, folderPath, summary -> {
+                                    display.asyncExec(() -> addTrace(summary));
+                                    return true;
+                                }, subMonitor);
+                    });
+                } catch (InvocationTargetException | InterruptedException ex) {
+                    nbTraces[0] = -1;
                 }
+                // Runs after the traces received are added to the table
+                display.asyncExec(() -> {
+                    if (fTracesTable.isDisposed()) {
+                        return;
+                    }
+                    if (nbTraces[0] < 0) {
+                        setPageComplete(false);
+                        setErrorMessage(Messages.FetchJaegerTracesWizardPage_errorFetchTraces);
+                        return;
+                    }
+                    for (TableColumn column : fTracesTable.getColumns()) {
+                        column.pack();
+                    }
+                    tracesInfoGroup.setText(Messages.FetchJaegerTracesWizardPage_tracesGroup + " (" + fFetchedTraces.size() + ')'); //$NON-NLS-1$
+                    if (!fFetchedTraces.isEmpty()) {
+                        updatePageCompletion();
+                    } else {
+                        setPageComplete(false);
+                        setErrorMessage(Messages.FetchJaegerTracesWizardPage_errorNoTracesFound);
+                    }
+                });
             }
         });
 
@@ -320,6 +352,20 @@ public class FetchJaegerTracesWizardPage extends WizardPage {
         setControl(composite);
     }
 
+    private void addTrace(TraceSummary summary) {
+        if (fTracesTable.isDisposed()) {
+            return;
+        }
+        TableItem traceItem = new TableItem(fTracesTable, SWT.NONE);
+        String firstSpanName = summary.getFirstSpanName();
+        traceItem.setText(0, firstSpanName != null ? firstSpanName : ""); //$NON-NLS-1$
+        traceItem.setText(1, Integer.toString(summary.getNbSpans()));
+        traceItem.setText(2, StringUtils.join(summary.getServices(), ", ")); //$NON-NLS-1$
+        traceItem.setText(3, summary.getTraceId());
+        traceItem.setChecked(true);
+        fFetchedTraces.put(summary.getTraceId(), summary.getFileName());
+    }
+
     /**
      * Perform finish on this page. Import the selected traces
      *
@@ -332,7 +378,14 @@ public class FetchJaegerTracesWizardPage extends WizardPage {
             IPath destinationFolderPath = fTmfTraceFolder.getPath().append(fTraceFolderName);
             String destinationSubPath = destinationFolderPath.makeRelativeTo(tracesFolder.getPath()).toOSString();
             String newFolderPath = tracesFolder.getLocation().getPath() + destinationSubPath;
-            SplitImportTracesOperation.splitAndImport(fJaegerJsonTrace, checkedTraceIds,
+            List<String> checkedFileNames = new ArrayList<>();
+            for (String traceId : checkedTraceIds) {
+                String fileName = fFetchedTraces.get(traceId);
+                if (fileName != null) {
+                    checkedFileNames.add(fileName);
+                }
+            }
+            SplitImportTracesOperation.importTraces(fStagingFolder.getAbsolutePath(), checkedFileNames,
                     newFolderPath, (tFolder, tFile) -> SplitTracesHandler.refreshAndSetTraceType(tFolder, tFile));
             return true;
         }
@@ -352,7 +405,7 @@ public class FetchJaegerTracesWizardPage extends WizardPage {
 
     private void updatePageCompletion() {
         setErrorMessage(null);
-        if (fJaegerJsonTrace == null || fJaegerJsonTrace.get(JAEGER_DATA_KEY).getAsJsonArray().size() == 0) {
+        if (fFetchedTraces.isEmpty()) {
             setPageComplete(false);
             return;
         }
@@ -386,12 +439,23 @@ public class FetchJaegerTracesWizardPage extends WizardPage {
         return tags;
     }
 
-    private static String[] fetchTraceServices(JsonObject trace) {
-        JsonObject servicesArray = trace.get(JAEGER_PROCESSES_KEY).getAsJsonObject();
-        String[] services = new String[servicesArray.size()];
-        for (int i = 0; i < servicesArray.size(); i++) {
-            services[i] = servicesArray.get("p" + (i + 1)).getAsJsonObject().get(JAEGER_SERVICE_KEY).getAsString(); //$NON-NLS-1$
+    @Override
+    public void dispose() {
+        deleteStagingFolder();
+        super.dispose();
+    }
+
+    private void deleteStagingFolder() {
+        File stagingFolder = fStagingFolder;
+        if (stagingFolder != null) {
+            File[] files = stagingFolder.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    file.delete();
+                }
+            }
+            stagingFolder.delete();
+            fStagingFolder = null;
         }
-        return services;
     }
 }
@@ -22,6 +22,7 @@ public class Messages extends NLS {
     public static String FetchJaegerTracesWizardPage_apiBaseUrlLabel;
     public static String FetchJaegerTracesWizardPage_deselectAllButton;
     public static String FetchJaegerTracesWizardPage_fetchJaegerShellTitle;
+    public static String FetchJaegerTracesWizardPage_fetchingTraces;
     public static String FetchJaegerTracesWizardPage_jaegerConfigGroup;
     public static String FetchJaegerTracesWizardPage_jaegerFetchButton;
     public static String FetchJaegerTracesWizardPage_lookbackLabel;
@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.otf2.core.tests.analysis;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.tracecompass.incubator.internal.otf2.core.analysis.summarytimeline.Otf2SummaryPyramid;
+import org.junit.Test;
+
+/**
+ * Test the multi-resolution summary of the summary timeline against the exact
+ * averages of the summarized values
+ */
+public class Otf2SummaryPyramidTest {
+
+    private static final double DELTA = 1e-9;
+    private static final int QUARK = 3;
+
+    /**
+     * Test a constant value over the whole time range
+     */
+    @Test
+    public void testConstant() {
+        Otf2SummaryPyramid pyramid = new Otf2SummaryPyramid(1000, 100999);
+        pyramid.add(QUARK, 1000, 100999, 0.5);
+        pyramid.build();
+
+        for (int nbTimes : new int[] { 2, 10, 1000 }) {
+            List<Long> times = getTimes(1000, 101000, nbTimes);
+            double[] averages = pyramid.getAverages(QUARK, times);
+            assertNotNull(averages);
+            for (double average : averages) {
+                assertEquals(0.5, average, DELTA);
+            }
+        }
+        assertNull(pyramid.getAverages(QUARK + 1, getTimes(1000, 101000, 10)));
+    }
+
+    /**
+     * Test that the time ranges outside of the summarized range have no value
+     */
+    @Test
+    public void testOutOfRange() {
+        Otf2SummaryPyramid pyramid = new Otf2SummaryPyramid(0, 9999);
+        pyramid.add(QUARK, 0, 9999, 1.0);
+        pyramid.build();
+
+        double[] averages = pyramid.getAverages(QUARK, List.of(-3000L, -2000L, 4000L, 5000L, 12000L, 13000L));
+        assertNotNull(averages);
+        assertArrayEquals(new double[] { 0.0, 4.0 / 6, 1.0, 5.0 / 7, 0.0, 0.0 }, averages, DELTA);
+    }
+
+    /**
+     * Test the summary of many locations that enter and leave a function
+     * randomly, at all the resolutions of the pyramid, with requested times
+     * aligned on the buckets
+     */
+    @Test
+    public void testManyLocations() {
+        int nbLocations = 4096;
+        long width = 16;
+        long duration = Otf2SummaryPyramid.MAX_BUCKETS * width;
+
+        // Number of locations in the function at each time
+        int[] counts = new int[(int) duration];
+        Random random = new Random(42);
+        for (int location = 0; location < nbLocations; location++) {
+            long time = random.nextInt(1000);
+            while (time < duration) {
+                long end = Math.min(duration, time + 1 + random.nextInt(5000));
+                for (long t = time; t < end; t++) {
+                    counts[(int) t]++;
+                }
+                time = end + random.nextInt(5000);
+            }
+        }
+
+        // Add the intervals of constant value, like the state system does
+        Otf2SummaryPyramid pyramid = new Otf2SummaryPyramid(0, duration - 1);
+        assertEquals(width, pyramid.getResolution());
+        int start = 0;
+        for (int t = 1; t <= duration; t++) {
+            if (t == duration || counts[t] != counts[start]) {
+                pyramid.add(QUARK, start, t - 1, (double) counts[start] / nbLocations);
+                start = t;
+            }
+        }
+        pyramid.build();
+
+        for (long step = width; step < duration; step *= 2) {
+            List<Long> times = new ArrayList<>();
+            for (long t = 0; t < duration; t += step) {
+                times.add(t);
+            }
+            double[] averages = pyramid.getAverages(QUARK, times);
+            assertNotNull(averages);
+            assertEquals(times.size(), averages.length);
+            for (int i = 0; i < times.size(); i++) {
+                long sum = 0;
+                for (long t = times.get(i); t < times.get(i) + step; t++) {
+                    sum += counts[(int) t];
+                }
+                assertEquals("step " + step + " time " + times.get(i), (double) sum / step / nbLocations, averages[i], DELTA);
+            }
+        }
+    }
+
+    private static List<Long> getTimes(long start, long end, int nbTimes) {
+        List<Long> times = new ArrayList<>();
+        long step = (end - start) / nbTimes;
+        for (int i = 0; i < nbTimes; i++) {
+            times.add(start + i * step);
+        }
+        return times;
+    }
+}
@@ -0,0 +1,182 @@
+/**********************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ **********************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.otf2.core.analysis.summarytimeline;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Multi-resolution summary of the percentages of the summary timeline. For
+ * each attribute, the time range of the trace is split in buckets of equal
+ * width, and each bucket holds the integral of the value of the attribute over
+ * its time range. Each level of the pyramid merges the buckets of the level
+ * below two by two, so a query of any resolution reads at most a few buckets
+ * per requested time, instead of the states of the whole time range.
+ *
+ * Values are added to the finest level with {@link #add(int, long, long, double)},
+ * then {@link #build()} computes the coarser levels.
+ */
+public class Otf2SummaryPyramid {
+
+    /** The maximum number of buckets of the finest level */
+    public static final int MAX_BUCKETS = 1 << 13;
+
+    private final long fStart;
+    private final long fEnd;
+    private final long fBucketWidth;
+    private final int fNbBuckets;
+    /** For each attribute, the integrals of the buckets of each level */
+    private final Map<Integer, double[][]> fLevels = new HashMap<>();
+
+    /**
+     * Constructor
+     *
+     * @param start
+     *            the start of the summarized time range
+     * @param end
+     *            the end of the summarized time range, inclusive
+     */
+    public Otf2SummaryPyramid(long start, long end) {
+        fStart = start;
+        fEnd = Math.max(start, end);
+        long duration = fEnd - fStart + 1;
+        fBucketWidth = Math.max(1, (duration + MAX_BUCKETS - 1) / MAX_BUCKETS);
+        fNbBuckets = (int) ((duration + fBucketWidth - 1) / fBucketWidth);
+    }
+
+    /**
+     * Get the width of the buckets of the finest level. Queries with times
+     * closer than this width cannot be answered accurately from the pyramid.
+     *
+     * @return the width of the finest buckets
+     */
+    public long getResolution() {
+        return fBucketWidth;
+    }
+
+    /**
+     * Add a constant value of an attribute over a time range to the finest
+     * level
+     *
+     * @param quark
+     *            the attribute
+     * @param start
+     *            the start of the time range
+     * @param end
+     *            the end of the time range, inclusive
+     * @param value
+     *            the value of the attribute over the time range
+     */
+    public void add(int quark, long start, long end, double value) {
+        long from = Math.max(start, fStart);
+        long to = Math.min(end, fEnd) + 1;
+        if (from >= to || value == 0) {
+            return;
+        }
+        double[] buckets = fLevels.computeIfAbsent(quark, q -> new double[][] { new double[fNbBuckets] })[0];
+        int first = (int) ((from - fStart) / fBucketWidth);
+        int last = (int) ((to - 1 - fStart) / fBucketWidth);
+        for (int i = first; i <= last; i++) {
+            long bucketStart = fStart + i * fBucketWidth;
+            long overlap = Math.min(to, bucketStart + fBucketWidth) - Math.max(from, bucketStart);
+            buckets[i] += value * overlap;
+        }
+    }
+
+    /**
+     * Compute the coarser levels of the pyramid from the finest level, once
+     * all the values were added
+     */
+    public void build() {
+        for (Map.Entry<Integer, double[][]> entry : fLevels.entrySet()) {
+            double[] level = entry.getValue()[0];
+            int nbLevels = 1;
+            for (int size = level.length; size > 1; size = (size + 1) / 2) {
+                nbLevels++;
+            }
+            double[][] levels = new double[nbLevels][];
+            levels[0] = level;
+            for (int l = 1; l < nbLevels; l++) {
+                double[] below = levels[l - 1];
+                double[] current = new double[(below.length + 1) / 2];
+                for (int i = 0; i < below.length; i++) {
+                    current[i / 2] += below[i];
+                }
+                levels[l] = current;
+            }
+            entry.setValue(levels);
+        }
+    }
+
+    /**
+     * Get the average values of an attribute around each requested time. The
+     * value at a time is the average over the time range that goes until the
+     * next requested time, read from the coarsest level whose buckets are not
+     * wider than this time range.
+     *
+     * @param quark
+     *            the attribute
+     * @param times
+     *            the sorted requested times
+     * @return the average value at each time, or null if the attribute never
+     *         had a value
+     */
+    public double @Nullable [] getAverages(int quark, List<Long> times) {
+        double[][] levels = fLevels.get(quark);
+        if (levels == null) {
+            return null;
+        }
+        int n = times.size();
+        double[] values = new double[n];
+        for (int i = 0; i < n; i++) {
+            long from = times.get(i);
+            long to;
+            if (i < n - 1) {
+                to = times.get(i + 1);
+            } else {
+                to = (n > 1) ? from + from - times.get(i - 1) : from + fBucketWidth;
+            }
+            values[i] = average(levels, from, Math.max(to, from + 1));
+        }
+        return values;
+    }
+
+    private double average(double[][] levels, long from, long to) {
+        long duration = to - from;
+        int level = 0;
+        long width = fBucketWidth;
+        while (level < levels.length - 1 && width * 2 <= duration) {
+            level++;
+            width *= 2;
+        }
+        double[] buckets = levels[level];
+        long clippedFrom = Math.max(from, fStart);
+        long clippedTo = Math.min(to, fEnd + 1);
+        if (clippedFrom >= clippedTo) {
+            return 0;
+        }
+        int first = (int) ((clippedFrom - fStart) / width);
+        int last = (int) ((clippedTo - 1 - fStart) / width);
+        double integral = 0;
+        for (int i = first; i <= last; i++) {
+            long bucketStart = fStart + i * width;
+            long bucketEnd = Math.min(bucketStart + width, fEnd + 1);
+            long overlap = Math.min(clippedTo, bucketEnd) - Math.max(clippedFrom, bucketStart);
+            // The value is considered uniform over a bucket
+            integral += buckets[i] * overlap / (bucketEnd - bucketStart);
+        }
+        return integral / duration;
+    }
+}
@@ -11,9 +11,18 @@
 
 package org.eclipse.tracecompass.incubator.internal.otf2.core.analysis.summarytimeline;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.incubator.internal.otf2.core.Activator;
 import org.eclipse.tracecompass.incubator.internal.otf2.core.analysis.AbstractOtf2Analysis;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
+import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
+import org.eclipse.tracecompass.statesystem.core.exceptions.TimeRangeException;
+import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
 import org.eclipse.tracecompass.tmf.core.statesystem.ITmfStateProvider;
 
 /**
@@ -26,6 +35,8 @@ public class Otf2SummaryTimelineAnalysis extends AbstractOtf2Analysis {
     /** The ID suffix of this analysis module */
     public static final String ID_SUFFIX = ".summarytimeline"; //$NON-NLS-1$
 
+    private volatile @Nullable Otf2SummaryPyramid fPyramid = null;
+
     /**
      * Constructor
      */
@@ -38,6 +49,58 @@ public class Otf2SummaryTimelineAnalysis extends AbstractOtf2Analysis {
         return new Otf2SummaryTimelineStateProvider(Objects.requireNonNull(getTrace()));
     }
 
+    @Override
+    protected boolean executeAnalysis(@Nullable IProgressMonitor monitor) {
+        boolean ret = super.executeAnalysis(monitor);
+        if (!ret) {
+            return ret;
+        }
+        ITmfStateSystem ss = getStateSystem();
+        if (ss != null) {
+            fPyramid = buildPyramid(ss, monitor);
+        }
+        return true;
+    }
+
+    /**
+     * Summarize the complete state system in a pyramid of resolutions, by
+     * reading all the intervals of the percentage attributes once
+     */
+    private static @Nullable Otf2SummaryPyramid buildPyramid(ITmfStateSystem ss, @Nullable IProgressMonitor monitor) {
+        Otf2SummaryPyramid pyramid = new Otf2SummaryPyramid(ss.getStartTime(), ss.getCurrentEndTime());
+        List<Integer> quarks = new ArrayList<>();
+        for (Integer quark : ss.getQuarks("*")) { //$NON-NLS-1$
+            quarks.add(quark);
+            quarks.addAll(ss.getSubAttributes(quark, false));
+        }
+        try {
+            for (ITmfStateInterval interval : ss.query2D(quarks, ss.getStartTime(), ss.getCurrentEndTime())) {
+                if (monitor != null && monitor.isCanceled()) {
+                    return null;
+                }
+                Object value = interval.getValue();
+                if (value instanceof Number) {
+                    pyramid.add(interval.getAttribute(), interval.getStartTime(), interval.getEndTime(), ((Number) value).doubleValue());
+                }
+            }
+        } catch (IndexOutOfBoundsException | TimeRangeException | StateSystemDisposedException e) {
+            Activator.getInstance().logError(e.getMessage(), e);
+            return null;
+        }
+        pyramid.build();
+        return pyramid;
+    }
+
+    /**
+     * Get the multi-resolution summary of the percentages, available once the
+     * analysis is complete
+     *
+     * @return the summary pyramid, or null if the analysis is not complete
+     */
+    public @Nullable Otf2SummaryPyramid getSummaryPyramid() {
+        return fPyramid;
+    }
+
     /**
      * @return the full ID of this analysis module
      */
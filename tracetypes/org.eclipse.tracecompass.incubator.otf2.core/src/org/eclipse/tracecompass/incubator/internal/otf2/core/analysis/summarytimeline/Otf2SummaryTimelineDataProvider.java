@@ -122,7 +122,7 @@ public class Otf2SummaryTimelineDataProvider extends AbstractTreeCommonXDataProv
 
     @Override
     protected boolean isCacheable() {
-        return false;
+        return true;
     }
 
     @Override
@@ -175,7 +175,6 @@ public class Otf2SummaryTimelineDataProvider extends AbstractTreeCommonXDataProv
 
     @Override
     protected @Nullable Collection<IYModel> getYSeriesModels(ITmfStateSystem ss, Map<String, Object> fetchParameters, @Nullable IProgressMonitor monitor) throws StateSystemDisposedException {
-        ImmutableList.Builder<IYModel> ySeries = ImmutableList.builder();
         Map<Integer, double[]> quarkToValues = new HashMap<>();
         // Prepare the quarks to display
         Collection<Long> selectedItems = DataProviderParameterUtils.extractSelectedItems(fetchParameters);
@@ -191,6 +190,29 @@ public class Otf2SummaryTimelineDataProvider extends AbstractTreeCommonXDataProv
             }
         }
 
+        /*
+         * Once the analysis is complete, read the values from the summary
+         * pyramid unless the requested times are closer than its resolution
+         */
+        Otf2SummaryPyramid pyramid = getAnalysisModule().getSummaryPyramid();
+        if (pyramid != null && times.size() > 1
+                && (times.get(times.size() - 1) - times.get(0)) / (times.size() - 1) >= pyramid.getResolution()) {
+            for (Entry<Integer, double[]> entry : quarkToValues.entrySet()) {
+                if (monitor != null && monitor.isCanceled()) {
+                    return null;
+                }
+                double[] averages = pyramid.getAverages(entry.getKey(), times);
+                if (averages != null) {
+                    double[] row = entry.getValue();
+                    for (int i = 0; i < averages.length; i++) {
+                        // conversion to percentages
+                        row[i] = 100 * averages[i];
+                    }
+                }
+            }
+            return buildSeries(ss, quarkToValues);
+        }
+
         // Query the state system to fill the arrays of values
         try {
             for (ITmfStateInterval interval : ss.query2D(quarkToValues.keySet(), times)) {
@@ -214,7 +236,11 @@ public class Otf2SummaryTimelineDataProvider extends AbstractTreeCommonXDataProv
             Activator.getInstance().logError(e.getMessage(), e);
             return null;
         }
+        return buildSeries(ss, quarkToValues);
+    }
 
+    private Collection<IYModel> buildSeries(ITmfStateSystem ss, Map<Integer, double[]> quarkToValues) {
+        ImmutableList.Builder<IYModel> ySeries = ImmutableList.builder();
         for (Entry<Integer, double[]> values : quarkToValues.entrySet()) {
             if (ss.getSubAttributes(values.getKey(), false).isEmpty()) {
                 ySeries.add(new YModel(fIDToDisplayQuark.inverse().getOrDefault(values.getKey(), -1L), ss.getAttributeName(values.getKey()), values.getValue(), Y_AXIS_DESCRIPTION));
@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.perf.profiling.core.tests.perf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Objects;
+import java.util.Random;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.test.performance.Dimension;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+import org.eclipse.tracecompass.incubator.internal.perf.profiling.core.symbol.PerfMmapAnalysisModule;
+import org.eclipse.tracecompass.incubator.internal.perf.profiling.core.symbol.PerfMmapSymbolProvider;
+import org.eclipse.tracecompass.tmf.core.event.TmfEvent;
+import org.eclipse.tracecompass.tmf.core.exceptions.TmfTraceException;
+import org.eclipse.tracecompass.tmf.core.signal.TmfTraceOpenedSignal;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTraceUtils;
+import org.eclipse.tracecompass.tmf.tests.stubs.trace.xml.TmfXmlTraceStub;
+import org.eclipse.tracecompass.tmf.tests.stubs.trace.xml.TmfXmlTraceStubNs;
+import org.junit.Test;
+
+/**
+ * Benchmarks the symbolization of perf samples with the mappings of the perf
+ * mmap analysis
+ */
+public class PerfMmapSymbolBenchmark {
+
+    /**
+     * Test test ID for the perf mmap symbol benchmarks
+     */
+    public static final String TEST_ID = "org.eclipse.tracecompass.incubator#Perf mmap symbols#";
+
+    private static final int LOOP_COUNT = 5;
+    private static final int NB_SAMPLES = 1_000_000;
+    private static final int NB_PIDS = 64;
+    private static final int NB_MAPPINGS = 256;
+    /** Distinct addresses per mapping, samples hit the same addresses often */
+    private static final int NB_ADDRESSES = 64;
+    private static final long MAPPING_SIZE = 0x10000;
+    private static final long BASE_ADDRESS = 0x400000;
+
+    private static File createTrace() throws IOException {
+        File file = File.createTempFile("perfMmap", ".xml");
+        try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            writer.write("<trace>\n");
+            long timestamp = 1;
+            for (int mapping = 0; mapping < NB_MAPPINGS; mapping++) {
+                for (int pid = 1; pid <= NB_PIDS; pid++) {
+                    writer.write("<event timestamp=\"" + timestamp++ + "\" name=\"perf_mmap\">\n");
+                    writer.write("<field name=\"pid\" type=\"long\" value=\"" + pid + "\" />\n");
+                    writer.write("<field name=\"start\" type=\"long\" value=\"" + (BASE_ADDRESS + mapping * MAPPING_SIZE) + "\" />\n");
+                    writer.write("<field name=\"filename\" type=\"string\" value=\"/lib/lib" + mapping + ".so\" />\n");
+                    writer.write("</event>\n");
+                }
+            }
+            writer.write("</trace>\n");
+        }
+        return file;
+    }
+
+    /**
+     * Benchmark the symbolization of a million samples, with a new symbol
+     * provider for each run
+     *
+     * @throws IOException
+     *             If the trace cannot be created
+     */
+    @Test
+    public void symbolizeSamples() throws IOException {
+        Performance perf = Performance.getDefault();
+        PerformanceMeter pm = Objects.requireNonNull(perf.createPerformanceMeter(TEST_ID + "Symbolize"));
+        perf.tagAsSummary(pm, "Perf mmap: symbolize " + NB_SAMPLES + " samples", Dimension.CPU_TIME);
+
+        File file = createTrace();
+        TmfXmlTraceStub trace = new TmfXmlTraceStubNs();
+        try {
+            IStatus status = trace.validate(null, file.getAbsolutePath());
+            if (!status.isOK()) {
+                fail(status.getException().getMessage());
+            }
+            trace.initTrace(null, file.getAbsolutePath(), TmfEvent.class);
+            trace.traceOpened(new TmfTraceOpenedSignal(this, trace, null));
+            PerfMmapAnalysisModule module = TmfTraceUtils.getAnalysisModuleOfClass(trace, PerfMmapAnalysisModule.class, PerfMmapAnalysisModule.ID);
+            assertNotNull(module);
+            module.schedule();
+            assertTrue(module.waitForCompletion());
+            long endTime = NB_PIDS * NB_MAPPINGS;
+
+            for (int i = 0; i < LOOP_COUNT; i++) {
+                PerfMmapSymbolProvider provider = new PerfMmapSymbolProvider(trace, module);
+                Random random = new Random(i);
+                int nbResolved = 0;
+                pm.start();
+                for (int sample = 0; sample < NB_SAMPLES; sample++) {
+                    int pid = 1 + random.nextInt(NB_PIDS);
+                    long address = BASE_ADDRESS + random.nextInt(NB_MAPPINGS) * MAPPING_SIZE + random.nextInt(NB_ADDRESSES) * 16;
+                    if (provider.getSymbol(pid, endTime, address) != null) {
+                        nbResolved++;
+                    }
+                }
+                pm.stop();
+                assertEquals(NB_SAMPLES, nbResolved);
+            }
+            pm.commit();
+        } catch (TmfTraceException e) {
+            fail(e.getMessage());
+        } finally {
+            trace.dispose();
+            file.delete();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.perf.profiling.core.tests.callgraph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+
+import org.eclipse.tracecompass.analysis.profiling.core.base.ICallStackElement;
+import org.eclipse.tracecompass.analysis.profiling.core.callstack2.CallStackElement;
+import org.eclipse.tracecompass.analysis.profiling.core.instrumented.CallStackGroupDescriptor;
+import org.eclipse.tracecompass.incubator.internal.perf.profiling.core.callgraph.LongObjectMap;
+import org.junit.Test;
+
+/**
+ * Test the primitive keyed map used to find the process and thread
+ * elements of the perf samples
+ */
+public class LongObjectMapTest {
+
+    private static final CallStackGroupDescriptor DESCRIPTOR = new CallStackGroupDescriptor("Threads", null, false);
+
+    /**
+     * Test getting and replacing elements
+     */
+    @Test
+    public void testGetPut() {
+        LongObjectMap<ICallStackElement> map = new LongObjectMap<>();
+        ICallStackElement first = new CallStackElement("1", DESCRIPTOR, null, null);
+        ICallStackElement second = new CallStackElement("2", DESCRIPTOR, null, null);
+        assertNull(map.get(1));
+        map.put(1, first);
+        map.put(-1, second);
+        assertSame(first, map.get(1));
+        assertSame(second, map.get(-1));
+        assertNull(map.get(0));
+        assertEquals(2, map.size());
+
+        map.put(1, second);
+        assertSame(second, map.get(1));
+        assertEquals(2, map.size());
+    }
+
+    /**
+     * Test many keys, like the pid/tid keys of a system-wide recording
+     */
+    @Test
+    public void testManyKeys() {
+        LongObjectMap<ICallStackElement> map = new LongObjectMap<>();
+        Map<Long, ICallStackElement> expected = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 10000; i++) {
+            long pid = random.nextInt(4096);
+            long key = (pid << 32) ^ (i & 0xffffffffL);
+            ICallStackElement element = new CallStackElement(String.valueOf(i), DESCRIPTOR, null, null);
+            map.put(key, element);
+            expected.put(key, element);
+        }
+        assertEquals(expected.size(), map.size());
+        for (Entry<Long, ICallStackElement> entry : expected.entrySet()) {
+            assertSame(entry.getValue(), map.get(entry.getKey()));
+        }
+        assertNull(map.get(-2));
+    }
+}
@@ -17,12 +17,17 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.File;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
 
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.tracecompass.analysis.profiling.core.base.ICallStackElement;
 import org.eclipse.tracecompass.analysis.profiling.core.callgraph.AggregatedCallSite;
+import org.eclipse.tracecompass.analysis.profiling.core.callgraph.CallGraph;
 import org.eclipse.tracecompass.analysis.profiling.core.model.ISamplingDataProvider;
 import org.eclipse.tracecompass.incubator.internal.perf.profiling.core.callgraph.PerfCallchainAnalysisModule;
 import org.eclipse.tracecompass.incubator.perf.profiling.core.tests.ActivatorTest;
@@ -30,6 +35,7 @@ import org.eclipse.tracecompass.tmf.core.event.TmfEvent;
 import org.eclipse.tracecompass.tmf.core.exceptions.TmfTraceException;
 import org.eclipse.tracecompass.tmf.core.signal.TmfTraceOpenedSignal;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTraceManager;
 import org.eclipse.tracecompass.tmf.core.trace.TmfTraceUtils;
 import org.eclipse.tracecompass.tmf.tests.stubs.trace.xml.TmfXmlTraceStub;
 import org.eclipse.tracecompass.tmf.tests.stubs.trace.xml.TmfXmlTraceStubNs;
@@ -54,6 +60,10 @@ public class PerfCallGraphTest {
      */
     @Before
     public void setUp() {
+        openTrace();
+    }
+
+    private void openTrace() {
         TmfXmlTraceStub trace = new TmfXmlTraceStubNs();
         IPath filePath = ActivatorTest.getAbsoluteFilePath(PERF_TRACE_FILE);
         IStatus status = trace.validate(null, filePath.toOSString());
@@ -81,6 +91,14 @@ public class PerfCallGraphTest {
      */
     @After
     public void tearDown() {
+        ITmfTrace trace = fTrace;
+        if (trace != null) {
+            TmfTraceManager.deleteSupplementaryFiles(trace);
+        }
+        closeTrace();
+    }
+
+    private void closeTrace() {
         ITmfTrace trace = fTrace;
         if (trace != null) {
             trace.dispose();
@@ -121,4 +139,73 @@ public class PerfCallGraphTest {
         assertEquals("0x4", callsite.getObject().resolve(Collections.emptySet()));
     }
 
+    /**
+     * Test that processing the same samples again gives the same callsites:
+     * the callchains of the events must not be modified by the analysis
+     */
+    @Test
+    public void testSamplingDataRepeated() {
+        PerfCallchainAnalysisModule module = fModule;
+        assertNotNull(module);
+
+        for (int i = 0; i < 2; i++) {
+            Collection<AggregatedCallSite> samplingData = module.getSamplingData(2, 0, 5);
+            assertEquals(1, samplingData.size());
+            AggregatedCallSite callsite = samplingData.iterator().next();
+            assertEquals("0x1", callsite.getObject().resolve(Collections.emptySet()));
+        }
+    }
+
+    /**
+     * Test that the call graph saved in the supplementary files is the same
+     * as the call graph built from the trace when the trace is reopened
+     */
+    @Test
+    public void testSavedCallGraph() {
+        PerfCallchainAnalysisModule module = fModule;
+        assertNotNull(module);
+        Map<String, Long> expected = getWeights(module.getCallGraph());
+        assertFalse(expected.isEmpty());
+        File file = new File(TmfTraceManager.getSupplementaryFileDir(fTrace) + PerfCallchainAnalysisModule.ID + ".cg");
+        assertTrue(file.exists());
+        long lastModified = file.lastModified();
+
+        closeTrace();
+        openTrace();
+        module = fModule;
+        assertNotNull(module);
+        assertEquals(expected, getWeights(module.getCallGraph()));
+        // The call graph was read from the file, not written again
+        assertEquals(lastModified, file.lastModified());
+    }
+
+    /**
+     * Get the weights of the callsites of a call graph, by path of element
+     * names and symbols
+     */
+    private static Map<String, Long> getWeights(CallGraph callGraph) {
+        Map<String, Long> weights = new TreeMap<>();
+        for (ICallStackElement element : callGraph.getElements()) {
+            addWeights(callGraph, element, element.getName(), weights);
+        }
+        return weights;
+    }
+
+    private static void addWeights(CallGraph callGraph, ICallStackElement element, String path, Map<String, Long> weights) {
+        for (AggregatedCallSite callsite : callGraph.getCallingContextTree(element)) {
+            addWeights(callsite, path, weights);
+        }
+        for (ICallStackElement child : element.getChildrenElements()) {
+            addWeights(callGraph, child, path + '/' + child.getName(), weights);
+        }
+    }
+
+    private static void addWeights(AggregatedCallSite callsite, String path, Map<String, Long> weights) {
+        String callsitePath = path + ':' + callsite.getObject().resolve(Collections.emptySet());
+        weights.put(callsitePath, callsite.getWeight());
+        for (AggregatedCallSite callee : callsite.getCallees()) {
+            addWeights(callee, callsitePath, weights);
+        }
+    }
+
 }
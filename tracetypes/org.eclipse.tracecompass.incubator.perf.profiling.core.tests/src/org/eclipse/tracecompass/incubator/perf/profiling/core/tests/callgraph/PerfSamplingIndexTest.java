@@ -0,0 +1,205 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.perf.profiling.core.tests.callgraph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.tracecompass.analysis.profiling.core.base.ICallStackElement;
+import org.eclipse.tracecompass.analysis.profiling.core.callgraph.AggregatedCallSite;
+import org.eclipse.tracecompass.analysis.profiling.core.callstack2.CallStackElement;
+import org.eclipse.tracecompass.analysis.profiling.core.instrumented.CallStackGroupDescriptor;
+import org.eclipse.tracecompass.analysis.profiling.core.symbol.CallStackSymbolFactory;
+import org.eclipse.tracecompass.incubator.internal.perf.profiling.core.callgraph.PerfCallchainAnalysisModule;
+import org.eclipse.tracecompass.incubator.internal.perf.profiling.core.callgraph.PerfSamplingIndex;
+import org.eclipse.tracecompass.incubator.perf.profiling.core.tests.ActivatorTest;
+import org.eclipse.tracecompass.tmf.core.event.TmfEvent;
+import org.eclipse.tracecompass.tmf.core.exceptions.TmfTraceException;
+import org.eclipse.tracecompass.tmf.core.signal.TmfTraceOpenedSignal;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTraceUtils;
+import org.eclipse.tracecompass.tmf.tests.stubs.trace.xml.TmfXmlTraceStub;
+import org.eclipse.tracecompass.tmf.tests.stubs.trace.xml.TmfXmlTraceStubNs;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test the time-bucketed index of the perf samples against the samples read
+ * from the trace
+ */
+public class PerfSamplingIndexTest {
+
+    private static final String PERF_TRACE_FILE = "testfiles/traces/perf_trace.xml";
+    private static final int[] TIDS = { 2, 3, 6, 7 };
+    private static final long END_TIME = 21;
+
+    private static final int NB_SAMPLES = 200000;
+    private static final int NB_STACKS = 1000;
+    private static final int STACK_DEPTH = 20;
+    private static final long LEAF_ADDRESS = 0x1000;
+    /* Much less than a copy of the callsite tree in each bucket */
+    private static final long MAX_INDEX_SIZE = 8L * 1024 * 1024;
+
+    private ITmfTrace fTrace;
+    private PerfCallchainAnalysisModule fModule;
+
+    /**
+     * Setup the trace for the tests
+     */
+    @Before
+    public void setUp() {
+        TmfXmlTraceStub trace = new TmfXmlTraceStubNs();
+        IPath filePath = ActivatorTest.getAbsoluteFilePath(PERF_TRACE_FILE);
+        IStatus status = trace.validate(null, filePath.toOSString());
+        if (!status.isOK()) {
+            fail(status.getException().getMessage());
+        }
+        try {
+            trace.initTrace(null, filePath.toOSString(), TmfEvent.class);
+        } catch (TmfTraceException e) {
+            fail(e.getMessage());
+        }
+        fTrace = trace;
+        trace.traceOpened(new TmfTraceOpenedSignal(this, trace, null));
+
+        PerfCallchainAnalysisModule module = TmfTraceUtils.getAnalysisModuleOfClass(trace, PerfCallchainAnalysisModule.class, PerfCallchainAnalysisModule.ID);
+        assertNotNull(module);
+
+        module.schedule();
+        assertTrue(module.waitForCompletion());
+        fModule = module;
+    }
+
+    /**
+     * Dispose of the test data
+     */
+    @After
+    public void tearDown() {
+        ITmfTrace trace = fTrace;
+        if (trace != null) {
+            trace.dispose();
+        }
+        PerfCallchainAnalysisModule module = fModule;
+        if (module != null) {
+            module.dispose();
+        }
+    }
+
+    /**
+     * Test every time range with small buckets, so that the queries combine
+     * complete buckets and edge buckets
+     */
+    @Test
+    public void testAllRanges() {
+        PerfCallchainAnalysisModule module = fModule;
+        assertNotNull(module);
+
+        for (int tid : TIDS) {
+            // Fill an index with the samples of each time
+            PerfSamplingIndex index = new PerfSamplingIndex(2);
+            for (long time = 0; time <= END_TIME; time++) {
+                for (AggregatedCallSite callsite : module.getSamplingData(tid, time, time)) {
+                    index.add(tid, time, callsite);
+                }
+            }
+
+            for (long start = 0; start <= END_TIME; start++) {
+                for (long end = start; end <= END_TIME; end++) {
+                    AtomicInteger nbReads = new AtomicInteger();
+                    Collection<AggregatedCallSite> actual = index.getSamplingData(tid, start, end, (rangeStart, rangeEnd) -> {
+                        nbReads.incrementAndGet();
+                        return module.getSamplingData(tid, rangeStart, rangeEnd);
+                    });
+                    String range = "tid " + tid + " [" + start + ", " + end + "]";
+                    assertEquals(range, toStrings(module.getSamplingData(tid, start, end)), toStrings(actual));
+                    assertTrue(range, nbReads.get() <= 2);
+                }
+            }
+        }
+    }
+
+    /**
+     * Test that the memory of the index grows with the number of samples, not
+     * with the size of the callsite tree of each bucket
+     */
+    @Test
+    public void testMemory() {
+        ICallStackElement element = new CallStackElement("1", new CallStackGroupDescriptor("Threads", null, false), null, null);
+        long baseline = getUsedHeap();
+        PerfSamplingIndex index = new PerfSamplingIndex();
+        for (int i = 0; i < NB_SAMPLES; i++) {
+            index.add(1, i, createStackTrace(element, i % NB_STACKS, i));
+        }
+        long size = getUsedHeap() - baseline;
+
+        Collection<AggregatedCallSite> sites = index.getSamplingData(1, 0, NB_SAMPLES - 1, (start, end) -> {
+            fail("Unexpected read");
+            return Collections.emptyList();
+        });
+        assertEquals(1, sites.size());
+        AggregatedCallSite root = sites.iterator().next();
+        assertEquals(NB_SAMPLES, root.getWeight());
+        assertEquals(STACK_DEPTH, root.getMaxDepth());
+        assertTrue("Index of " + NB_SAMPLES + " samples uses " + size + " bytes", size < MAX_INDEX_SIZE);
+    }
+
+    /**
+     * Test a thread that has no sample
+     */
+    @Test
+    public void testUnknownThread() {
+        PerfSamplingIndex index = new PerfSamplingIndex();
+        assertTrue(index.getSamplingData(42, 0, END_TIME, (start, end) -> {
+            fail("Unexpected read");
+            return Collections.emptyList();
+        }).isEmpty());
+    }
+
+    /**
+     * Create the stack trace of a sample, with the same frames at the bottom
+     * and one of {@link #NB_STACKS} frames at the top
+     */
+    private static AggregatedCallSite createStackTrace(ICallStackElement element, int stack, long time) {
+        AggregatedCallSite callsite = new AggregatedCallSite(CallStackSymbolFactory.createSymbol(LEAF_ADDRESS + stack, element, time), 1);
+        for (long address = STACK_DEPTH - 2; address >= 0; address--) {
+            AggregatedCallSite caller = new AggregatedCallSite(CallStackSymbolFactory.createSymbol(address, element, time), 1);
+            caller.addChild(callsite);
+            callsite = caller;
+        }
+        return callsite;
+    }
+
+    private static long getUsedHeap() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static List<String> toStrings(Collection<AggregatedCallSite> callsites) {
+        List<String> strings = new ArrayList<>();
+        for (AggregatedCallSite callsite : callsites) {
+            strings.add(callsite.getObject().resolve(Collections.emptySet()) + ':' + callsite.getWeight() + ':' + callsite.getCallees().size());
+        }
+        return strings;
+    }
+}
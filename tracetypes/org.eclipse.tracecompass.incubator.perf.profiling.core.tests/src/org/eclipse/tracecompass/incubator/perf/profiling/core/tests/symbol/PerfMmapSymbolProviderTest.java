@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.perf.profiling.core.tests.symbol;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.tracecompass.incubator.internal.perf.profiling.core.symbol.PerfMmapAnalysisModule;
+import org.eclipse.tracecompass.incubator.internal.perf.profiling.core.symbol.PerfMmapSymbolProvider;
+import org.eclipse.tracecompass.incubator.perf.profiling.core.tests.ActivatorTest;
+import org.eclipse.tracecompass.tmf.core.event.TmfEvent;
+import org.eclipse.tracecompass.tmf.core.exceptions.TmfTraceException;
+import org.eclipse.tracecompass.tmf.core.signal.TmfTraceOpenedSignal;
+import org.eclipse.tracecompass.tmf.core.symbols.TmfResolvedSymbol;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTraceUtils;
+import org.eclipse.tracecompass.tmf.tests.stubs.trace.xml.TmfXmlTraceStub;
+import org.eclipse.tracecompass.tmf.tests.stubs.trace.xml.TmfXmlTraceStubNs;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test the resolution of addresses to the mapped files of the processes
+ */
+public class PerfMmapSymbolProviderTest {
+
+    private static final String PERF_TRACE_FILE = "testfiles/traces/perf_mmap_trace.xml";
+
+    private ITmfTrace fTrace;
+    private PerfMmapSymbolProvider fProvider;
+
+    /**
+     * Setup the trace and the mmap analysis for the tests
+     */
+    @Before
+    public void setUp() {
+        TmfXmlTraceStub trace = new TmfXmlTraceStubNs();
+        IPath filePath = ActivatorTest.getAbsoluteFilePath(PERF_TRACE_FILE);
+        IStatus status = trace.validate(null, filePath.toOSString());
+        if (!status.isOK()) {
+            fail(status.getException().getMessage());
+        }
+        try {
+            trace.initTrace(null, filePath.toOSString(), TmfEvent.class);
+        } catch (TmfTraceException e) {
+            fail(e.getMessage());
+        }
+        fTrace = trace;
+        trace.traceOpened(new TmfTraceOpenedSignal(this, trace, null));
+
+        PerfMmapAnalysisModule module = TmfTraceUtils.getAnalysisModuleOfClass(trace, PerfMmapAnalysisModule.class, PerfMmapAnalysisModule.ID);
+        assertNotNull(module);
+        fProvider = new PerfMmapSymbolProvider(trace, module);
+        assertTrue(module.waitForCompletion());
+    }
+
+    /**
+     * Dispose of the test data
+     */
+    @After
+    public void tearDown() {
+        ITmfTrace trace = fTrace;
+        if (trace != null) {
+            trace.dispose();
+        }
+    }
+
+    /**
+     * Test the mapping of addresses over time
+     */
+    @Test
+    public void testMappings() {
+        // Before the mmap of c.so, its range belongs to a.so
+        assertSymbol(1000, "/lib/a.so", 10, 3, 1500);
+        assertSymbol(1000, "/lib/a.so", 10, 3, 3500);
+        assertSymbol(3000, "/lib/c.so", 10, 6, 3500);
+        assertSymbol(5000, "/lib/b.so", 10, 6, 6000);
+        // a.so is replaced by d.so
+        assertSymbol(1000, "/lib/d.so", 10, 9, 1500);
+        assertSymbol(1000, "/lib/e.so", 20, 3, 1500);
+    }
+
+    /**
+     * Test addresses that are not mapped
+     */
+    @Test
+    public void testUnmapped() {
+        PerfMmapSymbolProvider provider = fProvider;
+        // Below all the mappings
+        assertNull(provider.getSymbol(10, 9, 500));
+        // Before the first mapping of the process
+        assertNull(provider.getSymbol(20, 1, 1500));
+        // Unknown process
+        assertNull(provider.getSymbol(30, 9, 1500));
+    }
+
+    /**
+     * Test that the symbols of an address are resolved only once
+     */
+    @Test
+    public void testMemoized() {
+        PerfMmapSymbolProvider provider = fProvider;
+        TmfResolvedSymbol symbol = provider.getSymbol(10, 6, 3500);
+        assertNotNull(symbol);
+        assertSame(symbol, provider.getSymbol(10, 7, 3500));
+    }
+
+    private void assertSymbol(long expectedBase, String expectedName, int pid, long timestamp, long address) {
+        TmfResolvedSymbol symbol = fProvider.getSymbol(pid, timestamp, address);
+        assertNotNull(symbol);
+        assertEquals(expectedBase, symbol.getBaseAddress());
+        assertEquals(expectedName, symbol.getSymbolName());
+    }
+}
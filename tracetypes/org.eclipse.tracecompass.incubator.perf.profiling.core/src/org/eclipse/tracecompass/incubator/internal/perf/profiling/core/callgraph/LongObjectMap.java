@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.perf.profiling.core.callgraph;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Map keyed by a primitive long, like a pid or tid, so that looking up the
+ * element or data of a sample does not box the key. It uses open addressing
+ * with linear probing and does not support removal.
+ *
+ * @param <V>
+ *            The type of values
+ */
+public class LongObjectMap<V> {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private long[] fKeys = new long[INITIAL_CAPACITY];
+    private @Nullable Object[] fValues = new @Nullable Object[INITIAL_CAPACITY];
+    private int fSize = 0;
+
+    /**
+     * Get the value of a key
+     *
+     * @param key
+     *            The key
+     * @return The value, or null if there is no value for this key
+     */
+    @SuppressWarnings("unchecked")
+    public @Nullable V get(long key) {
+        int mask = fKeys.length - 1;
+        for (int i = hash(key) & mask;; i = (i + 1) & mask) {
+            Object value = fValues[i];
+            if (value == null || fKeys[i] == key) {
+                return (V) value;
+            }
+        }
+    }
+
+    /**
+     * Set the value of a key
+     *
+     * @param key
+     *            The key
+     * @param value
+     *            The value
+     */
+    public void put(long key, V value) {
+        if (2 * (fSize + 1) > fKeys.length) {
+            resize();
+        }
+        if (insert(fKeys, fValues, key, value)) {
+            fSize++;
+        }
+    }
+
+    /**
+     * Get the number of values in the map
+     *
+     * @return The number of values
+     */
+    public int size() {
+        return fSize;
+    }
+
+    private void resize() {
+        long[] keys = new long[fKeys.length * 2];
+        @Nullable Object[] values = new @Nullable Object[fValues.length * 2];
+        for (int i = 0; i < fKeys.length; i++) {
+            Object value = fValues[i];
+            if (value != null) {
+                insert(keys, values, fKeys[i], value);
+            }
+        }
+        fKeys = keys;
+        fValues = values;
+    }
+
+    private static boolean insert(long[] keys, @Nullable Object[] values, long key, Object value) {
+        int mask = keys.length - 1;
+        for (int i = hash(key) & mask;; i = (i + 1) & mask) {
+            if (values[i] == null) {
+                keys[i] = key;
+                values[i] = value;
+                return true;
+            }
+            if (keys[i] == key) {
+                values[i] = value;
+                return false;
+            }
+        }
+    }
+
+    private static int hash(long key) {
+        // Mix the bits, as consecutive pids and tids would cluster
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
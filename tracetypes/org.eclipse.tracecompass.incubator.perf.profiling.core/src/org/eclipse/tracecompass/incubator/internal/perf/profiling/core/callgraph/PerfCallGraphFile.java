@@ -0,0 +1,319 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.perf.profiling.core.callgraph;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTraceManager;
+
+/**
+ * The full range call graph of the perf callchain analysis, saved in a
+ * supplementary file of the trace so that the trace does not have to be read
+ * again when it is reopened.
+ *
+ * The samples are recorded with the raw addresses of their callchains, in a
+ * tree of frames per thread, from the outermost caller to the sampled
+ * function. Each frame has the number of samples that went through it and the
+ * time of its first sample, to create its symbol again. The header of the file
+ * identifies the format, the version of the analysis and the trace files it
+ * was built from: a file with a different header is not used.
+ */
+final class PerfCallGraphFile {
+
+    private static final int MAGIC = 0x50434347; // "PCCG"
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * Receives the frames read from the file
+     */
+    interface IFrameVisitor {
+        /**
+         * Start the frames of a thread
+         *
+         * @param pid
+         *            The pid of the thread
+         * @param tid
+         *            The tid of the thread
+         */
+        void thread(long pid, long tid);
+
+        /**
+         * Add a frame
+         *
+         * @param depth
+         *            The depth of the frame, 0 for the outermost callers.
+         *            The frame is a callee of the last frame visited at the
+         *            previous depth.
+         * @param address
+         *            The address of the frame
+         * @param time
+         *            The time of the first sample of the frame
+         * @param weight
+         *            The number of samples of the frame
+         */
+        void frame(int depth, long address, long time, long weight);
+    }
+
+    /** A frame of the callchains of a thread */
+    private static class Frame {
+        /* Frames with few callees look them up in their list */
+        private static final int MIN_INDEXED_CALLEES = 8;
+
+        private final long fAddress;
+        private final long fTime;
+        private long fWeight = 0;
+        private final List<Frame> fCallees = new ArrayList<>(1);
+        private @Nullable LongObjectMap<Frame> fCalleeIndex = null;
+
+        public Frame(long address, long time) {
+            fAddress = address;
+            fTime = time;
+        }
+
+        public Frame getCallee(long address, long time) {
+            LongObjectMap<Frame> index = fCalleeIndex;
+            if (index != null) {
+                Frame callee = index.get(address);
+                if (callee != null) {
+                    return callee;
+                }
+            } else {
+                for (Frame callee : fCallees) {
+                    if (callee.fAddress == address) {
+                        return callee;
+                    }
+                }
+            }
+            Frame callee = new Frame(address, time);
+            fCallees.add(callee);
+            if (index != null) {
+                index.put(address, callee);
+            } else if (fCallees.size() >= MIN_INDEXED_CALLEES) {
+                index = new LongObjectMap<>();
+                for (Frame frame : fCallees) {
+                    index.put(frame.fAddress, frame);
+                }
+                fCalleeIndex = index;
+            }
+            return callee;
+        }
+    }
+
+    /** The callchains of a thread */
+    private static class ThreadFrames {
+        private final long fPid;
+        private final long fTid;
+        private final Frame fRoot = new Frame(0, 0);
+
+        public ThreadFrames(long pid, long tid) {
+            fPid = pid;
+            fTid = tid;
+        }
+    }
+
+    private final File fFile;
+    private final int fAnalysisVersion;
+    private final long fTraceStamp;
+    private final LongObjectMap<ThreadFrames> fThreads = new LongObjectMap<>();
+    private final List<ThreadFrames> fThreadList = new ArrayList<>();
+
+    /**
+     * Constructor
+     *
+     * @param trace
+     *            The trace of the call graph
+     * @param id
+     *            The ID of the analysis
+     * @param analysisVersion
+     *            The version of the analysis
+     */
+    public PerfCallGraphFile(ITmfTrace trace, String id, int analysisVersion) {
+        fFile = new File(TmfTraceManager.getSupplementaryFileDir(trace) + id + ".cg"); //$NON-NLS-1$
+        fAnalysisVersion = analysisVersion;
+        fTraceStamp = getTraceStamp(trace);
+    }
+
+    /**
+     * Get a stamp of the files of the trace, that changes when they are
+     * modified. The files of a directory trace, like a CTF trace, are all
+     * part of the stamp, as the directory itself does not change when its
+     * files do.
+     */
+    private static long getTraceStamp(ITmfTrace trace) {
+        long stamp = 0;
+        for (ITmfTrace child : TmfTraceManager.getTraceSet(trace)) {
+            String path = child.getPath();
+            File file = new File(path == null ? "" : path); //$NON-NLS-1$
+            if (!file.isDirectory()) {
+                stamp = addToStamp(stamp, file.getName(), file.length(), file.lastModified());
+                continue;
+            }
+            try (Stream<Path> files = Files.walk(file.toPath())) {
+                for (Path filePath : (Iterable<Path>) files.filter(Files::isRegularFile).sorted()::iterator) {
+                    File traceFile = filePath.toFile();
+                    stamp = addToStamp(stamp, file.toPath().relativize(filePath).toString(), traceFile.length(), traceFile.lastModified());
+                }
+            } catch (IOException | SecurityException e) {
+                // The stamp cannot be computed, it will not match any file
+                return System.nanoTime();
+            }
+        }
+        return stamp;
+    }
+
+    private static long addToStamp(long stamp, String name, long length, long lastModified) {
+        long newStamp = 31 * stamp + name.hashCode();
+        newStamp = 31 * newStamp + length;
+        return 31 * newStamp + lastModified;
+    }
+
+    /**
+     * Record a sample, while the trace is read
+     *
+     * @param pid
+     *            The pid of the sample
+     * @param tid
+     *            The tid of the sample
+     * @param callchain
+     *            The addresses of the callchain, from the top of the stack
+     * @param time
+     *            The time of the sample
+     */
+    public void add(long pid, long tid, long[] callchain, long time) {
+        long threadKey = (pid << 32) ^ (tid & 0xffffffffL);
+        ThreadFrames thread = fThreads.get(threadKey);
+        if (thread == null) {
+            thread = new ThreadFrames(pid, tid);
+            fThreads.put(threadKey, thread);
+            fThreadList.add(thread);
+        }
+        Frame frame = thread.fRoot;
+        for (int i = callchain.length - 1; i >= 0; i--) {
+            frame = frame.getCallee(callchain[i], time);
+            frame.fWeight++;
+        }
+    }
+
+    /**
+     * Get whether the file exists and was written by this version of the
+     * analysis for the current trace files. Only the header is read.
+     *
+     * @return Whether the call graph can be read from the file
+     */
+    public boolean isValid() {
+        if (!fFile.exists()) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(fFile.toPath())))) {
+            return readHeader(in);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Delete the file
+     */
+    public void delete() {
+        try {
+            Files.deleteIfExists(fFile.toPath());
+        } catch (IOException e) {
+            // Nothing to do, the file will be overwritten
+        }
+    }
+
+    private boolean readHeader(DataInputStream in) throws IOException {
+        return in.readInt() == MAGIC && in.readInt() == FORMAT_VERSION
+                && in.readInt() == fAnalysisVersion && in.readLong() == fTraceStamp;
+    }
+
+    /**
+     * Write the recorded samples to the file. They are first written to a
+     * temporary file that then replaces the file, so a partially written file
+     * is never read.
+     *
+     * @throws IOException
+     *             If the file cannot be written
+     */
+    public void write() throws IOException {
+        File tmpFile = new File(fFile.getPath() + ".tmp"); //$NON-NLS-1$
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpFile.toPath())))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(fAnalysisVersion);
+            out.writeLong(fTraceStamp);
+            out.writeInt(fThreadList.size());
+            for (ThreadFrames thread : fThreadList) {
+                out.writeLong(thread.fPid);
+                out.writeLong(thread.fTid);
+                writeCallees(out, thread.fRoot);
+            }
+        }
+        Files.move(tmpFile.toPath(), fFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void writeCallees(DataOutputStream out, Frame frame) throws IOException {
+        out.writeInt(frame.fCallees.size());
+        for (Frame callee : frame.fCallees) {
+            out.writeLong(callee.fAddress);
+            out.writeLong(callee.fTime);
+            out.writeLong(callee.fWeight);
+            writeCallees(out, callee);
+        }
+    }
+
+    /**
+     * Read the frames from the file
+     *
+     * @param visitor
+     *            Receives the threads and their frames
+     * @return Whether the file was read, <code>false</code> if the header does
+     *         not match
+     * @throws IOException
+     *             If the file cannot be read
+     */
+    public boolean read(IFrameVisitor visitor) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(fFile.toPath())))) {
+            if (!readHeader(in)) {
+                return false;
+            }
+            int nbThreads = in.readInt();
+            for (int i = 0; i < nbThreads; i++) {
+                visitor.thread(in.readLong(), in.readLong());
+                readCallees(in, 0, visitor);
+            }
+            return true;
+        }
+    }
+
+    private static void readCallees(DataInputStream in, int depth, IFrameVisitor visitor) throws IOException {
+        int nbCallees = in.readInt();
+        for (int i = 0; i < nbCallees; i++) {
+            visitor.frame(depth, in.readLong(), in.readLong(), in.readLong());
+            readCallees(in, depth + 1, visitor);
+        }
+    }
+
+}
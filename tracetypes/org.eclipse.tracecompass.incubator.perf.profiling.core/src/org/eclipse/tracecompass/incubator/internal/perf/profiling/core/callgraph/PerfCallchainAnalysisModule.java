@@ -11,25 +11,33 @@
 
 package org.eclipse.tracecompass.incubator.internal.perf.profiling.core.callgraph;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Objects;
 
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.analysis.profiling.core.base.ICallStackElement;
 import org.eclipse.tracecompass.analysis.profiling.core.callgraph.AggregatedCallSite;
+import org.eclipse.tracecompass.analysis.profiling.core.callgraph.CallGraph;
 import org.eclipse.tracecompass.analysis.profiling.core.callstack2.CallStackElement;
 import org.eclipse.tracecompass.analysis.profiling.core.instrumented.CallStackGroupDescriptor;
 import org.eclipse.tracecompass.analysis.profiling.core.model.ISamplingDataProvider;
 import org.eclipse.tracecompass.analysis.profiling.core.sampled.callgraph.ProfilingCallGraphAnalysisModule;
+import org.eclipse.tracecompass.analysis.profiling.core.symbol.CallStackSymbolFactory;
 import org.eclipse.tracecompass.analysis.profiling.core.tree.IWeightedTreeGroupDescriptor;
+import org.eclipse.tracecompass.incubator.internal.perf.profiling.core.Activator;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEventField;
 import org.eclipse.tracecompass.tmf.core.event.TmfEvent;
+import org.eclipse.tracecompass.tmf.core.exceptions.TmfAnalysisException;
 import org.eclipse.tracecompass.tmf.core.request.ITmfEventRequest;
 import org.eclipse.tracecompass.tmf.core.request.TmfEventRequest;
 import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimeRange;
@@ -45,6 +53,11 @@ import com.google.common.collect.ImmutableMap;
  * An analysis module for the sampled callchains from a perf trace. It
  * aggregates the data from the sampling events per pid/tid.
  *
+ * The full range call graph is saved in a supplementary file of the trace.
+ * When the trace is reopened, the analysis completes once the header of the
+ * file is checked, and the call graph is read from the file when it is first
+ * requested instead of reading the trace again.
+ *
  * @author Geneviève Bastien
  */
 public class PerfCallchainAnalysisModule extends ProfilingCallGraphAnalysisModule implements ISamplingDataProvider {
@@ -57,9 +70,25 @@ public class PerfCallchainAnalysisModule extends ProfilingCallGraphAnalysisModul
     private static final String FIELD_PERF_CALLCHAIN = "perf_callchain"; //$NON-NLS-1$
     private static final String FIELD_PERF_PID = "perf_pid"; //$NON-NLS-1$
     private static final String FIELD_PERF_TID = "perf_tid"; //$NON-NLS-1$
+    /* Increment when the saved call graph changes for the same trace */
+    private static final int CALL_GRAPH_VERSION = 1;
 
     private final CallStackGroupDescriptor fThreadDescriptor;
     private final CallStackGroupDescriptor fProcessDescriptor;
+    /** The process elements, by pid */
+    private final LongObjectMap<ICallStackElement> fProcesses = new LongObjectMap<>();
+    /** The thread elements, by pid in the high bits and tid in the low bits */
+    private final LongObjectMap<ICallStackElement> fThreads = new LongObjectMap<>();
+    /** The index being filled by the running analysis */
+    private volatile @Nullable PerfSamplingIndex fIndexBuilder = null;
+    /** The index of the samples of the full range, once the analysis is complete */
+    private volatile @Nullable PerfSamplingIndex fSamplingIndex = null;
+    /** The file recording the samples of the running analysis */
+    private volatile @Nullable PerfCallGraphFile fCallGraphRecorder = null;
+    /** The saved call graph file, until its call graph is read */
+    private @Nullable PerfCallGraphFile fCallGraphFile = null;
+    /** The call graph read from the saved file */
+    private @Nullable CallGraph fSavedCallGraph = null;
     // private final ProfilingGroup fGroupNode = new ProfilingGroup("Data",
     // CallGraphAllGroupDescriptor.getInstance());
 
@@ -72,8 +101,143 @@ public class PerfCallchainAnalysisModule extends ProfilingCallGraphAnalysisModul
         fProcessDescriptor = new CallStackGroupDescriptor("Process", fThreadDescriptor, true); //$NON-NLS-1$
     }
 
+    @Override
+    protected boolean executeAnalysis(@NonNull IProgressMonitor monitor) throws TmfAnalysisException {
+        PerfCallGraphFile file = new PerfCallGraphFile(Objects.requireNonNull(getTrace()), getId(), CALL_GRAPH_VERSION);
+        if (file.isValid()) {
+            // The call graph will be read when it is first requested
+            synchronized (this) {
+                fCallGraphFile = file;
+            }
+            return true;
+        }
+        return buildCallGraph(file, monitor);
+    }
+
+    /**
+     * Build the call graph from the trace, and save it in its file
+     */
+    private boolean buildCallGraph(PerfCallGraphFile file, IProgressMonitor monitor) throws TmfAnalysisException {
+        // Index and record the samples of the full range while the call graph is built
+        PerfSamplingIndex index = new PerfSamplingIndex();
+        fIndexBuilder = index;
+        fCallGraphRecorder = file;
+        try {
+            boolean ret = super.executeAnalysis(monitor);
+            if (ret) {
+                fSamplingIndex = index;
+                try {
+                    file.write();
+                } catch (IOException e) {
+                    Activator.getInstance().logWarning("Error writing the call graph file", e); //$NON-NLS-1$
+                    file.delete();
+                }
+            }
+            return ret;
+        } finally {
+            fIndexBuilder = null;
+            fCallGraphRecorder = null;
+        }
+    }
+
+    @Override
+    public CallGraph getCallGraph() {
+        CallGraph callGraph = readCallGraph();
+        return (callGraph != null) ? callGraph : super.getCallGraph();
+    }
+
+    /**
+     * Read the call graph from its saved file the first time it is requested.
+     * If the file cannot be read, the call graph is built from the trace.
+     *
+     * @return The call graph read from the file, or null if it was built from
+     *         the trace
+     */
+    private synchronized @Nullable CallGraph readCallGraph() {
+        PerfCallGraphFile file = fCallGraphFile;
+        if (file == null) {
+            return fSavedCallGraph;
+        }
+        fCallGraphFile = null;
+        CallGraphReader reader = new CallGraphReader();
+        try {
+            if (file.read(reader)) {
+                CallGraph callGraph = reader.getCallGraph();
+                fSavedCallGraph = callGraph;
+                return callGraph;
+            }
+        } catch (IOException e) {
+            Activator.getInstance().logWarning("Error reading the call graph file", e); //$NON-NLS-1$
+        }
+        file.delete();
+        try {
+            buildCallGraph(new PerfCallGraphFile(Objects.requireNonNull(getTrace()), getId(), CALL_GRAPH_VERSION), new NullProgressMonitor());
+        } catch (TmfAnalysisException e) {
+            Activator.getInstance().logError("Error building the call graph", e); //$NON-NLS-1$
+        }
+        return null;
+    }
+
+    /**
+     * Rebuilds the callsites of the frames read from the saved file
+     */
+    private class CallGraphReader implements PerfCallGraphFile.IFrameVisitor {
+        private final List<Pair<ICallStackElement, AggregatedCallSite>> fRoots = new ArrayList<>();
+        /* The callsites of the current callchain, by depth */
+        private final List<AggregatedCallSite> fCallers = new ArrayList<>();
+        private @Nullable ICallStackElement fElement = null;
+
+        @Override
+        public void thread(long pid, long tid) {
+            fElement = getElement(pid, tid);
+            fCallers.clear();
+        }
+
+        @Override
+        public void frame(int depth, long address, long time, long weight) {
+            ICallStackElement element = Objects.requireNonNull(fElement);
+            AggregatedCallSite callsite = createCallSite(CallStackSymbolFactory.createSymbol(address, element, time));
+            callsite.addToWeight(weight - callsite.getWeight());
+            while (fCallers.size() > depth) {
+                fCallers.remove(fCallers.size() - 1);
+            }
+            if (depth == 0) {
+                fRoots.add(new Pair<>(element, callsite));
+            } else {
+                fCallers.get(depth - 1).addChild(callsite);
+            }
+            fCallers.add(callsite);
+        }
+
+        public CallGraph getCallGraph() {
+            // The callsites are added once all their callees are read
+            CallGraph callGraph = new CallGraph();
+            for (Pair<ICallStackElement, AggregatedCallSite> root : fRoots) {
+                callGraph.addAggregatedCallSite(root.getFirst(), root.getSecond());
+            }
+            return callGraph;
+        }
+    }
+
     @Override
     protected @Nullable Pair<ICallStackElement, AggregatedCallSite> getProfiledStackTrace(@NonNull ITmfEvent event) {
+        return getStackTrace(event, fIndexBuilder, fCallGraphRecorder);
+    }
+
+    /**
+     * Get the stack trace of a sampling event
+     *
+     * @param event
+     *            The event
+     * @param index
+     *            The sampling index to add the stack trace to, or null to
+     *            only return it
+     * @param recorder
+     *            The call graph file to record the stack trace in, or null
+     * @return The thread element and callsite of the event, or null if it is
+     *         not a sampling event with a callchain
+     */
+    private @Nullable Pair<ICallStackElement, AggregatedCallSite> getStackTrace(ITmfEvent event, @Nullable PerfSamplingIndex index, @Nullable PerfCallGraphFile recorder) {
         if (!event.getName().startsWith(EVENT_SAMPLING)) {
             return null;
         }
@@ -82,63 +246,85 @@ public class PerfCallchainAnalysisModule extends ProfilingCallGraphAnalysisModul
         if (field == null) {
             return null;
         }
-        long[] value = (long[]) field.getValue();
-        int size = value.length;
-        long tmp;
-        // Reverse the stack so that element at position 0 is the bottom
-        for (int i = 0, mid = size >> 1, j = size - 1; i < mid; i++, j--) {
-            tmp = value[i];
-            value[i] = value[j];
-            value[j] = tmp;
+        Object value = field.getValue();
+        if (!(value instanceof long[]) || ((long[]) value).length == 0) {
+            return null;
+        }
+        long[] callchain = (long[]) value;
+        long pid = getLongField(event, FIELD_PERF_PID);
+        long tid = getLongField(event, FIELD_PERF_TID);
+        ICallStackElement element = getElement(pid, tid);
+        long time = event.getTimestamp().getValue();
+        /*
+         * The callchain starts at the top of the stack, so each callsite is a
+         * child of the callsite of the next frame. The callchain is read in
+         * place and not modified, as the same event may be processed more than
+         * once.
+         */
+        AggregatedCallSite callsite = createCallSite(CallStackSymbolFactory.createSymbol(callchain[0], element, time));
+        for (int i = 1; i < callchain.length; i++) {
+            AggregatedCallSite caller = createCallSite(CallStackSymbolFactory.createSymbol(callchain[i], element, time));
+            caller.addChild(callsite);
+            callsite = caller;
+        }
+        if (index != null) {
+            index.add((int) tid, event.getTimestamp().toNanos(), callsite);
+        }
+        if (recorder != null) {
+            recorder.add(pid, tid, callchain, time);
+        }
+        return new Pair<>(element, callsite);
+    }
+
+    private static long getLongField(ITmfEvent event, String name) {
+        ITmfEventField field = event.getContent().getField(name);
+        if (field == null) {
+            return -1;
         }
-        ICallStackElement element = getElement(event);
-        return new Pair<>(element, getCallSite(element, value, event.getTimestamp().getValue()));
+        Object value = field.getValue();
+        return (value instanceof Long) ? (long) value : -1;
     }
 
     /**
-     * @param event
+     * Get the thread element of a pid/tid, creating the process and thread
+     * elements the first time they are seen
+     *
+     * @param pid
+     *            The pid of the sample
+     * @param tid
+     *            The tid of the sample
+     * @return The thread element
      */
-    private ICallStackElement getElement(ITmfEvent event) {
-        // Find a root elements with the same PID
-        Collection<ICallStackElement> rootElements = getRootElements();
-        Long pidField = event.getContent().getFieldValue(Long.class, FIELD_PERF_PID);
-        Long pid = pidField == null ? -1 : pidField;
-        Long tidField = event.getContent().getFieldValue(Long.class, FIELD_PERF_TID);
-        Long tid = tidField == null ? -1 : tidField;
-        Optional<ICallStackElement> process = rootElements.stream()
-                .filter(e -> e.getName().equals(String.valueOf(pid)))
-                .findFirst();
-        if (!process.isPresent()) {
-            // Process is null, create both process and thread elements and return
-            ICallStackElement processEl = new CallStackElement(String.valueOf(pid), fProcessDescriptor, fThreadDescriptor, null) {
+    private synchronized ICallStackElement getElement(long pid, long tid) {
+        long threadKey = (pid << 32) ^ (tid & 0xffffffffL);
+        ICallStackElement threadEl = fThreads.get(threadKey);
+        if (threadEl != null) {
+            return threadEl;
+        }
+
+        ICallStackElement processEl = fProcesses.get(pid);
+        if (processEl == null) {
+            // Process is null, create the process element
+            int symbolKey = (int) pid;
+            processEl = new CallStackElement(String.valueOf(pid), fProcessDescriptor, fThreadDescriptor, null) {
 
                 @Override
                 protected int retrieveSymbolKeyAt(long time) {
-                    return pid.intValue();
+                    return symbolKey;
                 }
 
             };
-            ICallStackElement threadEl = new CallStackElement(String.valueOf(tid), fThreadDescriptor, null, processEl);
             processEl.setSymbolKeyElement(processEl);
-            threadEl.setSymbolKeyElement(processEl);
-            processEl.addChild(threadEl);
             addRootElement(processEl);
-            return threadEl;
+            fProcesses.put(pid, processEl);
         }
-        ICallStackElement processEl = process.get();
-
-        // Process exists, find a thread element under it or create it
-        Optional<ICallStackElement> thread = processEl.getChildrenElements().stream()
-                .filter(e -> e.getName().equals(String.valueOf(tid)))
-                .findFirst();
 
-        if (thread.isPresent()) {
-            return thread.get();
-        }
-        ICallStackElement threadEl = new CallStackElement(String.valueOf(tid), fThreadDescriptor, null, processEl);
+        // Create the thread element under the process
+        threadEl = new CallStackElement(String.valueOf(tid), fThreadDescriptor, null, processEl);
+        threadEl.setSymbolKeyElement(processEl);
         processEl.addChild(threadEl);
+        fThreads.put(threadKey, threadEl);
         return threadEl;
-
     }
 
     @Override
@@ -166,12 +352,27 @@ public class PerfCallchainAnalysisModule extends ProfilingCallGraphAnalysisModul
 
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * Once the analysis is complete, the callsites are taken from the sampling
+     * index, and only the samples at the edges of the range are read from the
+     * trace.
+     */
     @Override
     public Collection<AggregatedCallSite> getSamplingData(int tid, long start, long end) {
         ITmfTrace trace = getTrace();
         if (trace == null) {
             return Collections.emptyList();
         }
+        PerfSamplingIndex index = fSamplingIndex;
+        if (index != null) {
+            return index.getSamplingData(tid, start, end, (rangeStart, rangeEnd) -> readSamplingData(trace, tid, rangeStart, rangeEnd));
+        }
+        return readSamplingData(trace, tid, start, end);
+    }
+
+    private Collection<AggregatedCallSite> readSamplingData(ITmfTrace trace, int tid, long start, long end) {
         List<AggregatedCallSite> callsites = new ArrayList<>();
         TmfEventRequest request = new PerfProfilingEventRequest(trace, start, end, tid, callsites);
         trace.sendRequest(request);
@@ -197,6 +398,7 @@ public class PerfCallchainAnalysisModule extends ProfilingCallGraphAnalysisModul
         private final int fTid;
         private final ITmfTrace fTrace;
         private final List<AggregatedCallSite> fSites;
+        private final Map<Object, AggregatedCallSite> fSitesBySymbol = new HashMap<>();
 
         /**
          * Constructor
@@ -242,22 +444,20 @@ public class PerfCallchainAnalysisModule extends ProfilingCallGraphAnalysisModul
         }
 
         private void handleEvent(ITmfEvent event) {
-            Long tidField = event.getContent().getFieldValue(Long.class, FIELD_PERF_TID);
-            Long tid = tidField == null ? -1 : tidField;
-            if (tid.intValue() != fTid) {
+            if ((int) getLongField(event, FIELD_PERF_TID) != fTid) {
                 return;
             }
-            Pair<ICallStackElement, AggregatedCallSite> stackTrace = getProfiledStackTrace(event);
+            Pair<ICallStackElement, AggregatedCallSite> stackTrace = getStackTrace(event, null, null);
             if (stackTrace == null) {
                 return;
             }
             AggregatedCallSite perfCallSite = stackTrace.getSecond();
-            for (AggregatedCallSite site : fSites) {
-                if (site.getObject().equals(perfCallSite.getObject())) {
-                    site.merge(perfCallSite);
-                    return;
-                }
+            AggregatedCallSite site = fSitesBySymbol.get(perfCallSite.getObject());
+            if (site != null) {
+                site.merge(perfCallSite);
+                return;
             }
+            fSitesBySymbol.put(perfCallSite.getObject(), perfCallSite);
             fSites.add(perfCallSite);
         }
     }
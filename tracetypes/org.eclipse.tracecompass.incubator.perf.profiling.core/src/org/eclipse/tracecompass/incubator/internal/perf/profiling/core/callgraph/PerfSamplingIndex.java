@@ -0,0 +1,331 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.perf.profiling.core.callgraph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.analysis.profiling.core.base.ICallStackSymbol;
+import org.eclipse.tracecompass.analysis.profiling.core.callgraph.AggregatedCallSite;
+
+/**
+ * Index of the sampled callchains of each thread. The samples of a thread are
+ * counted in consecutive buckets of time, each with a bounded number of
+ * samples. A query for a time range adds the counts of the buckets completely
+ * inside the range, and only reads the samples of the buckets at the edges of
+ * the range.
+ *
+ * The distinct callchains of a thread are stored once, in a tree of call
+ * contexts shared by all its buckets. A bucket only has the number of samples
+ * of each call context where a callchain ends, so its size is bounded by the
+ * number of samples of the bucket, whatever the size of the tree.
+ */
+public class PerfSamplingIndex {
+
+    /** The default maximum number of samples in a bucket */
+    public static final int DEFAULT_BUCKET_SIZE = 256;
+
+    /**
+     * Reads the samples of a thread in a time range, for the buckets that are
+     * only partially inside a requested range
+     */
+    @FunctionalInterface
+    public interface IRangeReader {
+        /**
+         * Read the callsites of the thread sampled in a time range
+         *
+         * @param start
+         *            The start of the range
+         * @param end
+         *            The end of the range, inclusive
+         * @return The callsites sampled in this range
+         */
+        Collection<AggregatedCallSite> read(long start, long end);
+    }
+
+    /** A call context of a thread: a symbol and its callers */
+    private static class Node {
+        private final int fId;
+        private final ICallStackSymbol fSymbol;
+        private final @Nullable Node fParent;
+        private @Nullable Map<Object, Node> fChildren = null;
+
+        public Node(int id, ICallStackSymbol symbol, @Nullable Node parent) {
+            fId = id;
+            fSymbol = symbol;
+            fParent = parent;
+        }
+    }
+
+    /** The number of samples ending at each call context during some time */
+    private static class Bucket {
+        private final long fStart;
+        private long fEnd;
+        private int fNbSamples = 0;
+        private int[] fNodeIds = new int[8];
+        private long[] fCounts = new long[8];
+        private int fSize = 0;
+
+        public Bucket(long start) {
+            fStart = start;
+            fEnd = start;
+        }
+    }
+
+    private static class ThreadIndex {
+        private final List<Node> fNodes = new ArrayList<>();
+        private final Map<Object, Node> fRoots = new HashMap<>();
+        private final List<Bucket> fBuckets = new ArrayList<>();
+        /* The position + 1 of each node in the counts of the last bucket */
+        private int[] fSlots = new int[64];
+
+        public Node getNode(@Nullable Node parent, ICallStackSymbol symbol) {
+            Map<Object, Node> siblings;
+            if (parent == null) {
+                siblings = fRoots;
+            } else {
+                siblings = parent.fChildren;
+                if (siblings == null) {
+                    siblings = new HashMap<>();
+                    parent.fChildren = siblings;
+                }
+            }
+            Node node = siblings.get(symbol);
+            if (node == null) {
+                node = new Node(fNodes.size(), symbol, parent);
+                fNodes.add(node);
+                siblings.put(symbol, node);
+                if (fSlots.length < fNodes.size()) {
+                    fSlots = Arrays.copyOf(fSlots, fSlots.length * 2);
+                }
+            }
+            return node;
+        }
+
+        public void count(Bucket bucket, int nodeId, long count) {
+            int slot = fSlots[nodeId] - 1;
+            if (slot >= 0) {
+                bucket.fCounts[slot] += count;
+                return;
+            }
+            if (bucket.fSize == bucket.fNodeIds.length) {
+                bucket.fNodeIds = Arrays.copyOf(bucket.fNodeIds, bucket.fSize * 2);
+                bucket.fCounts = Arrays.copyOf(bucket.fCounts, bucket.fSize * 2);
+            }
+            bucket.fNodeIds[bucket.fSize] = nodeId;
+            bucket.fCounts[bucket.fSize] = count;
+            bucket.fSize++;
+            fSlots[nodeId] = bucket.fSize;
+        }
+
+        public Bucket startBucket(long start) {
+            if (!fBuckets.isEmpty()) {
+                // Trim the previous bucket, its counts do not change anymore
+                Bucket previous = fBuckets.get(fBuckets.size() - 1);
+                for (int i = 0; i < previous.fSize; i++) {
+                    fSlots[previous.fNodeIds[i]] = 0;
+                }
+                previous.fNodeIds = Arrays.copyOf(previous.fNodeIds, previous.fSize);
+                previous.fCounts = Arrays.copyOf(previous.fCounts, previous.fSize);
+            }
+            Bucket bucket = new Bucket(start);
+            fBuckets.add(bucket);
+            return bucket;
+        }
+    }
+
+    private final int fBucketSize;
+    private final LongObjectMap<ThreadIndex> fThreads = new LongObjectMap<>();
+
+    /**
+     * Constructor, with buckets of {@link #DEFAULT_BUCKET_SIZE} samples
+     */
+    public PerfSamplingIndex() {
+        this(DEFAULT_BUCKET_SIZE);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param bucketSize
+     *            The maximum number of samples in a bucket
+     */
+    public PerfSamplingIndex(int bucketSize) {
+        fBucketSize = Math.max(1, bucketSize);
+    }
+
+    /**
+     * Add a sample. The samples of a thread must be added in time order.
+     *
+     * @param tid
+     *            The thread of the sample
+     * @param timestamp
+     *            The time of the sample
+     * @param callsite
+     *            The callsite of the sample, it is not kept so it can still
+     *            be modified by the caller
+     */
+    public void add(int tid, long timestamp, AggregatedCallSite callsite) {
+        ThreadIndex thread = fThreads.get(tid);
+        if (thread == null) {
+            thread = new ThreadIndex();
+            fThreads.put(tid, thread);
+        }
+        List<Bucket> buckets = thread.fBuckets;
+        Bucket bucket = buckets.isEmpty() ? null : buckets.get(buckets.size() - 1);
+        /*
+         * Samples at the same time stay in the same bucket, so that the time
+         * ranges of the buckets do not overlap
+         */
+        if (bucket == null || (bucket.fNbSamples >= fBucketSize && timestamp > bucket.fEnd)) {
+            bucket = thread.startBucket(timestamp);
+        }
+        bucket.fEnd = Math.max(bucket.fEnd, timestamp);
+        bucket.fNbSamples++;
+        addCounts(thread, bucket, null, callsite);
+    }
+
+    /**
+     * Count the weight of a callsite that is not in its callees, at the call
+     * context of the callsite
+     */
+    private static void addCounts(ThreadIndex thread, Bucket bucket, @Nullable Node parent, AggregatedCallSite callsite) {
+        Node node = thread.getNode(parent, callsite.getObject());
+        long selfCount = callsite.getWeight();
+        for (AggregatedCallSite callee : callsite.getCallees()) {
+            selfCount -= callee.getWeight();
+            addCounts(thread, bucket, node, callee);
+        }
+        if (selfCount > 0) {
+            thread.count(bucket, node.fId, selfCount);
+        }
+    }
+
+    /**
+     * Get the callsites of a thread sampled in a time range, aggregated by
+     * their root symbol
+     *
+     * @param tid
+     *            The thread
+     * @param start
+     *            The start of the range
+     * @param end
+     *            The end of the range, inclusive
+     * @param reader
+     *            The reader of the samples of the edge buckets
+     * @return The aggregated callsites, in order of first sample
+     */
+    public Collection<AggregatedCallSite> getSamplingData(int tid, long start, long end, IRangeReader reader) {
+        ThreadIndex thread = fThreads.get(tid);
+        if (thread == null || start > end) {
+            return Collections.emptyList();
+        }
+        List<Bucket> buckets = thread.fBuckets;
+        Map<Object, AggregatedCallSite> sites = new LinkedHashMap<>();
+        // The counts of the consecutive complete buckets, by node
+        long[] counts = new long[thread.fNodes.size()];
+        int[] countedNodes = new int[counts.length];
+        int nbCounted = 0;
+        for (int i = firstBucketEndingAfter(buckets, start); i < buckets.size(); i++) {
+            Bucket bucket = buckets.get(i);
+            if (bucket.fStart > end) {
+                break;
+            }
+            if (start <= bucket.fStart && bucket.fEnd <= end) {
+                for (int j = 0; j < bucket.fSize; j++) {
+                    int nodeId = bucket.fNodeIds[j];
+                    if (counts[nodeId] == 0) {
+                        countedNodes[nbCounted++] = nodeId;
+                    }
+                    counts[nodeId] += bucket.fCounts[j];
+                }
+            } else {
+                // Keep the callsites in order of first sample
+                addCallSites(thread, counts, countedNodes, nbCounted, sites);
+                nbCounted = 0;
+                for (AggregatedCallSite site : reader.read(Math.max(start, bucket.fStart), Math.min(end, bucket.fEnd))) {
+                    merge(sites, site.copyOf());
+                }
+            }
+        }
+        addCallSites(thread, counts, countedNodes, nbCounted, sites);
+        return new ArrayList<>(sites.values());
+    }
+
+    /**
+     * Build the callsites of the counted nodes, merge them with the sites and
+     * reset the counts
+     */
+    private static void addCallSites(ThreadIndex thread, long[] counts, int[] countedNodes, int nbCounted, Map<Object, AggregatedCallSite> sites) {
+        if (nbCounted == 0) {
+            return;
+        }
+        AggregatedCallSite[] callsites = new AggregatedCallSite[counts.length];
+        List<AggregatedCallSite> roots = new ArrayList<>();
+        for (int i = 0; i < nbCounted; i++) {
+            int nodeId = countedNodes[i];
+            long count = counts[nodeId];
+            counts[nodeId] = 0;
+            // Add the count to the call context and all its callers
+            AggregatedCallSite newCallee = null;
+            for (Node node = thread.fNodes.get(nodeId); node != null; node = node.fParent) {
+                AggregatedCallSite callsite = callsites[node.fId];
+                boolean isNew = (callsite == null);
+                if (callsite == null) {
+                    callsite = new AggregatedCallSite(node.fSymbol, 0);
+                    callsites[node.fId] = callsite;
+                    if (node.fParent == null) {
+                        roots.add(callsite);
+                    }
+                }
+                callsite.addToWeight(count);
+                if (newCallee != null) {
+                    callsite.addChild(newCallee);
+                }
+                newCallee = isNew ? callsite : null;
+            }
+        }
+        for (AggregatedCallSite root : roots) {
+            merge(sites, root);
+        }
+    }
+
+    private static int firstBucketEndingAfter(List<Bucket> buckets, long time) {
+        int low = 0;
+        int high = buckets.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (buckets.get(mid).fEnd < time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static void merge(Map<Object, AggregatedCallSite> sites, AggregatedCallSite callsite) {
+        AggregatedCallSite site = sites.get(callsite.getObject());
+        if (site == null) {
+            sites.put(callsite.getObject(), callsite);
+        } else {
+            site.merge(callsite);
+        }
+    }
+}
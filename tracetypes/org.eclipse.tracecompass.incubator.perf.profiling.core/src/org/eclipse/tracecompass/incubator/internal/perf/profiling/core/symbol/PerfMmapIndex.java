@@ -0,0 +1,230 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.perf.profiling.core.symbol;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.incubator.internal.perf.profiling.core.callgraph.LongObjectMap;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
+import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
+import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
+import org.eclipse.tracecompass.tmf.core.symbols.TmfResolvedSymbol;
+
+/**
+ * Time-versioned map of the memory mappings of a process. The base addresses
+ * are sorted, and each base address has the list of files mapped at this
+ * address over time, so the mapping of an address at a time is found with
+ * binary searches instead of querying the state system.
+ */
+public class PerfMmapIndex {
+
+    /** The maximum number of resolved symbols memoized for a mapping */
+    private static final int MAX_MEMOIZED = 1 << 16;
+
+    /**
+     * A file mapped at a base address during a time range
+     */
+    public static class Mapping {
+        private final long fBase;
+        private final long fStart;
+        private long fEnd;
+        private final String fFilename;
+        private final LongObjectMap<TmfResolvedSymbol> fResolved = new LongObjectMap<>();
+
+        /**
+         * Constructor
+         *
+         * @param base
+         *            The base address of the mapping
+         * @param start
+         *            The start time of the mapping
+         * @param end
+         *            The end time of the mapping, inclusive
+         * @param filename
+         *            The mapped file
+         */
+        public Mapping(long base, long start, long end, String filename) {
+            fBase = base;
+            fStart = start;
+            fEnd = end;
+            fFilename = filename;
+        }
+
+        /**
+         * Get the base address of the mapping
+         *
+         * @return The base address
+         */
+        public long getBase() {
+            return fBase;
+        }
+
+        /**
+         * Get the mapped file
+         *
+         * @return The file name
+         */
+        public String getFilename() {
+            return fFilename;
+        }
+
+        /**
+         * Get the memoized symbol of an address in this mapping
+         *
+         * @param address
+         *            The address in the process
+         * @return The symbol, or null if it was not resolved yet
+         */
+        public synchronized @Nullable TmfResolvedSymbol getResolved(long address) {
+            return fResolved.get(address);
+        }
+
+        /**
+         * Memoize the symbol of an address in this mapping
+         *
+         * @param address
+         *            The address in the process
+         * @param symbol
+         *            The resolved symbol
+         */
+        public synchronized void putResolved(long address, TmfResolvedSymbol symbol) {
+            if (fResolved.size() < MAX_MEMOIZED) {
+                fResolved.put(address, symbol);
+            }
+        }
+    }
+
+    private final long[] fBases;
+    private final Mapping[][] fMappings;
+
+    /**
+     * Constructor
+     *
+     * @param mappings
+     *            The mappings of the process, the mappings of a same base
+     *            address should not overlap in time
+     */
+    public PerfMmapIndex(Collection<Mapping> mappings) {
+        Map<Long, List<Mapping>> byBase = new TreeMap<>();
+        for (Mapping mapping : mappings) {
+            byBase.computeIfAbsent(mapping.fBase, b -> new ArrayList<>()).add(mapping);
+        }
+        fBases = new long[byBase.size()];
+        fMappings = new Mapping[byBase.size()][];
+        int i = 0;
+        for (Map.Entry<Long, List<Mapping>> entry : byBase.entrySet()) {
+            List<Mapping> list = entry.getValue();
+            list.sort(Comparator.comparingLong(m -> m.fStart));
+            fBases[i] = entry.getKey();
+            fMappings[i] = list.toArray(new Mapping[list.size()]);
+            i++;
+        }
+    }
+
+    /**
+     * Build the index of a process from the perf mmap state system
+     *
+     * @param ss
+     *            The perf mmap state system, it should be completely built
+     * @param pid
+     *            The process ID
+     * @return The index of the mappings of the process
+     * @throws StateSystemDisposedException
+     *             If the state system is disposed while reading it
+     */
+    public static PerfMmapIndex create(ITmfStateSystem ss, int pid) throws StateSystemDisposedException {
+        int pidQuark = ss.optQuarkAbsolute(String.valueOf(pid));
+        if (pidQuark == ITmfStateSystem.INVALID_ATTRIBUTE) {
+            return new PerfMmapIndex(new ArrayList<>());
+        }
+        List<Integer> baddrQuarks = ss.getSubAttributes(pidQuark, false);
+        List<ITmfStateInterval> intervals = new ArrayList<>();
+        for (ITmfStateInterval interval : ss.query2D(baddrQuarks, ss.getStartTime(), ss.getCurrentEndTime())) {
+            if (interval.getValue() != null) {
+                intervals.add(interval);
+            }
+        }
+        intervals.sort(Comparator.comparingInt(ITmfStateInterval::getAttribute).thenComparingLong(ITmfStateInterval::getStartTime));
+
+        List<Mapping> mappings = new ArrayList<>();
+        @Nullable Mapping last = null;
+        int lastQuark = ITmfStateSystem.INVALID_ATTRIBUTE;
+        for (ITmfStateInterval interval : intervals) {
+            int quark = interval.getAttribute();
+            String filename = String.valueOf(interval.getValue());
+            // Merge the consecutive mappings of the same file
+            if (last != null && quark == lastQuark && last.fEnd + 1 >= interval.getStartTime() && last.fFilename.equals(filename)) {
+                last.fEnd = Math.max(last.fEnd, interval.getEndTime());
+                continue;
+            }
+            last = new Mapping(Long.parseLong(ss.getAttributeName(quark)), interval.getStartTime(), interval.getEndTime(), filename);
+            lastQuark = quark;
+            mappings.add(last);
+        }
+        return new PerfMmapIndex(mappings);
+    }
+
+    /**
+     * Get the mapping that contains an address at a time: the mapping with the
+     * highest base address lower or equal to the address among the mappings
+     * active at this time
+     *
+     * @param timestamp
+     *            The time
+     * @param address
+     *            The address in the process
+     * @return The mapping, or null if no mapping contains the address
+     */
+    public @Nullable Mapping getMapping(long timestamp, long address) {
+        int low = 0;
+        int high = fBases.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (fBases[mid] <= address) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        for (int i = low - 1; i >= 0; i--) {
+            Mapping mapping = getMappingAt(fMappings[i], timestamp);
+            if (mapping != null) {
+                return mapping;
+            }
+        }
+        return null;
+    }
+
+    private static @Nullable Mapping getMappingAt(Mapping[] mappings, long timestamp) {
+        int low = 0;
+        int high = mappings.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (mappings[mid].fStart <= timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        if (low == 0) {
+            return null;
+        }
+        Mapping mapping = mappings[low - 1];
+        return (timestamp <= mapping.fEnd) ? mapping : null;
+    }
+}
@@ -15,18 +15,19 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.NavigableMap;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.incubator.internal.perf.profiling.core.Activator;
+import org.eclipse.tracecompass.incubator.internal.perf.profiling.core.symbol.PerfMmapIndex.Mapping;
 import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
 import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
 import org.eclipse.tracecompass.statesystem.core.exceptions.TimeRangeException;
@@ -43,7 +44,14 @@ public class PerfMmapSymbolProvider implements ISymbolProvider {
 
     private final PerfMmapAnalysisModule fMmapModule;
     private final ITmfTrace fTrace;
-    private final Map<String, IMappingFile> fSymbolMapping = new HashMap<>();
+    /*
+     * The maps are concurrent so the symbols can be resolved by many threads.
+     * The indexes and the mapping files are created outside of the maps, a
+     * thread that creates one that is already there uses the one in the map.
+     */
+    private final Map<String, IMappingFile> fSymbolMapping = new ConcurrentHashMap<>();
+    /** The mappings of each process, once the mmap analysis is complete */
+    private final Map<Integer, PerfMmapIndex> fMmapIndexes = new ConcurrentHashMap<>();
 
     /**
      * Constructor
@@ -71,6 +79,40 @@ public class PerfMmapSymbolProvider implements ISymbolProvider {
         if (stateSystem == null) {
             return null;
         }
+        if (!stateSystem.waitUntilBuilt(0)) {
+            // The mappings may still change, query the state system directly
+            return getSymbolFromStateSystem(stateSystem, pid, timestamp, address);
+        }
+
+        PerfMmapIndex index = fMmapIndexes.get(pid);
+        if (index == null) {
+            try {
+                index = PerfMmapIndex.create(stateSystem, pid);
+            } catch (IndexOutOfBoundsException | TimeRangeException | StateSystemDisposedException e) {
+                Activator.getInstance().logWarning("Exceptions while getting perf mmap symbol", e); //$NON-NLS-1$
+                return getSymbol(address);
+            }
+            PerfMmapIndex existing = fMmapIndexes.putIfAbsent(pid, index);
+            if (existing != null) {
+                index = existing;
+            }
+        }
+        Mapping mapping = index.getMapping(timestamp, address);
+        if (mapping == null) {
+            return null;
+        }
+        TmfResolvedSymbol symbol = mapping.getResolved(address);
+        if (symbol == null) {
+            symbol = getSymbolInFile(pid, mapping.getFilename(), address, mapping.getBase());
+            if (symbol == null) {
+                symbol = new TmfResolvedSymbol(mapping.getBase(), mapping.getFilename());
+            }
+            mapping.putResolved(address, symbol);
+        }
+        return symbol;
+    }
+
+    private @Nullable TmfResolvedSymbol getSymbolFromStateSystem(ITmfStateSystem stateSystem, int pid, long timestamp, long address) {
         // Get the quark for the process
         int pidQuark = stateSystem.optQuarkAbsolute(String.valueOf(pid));
         if (pidQuark == ITmfStateSystem.INVALID_ATTRIBUTE) {
@@ -122,7 +164,10 @@ public class PerfMmapSymbolProvider implements ISymbolProvider {
             if (mappingFile == null) {
                 return null;
             }
-            fSymbolMapping.put(filename, mappingFile);
+            IMappingFile existing = fSymbolMapping.putIfAbsent(filename, mappingFile);
+            if (existing != null) {
+                mappingFile = existing;
+            }
         }
         TmfResolvedSymbol symbolEntry = mappingFile.getSymbolEntry(addressInFile);
         // Return a new symbol entry with address in the process instead of file
@@ -0,0 +1,199 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.system.core.tests.perf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Objects;
+import java.util.Random;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.test.performance.Dimension;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+import org.eclipse.tracecompass.incubator.internal.system.core.analsysis.httpd.HttpdConnectionAnalysis;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
+import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
+import org.eclipse.tracecompass.tmf.core.event.TmfEvent;
+import org.eclipse.tracecompass.tmf.core.exceptions.TmfAnalysisException;
+import org.eclipse.tracecompass.tmf.core.exceptions.TmfTraceException;
+import org.eclipse.tracecompass.tmf.core.signal.TmfTraceOpenedSignal;
+import org.eclipse.tracecompass.tmf.core.tests.shared.TmfTestHelper;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTraceManager;
+import org.eclipse.tracecompass.tmf.tests.stubs.trace.xml.TmfXmlTraceStub;
+import org.eclipse.tracecompass.tmf.tests.stubs.trace.xml.TmfXmlTraceStubNs;
+import org.junit.Test;
+
+/**
+ * Compares the number of attributes, the build time and the size of the
+ * history of the httpd connection analysis, with every key and with only the
+ * top keys having their own attribute, on a synthetic access log of a public
+ * server with many distinct clients
+ */
+public class HttpdConnectionBenchmark {
+
+    /**
+     * Test test ID for the httpd connection benchmarks
+     */
+    public static final String TEST_ID = "org.eclipse.tracecompass.incubator#Httpd connections#";
+
+    private static final String ANALYSIS_ID = "org.eclipse.tracecompass.incubator.internal.system.core.analsysis.httpd.HttpdConnectionAnalysis";
+    private static final int LOOP_COUNT = 3;
+    private static final int NB_REQUESTS = 300_000;
+    private static final int NB_IPS = 200_000;
+    private static final int NB_HEAVY_IPS = 50;
+    private static final int NB_ENDPOINTS = 5_000;
+    private static final int NB_USERS = 20_000;
+
+    private long fTotalBytes;
+
+    private File createTrace() throws IOException {
+        File file = File.createTempFile("httpd", ".xml");
+        Random random = new Random(7);
+        fTotalBytes = 0;
+        try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            writer.write("<trace>\n");
+            for (int i = 0; i < NB_REQUESTS; i++) {
+                // A quarter of the requests come from a few heavy clients
+                int ip = (random.nextInt(4) == 0) ? random.nextInt(NB_HEAVY_IPS) : random.nextInt(NB_IPS);
+                int endpoint = (int) Math.floor(Math.pow(NB_ENDPOINTS, random.nextDouble()));
+                String user = (random.nextInt(2) == 0) ? "-" : "user" + random.nextInt(NB_USERS);
+                long size = 200 + random.nextInt(20000);
+                fTotalBytes += size;
+                writer.write("<event timestamp=\"" + i * 1000L + "\" name=\"HTTPd\">\n");
+                writer.write("<field name=\"IP\" type=\"string\" value=\"10." + (ip >> 16) + '.' + ((ip >> 8) & 0xff) + '.' + (ip & 0xff) + "\" />\n");
+                writer.write("<field name=\"endpoint\" type=\"string\" value=\"/page/" + endpoint + "\" />\n");
+                writer.write("<field name=\"userid\" type=\"string\" value=\"" + user + "\" />\n");
+                writer.write("<field name=\"size (bytes)\" type=\"string\" value=\"" + size + "\" />\n");
+                writer.write("</event>\n");
+            }
+            writer.write("</trace>\n");
+        }
+        return file;
+    }
+
+    /**
+     * Benchmark the analysis with every key having its own attribute
+     *
+     * @throws IOException
+     *             If the trace cannot be created
+     */
+    @Test
+    public void allKeys() throws IOException {
+        runBenchmark("All keys", 0);
+    }
+
+    /**
+     * Benchmark the analysis with the default number of top keys
+     *
+     * @throws IOException
+     *             If the trace cannot be created
+     */
+    @Test
+    public void topKeys() throws IOException {
+        runBenchmark("Top keys", HttpdConnectionAnalysis.DEFAULT_MAX_KEYS);
+    }
+
+    private void runBenchmark(String name, int maxKeys) throws IOException {
+        Performance perf = Performance.getDefault();
+        PerformanceMeter pm = Objects.requireNonNull(perf.createPerformanceMeter(TEST_ID + name));
+        perf.tagAsSummary(pm, "Httpd connections: " + name + " build", Dimension.CPU_TIME);
+
+        File file = createTrace();
+        TmfXmlTraceStub trace = new TmfXmlTraceStubNs();
+        try {
+            IStatus status = trace.validate(null, file.getAbsolutePath());
+            if (!status.isOK()) {
+                fail(status.getException().getMessage());
+            }
+            trace.initTrace(null, file.getAbsolutePath(), TmfEvent.class);
+            trace.traceOpened(new TmfTraceOpenedSignal(this, trace, null));
+
+            long[] history = new long[2];
+            for (int i = 0; i < LOOP_COUNT; i++) {
+                history = buildHistory(trace, maxKeys, pm);
+            }
+            pm.commit();
+            if (maxKeys > 0) {
+                /*
+                 * At most twice the top keys are promoted for each kind and
+                 * combination, and the kinds and promoted keys have an other
+                 * attribute
+                 */
+                long maxAttributes = 3 * (2 + 2L * maxKeys) + 2 * (4L * maxKeys);
+                assertTrue(name + ": " + history[0] + " attributes", history[0] <= maxAttributes);
+                long[] allKeys = buildHistory(trace, 0, null);
+                assertTrue(name + ": " + history[1] + " bytes of history, " + allKeys[1] + " bytes with all the keys", history[1] < allKeys[1]);
+            }
+        } catch (TmfTraceException | TmfAnalysisException | StateSystemDisposedException e) {
+            fail(e.getMessage());
+        } finally {
+            trace.dispose();
+            file.delete();
+            pm.dispose();
+        }
+    }
+
+    /**
+     * Build the analysis and get its number of attributes and the size of its
+     * history file
+     */
+    private long[] buildHistory(ITmfTrace trace, int maxKeys, @Nullable PerformanceMeter pm) throws TmfAnalysisException, StateSystemDisposedException {
+        HttpdConnectionAnalysis module = new HttpdConnectionAnalysis();
+        try {
+            module.setId(ANALYSIS_ID);
+            module.setMaxKeys(maxKeys);
+            assertTrue(module.setTrace(trace));
+            if (pm != null) {
+                pm.start();
+            }
+            assertTrue(TmfTestHelper.executeAnalysis(module));
+            if (pm != null) {
+                pm.stop();
+            }
+
+            ITmfStateSystem ss = module.getStateSystem();
+            assertNotNull(ss);
+            // The IPs and the other IPs account for all the bytes
+            assertEquals(fTotalBytes, getTotal(ss, "ip"));
+            return new long[] { ss.getNbAttributes(), getHistoryFile(trace).length() };
+        } finally {
+            module.dispose();
+            getHistoryFile(trace).delete();
+        }
+    }
+
+    private static long getTotal(ITmfStateSystem ss, String kind) throws StateSystemDisposedException {
+        long total = 0;
+        for (int quark : ss.getQuarks(kind, "*")) {
+            Object value = ss.querySingleState(ss.getCurrentEndTime(), quark).getValue();
+            if (value instanceof Number) {
+                total += ((Number) value).longValue();
+            }
+        }
+        return total;
+    }
+
+    private static File getHistoryFile(ITmfTrace trace) {
+        return new File(TmfTraceManager.getSupplementaryFileDir(trace) + ANALYSIS_ID + ".ht");
+    }
+}
@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.system.core.tests.analysis.httpd;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.eclipse.tracecompass.incubator.internal.system.core.analsysis.httpd.TopKeyTracker;
+import org.junit.Test;
+
+/**
+ * Test the {@link TopKeyTracker}
+ */
+public class TopKeyTrackerTest {
+
+    /**
+     * Test that every key is promoted when there are fewer keys than the
+     * number of top keys
+     */
+    @Test
+    public void testFewKeys() {
+        TopKeyTracker tracker = new TopKeyTracker(10);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(0, tracker.add("key" + i % 10, 5));
+        }
+        assertEquals(10, tracker.getNbPromoted());
+        assertEquals(TopKeyTracker.NOT_PROMOTED, tracker.add("key10", 5));
+        assertFalse(tracker.isPromoted("key10"));
+        assertEquals(5, tracker.getEstimate("key10"));
+    }
+
+    /**
+     * Test that the heavy keys are promoted on a skewed stream of many keys,
+     * that the number of promoted keys is bounded and that the weights moved
+     * from the other keys never exceed the weights of the keys
+     */
+    @Test
+    public void testHeavyKeys() {
+        int nbTopKeys = 20;
+        TopKeyTracker tracker = new TopKeyTracker(nbTopKeys);
+        Random random = new Random(42);
+        Map<String, Long> weights = new HashMap<>();
+        Map<String, Long> counted = new HashMap<>();
+        long other = 0;
+        long total = 0;
+        for (int i = 0; i < 200000; i++) {
+            // The keys below 5 are the heaviest
+            int id = (random.nextInt(4) == 0) ? random.nextInt(5) : random.nextInt(100000);
+            String key = "key" + id;
+            long weight = 1 + random.nextInt(100);
+            weights.merge(key, weight, Long::sum);
+            total += weight;
+            long prior = tracker.add(key, weight);
+            if (prior == TopKeyTracker.NOT_PROMOTED) {
+                other += weight;
+            } else {
+                other -= prior;
+                counted.merge(key, weight + prior, Long::sum);
+            }
+            assertTrue(other >= 0);
+        }
+        assertTrue(tracker.getNbPromoted() <= 2 * nbTopKeys);
+        long sum = other;
+        for (Map.Entry<String, Long> entry : counted.entrySet()) {
+            assertTrue(entry.getValue() <= weights.get(entry.getKey()));
+            sum += entry.getValue();
+        }
+        assertEquals(total, sum);
+        for (int id = 0; id < 5; id++) {
+            assertTrue(tracker.isPromoted("key" + id));
+        }
+    }
+}
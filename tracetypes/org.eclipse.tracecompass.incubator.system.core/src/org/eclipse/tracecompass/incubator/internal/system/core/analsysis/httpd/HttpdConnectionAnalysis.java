@@ -25,9 +25,40 @@ import org.eclipse.tracecompass.tmf.core.statesystem.TmfStateSystemAnalysisModul
  */
 public class HttpdConnectionAnalysis extends TmfStateSystemAnalysisModule {
 
+    /**
+     * The default number of top IPs, endpoints and user IDs that have their
+     * own attribute
+     */
+    public static final int DEFAULT_MAX_KEYS = 1000;
+
+    private int fMaxKeys = DEFAULT_MAX_KEYS;
+
+    /**
+     * Set the number of top keys of each kind (IP, endpoint, user ID and their
+     * combinations with an endpoint) that have their own attribute. It must be
+     * set before the analysis is scheduled. The other keys are counted in an
+     * "other" attribute. A value of 0 gives every key its own attribute, which
+     * is exact but grows with the number of distinct clients.
+     *
+     * @param maxKeys
+     *            The number of top keys, or 0 for no limit
+     */
+    public void setMaxKeys(int maxKeys) {
+        fMaxKeys = Math.max(0, maxKeys);
+    }
+
+    /**
+     * Get the number of top keys of each kind that have their own attribute
+     *
+     * @return The number of top keys, or 0 if there is no limit
+     */
+    public int getMaxKeys() {
+        return fMaxKeys;
+    }
+
     @Override
     protected @NonNull ITmfStateProvider createStateProvider() {
-        return new HttpdConnectionStateProvider(Objects.requireNonNull(getTrace()));
+        return new HttpdConnectionStateProvider(Objects.requireNonNull(getTrace()), fMaxKeys);
     }
 
 }
@@ -14,6 +14,7 @@ package org.eclipse.tracecompass.incubator.internal.system.core.analsysis.httpd;
 import java.util.Objects;
 
 import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.incubator.internal.system.core.Activator;
 import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
 import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
@@ -52,6 +53,24 @@ public class HttpdConnectionStateProvider extends AbstractTmfStateProvider {
 
     private static final String ID = "org.eclipse.tracecompass.incubator.internal.system.core.analsysis.httpd.HttpdConnectionAnalysis"; //$NON-NLS-1$
 
+    /**
+     * Name of the attribute counting the keys that do not have their own
+     * attribute
+     */
+    public static final String OTHER = "<other>"; //$NON-NLS-1$
+
+    private static final String IP = "ip"; //$NON-NLS-1$
+    private static final String ENDPOINT = "endpoint"; //$NON-NLS-1$
+    private static final String USERID = "userid"; //$NON-NLS-1$
+    private static final char KEY_SEPARATOR = '\n';
+
+    private final int fMaxKeys;
+    private final @Nullable TopKeyTracker fIps;
+    private final @Nullable TopKeyTracker fEndpoints;
+    private final @Nullable TopKeyTracker fUserIds;
+    private final @Nullable TopKeyTracker fIpEndpoints;
+    private final @Nullable TopKeyTracker fUserEndpoints;
+
     /**
      * Constructor
      *
@@ -59,17 +78,39 @@ public class HttpdConnectionStateProvider extends AbstractTmfStateProvider {
      *            the trace of the state provider
      */
     public HttpdConnectionStateProvider(ITmfTrace trace) {
+        this(trace, 0);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param trace
+     *            the trace of the state provider
+     * @param maxKeys
+     *            the number of top IPs, endpoints, user IDs and combinations
+     *            with an endpoint that have their own attribute, the other keys
+     *            are counted in an {@link #OTHER} attribute. If 0 or less,
+     *            every key has its own attribute.
+     */
+    public HttpdConnectionStateProvider(ITmfTrace trace, int maxKeys) {
         super(trace, ID);
+        fMaxKeys = maxKeys;
+        boolean bounded = maxKeys > 0;
+        fIps = bounded ? new TopKeyTracker(maxKeys) : null;
+        fEndpoints = bounded ? new TopKeyTracker(maxKeys) : null;
+        fUserIds = bounded ? new TopKeyTracker(maxKeys) : null;
+        fIpEndpoints = bounded ? new TopKeyTracker(maxKeys) : null;
+        fUserEndpoints = bounded ? new TopKeyTracker(maxKeys) : null;
     }
 
     @Override
     public int getVersion() {
-        return 0;
+        return fMaxKeys > 0 ? 1 : 0;
     }
 
     @Override
     public @NonNull ITmfStateProvider getNewInstance() {
-        return new HttpdConnectionStateProvider(Objects.requireNonNull(getTrace()));
+        return new HttpdConnectionStateProvider(Objects.requireNonNull(getTrace()), fMaxKeys);
     }
 
     @Override
@@ -88,10 +129,14 @@ public class HttpdConnectionStateProvider extends AbstractTmfStateProvider {
         int rootQuark = ITmfStateSystem.ROOT_ATTRIBUTE;
         try {
             long bytes = Long.parseLong(size);
-            int ipQuark = ssb.getQuarkRelativeAndAdd(rootQuark, "ip", ip); //$NON-NLS-1$
-            int endpointQuark = ssb.getQuarkRelativeAndAdd(rootQuark, "endpoint", endpoint); //$NON-NLS-1$
+            if (fMaxKeys > 0) {
+                incrementBounded(ssb, event.getTimestamp().toNanos(), ip, endpoint, user, bytes);
+                return;
+            }
+            int ipQuark = ssb.getQuarkRelativeAndAdd(rootQuark, IP, ip);
+            int endpointQuark = ssb.getQuarkRelativeAndAdd(rootQuark, ENDPOINT, endpoint);
             int ipEndpointQuark = ssb.getQuarkRelativeAndAdd(ipQuark, endpoint);
-            int userIdQuark = ssb.getQuarkRelativeAndAdd(rootQuark, "userid", user); //$NON-NLS-1$
+            int userIdQuark = ssb.getQuarkRelativeAndAdd(rootQuark, USERID, user);
             int userEndpointQuark = ssb.getQuarkRelativeAndAdd(userIdQuark, endpoint);
             long nanos = event.getTimestamp().toNanos();
             StateSystemBuilderUtils.incrementAttributeLong(ssb, nanos, ipQuark, bytes);
@@ -103,4 +148,40 @@ public class HttpdConnectionStateProvider extends AbstractTmfStateProvider {
             Activator.getInstance().logInfo("Failed to convert ", e); //$NON-NLS-1$
         }
     }
+
+    private void incrementBounded(ITmfStateSystemBuilder ssb, long nanos, String ip, String endpoint, String user, long bytes) {
+        int rootQuark = ITmfStateSystem.ROOT_ATTRIBUTE;
+        int ipQuark = increment(ssb, nanos, Objects.requireNonNull(fIps), ip, ssb.getQuarkRelativeAndAdd(rootQuark, IP), ip, bytes);
+        increment(ssb, nanos, Objects.requireNonNull(fEndpoints), endpoint, ssb.getQuarkRelativeAndAdd(rootQuark, ENDPOINT), endpoint, bytes);
+        int userIdQuark = increment(ssb, nanos, Objects.requireNonNull(fUserIds), user, ssb.getQuarkRelativeAndAdd(rootQuark, USERID), user, bytes);
+        // The combinations are only detailed under the keys that have their own attribute
+        if (ipQuark != ITmfStateSystem.INVALID_ATTRIBUTE) {
+            increment(ssb, nanos, Objects.requireNonNull(fIpEndpoints), ip + KEY_SEPARATOR + endpoint, ipQuark, endpoint, bytes);
+        }
+        if (userIdQuark != ITmfStateSystem.INVALID_ATTRIBUTE) {
+            increment(ssb, nanos, Objects.requireNonNull(fUserEndpoints), user + KEY_SEPARATOR + endpoint, userIdQuark, endpoint, bytes);
+        }
+    }
+
+    /**
+     * Increment the attribute of a key if it is one of the top keys, or the
+     * {@link #OTHER} attribute otherwise. When a key is promoted, the estimated
+     * weight it had in the other attribute is moved to its attribute.
+     *
+     * @return the quark of the key, or {@link ITmfStateSystem#INVALID_ATTRIBUTE}
+     *         if the key is counted in the other attribute
+     */
+    private static int increment(ITmfStateSystemBuilder ssb, long nanos, TopKeyTracker tracker, String key, int parentQuark, String name, long bytes) {
+        long prior = tracker.add(key, bytes);
+        if (prior == TopKeyTracker.NOT_PROMOTED) {
+            StateSystemBuilderUtils.incrementAttributeLong(ssb, nanos, ssb.getQuarkRelativeAndAdd(parentQuark, OTHER), bytes);
+            return ITmfStateSystem.INVALID_ATTRIBUTE;
+        }
+        if (prior > 0) {
+            StateSystemBuilderUtils.incrementAttributeLong(ssb, nanos, ssb.getQuarkRelativeAndAdd(parentQuark, OTHER), -prior);
+        }
+        int quark = ssb.getQuarkRelativeAndAdd(parentQuark, name);
+        StateSystemBuilderUtils.incrementAttributeLong(ssb, nanos, quark, bytes + prior);
+        return quark;
+    }
 }
@@ -0,0 +1,211 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.system.core.analsysis.httpd;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Tracks online which keys of an unbounded set are heavy enough to get their
+ * own counter, with at most twice the number of top keys promoted.
+ * <p>
+ * The first keys are promoted until the number of top keys is reached, so the
+ * counters are exact when there are few keys. The weights of the other keys
+ * are estimated with a Space-Saving sketch, whose estimates overcount a key by
+ * at most its error. After a warm-up, a key is promoted when its weight is
+ * guaranteed to be more than a share of the total weight, which is about the
+ * error bound of the sketch.
+ */
+public class TopKeyTracker {
+
+    /** Returned by {@link #add} when the key is not promoted */
+    public static final long NOT_PROMOTED = -1;
+
+    /** Number of keys in the sketch for each top key */
+    private static final int SKETCH_FACTOR = 16;
+    /** Number of updates for each top key before promoting heavy keys */
+    private static final int WARMUP_FACTOR = 100;
+
+    private final int fNbTopKeys;
+    private final Set<String> fPromoted = new HashSet<>();
+    private long fTotal = 0;
+    private long fNbUpdates = 0;
+
+    /* Space-Saving sketch of the keys that are not promoted, as a min heap */
+    private final @Nullable String[] fKeys;
+    private final long[] fCounts;
+    private final long[] fErrors;
+    private final Map<String, Integer> fPositions = new HashMap<>();
+    private int fSize = 0;
+
+    /**
+     * Constructor
+     *
+     * @param nbTopKeys
+     *            The number of keys that have their own counter, positive
+     */
+    public TopKeyTracker(int nbTopKeys) {
+        fNbTopKeys = nbTopKeys;
+        int capacity = SKETCH_FACTOR * nbTopKeys;
+        fKeys = new String[capacity];
+        fCounts = new long[capacity];
+        fErrors = new long[capacity];
+    }
+
+    /**
+     * Add the weight of a key
+     *
+     * @param key
+     *            The key
+     * @param weight
+     *            The weight to add, not negative
+     * @return {@link #NOT_PROMOTED} if the weight should be counted in the
+     *         other keys, otherwise the key has its own counter and the value
+     *         is the weight counted in the other keys before the key was
+     *         promoted by this call, 0 if it was already promoted. This weight
+     *         is a lower bound of the weight of the key.
+     */
+    public long add(String key, long weight) {
+        fTotal += weight;
+        fNbUpdates++;
+        if (fPromoted.contains(key)) {
+            return 0;
+        }
+        int pos = update(key, weight);
+        long guaranteed = fCounts[pos] - fErrors[pos];
+        if (fPromoted.size() < fNbTopKeys || (fPromoted.size() < 2 * fNbTopKeys
+                && fNbUpdates > (long) WARMUP_FACTOR * fNbTopKeys
+                && guaranteed > fTotal / ((long) SKETCH_FACTOR * fNbTopKeys))) {
+            remove(pos);
+            fPromoted.add(key);
+            return Math.max(0, guaranteed - weight);
+        }
+        return NOT_PROMOTED;
+    }
+
+    /**
+     * Get whether a key has its own counter
+     *
+     * @param key
+     *            The key
+     * @return Whether the key is promoted
+     */
+    public boolean isPromoted(String key) {
+        return fPromoted.contains(key);
+    }
+
+    /**
+     * Get the estimated weight of a key that is not promoted
+     *
+     * @param key
+     *            The key
+     * @return The estimated weight, an upper bound of the weight of the key
+     *         if it is in the sketch, 0 otherwise
+     */
+    public long getEstimate(String key) {
+        Integer pos = fPositions.get(key);
+        return (pos == null) ? 0 : fCounts[pos];
+    }
+
+    /**
+     * Get the number of promoted keys
+     *
+     * @return The number of keys with their own counter
+     */
+    public int getNbPromoted() {
+        return fPromoted.size();
+    }
+
+    private int update(String key, long weight) {
+        Integer pos = fPositions.get(key);
+        if (pos != null) {
+            fCounts[pos] += weight;
+            return siftDown(pos);
+        }
+        if (fSize < fKeys.length) {
+            // Free slot, the count is exact
+            int newPos = fSize++;
+            set(newPos, key, weight, 0);
+            return siftUp(newPos);
+        }
+        // Replace the key with the smallest count, it may have had this count
+        long min = fCounts[0];
+        fPositions.remove(fKeys[0]);
+        set(0, key, min + weight, min);
+        return siftDown(0);
+    }
+
+    private void remove(int pos) {
+        fPositions.remove(fKeys[pos]);
+        fSize--;
+        if (pos == fSize) {
+            fKeys[pos] = null;
+            return;
+        }
+        set(pos, Objects.requireNonNull(fKeys[fSize]), fCounts[fSize], fErrors[fSize]);
+        fKeys[fSize] = null;
+        siftDown(siftUp(pos));
+    }
+
+    private void set(int pos, String key, long count, long error) {
+        fKeys[pos] = key;
+        fCounts[pos] = count;
+        fErrors[pos] = error;
+        fPositions.put(key, pos);
+    }
+
+    private void swap(int i, int j) {
+        String key = Objects.requireNonNull(fKeys[i]);
+        long count = fCounts[i];
+        long error = fErrors[i];
+        set(i, Objects.requireNonNull(fKeys[j]), fCounts[j], fErrors[j]);
+        set(j, key, count, error);
+    }
+
+    private int siftUp(int pos) {
+        int i = pos;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (fCounts[parent] <= fCounts[i]) {
+                break;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+        return i;
+    }
+
+    private int siftDown(int pos) {
+        int i = pos;
+        while (true) {
+            int smallest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < fSize && fCounts[left] < fCounts[smallest]) {
+                smallest = left;
+            }
+            if (right < fSize && fCounts[right] < fCounts[smallest]) {
+                smallest = right;
+            }
+            if (smallest == i) {
+                return i;
+            }
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.traceevent.core.tests.perf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Objects;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.test.performance.Dimension;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+import org.eclipse.tracecompass.analysis.profiling.core.instrumented.InstrumentedCallStackAnalysis;
+import org.eclipse.tracecompass.incubator.internal.traceevent.core.analysis.callstack.TraceEventCallstackAnalysis;
+import org.eclipse.tracecompass.incubator.internal.traceevent.core.trace.TraceEventTrace;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.exceptions.TmfAnalysisException;
+import org.eclipse.tracecompass.tmf.core.exceptions.TmfTraceException;
+import org.eclipse.tracecompass.tmf.core.tests.shared.TmfTestHelper;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTraceManager;
+import org.junit.Test;
+
+/**
+ * Benchmarks the trace event call stack analysis on a synthetic Chrome trace
+ * of complete ("X") events spread on many threads, so that thousands of
+ * complete events are waiting to be closed at any time
+ */
+public class CompleteEventCallStackBenchmark {
+
+    /**
+     * Test test ID for the complete event benchmarks
+     */
+    public static final String TEST_ID = "org.eclipse.tracecompass.incubator#Trace event complete events#";
+
+    private static final int LOOP_COUNT = 3;
+    private static final int NB_PROCESSES = 100;
+
+    private static File createTrace(int nbThreads, int nbEvents) throws IOException {
+        File file = File.createTempFile("completeEvents", ".json");
+        try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            writer.write("[\n");
+            for (int i = 0; i < nbEvents; i++) {
+                int round = i / nbThreads;
+                int tid = i % nbThreads;
+                // Every fourth event of a thread encloses the next three
+                long duration = (round % 4 == 0) ? 4L * nbThreads - 1 : nbThreads / 2;
+                writer.write((i == 0) ? "" : ",\n");
+                writer.write("{\"cat\":\"bench\",\"pid\":" + tid % NB_PROCESSES + ",\"tid\":" + tid + ",\"ts\":" + i + ",\"ph\":\"X\",\"dur\":" + duration
+                        + ",\"name\":\"" + ((round % 4 == 0) ? "parent" : "child") + "\",\"args\":{}}");
+            }
+            writer.write("\n]\n");
+        }
+        return file;
+    }
+
+    /**
+     * Benchmark complete events on 100 threads
+     *
+     * @throws IOException
+     *             If the trace cannot be created
+     */
+    @Test
+    public void threads100() throws IOException {
+        runBenchmark(100, 1_000_000);
+    }
+
+    /**
+     * Benchmark complete events on 10000 threads
+     *
+     * @throws IOException
+     *             If the trace cannot be created
+     */
+    @Test
+    public void threads10000() throws IOException {
+        runBenchmark(10_000, 1_000_000);
+    }
+
+    private void runBenchmark(int nbThreads, int nbEvents) throws IOException {
+        Performance perf = Performance.getDefault();
+        PerformanceMeter pm = Objects.requireNonNull(perf.createPerformanceMeter(TEST_ID + nbThreads + " threads"));
+        perf.tagAsSummary(pm, "Trace event complete events: " + nbThreads + " threads", Dimension.CPU_TIME);
+
+        File file = createTrace(nbThreads, nbEvents);
+        TraceEventTrace trace = new TraceEventTrace();
+        try {
+            IStatus status = trace.validate(null, file.getAbsolutePath());
+            if (!status.isOK()) {
+                fail(status.getMessage());
+            }
+            trace.initTrace(null, file.getAbsolutePath(), ITmfEvent.class);
+
+            for (int i = 0; i < LOOP_COUNT; i++) {
+                TraceEventCallstackAnalysis module = new TraceEventCallstackAnalysis();
+                try {
+                    module.setId(TraceEventCallstackAnalysis.ID);
+                    assertTrue(module.setTrace(trace));
+                    pm.start();
+                    assertTrue(TmfTestHelper.executeAnalysis(module));
+                    pm.stop();
+
+                    ITmfStateSystem ss = module.getStateSystem();
+                    assertNotNull(ss);
+                    assertEquals(nbThreads, ss.getQuarks("Processes", "*", "*", InstrumentedCallStackAnalysis.CALL_STACK).size());
+                } finally {
+                    module.dispose();
+                    getHistoryFile(trace).delete();
+                }
+            }
+            pm.commit();
+        } catch (TmfTraceException | TmfAnalysisException e) {
+            fail(e.getMessage());
+        } finally {
+            trace.dispose();
+            file.delete();
+        }
+    }
+
+    private static File getHistoryFile(ITmfTrace trace) {
+        return new File(TmfTraceManager.getSupplementaryFileDir(trace) + TraceEventCallstackAnalysis.ID + ".ht");
+    }
+}
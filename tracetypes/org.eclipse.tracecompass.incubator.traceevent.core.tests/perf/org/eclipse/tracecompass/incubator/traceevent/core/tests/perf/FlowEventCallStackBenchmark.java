@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.traceevent.core.tests.perf;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Objects;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.test.performance.Dimension;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+import org.eclipse.tracecompass.incubator.internal.traceevent.core.analysis.callstack.TraceEventCallstackAnalysis;
+import org.eclipse.tracecompass.incubator.internal.traceevent.core.trace.TraceEventTrace;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.exceptions.TmfAnalysisException;
+import org.eclipse.tracecompass.tmf.core.exceptions.TmfTraceException;
+import org.eclipse.tracecompass.tmf.core.tests.shared.TmfTestHelper;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTraceManager;
+import org.junit.Test;
+
+/**
+ * Benchmarks the trace event call stack analysis on a synthetic Chrome trace
+ * with many flow events in flight, each started from a short slice on top of
+ * a deep call stack
+ */
+public class FlowEventCallStackBenchmark {
+
+    /**
+     * Test test ID for the flow event benchmarks
+     */
+    public static final String TEST_ID = "org.eclipse.tracecompass.incubator#Trace event flows#";
+
+    private static final int LOOP_COUNT = 3;
+    private static final int NB_THREADS = 100;
+    private static final int STACK_DEPTH = 100;
+    private static final int NB_FLOWS = 1_000_000;
+
+    private static File createTrace(int nbInFlight) throws IOException {
+        File file = File.createTempFile("flowEvents", ".json");
+        try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            writer.write("[\n");
+            // Every thread runs a deep call stack for the whole trace
+            for (int tid = 0; tid < NB_THREADS; tid++) {
+                for (int depth = 0; depth < STACK_DEPTH; depth++) {
+                    writeEvent(writer, "B", tid, 0, "frame" + depth, null);
+                }
+            }
+            for (int flow = 0; flow < NB_FLOWS + nbInFlight; flow++) {
+                long ts = 10L * (flow + 1);
+                if (flow < NB_FLOWS) {
+                    int tid = flow % NB_THREADS;
+                    writeEvent(writer, "B", tid, ts, "post", null);
+                    writeEvent(writer, "s", tid, ts + 1, "flow", flow);
+                    writeEvent(writer, "E", tid, ts + 2, "post", null);
+                }
+                // The flow started earlier arrives on another thread
+                int arrived = flow - nbInFlight;
+                if (arrived >= 0) {
+                    writeEvent(writer, "f", (arrived + 1) % NB_THREADS, ts + 3, "flow", arrived);
+                }
+            }
+            writer.write("{\"cat\":\"bench\",\"pid\":0,\"tid\":0,\"ts\":" + 10L * (NB_FLOWS + nbInFlight + 1) + ",\"ph\":\"E\",\"name\":\"frame0\",\"args\":{}}\n]\n");
+        }
+        return file;
+    }
+
+    private static void writeEvent(Writer writer, String phase, int tid, long ts, String name, Integer id) throws IOException {
+        writer.write("{\"cat\":\"bench\",\"pid\":0,\"tid\":" + tid + ",\"ts\":" + ts + ",\"ph\":\"" + phase + "\",\"name\":\"" + name + "\","
+                + ((id == null) ? "" : "\"id\":\"" + id + "\",") + "\"args\":{}},\n");
+    }
+
+    /**
+     * Benchmark flows with 100 flows in flight
+     *
+     * @throws IOException
+     *             If the trace cannot be created
+     */
+    @Test
+    public void inFlight100() throws IOException {
+        runBenchmark(100);
+    }
+
+    /**
+     * Benchmark flows with 5000 flows in flight
+     *
+     * @throws IOException
+     *             If the trace cannot be created
+     */
+    @Test
+    public void inFlight5000() throws IOException {
+        runBenchmark(5000);
+    }
+
+    private void runBenchmark(int nbInFlight) throws IOException {
+        Performance perf = Performance.getDefault();
+        PerformanceMeter pm = Objects.requireNonNull(perf.createPerformanceMeter(TEST_ID + nbInFlight + " in flight"));
+        perf.tagAsSummary(pm, "Trace event flows: " + nbInFlight + " in flight", Dimension.CPU_TIME);
+
+        File file = createTrace(nbInFlight);
+        TraceEventTrace trace = new TraceEventTrace();
+        try {
+            IStatus status = trace.validate(null, file.getAbsolutePath());
+            if (!status.isOK()) {
+                fail(status.getMessage());
+            }
+            trace.initTrace(null, file.getAbsolutePath(), ITmfEvent.class);
+
+            for (int i = 0; i < LOOP_COUNT; i++) {
+                TraceEventCallstackAnalysis module = new TraceEventCallstackAnalysis();
+                try {
+                    module.setId(TraceEventCallstackAnalysis.ID);
+                    assertTrue(module.setTrace(trace));
+                    pm.start();
+                    assertTrue(TmfTestHelper.executeAnalysis(module));
+                    pm.stop();
+
+                    ITmfStateSystem ss = module.getStateSystem();
+                    assertNotNull(ss);
+                    // The overlapping edges need about one lane per flow in flight
+                    int nbLanes = ss.getQuarks("EDGES", "*").size();
+                    assertTrue(nbLanes > nbInFlight && nbLanes <= 2 * nbInFlight);
+                } finally {
+                    module.dispose();
+                    getHistoryFile(trace).delete();
+                }
+            }
+            pm.commit();
+        } catch (TmfTraceException | TmfAnalysisException e) {
+            fail(e.getMessage());
+        } finally {
+            trace.dispose();
+            file.delete();
+        }
+    }
+
+    private static File getHistoryFile(ITmfTrace trace) {
+        return new File(TmfTraceManager.getSupplementaryFileDir(trace) + TraceEventCallstackAnalysis.ID + ".ht");
+    }
+}
@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.incubator.internal.traceevent.core.analysis.callstack;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Mirror of the ongoing values of a call stack attribute, pushed and popped
+ * along with the state system, so that the last frame of a function is found
+ * without querying every level of the stack.
+ */
+class OpenCallStack {
+
+    private final List<@Nullable Object> fFrames = new ArrayList<>();
+    /* The indexes of the frames of each value, the last one on top */
+    private final Map<@Nullable Object, Deque<Integer>> fIndexes = new HashMap<>();
+
+    /**
+     * Push a frame on the stack
+     *
+     * @param value
+     *            The value of the frame
+     */
+    public void push(@Nullable Object value) {
+        fIndexes.computeIfAbsent(value, v -> new ArrayDeque<>()).push(fFrames.size());
+        fFrames.add(value);
+    }
+
+    /**
+     * Pop the top frame of the stack, if there is one
+     */
+    public void pop() {
+        if (fFrames.isEmpty()) {
+            return;
+        }
+        Object value = fFrames.remove(fFrames.size() - 1);
+        Deque<Integer> indexes = fIndexes.get(value);
+        if (indexes != null) {
+            indexes.pop();
+            if (indexes.isEmpty()) {
+                fIndexes.remove(value);
+            }
+        }
+    }
+
+    /**
+     * Get the number of frames on the stack
+     *
+     * @return The depth of the stack
+     */
+    public int size() {
+        return fFrames.size();
+    }
+
+    /**
+     * Get the index of the last frame with a value
+     *
+     * @param value
+     *            The value of the frame
+     * @return The index of the frame closest to the top, from 0 at the bottom
+     *         of the stack, or -1 if no frame has this value
+     */
+    public int lastIndexOf(@Nullable Object value) {
+        Deque<Integer> indexes = fIndexes.get(value);
+        if (indexes == null) {
+            return -1;
+        }
+        Integer index = indexes.peek();
+        return (index == null) ? -1 : index;
+    }
+}
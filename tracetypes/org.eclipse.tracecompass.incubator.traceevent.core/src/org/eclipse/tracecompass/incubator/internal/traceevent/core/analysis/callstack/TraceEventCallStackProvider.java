@@ -12,14 +12,11 @@
 package org.eclipse.tracecompass.incubator.internal.traceevent.core.analysis.callstack;
 
 import java.util.ArrayDeque;
-import java.util.ArrayList;
 import java.util.Deque;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Objects;
-import java.util.TreeMap;
+import java.util.PriorityQueue;
 import java.util.function.Function;
 
 import org.apache.commons.lang3.StringUtils;
@@ -76,9 +73,26 @@ public class TraceEventCallStackProvider extends CallStackStateProvider {
     private ITmfTimestamp fSafeTime;
 
     /**
-     * A map of tid/stacks of timestamps
+     * A map of callstack quark/stacks of end times of the complete events
      */
-    private final Map<Integer, Deque<Long>> fStack = new TreeMap<>();
+    private final Map<Integer, Deque<Long>> fStack = new HashMap<>();
+
+    /**
+     * The end times of the tops of the stacks, the smallest first. A stack may
+     * have stale candidates for end times that are not on its top anymore, but
+     * the top of every non-empty stack has a candidate.
+     */
+    private final PriorityQueue<CloseCandidate> fCloseCandidates = new PriorityQueue<>();
+
+    /**
+     * A map of callstack quark/mirror of the ongoing stack
+     */
+    private final Map<Integer, OpenCallStack> fOpenStacks = new HashMap<>();
+
+    /**
+     * The edge lanes, the one that is free since the earliest time first
+     */
+    private final PriorityQueue<EdgeLane> fEdgeLanes = new PriorityQueue<>();
 
     private final ITmfEventAspect<?> fIdAspect;
 
@@ -138,6 +152,36 @@ public class TraceEventCallStackProvider extends CallStackStateProvider {
         }
     }
 
+    private static class CloseCandidate implements Comparable<CloseCandidate> {
+        private final long fEnd;
+        private final int fQuark;
+
+        public CloseCandidate(long end, int quark) {
+            fEnd = end;
+            fQuark = quark;
+        }
+
+        @Override
+        public int compareTo(CloseCandidate other) {
+            return Long.compare(fEnd, other.fEnd);
+        }
+    }
+
+    private static class EdgeLane implements Comparable<EdgeLane> {
+        private final long fFreeTime;
+        private final int fQuark;
+
+        public EdgeLane(long freeTime, int quark) {
+            fFreeTime = freeTime;
+            fQuark = quark;
+        }
+
+        @Override
+        public int compareTo(EdgeLane other) {
+            return Long.compare(fFreeTime, other.fFreeTime);
+        }
+    }
+
     /**
      * Constructor
      *
@@ -304,18 +348,22 @@ public class TraceEventCallStackProvider extends CallStackStateProvider {
     }
 
     private void updateCloseCandidates(ITmfStateSystemBuilder ss, long timestamp) {
-        for (Entry<Integer, Deque<Long>> stackEntry : fStack.entrySet()) {
-            Deque<Long> stack = stackEntry.getValue();
-            if (!stack.isEmpty()) {
-                Long closeCandidate = stack.pop();
-                while (closeCandidate != null && closeCandidate < timestamp) {
-                    ss.popAttribute(closeCandidate, stackEntry.getKey());
-                    closeCandidate = (stack.isEmpty()) ? null : stack.pop();
-                }
-                if (closeCandidate != null) {
-                    stack.push(closeCandidate);
+        CloseCandidate candidate = fCloseCandidates.peek();
+        while (candidate != null && candidate.fEnd < timestamp) {
+            fCloseCandidates.poll();
+            Deque<Long> stack = Objects.requireNonNull(fStack.get(candidate.fQuark));
+            Long top = stack.peek();
+            // Otherwise the candidate is stale, the top has its own candidate
+            if (top != null && top == candidate.fEnd) {
+                stack.pop();
+                ss.popAttribute(candidate.fEnd, candidate.fQuark);
+                getOpenStack(candidate.fQuark).pop();
+                Long next = stack.peek();
+                if (next != null) {
+                    fCloseCandidates.add(new CloseCandidate(next, candidate.fQuark));
                 }
             }
+            candidate = fCloseCandidates.peek();
         }
     }
 
@@ -367,7 +415,7 @@ public class TraceEventCallStackProvider extends CallStackStateProvider {
         }
 
         if (srcHostThread != null) {
-            int edgeQuark = getAvailableEdgeQuark(ss, startTime);
+            int edgeQuark = getAvailableEdgeQuark(ss, startTime, ts);
 
             Object edgeStateValue = new EdgeStateValue(fIdCache.computeIfAbsent(key, FUNCTION), srcHostThread, currHostThread);
             ss.modifyAttribute(startTime, edgeStateValue, edgeQuark);
@@ -395,7 +443,7 @@ public class TraceEventCallStackProvider extends CallStackStateProvider {
         }
 
         if (srcHostThread != null) {
-            int edgeQuark = getAvailableEdgeQuark(ss, startTime);
+            int edgeQuark = getAvailableEdgeQuark(ss, startTime, ts);
 
             Object edgeStateValue = new EdgeStateValue(fIdCache.computeIfAbsent(key, FUNCTION), srcHostThread, currHostThread);
             ss.modifyAttribute(startTime, edgeStateValue, edgeQuark);
@@ -451,31 +499,38 @@ public class TraceEventCallStackProvider extends CallStackStateProvider {
     }
 
     /**
-     * Get an available quark to insert an {@link EdgeStateValue} from startTime to
-     * the current end time. The {@link TmfAttributePool} cannot be used as it
-     * cannot tell that a quark is available for a time range
+     * Get an available quark to insert an {@link EdgeStateValue} from startTime
+     * to endTime. The {@link TmfAttributePool} cannot be used as it cannot tell
+     * that a quark is available for a time range, so the lanes are kept by the
+     * time since which they are free.
      *
      * @param ssb
      *            the {@link ITmfStateSystemBuilder} for this analysis.
      * @param startTime
      *            the start time of the {@link EdgeStateValue}.
+     * @param endTime
+     *            the end time of the {@link EdgeStateValue}, from which the
+     *            quark is available again.
      * @return a quark which is available from start time to now (i.e. its ongoing
      *         value is <code>null</code> and its start time is smaller than the
      *         queried start time).
      */
-    private static int getAvailableEdgeQuark(ITmfStateSystemBuilder ssb, long startTime) {
-        int edgeRoot = ssb.getQuarkAbsoluteAndAdd(EDGES);
-        List<@NonNull Integer> subQuarks = ssb.getSubAttributes(edgeRoot, false);
-
-        for (int quark : subQuarks) {
-            long start = ssb.getOngoingStartTime(quark);
-            Object value = ssb.queryOngoing(quark);
-            if (value == null && start <= startTime) {
-                return quark;
-            }
-        }
+    private int getAvailableEdgeQuark(ITmfStateSystemBuilder ssb, long startTime, long endTime) {
+        EdgeLane lane = fEdgeLanes.peek();
+        int quark;
+        if (lane != null && lane.fFreeTime <= startTime) {
+            fEdgeLanes.poll();
+            quark = lane.fQuark;
+        } else {
+            int edgeRoot = ssb.getQuarkAbsoluteAndAdd(EDGES);
+            quark = ssb.getQuarkRelativeAndAdd(edgeRoot, Integer.toString(fEdgeLanes.size()));
+        }
+        fEdgeLanes.add(new EdgeLane(endTime, quark));
+        return quark;
+    }
 
-        return ssb.getQuarkRelativeAndAdd(edgeRoot, Integer.toString(subQuarks.size()));
+    private OpenCallStack getOpenStack(int callStackQuark) {
+        return fOpenStacks.computeIfAbsent(callStackQuark, q -> new OpenCallStack());
     }
 
     private void handleStart(@NonNull ITmfEvent event, ITmfStateSystemBuilder ss, long timestamp, String processName) {
@@ -494,7 +549,9 @@ public class TraceEventCallStackProvider extends CallStackStateProvider {
             ss.modifyAttribute(timestamp, threadId, threadQuark);
 
             int callStackQuark = ss.getQuarkRelativeAndAdd(threadQuark, InstrumentedCallStackAnalysis.CALL_STACK);
-            ss.pushAttribute(timestamp, functionBeginName.unboxValue(), callStackQuark);
+            Object value = functionBeginName.unboxValue();
+            ss.pushAttribute(timestamp, value, callStackQuark);
+            getOpenStack(callStackQuark).push(value);
             prepareNextSlice(ss, callStackQuark, timestamp);
         }
     }
@@ -522,47 +579,34 @@ public class TraceEventCallStackProvider extends CallStackStateProvider {
             }
             int quark = ss.getQuarkAbsoluteAndAdd(PROCESSES, pName, threadName, InstrumentedCallStackAnalysis.CALL_STACK);
             // The function to end is not necessarily the tip of the stack. Unstack up to function name
-            List<Object> callStack = getCallStack(ss, quark);
+            OpenCallStack callStack = getOpenStack(quark);
+            int size = callStack.size();
             int indexOf = callStack.lastIndexOf(functionExitName);
             // Function not found, just unstack the last one?
             if (indexOf < 0) {
                 if (functionExitName.equals(TraceEventField.UNKNOWN_EXIT_EVENT) || functionExitName.equals(TraceEventField.UNKNOWN_DURATION_EXIT_EVENT)) {
                     // The event has no name, assume the last one in the stack
-                    indexOf = callStack.size() - 1;
+                    indexOf = size - 1;
                 } else {
                     // The event had a name, maybe the beginning was lost, update it in the stack, then pop it
-                    int stackQuark = ss.optQuarkRelative(quark, String.valueOf(callStack.size() + 1));
+                    int stackQuark = ss.optQuarkRelative(quark, String.valueOf(size + 1));
                     if (stackQuark >= 0) {
                         ss.updateOngoingState(functionExitName, stackQuark);
                         ss.pushAttribute(timestamp, (Object) null, quark);
+                        callStack.push(null);
                     }
                     // Pop the last element
-                    indexOf = callStack.size() - 1;
+                    indexOf = size - 1;
                 }
             }
             // Pop all the attributes up to the exiting function
-            for (int i = indexOf; i < callStack.size(); i++) {
+            for (int i = indexOf; i < size; i++) {
                 ss.popAttribute(timestamp, quark);
+                callStack.pop();
             }
         }
     }
 
-    private static List<Object> getCallStack(ITmfStateSystemBuilder ss, int quark) {
-        List<Object> callstackObjects = new ArrayList<>();
-        Integer currentDepth = (Integer) ss.queryOngoing(quark);
-        if (currentDepth == null) {
-            return callstackObjects;
-        }
-        for (int i = 0; i < currentDepth; i++) {
-            int stackQuark = ss.optQuarkRelative(quark, String.valueOf(i + 1));
-            if (stackQuark < 0) {
-                return callstackObjects;
-            }
-            callstackObjects.add(ss.queryOngoing(stackQuark));
-        }
-        return callstackObjects;
-    }
-
     /**
      * This handles phase "complete" elements. They arrive by end time first, some
      * some flipping is being performed.
@@ -597,8 +641,10 @@ public class TraceEventCallStackProvider extends CallStackStateProvider {
 
         int callStackQuark = ss.getQuarkRelativeAndAdd(threadQuark, InstrumentedCallStackAnalysis.CALL_STACK);
         ss.pushAttribute(startTime, event.getName(), callStackQuark);
-        Deque<Long> stack = fStack.computeIfAbsent(callStackQuark, ArrayDeque::new);
+        getOpenStack(callStackQuark).push(event.getName());
+        Deque<Long> stack = fStack.computeIfAbsent(callStackQuark, q -> new ArrayDeque<>());
         stack.push(end);
+        fCloseCandidates.add(new CloseCandidate(end, callStackQuark));
     }
 
 }